@@ -0,0 +1,561 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.collection;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.model.VitamAutoCloseable;
+
+/**
+ * String to String map keeping its entries in memory up to a threshold, then spilling them to a memory mapped table
+ * in a temporary folder, so that very large identifier mappings do not stay on the heap.<br>
+ * <br>
+ * Once spilled, the keys and values are appended to a data file and only a compact open addressing index (record
+ * position and hash, 12 bytes per slot) is memory mapped. The data file is compacted once the records made obsolete
+ * by updates and removals take more than half of it. Iteration order is not specified, as for a HashMap.<br>
+ * <br>
+ * This map is not thread safe. Null keys are not allowed. Do not forget to call {@link #close()} (or
+ * {@link #clear()}) to release the temporary files.
+ */
+public class SpillableStringMap extends AbstractMap<String, String> implements VitamAutoCloseable {
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(SpillableStringMap.class);
+
+    /**
+     * Default number of entries kept in memory before spilling
+     */
+    public static final int DEFAULT_THRESHOLD = 100000;
+    private static final String TMP_PREFIX = "spill_";
+
+    private final File folder;
+    private final int threshold;
+    private Map<String, String> delegate = new HashMap<>();
+    private MappedTable table;
+
+    /**
+     * Constructor with the default threshold
+     *
+     * @param folder the folder where temporary files will be created once spilled
+     */
+    public SpillableStringMap(File folder) {
+        this(folder, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param folder the folder where temporary files will be created once spilled
+     * @param threshold the number of entries kept in memory before spilling
+     * @throws IllegalArgumentException if folder is null or threshold is negative
+     */
+    public SpillableStringMap(File folder, int threshold) {
+        ParametersChecker.checkParameter("Folder is a mandatory parameter", folder);
+        ParametersChecker.checkValue("threshold", threshold, 0);
+        this.folder = folder;
+        this.threshold = threshold;
+    }
+
+    /**
+     * @return True if the entries are no more in memory
+     */
+    public boolean isSpilled() {
+        return table != null;
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return delegate.containsKey(key);
+    }
+
+    @Override
+    public String get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public String put(String key, String value) {
+        ParametersChecker.checkParameter("Key is a mandatory parameter", key);
+        final String previous = delegate.put(key, value);
+        if (table == null && delegate.size() > threshold) {
+            spill();
+        }
+        return previous;
+    }
+
+    @Override
+    public String remove(Object key) {
+        return delegate.remove(key);
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return delegate.entrySet();
+    }
+
+    @Override
+    public void clear() {
+        if (table != null) {
+            table.close();
+            table = null;
+        }
+        delegate = new HashMap<>();
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    /**
+     * Method used for test purpose
+     *
+     * @return the size in bytes of the spilled data file, 0 if not spilled
+     */
+    long getSpilledDataSize() {
+        return table == null ? 0 : table.dataEnd;
+    }
+
+    private void spill() {
+        LOGGER.debug("Spill {} entries to {}", delegate.size(), folder);
+        try {
+            table = new MappedTable(folder, delegate.size() * 2);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (final Entry<String, String> entry : delegate.entrySet()) {
+            table.put(entry.getKey(), entry.getValue());
+        }
+        delegate = table;
+    }
+
+    /**
+     * Off heap table: append only data file of (key length, value length, key, value) records, indexed by a memory
+     * mapped open addressing (linear probing) hash table.
+     */
+    private static final class MappedTable extends AbstractMap<String, String> {
+        // record position + 1 (0 means empty, -1 means deleted) and key hash
+        private static final int SLOT_SIZE = 12;
+        private static final long EMPTY = 0L;
+        private static final long DELETED = -1L;
+        private static final int MAX_CAPACITY = 1 << 27;
+        private static final int MIN_CAPACITY = 1 << 10;
+        private static final int HEADER_SIZE = 8;
+        private static final int NULL_VALUE = -1;
+        // obsolete bytes below which the data file is never compacted
+        private static final long MIN_COMPACTION_SIZE = 1L << 16;
+
+        private final File folder;
+        private File dataFile;
+        private RandomAccessFile dataAccess;
+        private FileChannel data;
+        private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        private long dataEnd;
+        // bytes of the data file used by overwritten or removed records
+        private long obsoleteSize;
+        private File indexFile;
+        private MappedByteBuffer index;
+        private int capacity;
+        private int size;
+        // live and deleted slots
+        private int used;
+
+        MappedTable(File folder, int expected) throws IOException {
+            this.folder = folder;
+            folder.mkdirs();
+            dataFile = File.createTempFile(TMP_PREFIX, ".data", folder);
+            dataAccess = new RandomAccessFile(dataFile, "rw");
+            data = dataAccess.getChannel();
+            int initial = MIN_CAPACITY;
+            while (initial < expected && initial < MAX_CAPACITY) {
+                initial <<= 1;
+            }
+            capacity = initial;
+            indexFile = File.createTempFile(TMP_PREFIX, ".index", folder);
+            index = map(indexFile, capacity);
+        }
+
+        private static MappedByteBuffer map(File file, int capacity) throws IOException {
+            try (RandomAccessFile access = new RandomAccessFile(file, "rw")) {
+                // the mapping stays valid once the channel is closed, new file content is zeroed (EMPTY slots)
+                return access.getChannel().map(MapMode.READ_WRITE, 0, (long) capacity * SLOT_SIZE);
+            }
+        }
+
+        private static int hash(Object key) {
+            final int h = key.hashCode();
+            return h ^ h >>> 16;
+        }
+
+        private long position(int slot) {
+            return index.getLong(slot * SLOT_SIZE);
+        }
+
+        private int slotHash(int slot) {
+            return index.getInt(slot * SLOT_SIZE + 8);
+        }
+
+        private void setSlot(MappedByteBuffer buffer, int slot, long position, int hash) {
+            buffer.putLong(slot * SLOT_SIZE, position);
+            buffer.putInt(slot * SLOT_SIZE + 8, hash);
+        }
+
+        /**
+         * @return the slot of the key if present, else -(free slot) - 1
+         */
+        private int findSlot(String key, int hash) {
+            final int mask = capacity - 1;
+            int freeSlot = -1;
+            int slot = hash & mask;
+            while (true) {
+                final long position = position(slot);
+                if (position == EMPTY) {
+                    return -(freeSlot >= 0 ? freeSlot : slot) - 1;
+                }
+                if (position == DELETED) {
+                    if (freeSlot < 0) {
+                        freeSlot = slot;
+                    }
+                } else if (slotHash(slot) == hash && key.equals(readKey(position - 1))) {
+                    return slot;
+                }
+                slot = slot + 1 & mask;
+            }
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && findSlot((String) key, hash(key)) >= 0;
+        }
+
+        @Override
+        public String get(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+            final int slot = findSlot((String) key, hash(key));
+            return slot >= 0 ? readValue(position(slot) - 1) : null;
+        }
+
+        @Override
+        public String put(String key, String value) {
+            final int hash = hash(key);
+            int slot = findSlot(key, hash);
+            if (slot >= 0) {
+                final long position = position(slot) - 1;
+                final String previous = readValue(position);
+                obsoleteSize += recordSize(position);
+                setSlot(index, slot, append(key, value) + 1, hash);
+                compactIfNeeded();
+                return previous;
+            }
+            slot = -slot - 1;
+            if (position(slot) == EMPTY) {
+                used++;
+            }
+            setSlot(index, slot, append(key, value) + 1, hash);
+            size++;
+            if (used * 2 > capacity) {
+                rehash();
+            }
+            return null;
+        }
+
+        @Override
+        public String remove(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+            final int slot = findSlot((String) key, hash(key));
+            if (slot < 0) {
+                return null;
+            }
+            final String previous = readValue(position(slot) - 1);
+            removeSlot(slot);
+            return previous;
+        }
+
+        private void removeSlot(int slot) {
+            obsoleteSize += recordSize(position(slot) - 1);
+            index.putLong(slot * SLOT_SIZE, DELETED);
+            size--;
+            compactIfNeeded();
+        }
+
+        private void compactIfNeeded() {
+            if (obsoleteSize >= MIN_COMPACTION_SIZE && obsoleteSize * 2 > dataEnd) {
+                compact();
+            }
+        }
+
+        /**
+         * Copy the live records in a new data file and update their positions in place in the index, so that slots
+         * (and so running iterators) are not modified.
+         */
+        private void compact() {
+            LOGGER.debug("Compact {} obsolete bytes of {}", obsoleteSize, dataFile);
+            final File newDataFile;
+            final RandomAccessFile newDataAccess;
+            try {
+                newDataFile = File.createTempFile(TMP_PREFIX, ".data", folder);
+                newDataAccess = new RandomAccessFile(newDataFile, "rw");
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            final FileChannel newData = newDataAccess.getChannel();
+            long newDataEnd = 0;
+            try {
+                for (int slot = 0; slot < capacity; slot++) {
+                    final long position = position(slot);
+                    if (position != EMPTY && position != DELETED) {
+                        final ByteBuffer buffer = ByteBuffer.allocate(recordSize(position - 1));
+                        read(buffer, position - 1);
+                        while (buffer.hasRemaining()) {
+                            newData.write(buffer, newDataEnd + buffer.position());
+                        }
+                        index.putLong(slot * SLOT_SIZE, newDataEnd + 1);
+                        newDataEnd += buffer.limit();
+                    }
+                }
+            } catch (final IOException e) {
+                try {
+                    newDataAccess.close();
+                } catch (final IOException e1) {
+                    LOGGER.warn(e1);
+                }
+                deleteFile(newDataFile);
+                throw new UncheckedIOException(e);
+            }
+            closeData();
+            deleteFile(dataFile);
+            dataFile = newDataFile;
+            dataAccess = newDataAccess;
+            data = newData;
+            dataEnd = newDataEnd;
+            obsoleteSize = 0;
+        }
+
+        private void rehash() {
+            // grow only if deleted slots are not enough to make room
+            final int newCapacity = size * 2 > capacity / 2 && capacity < MAX_CAPACITY ? capacity << 1 : capacity;
+            if (size * 2 > newCapacity) {
+                throw new IllegalStateException("Table is full");
+            }
+            final File newIndexFile;
+            final MappedByteBuffer newIndex;
+            try {
+                newIndexFile = File.createTempFile(TMP_PREFIX, ".index", folder);
+                newIndex = map(newIndexFile, newCapacity);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            final int mask = newCapacity - 1;
+            for (int slot = 0; slot < capacity; slot++) {
+                final long position = position(slot);
+                if (position != EMPTY && position != DELETED) {
+                    final int hash = slotHash(slot);
+                    int newSlot = hash & mask;
+                    while (newIndex.getLong(newSlot * SLOT_SIZE) != EMPTY) {
+                        newSlot = newSlot + 1 & mask;
+                    }
+                    setSlot(newIndex, newSlot, position, hash);
+                }
+            }
+            deleteFile(indexFile);
+            indexFile = newIndexFile;
+            index = newIndex;
+            capacity = newCapacity;
+            used = size;
+        }
+
+        private long append(String key, String value) {
+            final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            final byte[] valueBytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+            final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + keyBytes.length + valueBytes.length);
+            buffer.putInt(keyBytes.length).putInt(value == null ? NULL_VALUE : valueBytes.length).put(keyBytes)
+                .put(valueBytes);
+            buffer.flip();
+            final long position = dataEnd;
+            try {
+                while (buffer.hasRemaining()) {
+                    data.write(buffer, position + buffer.position());
+                }
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            dataEnd += buffer.limit();
+            return position;
+        }
+
+        private void read(ByteBuffer buffer, long position) {
+            try {
+                while (buffer.hasRemaining()) {
+                    if (data.read(buffer, position + buffer.position()) < 0) {
+                        throw new EOFException(dataFile.getPath());
+                    }
+                }
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.flip();
+        }
+
+        private int recordSize(long position) {
+            header.clear();
+            read(header, position);
+            final int keyLength = header.getInt();
+            final int valueLength = header.getInt();
+            return HEADER_SIZE + keyLength + (valueLength == NULL_VALUE ? 0 : valueLength);
+        }
+
+        private String readKey(long position) {
+            header.clear();
+            read(header, position);
+            final ByteBuffer buffer = ByteBuffer.allocate(header.getInt());
+            read(buffer, position + HEADER_SIZE);
+            return new String(buffer.array(), StandardCharsets.UTF_8);
+        }
+
+        private String readValue(long position) {
+            header.clear();
+            read(header, position);
+            final int keyLength = header.getInt();
+            final int valueLength = header.getInt();
+            if (valueLength == NULL_VALUE) {
+                return null;
+            }
+            final ByteBuffer buffer = ByteBuffer.allocate(valueLength);
+            read(buffer, position + HEADER_SIZE + keyLength);
+            return new String(buffer.array(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<Entry<String, String>>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    return new TableIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        void close() {
+            closeData();
+            deleteFile(dataFile);
+            deleteFile(indexFile);
+            index = null;
+        }
+
+        private void closeData() {
+            try {
+                dataAccess.close();
+            } catch (final IOException e) {
+                LOGGER.warn(e);
+            }
+        }
+
+        private static void deleteFile(File file) {
+            if (!file.delete()) {
+                // a mapped file could not be deleted on some systems until unmapped by the GC
+                file.deleteOnExit();
+            }
+        }
+
+        private final class TableIterator implements Iterator<Entry<String, String>> {
+            private int next = -1;
+            private int current = -1;
+
+            TableIterator() {
+                advance();
+            }
+
+            private void advance() {
+                next++;
+                while (next < capacity && (position(next) == EMPTY || position(next) == DELETED)) {
+                    next++;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < capacity;
+            }
+
+            @Override
+            public Entry<String, String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                current = next;
+                advance();
+                final long position = position(current) - 1;
+                return new SimpleImmutableEntry<>(readKey(position), readValue(position));
+            }
+
+            @Override
+            public void remove() {
+                if (current < 0) {
+                    throw new IllegalStateException();
+                }
+                removeSlot(current);
+                current = -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.lru;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+
+import fr.gouv.vitam.common.exception.VitamException;
+
+/**
+ * Threadsafe segmented implementation of LruCache for a high number of threads.<br>
+ * <br>
+ * Keys are spread over independent segments, each one being an LRU LinkedHashMap with its own lock and its own share
+ * of the capacity, so that concurrent accesses to different segments never wait for each other. The eviction order is
+ * therefore the LRU order within a segment, an approximation of the global LRU order.<br>
+ * <br>
+ * Concurrent loads of the same missing key through {@link #get(Object, Callable, long)} call the callback only once,
+ * the other threads waiting for its result. Hits, misses and evictions (by capacity or expiration) are counted.
+ *
+ * @param <K> Key
+ * @param <V> Value
+ */
+public class ConcurrentLruCache<K, V> extends AbstractLruCache<K, V> {
+    /**
+     * Default maximum number of segments
+     */
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    /**
+     * Minimum capacity of a segment, smaller caches using less segments
+     */
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final int capacity;
+    private final Segment<K, V>[] segments;
+    private final Map<K, FutureTask<V>> loadings = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates new ConcurrentLruCache
+     *
+     * @param capacity max cache capacity
+     * @param ttl time to live in milliseconds
+     * @param concurrencyLevel the maximum number of segments
+     * @throws IllegalArgumentException if capacity, ttl or concurrencyLevel is not positive
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentLruCache(int capacity, long ttl, int concurrencyLevel) {
+        super(ttl);
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("concurrencyLevel must be positive");
+        }
+        this.capacity = capacity;
+        // power of 2 segments, each one having at least MIN_SEGMENT_CAPACITY entries
+        final int maxSegments = Math.max(1, Math.min(concurrencyLevel, capacity / MIN_SEGMENT_CAPACITY));
+        final int nbSegments = Integer.highestOneBit(maxSegments);
+        segments = new Segment[nbSegments];
+        for (int i = 0; i < nbSegments; i++) {
+            // the remainder of the capacity is given to the first segments
+            final int segmentCapacity = capacity / nbSegments + (i < capacity % nbSegments ? 1 : 0);
+            segments[i] = new Segment<>(segmentCapacity, evictions);
+        }
+    }
+
+    /**
+     * Creates new ConcurrentLruCache with DEFAULT_CONCURRENCY_LEVEL
+     *
+     * @param capacity max cache capacity
+     * @param ttl time to live in milliseconds
+     * @throws IllegalArgumentException if capacity or ttl is not positive
+     */
+    public ConcurrentLruCache(int capacity, long ttl) {
+        this(capacity, ttl, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        final int hash = key.hashCode();
+        // spread the high bits as ConcurrentHashMap does
+        return segments[(hash ^ hash >>> 16) & segments.length - 1];
+    }
+
+    @Override
+    public void clear() {
+        for (final Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        final V value = getValue(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    @Override
+    protected V getValue(K key) {
+        final Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            final InterfaceLruCacheEntry<V> cacheEntry = segment.get(key);
+            if (cacheEntry == null) {
+                return null;
+            }
+            final V value = cacheEntry.getValue();
+            // autoremove entry from cache if it's not valid
+            if (value == null) {
+                segment.remove(key);
+                evictions.increment();
+            }
+            return value;
+        }
+    }
+
+    @Override
+    public V get(K key, Callable<V> callback, long ttl) throws VitamException {
+        final V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        final FutureTask<V> task = new FutureTask<>(new Callable<V>() {
+            @Override
+            public V call() throws Exception {
+                // the value may have been loaded since the first check
+                final V loaded = getValue(key);
+                return loaded != null ? loaded : callback.call();
+            }
+        });
+        FutureTask<V> loading = loadings.putIfAbsent(key, task);
+        if (loading == null) {
+            loading = task;
+            try {
+                task.run();
+                if (!task.isCancelled()) {
+                    put(key, task.get(), ttl);
+                }
+            } catch (final ExecutionException | InterruptedException e) { // NOSONAR handled below
+                // reported by the common get() below
+            } finally {
+                loadings.remove(key, task);
+            }
+        }
+        try {
+            return loading.get();
+        } catch (final ExecutionException e) {
+            throw new VitamException(e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VitamException(e);
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    protected InterfaceLruCacheEntry<V> getEntry(K key) {
+        final Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    @Override
+    public void updateTtl(K key) {
+        final Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            super.updateTtl(key);
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (final Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    protected void putEntry(K key, InterfaceLruCacheEntry<V> entry) {
+        final Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, entry);
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        final Segment<K, V> segment = segmentFor(key);
+        final InterfaceLruCacheEntry<V> cv;
+        synchronized (segment) {
+            cv = segment.remove(key);
+        }
+        if (cv != null) {
+            return cv.getValue();
+        }
+        return null;
+    }
+
+    @Override
+    public int forceClearOldest() {
+        final long timeRef = System.currentTimeMillis();
+        int nb = 0;
+        for (final Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                final Iterator<InterfaceLruCacheEntry<V>> iterator = segment.values().iterator();
+                while (iterator.hasNext()) {
+                    if (!iterator.next().isStillValid(timeRef)) {
+                        iterator.remove();
+                        nb++;
+                    }
+                }
+            }
+        }
+        evictions.add(nb);
+        return nb;
+    }
+
+    /**
+     * @return the number of segments
+     */
+    int getNbSegments() {
+        return segments.length;
+    }
+
+    /**
+     * @return the number of successful get since the creation of the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of unsuccessful get since the creation of the cache
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of entries removed because of the capacity or the expiration since the creation of the cache
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * LRU segment counting its evictions
+     */
+    private static final class Segment<K, V> extends CapacityLruLinkedHashMap<K, InterfaceLruCacheEntry<V>> {
+        private static final long serialVersionUID = 2651424213585146298L;
+        private final transient LongAdder evictions;
+
+        private Segment(int capacity, LongAdder evictions) {
+            super(capacity, SynchronizedLruCache.DEFAULT_INITIAL_CAPACITY, SynchronizedLruCache.DEFAULT_LOAD_FACTOR);
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, InterfaceLruCacheEntry<V>> eldest) {
+            final boolean remove = super.removeEldestEntry(eldest);
+            if (remove) {
+                evictions.increment();
+            }
+            return remove;
+        }
+    }
+}
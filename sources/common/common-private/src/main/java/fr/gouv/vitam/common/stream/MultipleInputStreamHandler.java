@@ -171,7 +171,8 @@ public class MultipleInputStreamHandler implements VitamAutoCloseable {
         for (int i = 0; i < nbCopy; i++) {
             inputStreams[i].close();
         }
-        executor.shutdown();
+        // the reader may wait for a buffer that will never come back
+        executor.shutdownNow();
     }
 
     /**
@@ -203,7 +204,7 @@ public class MultipleInputStreamHandler implements VitamAutoCloseable {
         private int position;
         private boolean noMoreToRead = false;
         private boolean recursive = false;
-        private boolean closed = false;
+        private volatile boolean closed = false;
 
         private StreamBufferInputStream(MultipleInputStreamHandler mish, int rank) {
             this.mish = mish;
@@ -213,6 +214,17 @@ public class MultipleInputStreamHandler implements VitamAutoCloseable {
 
         private void addToQueue(StreamBuffer buffer) {
             buffers.add(buffer);
+            if (closed) {
+                // Closed copy: the buffer must not wait for this copy to be reused
+                releaseQueue();
+            }
+        }
+
+        private void releaseQueue() {
+            StreamBuffer buffer;
+            while ((buffer = buffers.poll()) != null) {
+                buffer.endOfBufferUsed(mish);
+            }
         }
 
         @Override
@@ -245,11 +257,13 @@ public class MultipleInputStreamHandler implements VitamAutoCloseable {
             if (current.exception != null) {
                 final IOException e = current.exception;
                 current.endOfBufferUsed(mish);
+                current = null;
                 close();
                 throw e;
             }
             if (current.available < 0) {
                 current.endOfBufferUsed(mish);
+                current = null;
                 position = 0;
                 noMoreToRead = true;
                 return -1;
@@ -261,16 +275,22 @@ public class MultipleInputStreamHandler implements VitamAutoCloseable {
         @Override
         public void close() {
             synchronized (this) {
+                if (closed) {
+                    return;
+                }
                 LOGGER.debug("Close: {}", this);
-                buffers.clear();
-                current = null;
+                closed = true;
+                // Release the buffers not yet read by this copy, so that the other copies are not blocked
+                if (current != null) {
+                    current.endOfBufferUsed(mish);
+                    current = null;
+                }
+                releaseQueue();
                 position = 0;
                 noMoreToRead = true;
-                if (mish.active.decrementAndGet() == 0 && !closed) {
-                    closed = true;
+                if (mish.active.decrementAndGet() == 0) {
                     mish.close();
                 }
-                closed = true;
             }
         }
 
@@ -285,7 +305,7 @@ public class MultipleInputStreamHandler implements VitamAutoCloseable {
         public int read() throws IOException {
             final int available = available();
             if (available > 0) {
-                final int value = current.buffer[position++];
+                final int value = current.buffer[position++] & 0xFF;
                 checkEnd();
                 return value;
             } else {
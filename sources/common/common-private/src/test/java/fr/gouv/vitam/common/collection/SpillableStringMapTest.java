@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fr.gouv.vitam.common.json.JsonHandler;
+
+public class SpillableStringMapTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public final void givenFewEntriesThenStayInMemory() throws Exception {
+        final File folder = tempFolder.newFolder();
+        try (SpillableStringMap map = new SpillableStringMap(folder, 10)) {
+            map.put("ID1", "guid1");
+            map.put("ID2", null);
+            assertFalse(map.isSpilled());
+            assertEquals("guid1", map.get("ID1"));
+            assertTrue(map.containsKey("ID2"));
+            assertEquals(0, folder.list().length);
+        }
+    }
+
+    @Test
+    public final void givenManyEntriesThenSpillAndKeepMapContract() throws Exception {
+        final File folder = tempFolder.newFolder();
+        final Map<String, String> reference = new HashMap<>();
+        final SpillableStringMap map = new SpillableStringMap(folder, 10);
+        for (int i = 0; i < 5000; i++) {
+            reference.put("ID" + i, "guid" + i);
+            assertNull(map.put("ID" + i, "guid" + i));
+        }
+        assertTrue(map.isSpilled());
+        assertEquals(2, folder.list().length);
+        assertEquals(reference.size(), map.size());
+        assertEquals("guid42", map.get("ID42"));
+        assertNull(map.get("unknown"));
+        assertNull(map.get(42));
+
+        // update, null value and removal
+        assertEquals("guid42", map.put("ID42", "éà42"));
+        reference.put("ID42", "éà42");
+        map.put("ID43", null);
+        reference.put("ID43", null);
+        assertTrue(map.containsKey("ID43"));
+        assertNull(map.get("ID43"));
+        for (int i = 100; i < 4000; i++) {
+            assertEquals("guid" + i, map.remove("ID" + i));
+            reference.remove("ID" + i);
+        }
+        assertNull(map.remove("ID100"));
+        // reuse of deleted slots
+        for (int i = 5000; i < 6000; i++) {
+            reference.put("ID" + i, "guid" + i);
+            map.put("ID" + i, "guid" + i);
+        }
+        assertEquals(reference, map);
+        assertTrue(map.containsValue("éà42"));
+
+        // iterator removal
+        final Iterator<Entry<String, String>> iterator = map.entrySet().iterator();
+        final Entry<String, String> first = iterator.next();
+        iterator.remove();
+        reference.remove(first.getKey());
+        assertEquals(reference, map);
+
+        // serialized as a classical map
+        assertEquals(JsonHandler.getFromString(JsonHandler.writeAsString(reference)),
+            JsonHandler.getFromString(JsonHandler.writeAsString(map)));
+
+        map.close();
+        assertFalse(map.isSpilled());
+        assertTrue(map.isEmpty());
+        assertEquals(0, folder.list().length);
+    }
+
+    @Test
+    public final void givenManyUpdatesThenCompactDataFile() throws Exception {
+        final File folder = tempFolder.newFolder();
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            value.append('v');
+        }
+        try (SpillableStringMap map = new SpillableStringMap(folder, 10)) {
+            for (int i = 0; i < 100; i++) {
+                map.put("ID" + i, value + "0");
+            }
+            final long initialSize = map.getSpilledDataSize();
+            for (int round = 1; round <= 100; round++) {
+                for (int i = 0; i < 100; i++) {
+                    map.put("ID" + i, value.toString() + round);
+                }
+            }
+            // 100 rounds of updates would make the data file 100 times bigger without compaction
+            assertTrue(map.getSpilledDataSize() < 4 * initialSize + (1L << 16));
+            assertEquals(2, folder.list().length);
+            assertEquals(100, map.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(value + "100", map.get("ID" + i));
+            }
+
+            // removal also makes records obsolete
+            final Iterator<Entry<String, String>> iterator = map.entrySet().iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                count++;
+            }
+            assertEquals(100, count);
+            assertTrue(map.isEmpty());
+        }
+        assertEquals(0, folder.list().length);
+    }
+
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.lru;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import fr.gouv.vitam.common.ResourcesPrivateUtilTest;
+import fr.gouv.vitam.common.exception.VitamException;
+
+public class ConcurrentLruCacheTest {
+    private static final Integer ONE = new Integer(1);
+    private static final Integer TWO = new Integer(2);
+    private static final Integer THREE = new Integer(3);
+
+    @Test
+    public final void testSmallCache() throws InterruptedException {
+        final ConcurrentLruCache<String, Integer> cache = new ConcurrentLruCache<>(2, 100);
+        assertEquals(100, cache.getTtl());
+        assertEquals(2, cache.getCapacity());
+        assertEquals(1, cache.getNbSegments());
+        cache.put("key", 1);
+        assertEquals(ONE, cache.get("key"));
+        assertTrue(cache.contains("key"));
+        cache.put("key2", 2);
+        assertEquals(TWO, cache.get("key2"));
+        assertEquals(2, cache.size());
+        cache.put("key3", 3);
+        assertEquals(THREE, cache.get("key3"));
+        assertEquals(2, cache.size());
+        assertNull(cache.get("key"));
+        assertEquals(1, cache.getEvictionCount());
+        Thread.sleep(200);
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.forceClearOldest());
+        assertEquals(0, cache.size());
+        assertEquals(3, cache.getEvictionCount());
+        cache.put("key", 1);
+        assertEquals(ONE, cache.remove("key"));
+        assertTrue(cache.isEmpty());
+        cache.put("key", 1);
+        cache.clear();
+        assertTrue(cache.isEmpty());
+        cache.setNewTtl(10);
+        cache.put("key", 1);
+        Thread.sleep(20);
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.size());
+        assertEquals(4, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public final void testSegmentedCapacity() {
+        final ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(1000, 10000, 8);
+        assertEquals(8, cache.getNbSegments());
+        assertEquals(1000, cache.getCapacity());
+        for (int i = 0; i < 2000; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(1000, cache.size());
+        assertEquals(1000, cache.getEvictionCount());
+        // the most recent entries are kept
+        assertEquals(Integer.valueOf(1999), cache.get(1999));
+        assertEquals(ConcurrentLruCache.DEFAULT_CONCURRENCY_LEVEL,
+            new ConcurrentLruCache<Integer, Integer>(1000, 10000).getNbSegments());
+    }
+
+    @Test
+    public final void testConcurrentLoadCallsCallbackOnce() throws Exception {
+        final ConcurrentLruCache<String, Integer> cache = new ConcurrentLruCache<>(100, 10000);
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Callable<Integer> callback = new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                calls.incrementAndGet();
+                latch.await(10, TimeUnit.SECONDS);
+                return ONE;
+            }
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        return cache.get("key", callback);
+                    }
+                }));
+            }
+            Thread.sleep(100);
+            latch.countDown();
+            for (final Future<Integer> future : futures) {
+                assertEquals(ONE, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(ONE, cache.get("key"));
+    }
+
+    @Test
+    public final void testLoadError() {
+        final ConcurrentLruCache<String, Integer> cache = new ConcurrentLruCache<>(100, 10000);
+        try {
+            cache.get("key", new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    throw new IllegalStateException("error");
+                }
+            });
+            fail(ResourcesPrivateUtilTest.SHOULD_RAIZED_AN_EXCEPTION);
+        } catch (final VitamException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    public final void testError() {
+        try {
+            new ConcurrentLruCache<String, Integer>(0, 100);
+            fail(ResourcesPrivateUtilTest.SHOULD_RAIZED_AN_EXCEPTION);
+        } catch (final IllegalArgumentException e) {// NOSONAR
+            // Ignore
+        }
+        try {
+            new ConcurrentLruCache<String, Integer>(2, 100, 0);
+            fail(ResourcesPrivateUtilTest.SHOULD_RAIZED_AN_EXCEPTION);
+        } catch (final IllegalArgumentException e) {// NOSONAR
+            // Ignore
+        }
+    }
+}
@@ -28,6 +28,7 @@ package fr.gouv.vitam.common.stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
@@ -315,4 +316,27 @@ public class MultipleInputStreamHandlerTest {
         }
     }
 
+    @Test
+    public void testOneCloseBeforeEndDoesNotBlockOthers() throws Exception {
+        final int size = 8192;
+        final int nb = 3;
+        try (FakeInputStream fakeInputStream = new FakeInputStream(INPUTSTREAM_SIZE * 10, true);
+            MultipleInputStreamHandler mish = new MultipleInputStreamHandler(fakeInputStream, nb)) {
+            final long[] total = new long[nb];
+            // first copy given up after one read, as a failing offer would do
+            final InputStream first = mish.getInputStream(0);
+            first.read(new byte[size]);
+            first.close();
+            final ExecutorService executor = Executors.newFixedThreadPool(nb - 1);
+            for (int i = 1; i < nb; i++) {
+                executor.execute(new ThreadReader(i, total, mish.getInputStream(i), size));
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10000, TimeUnit.MILLISECONDS));
+            for (int i = 1; i < nb; i++) {
+                assertEquals("rank: " + i, INPUTSTREAM_SIZE * 10, total[i]);
+            }
+        }
+    }
+
 }
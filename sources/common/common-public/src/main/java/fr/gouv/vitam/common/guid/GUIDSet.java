@@ -0,0 +1,491 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.guid;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Set of ids optimized for GUIDs<br>
+ * <br>
+ * The ids that are the Base32 form of a GUID (as returned by {@link GUID#getId()}) are kept in their binary form, as 3
+ * longs in an open addressing table, instead of a String of 36 chars and its HashMap entry. They are converted back to
+ * String only when iterated. Any other String is kept as is.<br>
+ * <br>
+ * Union ({@link #addAll(Collection)}), intersection ({@link #retainAll(Collection)}) and inclusion
+ * ({@link #containsAll(Collection)}) between two GUIDSet do not convert any id.<br>
+ * <br>
+ * Like HashSet, this implementation is not synchronized.
+ */
+public class GUIDSet extends AbstractSet<String> {
+    private static final char[] BASE32_ALPHABET = "abcdefghijklmnopqrstuvwxyz234567".toCharArray();
+    private static final byte[] BASE32_VALUES = new byte[128];
+    private static final int BASE32_BITS = 5;
+    private static final int BASE32_MASK = 0x1F;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int BYTES_PER_WORD = 8;
+    private static final int LAST_WORD_BYTES = GUIDImpl.KEYSIZE - 2 * BYTES_PER_WORD;
+    /**
+     * Number of longs per entry
+     */
+    private static final int WORDS = 3;
+    private static final int MIN_CAPACITY = 16;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+    /**
+     * The first word of a GUID is never 0 (version), so 0 marks a free slot, empty if the last word is 0, removed
+     * otherwise
+     */
+    private static final long FREE = 0L;
+    private static final long REMOVED = 1L;
+
+    static {
+        Arrays.fill(BASE32_VALUES, (byte) -1);
+        for (int i = 0; i < BASE32_ALPHABET.length; i++) {
+            BASE32_VALUES[BASE32_ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private long[] table;
+    /**
+     * Number of GUIDs in the table
+     */
+    private int size;
+    /**
+     * Number of non free slots (GUIDs and removed ones)
+     */
+    private int used;
+    /**
+     * Ids that are not GUIDs
+     */
+    private Set<String> others;
+
+    /**
+     * Empty constructor
+     */
+    public GUIDSet() {
+        // Empty
+    }
+
+    /**
+     * Constructor with an expected number of ids
+     *
+     * @param expectedSize the expected number of ids
+     */
+    public GUIDSet(int expectedSize) {
+        ensureCapacity(expectedSize);
+    }
+
+    /**
+     * Constructor from a collection of ids
+     *
+     * @param ids the ids to add
+     */
+    public GUIDSet(Collection<String> ids) {
+        this(ids.size());
+        addAll(ids);
+    }
+
+    @Override
+    public int size() {
+        return size + (others == null ? 0 : others.size());
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        final long[] words = new long[WORDS];
+        if (decode((String) o, words)) {
+            return find(words[0], words[1], words[2]) >= 0;
+        }
+        return others != null && others.contains(o);
+    }
+
+    @Override
+    public boolean add(String id) {
+        final long[] words = new long[WORDS];
+        if (decode(id, words)) {
+            return addBinary(words[0], words[1], words[2]);
+        }
+        if (others == null) {
+            others = new HashSet<>();
+        }
+        return others.add(id);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        final long[] words = new long[WORDS];
+        if (decode((String) o, words)) {
+            final int slot = find(words[0], words[1], words[2]);
+            if (slot < 0) {
+                return false;
+            }
+            removeSlot(slot);
+            return true;
+        }
+        return others != null && others.remove(o);
+    }
+
+    @Override
+    public void clear() {
+        table = null;
+        size = 0;
+        used = 0;
+        others = null;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends String> c) {
+        if (!(c instanceof GUIDSet)) {
+            ensureCapacity(size + c.size());
+            return super.addAll(c);
+        }
+        final GUIDSet other = (GUIDSet) c;
+        ensureCapacity(size + other.size);
+        boolean modified = false;
+        if (other.table != null) {
+            for (int pos = 0; pos < other.table.length; pos += WORDS) {
+                if (other.table[pos] != FREE &&
+                    addBinary(other.table[pos], other.table[pos + 1], other.table[pos + 2])) {
+                    modified = true;
+                }
+            }
+        }
+        if (other.others != null && !other.others.isEmpty()) {
+            if (others == null) {
+                others = new HashSet<>();
+            }
+            modified |= others.addAll(other.others);
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (!(c instanceof GUIDSet)) {
+            return super.retainAll(c);
+        }
+        final GUIDSet other = (GUIDSet) c;
+        boolean modified = false;
+        if (table != null) {
+            for (int pos = 0; pos < table.length; pos += WORDS) {
+                if (table[pos] != FREE && other.find(table[pos], table[pos + 1], table[pos + 2]) < 0) {
+                    removeSlot(pos / WORDS);
+                    modified = true;
+                }
+            }
+        }
+        if (others != null && !others.isEmpty()) {
+            if (other.others == null) {
+                others = null;
+                modified = true;
+            } else {
+                modified |= others.retainAll(other.others);
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (!(c instanceof GUIDSet)) {
+            return super.containsAll(c);
+        }
+        final GUIDSet other = (GUIDSet) c;
+        if (other.size > size) {
+            return false;
+        }
+        if (other.table != null) {
+            for (int pos = 0; pos < other.table.length; pos += WORDS) {
+                if (other.table[pos] != FREE &&
+                    find(other.table[pos], other.table[pos + 1], other.table[pos + 2]) < 0) {
+                    return false;
+                }
+            }
+        }
+        if (other.others == null || other.others.isEmpty()) {
+            return true;
+        }
+        return others != null && others.containsAll(other.others);
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new GUIDSetIterator();
+    }
+
+    /**
+     * Iterator converting the GUIDs to String one at a time
+     */
+    private final class GUIDSetIterator implements Iterator<String> {
+        private int nextSlot;
+        private int lastSlot = -1;
+        private Iterator<String> othersIterator;
+        /**
+         * True if the last element returned comes from the others, which may be iterated before the last element
+         * of the table is removed
+         */
+        private boolean lastFromOthers;
+
+        private GUIDSetIterator() {
+            nextSlot = nextUsedSlot(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextSlot >= 0) {
+                return true;
+            }
+            if (othersIterator == null) {
+                if (others == null) {
+                    return false;
+                }
+                othersIterator = others.iterator();
+            }
+            return othersIterator.hasNext();
+        }
+
+        @Override
+        public String next() {
+            if (nextSlot >= 0) {
+                lastFromOthers = false;
+                lastSlot = nextSlot;
+                nextSlot = nextUsedSlot(nextSlot + 1);
+                final int pos = lastSlot * WORDS;
+                return encode(table[pos], table[pos + 1], table[pos + 2]);
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastSlot = -1;
+            lastFromOthers = true;
+            return othersIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if (lastFromOthers) {
+                othersIterator.remove();
+                return;
+            }
+            if (lastSlot < 0) {
+                throw new IllegalStateException();
+            }
+            // removed slots are only marked, the next slots do not move
+            removeSlot(lastSlot);
+            lastSlot = -1;
+        }
+    }
+
+    private int nextUsedSlot(int from) {
+        if (table != null) {
+            for (int pos = from * WORDS; pos < table.length; pos += WORDS) {
+                if (table[pos] != FREE) {
+                    return pos / WORDS;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int find(long hi, long mid, long lo) {
+        if (table == null) {
+            return -1;
+        }
+        final int mask = table.length / WORDS - 1;
+        int slot = hash(hi, mid, lo) & mask;
+        while (true) {
+            final int pos = slot * WORDS;
+            if (table[pos] == FREE) {
+                if (table[pos + 2] != REMOVED) {
+                    return -1;
+                }
+            } else if (table[pos] == hi && table[pos + 1] == mid && table[pos + 2] == lo) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean addBinary(long hi, long mid, long lo) {
+        if (table == null) {
+            ensureCapacity(1);
+        }
+        final int mask = table.length / WORDS - 1;
+        int slot = hash(hi, mid, lo) & mask;
+        int removedSlot = -1;
+        while (true) {
+            final int pos = slot * WORDS;
+            if (table[pos] == FREE) {
+                if (table[pos + 2] != REMOVED) {
+                    break;
+                }
+                if (removedSlot < 0) {
+                    removedSlot = slot;
+                }
+            } else if (table[pos] == hi && table[pos + 1] == mid && table[pos + 2] == lo) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (removedSlot >= 0) {
+            slot = removedSlot;
+        } else {
+            used++;
+        }
+        final int pos = slot * WORDS;
+        table[pos] = hi;
+        table[pos + 1] = mid;
+        table[pos + 2] = lo;
+        size++;
+        if (used > threshold(table.length / WORDS)) {
+            rehash(capacityFor(size));
+        }
+        return true;
+    }
+
+    private void removeSlot(int slot) {
+        final int pos = slot * WORDS;
+        table[pos] = FREE;
+        table[pos + 1] = FREE;
+        table[pos + 2] = REMOVED;
+        size--;
+    }
+
+    private void ensureCapacity(int expectedSize) {
+        final int capacity = capacityFor(expectedSize);
+        if (table == null) {
+            if (expectedSize > 0) {
+                table = new long[capacity * WORDS];
+            }
+        } else if (capacity > table.length / WORDS) {
+            rehash(capacity);
+        }
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldTable = table;
+        table = new long[capacity * WORDS];
+        size = 0;
+        used = 0;
+        for (int pos = 0; pos < oldTable.length; pos += WORDS) {
+            if (oldTable[pos] != FREE) {
+                addBinary(oldTable[pos], oldTable[pos + 1], oldTable[pos + 2]);
+            }
+        }
+    }
+
+    /**
+     * @param capacity number of slots
+     * @return the maximum number of non free slots (load factor 0.75)
+     */
+    private static int threshold(int capacity) {
+        return capacity - (capacity >>> 2);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (threshold(capacity) < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(long hi, long mid, long lo) {
+        long hash = (hi * GOLDEN_RATIO + mid) * GOLDEN_RATIO + lo;
+        hash *= GOLDEN_RATIO;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Decode a Base32 GUID into 3 longs: bytes 0 to 7, 8 to 15 and 16 to 21 of the GUID
+     *
+     * @param id the id
+     * @param words the array of 3 longs to fill
+     * @return False if the id is not the Base32 form of a GUID, and so must be kept as a String
+     */
+    private static boolean decode(String id, long[] words) {
+        if (id == null || id.length() != GUIDImpl.KEYB32SIZE) {
+            return false;
+        }
+        words[0] = 0;
+        words[1] = 0;
+        words[2] = 0;
+        long buffer = 0;
+        int bits = 0;
+        int nbBytes = 0;
+        for (int i = 0; i < GUIDImpl.KEYB32SIZE; i++) {
+            final char c = id.charAt(i);
+            final int value = c < BASE32_VALUES.length ? BASE32_VALUES[c] : -1;
+            if (value < 0) {
+                return false;
+            }
+            buffer = buffer << BASE32_BITS | value;
+            bits += BASE32_BITS;
+            if (bits >= Byte.SIZE) {
+                bits -= Byte.SIZE;
+                final int word = nbBytes / BYTES_PER_WORD;
+                words[word] = words[word] << Byte.SIZE | (buffer >>> bits) & BYTE_MASK;
+                nbBytes++;
+            }
+        }
+        // the remaining bits are padding: they must be 0 for the String to be the one of the GUID
+        return (buffer & ((1 << bits) - 1)) == 0 && words[0] != FREE;
+    }
+
+    private static String encode(long hi, long mid, long lo) {
+        final char[] chars = new char[GUIDImpl.KEYB32SIZE];
+        long buffer = 0;
+        int bits = 0;
+        int nbChars = 0;
+        for (int i = 0; i < GUIDImpl.KEYSIZE; i++) {
+            final long word = i < BYTES_PER_WORD ? hi : i < 2 * BYTES_PER_WORD ? mid : lo;
+            final int bytesInWord = i < 2 * BYTES_PER_WORD ? BYTES_PER_WORD : LAST_WORD_BYTES;
+            final int shift = (bytesInWord - 1 - i % BYTES_PER_WORD) * Byte.SIZE;
+            buffer = buffer << Byte.SIZE | (word >>> shift) & BYTE_MASK;
+            bits += Byte.SIZE;
+            while (bits >= BASE32_BITS) {
+                bits -= BASE32_BITS;
+                chars[nbChars++] = BASE32_ALPHABET[(int) (buffer >>> bits) & BASE32_MASK];
+            }
+        }
+        if (bits > 0) {
+            chars[nbChars] = BASE32_ALPHABET[(int) (buffer << (BASE32_BITS - bits)) & BASE32_MASK];
+        }
+        return new String(chars);
+    }
+}
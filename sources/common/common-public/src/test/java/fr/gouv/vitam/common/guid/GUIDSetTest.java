@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.guid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class GUIDSetTest {
+    private static final String BASE32 = "aeaqaaaaaet33ntwablhaaku6z67pzqaaaaq";
+
+    private static List<String> newIds(Random random, int nb) throws Exception {
+        final List<String> ids = new ArrayList<>(nb);
+        final byte[] bytes = new byte[GUIDImpl.KEYSIZE];
+        for (int i = 0; i < nb; i++) {
+            random.nextBytes(bytes);
+            bytes[0] = (byte) GUIDImpl.VERSION;
+            ids.add(new GUIDImpl(bytes).getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void givenGuidAndOtherIdsWhenAddThenSameAsHashSet() throws Exception {
+        final GUIDSet set = new GUIDSet();
+        assertTrue(set.isEmpty());
+        // GUID, GUID not in canonical form, non GUID ids
+        final List<String> ids = Arrays.asList(BASE32, BASE32.toUpperCase(), "aeaqaaaaaet33ntwablhaaku6z67pzqaaaar",
+            "id1", "", "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+        for (final String id : ids) {
+            assertTrue(set.add(id));
+            assertFalse(set.add(id));
+        }
+        assertEquals(new HashSet<>(ids), set);
+        assertEquals(new HashSet<>(ids).hashCode(), set.hashCode());
+        assertTrue(set.contains(BASE32));
+        assertFalse(set.contains(null));
+        assertFalse(set.contains(1));
+        assertTrue(set.remove(BASE32));
+        assertTrue(set.remove("id1"));
+        assertFalse(set.remove(BASE32));
+        assertEquals(ids.size() - 2, set.size());
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.iterator().hasNext());
+    }
+
+    @Test
+    public void givenGuidAndOtherIdWhenHasNextBeforeRemoveThenLastReturnedIsRemoved() throws Exception {
+        final GUIDSet set = new GUIDSet();
+        set.add(BASE32);
+        set.add("id1");
+        final Iterator<String> iterator = set.iterator();
+        assertEquals(BASE32, iterator.next());
+        // the guids of the table are exhausted: the other ids are now iterated
+        assertTrue(iterator.hasNext());
+        iterator.remove();
+        assertFalse(set.contains(BASE32));
+        assertTrue(set.contains("id1"));
+        assertEquals("id1", iterator.next());
+        assertFalse(iterator.hasNext());
+        iterator.remove();
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void givenManyGuidsWhenAddRemoveThenSameAsHashSet() throws Exception {
+        final Random random = new Random(12345);
+        final List<String> ids = newIds(random, 10000);
+        final GUIDSet set = new GUIDSet();
+        final Set<String> reference = new HashSet<>();
+        for (int i = 0; i < 50000; i++) {
+            final String id = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(3) == 0) {
+                assertEquals(reference.remove(id), set.remove(id));
+            } else {
+                assertEquals(reference.add(id), set.add(id));
+            }
+        }
+        assertEquals(reference.size(), set.size());
+        assertEquals(reference, set);
+        assertEquals(set, reference);
+        // removing while iterating
+        final Iterator<String> iterator = set.iterator();
+        while (iterator.hasNext()) {
+            final String id = iterator.next();
+            if (id.hashCode() % 2 == 0) {
+                iterator.remove();
+                reference.remove(id);
+            }
+        }
+        assertEquals(reference, set);
+    }
+
+    @Test
+    public void givenTwoGuidSetsWhenUnionAndIntersectionThenSameAsHashSet() throws Exception {
+        final List<String> ids = newIds(new Random(54321), 1000);
+        final GUIDSet first = new GUIDSet(ids.subList(0, 600));
+        first.add("other1");
+        first.add("other2");
+        final GUIDSet second = new GUIDSet(ids.subList(400, 1000));
+        second.add("other2");
+
+        final GUIDSet union = new GUIDSet(first);
+        assertTrue(union.addAll(second));
+        assertFalse(union.addAll(second));
+        assertEquals(1002, union.size());
+        assertTrue(union.containsAll(first));
+        assertTrue(union.containsAll(second));
+        assertFalse(first.containsAll(union));
+
+        final GUIDSet intersection = new GUIDSet(first);
+        assertTrue(intersection.retainAll(second));
+        final Set<String> reference = new HashSet<>(first);
+        reference.retainAll(new HashSet<>(second));
+        assertEquals(reference, intersection);
+        assertEquals(201, intersection.size());
+
+        // with another kind of collection
+        final GUIDSet retained = new GUIDSet(first);
+        assertTrue(retained.retainAll(new HashSet<>(second)));
+        assertEquals(reference, retained);
+    }
+}
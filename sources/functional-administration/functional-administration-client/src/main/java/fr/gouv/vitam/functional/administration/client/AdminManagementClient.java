@@ -82,6 +82,14 @@ public interface AdminManagementClient extends MockOrRestClient {
         throws ReferentialException, InvalidParseOperationException,
         IOException;
 
+    /**
+     * Get the version of the format referential, changed each time the referential is imported
+     *
+     * @return the version of the format referential
+     * @throws ReferentialException when the version cannot be retrieved
+     */
+    long getFormatsVersion() throws ReferentialException;
+
     /**
      *
      * @param stream
@@ -126,6 +134,14 @@ public interface AdminManagementClient extends MockOrRestClient {
         throws FileRulesException, InvalidParseOperationException,
         IOException, AdminManagementClientServerException;
 
+    /**
+     * Get the version of the rules referential, changed each time the referential is imported
+     *
+     * @return the version of the rules referential
+     * @throws ReferentialException when the version cannot be retrieved
+     */
+    long getRulesVersion() throws ReferentialException;
+
     /**
      * @param register AccessionRegisterDetail
      * @throws AccessionRegisterException when AccessionRegisterDetailexception occurs
@@ -87,6 +87,11 @@ class AdminManagementClientMock extends AbstractMockClient implements AdminManag
         return ClientMockResultHelper.getFormatList().toJsonNode();
     }
 
+    @Override
+    public long getFormatsVersion() {
+        return 0;
+    }
+
     @Override
     public Status checkRulesFile(InputStream stream) throws FileRulesException {
         ParametersChecker.checkParameter(STREAM_IS_A_MANDATORY_PARAMETER, stream);
@@ -118,6 +123,11 @@ class AdminManagementClientMock extends AbstractMockClient implements AdminManag
         return ClientMockResultHelper.getRule().toJsonNode();
     }
 
+    @Override
+    public long getRulesVersion() {
+        return 0;
+    }
+
     @Override
     public void createorUpdateAccessionRegister(AccessionRegisterDetail register) throws DatabaseConflictException {
         String result;
@@ -58,11 +58,14 @@ class AdminManagementClientRest extends DefaultClient implements AdminManagement
     private static final String FORMAT_IMPORT_URL = "/format/import";
     private static final String FORMAT_GET_DOCUMENT_URL = "/format/document";
     private static final String FORMAT_URL = "/format";
+    private static final String FORMAT_VERSION_URL = "/format/version";
 
     private static final String RULESMANAGER_CHECK_URL = "/rules/check";
     private static final String RULESMANAGER_IMPORT_URL = "/rules/import";
     private static final String RULESMANAGER_GET_DOCUMENT_URL = "/rules/document";
     private static final String RULESMANAGER_URL = "/rules";
+    private static final String RULESMANAGER_VERSION_URL = "/rules/version";
+    private static final String VERSION = "version";
 
     private static final String ACCESSION_REGISTER_CREATE_URI = "/accession-register";
     private static final String ACCESSION_REGISTER_GET_DOCUMENT_URL = "/accession-register/document";
@@ -186,6 +189,11 @@ class AdminManagementClientRest extends DefaultClient implements AdminManagement
         }
     }
 
+    @Override
+    public long getFormatsVersion() throws ReferentialException {
+        return getReferentialVersion(FORMAT_VERSION_URL);
+    }
+
     /**************************
      * rules Management
      *
@@ -311,6 +319,32 @@ class AdminManagementClientRest extends DefaultClient implements AdminManagement
         }
     }
 
+    @Override
+    public long getRulesVersion() throws ReferentialException {
+        return getReferentialVersion(RULESMANAGER_VERSION_URL);
+    }
+
+    private long getReferentialVersion(String url) throws ReferentialException {
+        Response response = null;
+        try {
+            response = performRequest(HttpMethod.GET, url, null, MediaType.APPLICATION_JSON_TYPE, false);
+            final Status status = Status.fromStatusCode(response.getStatus());
+            if (status != Status.OK) {
+                LOGGER.error(status.getReasonPhrase());
+                throw new ReferentialException("Cannot get the referential version: " + status.getReasonPhrase());
+            }
+            return JsonHandler.getFromString(response.readEntity(String.class)).get(VERSION).asLong();
+        } catch (final InvalidParseOperationException e) {
+            LOGGER.error(e);
+            throw new ReferentialException(e);
+        } catch (final VitamClientInternalException e) {
+            LOGGER.error("Internal Server Error", e);
+            throw new AdminManagementClientServerException("Internal Server Error", e);
+        } finally {
+            consumeAnyEntityAndClose(response);
+        }
+    }
+
     @Override
     public void createorUpdateAccessionRegister(AccessionRegisterDetail register)
         throws DatabaseConflictException, AccessionRegisterException, AdminManagementClientServerException {
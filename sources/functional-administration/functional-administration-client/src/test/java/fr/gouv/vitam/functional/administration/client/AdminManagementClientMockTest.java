@@ -128,6 +128,14 @@ public class AdminManagementClientMockTest {
         assertNotNull(client.getRules(select.getFinalSelect()));
     }
 
+    @Test
+    public void getReferentialVersionsTest() throws ReferentialException {
+        AdminManagementClientFactory.changeMode(null);
+        final AdminManagementClient client = AdminManagementClientFactory.getInstance().getClient();
+        assertEquals(0, client.getFormatsVersion());
+        assertEquals(0, client.getRulesVersion());
+    }
+
     @Test
     public void givenClientMockWhenCreateAccessionRegister() throws Exception {
         client.createorUpdateAccessionRegister(new AccessionRegisterDetail());
@@ -163,6 +163,20 @@ public class AdminManagementClientRestTest extends VitamJerseyTest {
             return expectedResponse.get();
         }
 
+        @GET
+        @Path("/format/version")
+        @Produces(MediaType.APPLICATION_JSON)
+        public Response getFormatsVersion() {
+            return expectedResponse.get();
+        }
+
+        @GET
+        @Path("/rules/version")
+        @Produces(MediaType.APPLICATION_JSON)
+        public Response getRulesVersion() {
+            return expectedResponse.get();
+        }
+
         @GET
         @Path("/status")
         @Produces(MediaType.APPLICATION_JSON)
@@ -403,6 +417,20 @@ public class AdminManagementClientRestTest extends VitamJerseyTest {
         client.getAccessionRegisterDetail(JsonHandler.getFromString(QUERY));
     }
 
+    @Test
+    public void givenVersionWhenGetReferentialVersionsThenReturnIt() throws Exception {
+        when(mock.get()).thenReturn(Response.status(Status.OK).entity("{\"version\": 12}").build(),
+            Response.status(Status.OK).entity("{\"version\": 13}").build());
+        assertEquals(12, client.getFormatsVersion());
+        assertEquals(13, client.getRulesVersion());
+    }
+
+    @Test(expected = ReferentialException.class)
+    public void givenServerErrorWhenGetReferentialVersionThenThrowReferentialException() throws Exception {
+        when(mock.get()).thenReturn(Response.status(Status.INTERNAL_SERVER_ERROR).build());
+        client.getFormatsVersion();
+    }
+
     /** Accession Register Summary **/
     @Test
     public void getAccessionRegisterSummary()
@@ -41,7 +41,11 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.mongodb.BasicDBObject;
 import com.mongodb.MongoClient;
 import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 
@@ -67,7 +71,11 @@ public class MongoDbAccessAdminImpl extends MongoDbAccess
     implements MongoDbAccessReferential {
 
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(MongoDbAccessAdminImpl.class);
-
+    /**
+     * Collection of the versions of the referentials, one document by referential collection
+     */
+    private static final String REFERENTIAL_VERSION_COLLECTION = "ReferentialVersion";
+    private static final String VERSION = "Version";
 
     /**
      * @param mongoClient client of mongo
@@ -112,6 +120,7 @@ public class MongoDbAccessAdminImpl extends MongoDbAccess
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug(collection.getName() + " result.result.getDeletedCount(): " + result.getDeletedCount());
             }
+            updateReferentialVersion(collection);
             if (result.getDeletedCount() != count) {
                 throw new DatabaseException(String.format("%s: Delete %s from %s elements", collection.getName(), result
                     .getDeletedCount(), count));
@@ -120,6 +129,26 @@ public class MongoDbAccessAdminImpl extends MongoDbAccess
         }
     }
 
+    @Override
+    public long getReferentialVersion(FunctionalAdminCollections collection) {
+        final Document version =
+            getReferentialVersionCollection().find(eq(VitamDocument.ID, collection.getName())).first();
+        return version == null ? 0 : version.getLong(VERSION);
+    }
+
+    @Override
+    public long updateReferentialVersion(FunctionalAdminCollections collection) {
+        // atomic, so that concurrent imports on several servers get distinct versions
+        final Document version = getReferentialVersionCollection().findOneAndUpdate(
+            eq(VitamDocument.ID, collection.getName()), Updates.inc(VERSION, 1L),
+            new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        return version.getLong(VERSION);
+    }
+
+    private MongoCollection<Document> getReferentialVersionCollection() {
+        return getMongoDatabase().getCollection(REFERENTIAL_VERSION_COLLECTION);
+    }
+
     @Override
     public VitamDocument<?> getDocumentById(String id, FunctionalAdminCollections collection)
         throws ReferentialException {
@@ -96,5 +96,20 @@ public interface MongoDbAccessReferential {
      */
     public MongoCursor<?> select(JsonNode select, FunctionalAdminCollections collection) throws ReferentialException;
 
+    /**
+     * @param collection collection of Mongo of the referential
+     * @return the current version of the referential, stored in the database so that it is the same for all the
+     *         servers and kept across restarts, 0 if it was never changed
+     */
+    public long getReferentialVersion(FunctionalAdminCollections collection);
+
+    /**
+     * Change the version of the referential, to be called after each change of its content
+     *
+     * @param collection collection of Mongo of the referential
+     * @return the new version of the referential
+     */
+    public long updateReferentialVersion(FunctionalAdminCollections collection);
+
 
 }
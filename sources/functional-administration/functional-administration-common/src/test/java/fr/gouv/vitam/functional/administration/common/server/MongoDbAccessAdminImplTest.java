@@ -188,6 +188,19 @@ public class MongoDbAccessAdminImplTest {
         client.close();
     }
 
+    @Test
+    public void givenReferentialChangedWhenGetReferentialVersionThenVersionChanged() throws Exception {
+        final long version = mongoAccess.getReferentialVersion(FunctionalAdminCollections.RULES);
+        assertEquals(version + 1, mongoAccess.updateReferentialVersion(FunctionalAdminCollections.RULES));
+        assertEquals(version + 1, mongoAccess.getReferentialVersion(FunctionalAdminCollections.RULES));
+
+        final ArrayNode arrayNode = JsonHandler.createArrayNode();
+        arrayNode.add(JsonHandler.getFromString(fileRules.toJson()));
+        mongoAccess.insertDocuments(arrayNode, FunctionalAdminCollections.RULES);
+        mongoAccess.deleteCollection(FunctionalAdminCollections.RULES);
+        assertEquals(version + 2, mongoAccess.getReferentialVersion(FunctionalAdminCollections.RULES));
+    }
+
     @Test
     public void testAccessionRegister() throws Exception {
         final JsonNode jsonNode = JsonHandler.toJsonNode(register);
@@ -87,6 +87,14 @@ public class ReferentialFormatFileImpl implements ReferentialFile<FileFormat>, V
         mongoAccess = dbConfiguration;
     }
 
+    /**
+     * @return the current version of the format referential, changed at each import so that the caches of the
+     *         workers can detect any change
+     */
+    public long getReferentialVersion() {
+        return mongoAccess.getReferentialVersion(FunctionalAdminCollections.FORMATS);
+    }
+
     @Override
     public void importFile(InputStream xmlPronom) throws ReferentialException, DatabaseConflictException {
         ParametersChecker.checkParameter("Pronom file is a mandatory parameter", xmlPronom);
@@ -110,6 +118,7 @@ public class ReferentialFormatFileImpl implements ReferentialFile<FileFormat>, V
                 final ArrayNode pronomList = PronomParser.getPronom(xmlPronom);
                 if (mongoAccess.getMongoDatabase().getCollection(COLLECTION_NAME).count() == 0) {
                     mongoAccess.insertDocuments(pronomList, FunctionalAdminCollections.FORMATS);
+                    mongoAccess.updateReferentialVersion(FunctionalAdminCollections.FORMATS);
 
                     final LogbookOperationParameters logbookParametersEnd =
                         LogbookParametersFactory.newLogbookOperationParameters(
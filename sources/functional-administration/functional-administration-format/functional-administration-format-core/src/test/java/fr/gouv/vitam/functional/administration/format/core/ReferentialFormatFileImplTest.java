@@ -113,7 +113,9 @@ public class ReferentialFormatFileImplTest {
 
     @Test
     public void testimportFormat() throws Exception {
+        final long version = formatFile.getReferentialVersion();
         formatFile.importFile(new FileInputStream(PropertiesUtils.findFile(FILE_TO_TEST_OK)));
+        assertEquals(version + 1, formatFile.getReferentialVersion());
         final MongoClient client = new MongoClient(new ServerAddress(DATABASE_HOST, port));
         final MongoCollection<Document> collection = client.getDatabase(DATABASE_NAME).getCollection(COLLECTION_NAME);
         assertEquals(1328, collection.count());
@@ -35,6 +35,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
@@ -81,6 +82,7 @@ import fr.gouv.vitam.functional.administration.rules.core.RulesManagerFileImpl;
 @javax.ws.rs.ApplicationPath("webresources")
 public class AdminManagementResource extends ApplicationStatusResource {
     private static final String SELECT_IS_A_MANDATORY_PARAMETER = "select is a mandatory parameter";
+    private static final String VERSION = "version";
 
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(AdminManagementResource.class);
 
@@ -257,6 +259,26 @@ public class AdminManagementResource extends ApplicationStatusResource {
         }
     }
 
+    /**
+     * Get the current version of the format referential, changed at each import
+     *
+     * @return Response jersey response containing the version
+     */
+    @Path("format/version")
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getFormatsVersion() {
+        try (ReferentialFormatFileImpl formatManagement = new ReferentialFormatFileImpl(mongoAccess)) {
+            return Response.status(Status.OK)
+                .entity(JsonHandler.createObjectNode().put(VERSION, formatManagement.getReferentialVersion()))
+                .build();
+        } catch (final Exception e) {
+            LOGGER.error(e);
+            final Status status = Status.INTERNAL_SERVER_ERROR;
+            return Response.status(status).entity(status).build();
+        }
+    }
+
     /**
      * check the rules file
      *
@@ -443,6 +465,26 @@ public class AdminManagementResource extends ApplicationStatusResource {
         }
     }
 
+    /**
+     * Get the current version of the rules referential, changed at each import
+     *
+     * @return Response jersey response containing the version
+     */
+    @Path("rules/version")
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getRulesVersion() {
+        try (RulesManagerFileImpl rulesFileManagement = new RulesManagerFileImpl(mongoAccess)) {
+            return Response.status(Status.OK)
+                .entity(JsonHandler.createObjectNode().put(VERSION, rulesFileManagement.getReferentialVersion()))
+                .build();
+        } catch (final Exception e) {
+            LOGGER.error(e);
+            final Status status = Status.INTERNAL_SERVER_ERROR;
+            return Response.status(status).entity(status).build();
+        }
+    }
+
     /**
      * create or update an accession register
      *
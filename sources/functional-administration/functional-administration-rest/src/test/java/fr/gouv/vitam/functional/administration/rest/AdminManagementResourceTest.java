@@ -30,6 +30,7 @@ import static com.jayway.restassured.RestAssured.get;
 import static com.jayway.restassured.RestAssured.given;
 import static com.jayway.restassured.RestAssured.with;
 import static fr.gouv.vitam.common.database.builder.query.QueryHelper.eq;
+import static org.hamcrest.Matchers.equalTo;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -90,6 +91,7 @@ public class AdminManagementResourceTest {
     private static final String FORMAT_ID_URI = "/{id_format}";
 
     private static final String GET_DOCUMENT_FORMAT_URI = "/format/document";
+    private static final String GET_VERSION_FORMAT_URI = "/format/version";
 
     private static final String CHECK_RULES_URI = "/rules/check";
     private static final String IMPORT_RULES_URI = "/rules/import";
@@ -212,6 +214,19 @@ public class AdminManagementResourceTest {
             .then().statusCode(Status.PRECONDITION_FAILED.getStatusCode());
     }
 
+    @Test
+    public void givenFormatImportedWhenGetVersionThenVersionChanged() throws Exception {
+        final long version = mongoDbAccess.getReferentialVersion(FunctionalAdminCollections.FORMATS);
+        get(GET_VERSION_FORMAT_URI).then().statusCode(Status.OK.getStatusCode())
+            .body("version", equalTo(version));
+        stream = PropertiesUtils.getResourceAsStream("FF-vitam.xml");
+        given().contentType(ContentType.BINARY).body(stream)
+            .when().post(IMPORT_FORMAT_URI)
+            .then().statusCode(Status.OK.getStatusCode());
+        get(GET_VERSION_FORMAT_URI).then().statusCode(Status.OK.getStatusCode())
+            .body("version", equalTo(version + 1));
+    }
+
     @Test
     public void createAccessionRegister() throws Exception {
         stream = PropertiesUtils.getResourceAsStream("accession-register.json");
@@ -131,6 +131,14 @@ public class RulesManagerFileImpl implements ReferentialFile<FileRules>, VitamAu
         mongoAccess = dbConfiguration;
     }
 
+    /**
+     * @return the current version of the rules referential, changed at each import so that the caches of the
+     *         workers can detect any change
+     */
+    public long getReferentialVersion() {
+        return mongoAccess.getReferentialVersion(FunctionalAdminCollections.RULES);
+    }
+
     @Override
     public void importFile(InputStream rulesFileStream)
         throws DatabaseConflictException, IOException, InvalidParseOperationException, ReferentialException {
@@ -152,6 +160,7 @@ public class RulesManagerFileImpl implements ReferentialFile<FileRules>, VitamAu
 
                 if (mongoAccess.getMongoDatabase().getCollection(COLLECTION_NAME).count() == 0) {
                     mongoAccess.insertDocuments(rulesManagerList, FunctionalAdminCollections.RULES);
+                    mongoAccess.updateReferentialVersion(FunctionalAdminCollections.RULES);
 
                     final LogbookOperationParameters logbookParametersEnd =
                         LogbookParametersFactory.newLogbookOperationParameters(
@@ -120,7 +120,9 @@ public class RulesManagerFileImplTest {
             fail("Check file with FILE_TO_TEST_KO should not throw this exception");
         }
 
+        final long version = rulesFileManager.getReferentialVersion();
         rulesFileManager.importFile(new FileInputStream(PropertiesUtils.findFile(FILE_TO_TEST_OK)));
+        assertEquals(version + 1, rulesFileManager.getReferentialVersion());
         final MongoClient client = new MongoClient(new ServerAddress(DATABASE_HOST, port));
         final MongoCollection<Document> collection = client.getDatabase(DATABASE_NAME).getCollection(COLLECTION_NAME);
         assertEquals(22, collection.count());
@@ -36,8 +36,11 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 import fr.gouv.vitam.common.CommonMediaType;
 import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.VitamConfiguration;
 import fr.gouv.vitam.common.client.AbstractMockClient;
 import fr.gouv.vitam.common.exception.VitamException;
 import fr.gouv.vitam.common.format.identification.FormatIdentifier;
@@ -51,6 +54,7 @@ import fr.gouv.vitam.common.format.identification.model.FormatIdentifierResponse
 import fr.gouv.vitam.common.guid.GUID;
 import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.i18n.VitamLogbookMessages;
+import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.StatusCode;
@@ -105,6 +109,10 @@ public class IngestExternalImpl implements IngestExternal {
     private static final String BEGIN_SIEG_FRIED_FORMAT_IDENTIFICATION = "Begin siegFried format identification";
 
     private static final String CAN_NOT_READ_FILE = "Can not read file";
+
+    private static final String SIP_RECEIVED = "SIP received: ";
+    private static final String MESSAGE_DIGEST = "MessageDigest";
+    private static final String ALGORITHM = "Algorithm";
     private static final int STATUS_ANTIVIRUS_KO = 2;
     private static final int STATUS_ANTIVIRUS_WARNING = 1;
     private static final int STATUS_ANTIVIRUS_OK = 0;
@@ -181,9 +189,12 @@ public class IngestExternalImpl implements IngestExternal {
                 LOGGER.error(CAN_NOT_STORE_FILE, e);
                 throw new IngestExternalException(e);
             }
+            // digest and format header are computed while the SIP is written, so it is not read again for them
+            final SipReceptionInputStream sipReception =
+                new SipReceptionInputStream(input, VitamConfiguration.getDefaultDigestType());
             try {
                 if (containerName != null) {
-                    workspaceFileSystem.putObject(containerName.getId(), objectName.getId(), input);
+                    workspaceFileSystem.putObject(containerName.getId(), objectName.getId(), sipReception);
                 }
             } catch (final ContentAddressableStorageException e) {
                 LOGGER.error(CAN_NOT_STORE_FILE, e);
@@ -197,6 +208,9 @@ public class IngestExternalImpl implements IngestExternal {
                 LOGGER.error(CAN_NOT_READ_FILE);
                 throw new IngestExternalException(CAN_NOT_READ_FILE);
             }
+            final String sipDigest = sipReception.getDigest().digestHex();
+            LOGGER.info(SIP_RECEIVED + sipReception.getSize() + " bytes, " +
+                sipReception.getDigest().type().getName() + " " + sipDigest);
             int antiVirusResult;
 
             final LogbookOperationParameters antivirusParameters =
@@ -250,6 +264,11 @@ public class IngestExternalImpl implements IngestExternal {
                         VitamLogbookMessages.getCodeOp(SANITY_CHECK_SIP, StatusCode.KO));
                     isFileInfected = true;
             }
+            final ObjectNode digestDetail = JsonHandler.createObjectNode();
+            digestDetail.put(MESSAGE_DIGEST, sipDigest);
+            digestDetail.put(ALGORITHM, sipReception.getDigest().type().getName());
+            antivirusParameters.putParameterValue(LogbookParameterName.eventDetailData,
+                JsonHandler.unprettyPrint(digestDetail));
             helper.updateDelegate(antivirusParameters);
 
 
@@ -284,28 +303,21 @@ public class IngestExternalImpl implements IngestExternal {
                     .putParameterValue(LogbookParameterName.outcomeDetailMessage,
                         VitamLogbookMessages.getCodeOp(CHECK_CONTAINER, StatusCode.OK));
                 try {
-                    LOGGER.debug(BEGIN_SIEG_FRIED_FORMAT_IDENTIFICATION);
-                    // instantiate SiegFried
-                    final FormatIdentifier formatIdentifier =
-                        FormatIdentifierFactory.getInstance().getFormatIdentifierFor(FORMAT_IDENTIFIER_ID);
-                    // call siegFried
-                    final List<FormatIdentifierResponse> formats =
-                        formatIdentifier.analysePath(file.toPath());
-                    final FormatIdentifierResponse format = getFirstPronomFormat(formats);
+                    final String format = identifyFormat(file, sipReception);
                     if (format == null) {
                         formatParameters.setStatus(StatusCode.KO);
                         formatParameters.putParameterValue(LogbookParameterName.outcomeDetailMessage,
                             VitamLogbookMessages.getCodeOp(CHECK_CONTAINER, StatusCode.KO));
                     } else {
-                        LOGGER.debug(SIP_FORMAT + format.getMimetype());
-                        mimeType = format.getMimetype();
-                        if (CommonMediaType.isSupportedFormat(format.getMimetype())) {
+                        LOGGER.debug(SIP_FORMAT + format);
+                        mimeType = format;
+                        if (CommonMediaType.isSupportedFormat(format)) {
                             isSupportedMedia = true;
                         } else {
-                            LOGGER.error(SIP_WRONG_FORMAT + format.getMimetype() + IS_NOT_SUPPORTED);
+                            LOGGER.error(SIP_WRONG_FORMAT + format + IS_NOT_SUPPORTED);
                             formatParameters.setStatus(StatusCode.KO);
                             formatParameters.putParameterValue(LogbookParameterName.outcomeDetailMessage,
-                                VitamLogbookMessages.getCodeOp(CHECK_CONTAINER, StatusCode.KO, format.getMimetype()));
+                                VitamLogbookMessages.getCodeOp(CHECK_CONTAINER, StatusCode.KO, format));
                         }
                     }
 
@@ -494,6 +506,37 @@ public class IngestExternalImpl implements IngestExternal {
         helper.updateDelegate(transferNotificationParameters);
     }
 
+    /**
+     * Identify the format of the SIP: from the header read during its reception if it is unambiguous (tar, gzip,
+     * bzip2), else with SiegFried. A ZIP, the most common format of SIP, is thus still read entirely by SiegFried,
+     * as its header alone cannot tell it from the formats based on ZIP.
+     *
+     * @param file the received SIP
+     * @param sipReception the stream that received the SIP
+     * @return the mime type of the SIP or null if not found
+     * @throws FormatIdentifierNotFoundException
+     * @throws FormatIdentifierFactoryException
+     * @throws FormatIdentifierTechnicalException
+     * @throws FileFormatNotFoundException
+     * @throws FormatIdentifierBadRequestException
+     */
+    private String identifyFormat(File file, SipReceptionInputStream sipReception)
+        throws FormatIdentifierNotFoundException, FormatIdentifierFactoryException,
+        FormatIdentifierTechnicalException, FileFormatNotFoundException, FormatIdentifierBadRequestException {
+        final String sniffedMimeType = sipReception.getSniffedMimeType();
+        if (sniffedMimeType != null) {
+            return sniffedMimeType;
+        }
+        LOGGER.debug(BEGIN_SIEG_FRIED_FORMAT_IDENTIFICATION);
+        // instantiate SiegFried
+        final FormatIdentifier formatIdentifier =
+            FormatIdentifierFactory.getInstance().getFormatIdentifierFor(FORMAT_IDENTIFIER_ID);
+        // call siegFried
+        final List<FormatIdentifierResponse> formats = formatIdentifier.analysePath(file.toPath());
+        final FormatIdentifierResponse format = getFirstPronomFormat(formats);
+        return format == null ? null : format.getMimetype();
+    }
+
     /**
      * Retrieve the first corresponding file format from pronom referential
      *
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.ingest.external.core;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import fr.gouv.vitam.common.CommonMediaType;
+import fr.gouv.vitam.common.digest.Digest;
+import fr.gouv.vitam.common.digest.DigestType;
+
+/**
+ * InputStream of a received SIP, computing its digest and keeping its first bytes to sniff its format while it is
+ * read, so that the SIP is only read once while written in the local workspace.
+ */
+class SipReceptionInputStream extends FilterInputStream {
+    /**
+     * Size of the kept header: one tar block
+     */
+    static final int HEADER_SIZE = 512;
+    private static final int TAR_MAGIC_OFFSET = 257;
+    private static final byte[] TAR_MAGIC = {'u', 's', 't', 'a', 'r'};
+    private static final byte[] GZIP_MAGIC = {(byte) 0x1F, (byte) 0x8B};
+    private static final byte[] BZIP2_MAGIC = {'B', 'Z', 'h'};
+
+    private final Digest digest;
+    private final byte[] header = new byte[HEADER_SIZE];
+    private int headerLength = 0;
+    private long size = 0;
+
+    /**
+     * @param inputStream the received SIP
+     * @param digestType the algorithm of the computed digest
+     */
+    SipReceptionInputStream(InputStream inputStream, DigestType digestType) {
+        super(inputStream);
+        digest = new Digest(digestType);
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int value = super.read();
+        if (value >= 0) {
+            received(new byte[] {(byte) value}, 0, 1);
+        }
+        return value;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int read = super.read(b, off, len);
+        if (read > 0) {
+            received(b, off, read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // skipped bytes must be part of the digest
+        final byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            final int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        // mark not supported
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    private void received(byte[] b, int off, int len) {
+        digest.update(b, off, len);
+        if (headerLength < HEADER_SIZE) {
+            final int kept = Math.min(len, HEADER_SIZE - headerLength);
+            System.arraycopy(b, off, header, headerLength, kept);
+            headerLength += kept;
+        }
+        size += len;
+    }
+
+    /**
+     * @return the digest of the bytes read so far (the full SIP once the stream is read)
+     */
+    Digest getDigest() {
+        return digest;
+    }
+
+    /**
+     * @return the number of bytes read so far
+     */
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * The ZIP header is not sniffed: it is shared by many formats built on ZIP (office documents, jar, epub...) that
+     * only a full identification can tell apart.
+     *
+     * @return the mime type of the supported archive formats recognized from the header, or null if not recognized
+     */
+    String getSniffedMimeType() {
+        if (startsWith(0, GZIP_MAGIC)) {
+            return CommonMediaType.GZIP;
+        }
+        if (startsWith(0, BZIP2_MAGIC)) {
+            return CommonMediaType.BZIP2;
+        }
+        if (startsWith(TAR_MAGIC_OFFSET, TAR_MAGIC)) {
+            return CommonMediaType.TAR;
+        }
+        return null;
+    }
+
+    private boolean startsWith(int offset, byte[] magic) {
+        if (headerLength < offset + magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (header[offset + i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
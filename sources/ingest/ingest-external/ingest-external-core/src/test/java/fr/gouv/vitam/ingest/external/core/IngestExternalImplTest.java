@@ -28,13 +28,20 @@ package fr.gouv.vitam.ingest.external.core;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
@@ -63,11 +70,12 @@ import fr.gouv.vitam.common.thread.RunWithCustomExecutor;
 import fr.gouv.vitam.common.thread.RunWithCustomExecutorRule;
 import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
 import fr.gouv.vitam.ingest.external.common.config.IngestExternalConfiguration;
+import fr.gouv.vitam.ingest.external.common.util.JavaExecuteScript;
 
 
 @RunWith(PowerMockRunner.class)
 @PowerMockIgnore("javax.net.ssl.*")
-@PrepareForTest({FormatIdentifierFactory.class})
+@PrepareForTest({FormatIdentifierFactory.class, JavaExecuteScript.class})
 public class IngestExternalImplTest {
     private static final String PATH = "/tmp";
     private static final String SCRIPT_SCAN_CLAMAV = "scan-clamav.sh";
@@ -223,6 +231,54 @@ public class IngestExternalImplTest {
         assertEquals(200, xmlResponse.getStatus());
     }
 
+    @RunWithCustomExecutor
+    @Test
+    public void givenTarSipThenFormatSniffedWithoutSiegfried() throws Exception {
+        final FormatIdentifierSiegfried siegfried =
+            getMockedFormatIdentifierSiegfried();
+        givenNoVirusFound();
+        final byte[] sip = new byte[SipReceptionInputStream.HEADER_SIZE * 2];
+        System.arraycopy("ustar".getBytes(), 0, sip, 257, 5);
+        final Response xmlResponse =
+            ingestExternalImpl.upload(new ByteArrayInputStream(sip), new AsyncResponseJunitTest());
+        assertEquals(200, xmlResponse.getStatus());
+        verify(siegfried, never()).analysePath(anyObject());
+    }
+
+    @RunWithCustomExecutor
+    @Test
+    public void givenZipBasedOfficeFileThenIdentifiedBySiegfriedAndRejected() throws Exception {
+        final FormatIdentifierSiegfried siegfried =
+            getMockedFormatIdentifierSiegfried();
+        when(siegfried.analysePath(anyObject())).thenReturn(getFormatIdentifierDocxResponse());
+        givenNoVirusFound();
+        final ByteArrayOutputStream docx = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(docx)) {
+            zip.putNextEntry(new ZipEntry("[Content_Types].xml"));
+            zip.write("<Types/>".getBytes());
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("word/document.xml"));
+            zip.write("<document/>".getBytes());
+            zip.closeEntry();
+        }
+        assertEquals(Status.BAD_REQUEST.getStatusCode(), ingestExternalImpl
+            .upload(new ByteArrayInputStream(docx.toByteArray()), new AsyncResponseJunitTest()).getStatus());
+        verify(siegfried).analysePath(anyObject());
+    }
+
+    private void givenNoVirusFound() throws Exception {
+        // the test scan script returns the content of the file as status: binary SIPs are not scanned
+        PowerMockito.mockStatic(JavaExecuteScript.class);
+        when(JavaExecuteScript.executeCommand(anyObject(), anyObject(), anyLong())).thenReturn(0);
+    }
+
+    private List<FormatIdentifierResponse> getFormatIdentifierDocxResponse() {
+        final List<FormatIdentifierResponse> list = new ArrayList<>();
+        list.add(new FormatIdentifierResponse("Microsoft Word for Windows",
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document", "fmt/412", "pronom"));
+        return list;
+    }
+
     private List<FormatIdentifierResponse> getFormatIdentifierTarResponse() {
         final List<FormatIdentifierResponse> list = new ArrayList<>();
         list.add(new FormatIdentifierResponse("TAR Format", "application/x-tar",
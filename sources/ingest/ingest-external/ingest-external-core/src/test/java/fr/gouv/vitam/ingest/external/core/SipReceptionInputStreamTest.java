@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.ingest.external.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Test;
+
+import fr.gouv.vitam.common.CommonMediaType;
+import fr.gouv.vitam.common.PropertiesUtils;
+import fr.gouv.vitam.common.digest.Digest;
+import fr.gouv.vitam.common.digest.DigestType;
+import fr.gouv.vitam.common.stream.StreamUtils;
+
+public class SipReceptionInputStreamTest {
+
+    private static SipReceptionInputStream receive(byte[] sip) throws IOException {
+        final SipReceptionInputStream sipReception =
+            new SipReceptionInputStream(new ByteArrayInputStream(sip), DigestType.SHA512);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamUtils.copy(sipReception, out);
+        assertEquals(sip.length, out.size());
+        return sipReception;
+    }
+
+    @Test
+    public void givenZipWhenReceivedThenDigestAndNoFormat() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("manifest.xml"));
+            zip.write(new byte[10000]);
+            zip.closeEntry();
+        }
+        final byte[] sip = out.toByteArray();
+        final SipReceptionInputStream sipReception = receive(sip);
+        // left to the format identifier: a ZIP may be an office document
+        assertNull(sipReception.getSniffedMimeType());
+        assertEquals(sip.length, sipReception.getSize());
+        assertEquals(Digest.digest(new ByteArrayInputStream(sip), DigestType.SHA512).digestHex(),
+            sipReception.getDigest().digestHex());
+    }
+
+    @Test
+    public void givenGzipWhenReceivedThenGzipFormat() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(new byte[100]);
+        }
+        assertEquals(CommonMediaType.GZIP, receive(out.toByteArray()).getSniffedMimeType());
+    }
+
+    @Test
+    public void givenTarWhenReceivedThenTarFormat() throws Exception {
+        final byte[] sip = new byte[SipReceptionInputStream.HEADER_SIZE * 2];
+        System.arraycopy("ustar".getBytes(), 0, sip, 257, 5);
+        assertEquals(CommonMediaType.TAR, receive(sip).getSniffedMimeType());
+    }
+
+    @Test
+    public void givenUnknownFormatWhenReceivedThenNoFormat() throws Exception {
+        try (InputStream stream = PropertiesUtils.getResourceAsStream("no-virus.txt")) {
+            final SipReceptionInputStream sipReception = new SipReceptionInputStream(stream, DigestType.SHA512);
+            StreamUtils.copy(sipReception, new ByteArrayOutputStream());
+            assertNull(sipReception.getSniffedMimeType());
+        }
+        assertNull(receive(new byte[0]).getSniffedMimeType());
+    }
+}
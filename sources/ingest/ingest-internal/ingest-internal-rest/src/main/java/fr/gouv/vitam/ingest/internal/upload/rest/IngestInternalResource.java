@@ -28,6 +28,9 @@ package fr.gouv.vitam.ingest.internal.upload.rest;
 
 import java.io.InputStream;
 import java.util.Queue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.HeaderParam;
@@ -52,9 +55,11 @@ import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.common.model.VitamSession;
 import fr.gouv.vitam.common.server.application.AsyncInputStreamHelper;
 import fr.gouv.vitam.common.server.application.resources.ApplicationStatusResource;
 import fr.gouv.vitam.common.stream.StreamUtils;
+import fr.gouv.vitam.common.thread.VitamThreadFactory;
 import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
 import fr.gouv.vitam.common.thread.VitamThreadUtils;
 import fr.gouv.vitam.ingest.internal.common.exception.IngestInternalException;
@@ -69,11 +74,8 @@ import fr.gouv.vitam.logbook.common.parameters.LogbookParametersFactory;
 import fr.gouv.vitam.logbook.common.parameters.LogbookTypeProcess;
 import fr.gouv.vitam.logbook.operations.client.LogbookOperationsClient;
 import fr.gouv.vitam.logbook.operations.client.LogbookOperationsClientFactory;
-import fr.gouv.vitam.processing.common.exception.ProcessingBadRequestException;
-import fr.gouv.vitam.processing.common.exception.ProcessingException;
+import fr.gouv.vitam.processing.common.exception.ProcessNotFoundException;
 import fr.gouv.vitam.processing.common.exception.ProcessingInternalServerException;
-import fr.gouv.vitam.processing.common.exception.ProcessingUnauthorizeException;
-import fr.gouv.vitam.processing.common.exception.WorkflowNotFoundException;
 import fr.gouv.vitam.processing.management.client.ProcessingManagementClient;
 import fr.gouv.vitam.processing.management.client.ProcessingManagementClientFactory;
 import fr.gouv.vitam.storage.engine.client.StorageClient;
@@ -105,9 +107,18 @@ public class IngestInternalResource extends ApplicationStatusResource {
     private static final String DEFAULT_TENANT = "0";
     private static final String DEFAULT_STRATEGY = "default";
     private static final String XML = ".xml";
+    private static final long MIN_POLL_DELAY_MILLISECONDS = 100;
+    private static final long MAX_POLL_DELAY_MILLISECONDS = 2000;
+    /**
+     * Delay during which an unknown process or an unavailable processing is retried, to survive its restart
+     */
+    private static final long MAX_UNAVAILABLE_DELAY_MILLISECONDS = 300000;
+    private static final ScheduledExecutorService POLLER =
+        Executors.newScheduledThreadPool(2, VitamThreadFactory.getInstance());
 
     private final WorkspaceClient workspaceClientMock;
     private final ProcessingManagementClient processingManagementClientMock;
+    private final long maxUnavailableDelay;
 
     /**
      * IngestInternalResource constructor
@@ -120,6 +131,7 @@ public class IngestInternalResource extends ApplicationStatusResource {
         ProcessingManagementClientFactory.changeConfigurationUrl(configuration.getProcessingUrl());
         workspaceClientMock = null;
         processingManagementClientMock = null;
+        maxUnavailableDelay = MAX_UNAVAILABLE_DELAY_MILLISECONDS;
     }
 
     /**
@@ -127,11 +139,14 @@ public class IngestInternalResource extends ApplicationStatusResource {
      *
      * @param workspaceClient workspace client instance
      * @param processingManagementClient processing management client instance
+     * @param maxUnavailableDelay delay in milliseconds during which an unavailable process status is retried
      *
      */
-    IngestInternalResource(WorkspaceClient workspaceClient, ProcessingManagementClient processingManagementClient) {
+    IngestInternalResource(WorkspaceClient workspaceClient, ProcessingManagementClient processingManagementClient,
+        long maxUnavailableDelay) {
         workspaceClientMock = workspaceClient;
         processingManagementClientMock = processingManagementClient;
+        this.maxUnavailableDelay = maxUnavailableDelay;
     }
 
     /**
@@ -243,6 +258,7 @@ public class IngestInternalResource extends ApplicationStatusResource {
                 parameters.putParameterValue(LogbookParameterName.eventType, INGEST_INT_UPLOAD);
                 callLogbookUpdate(logbookOperationsClient, parameters, StatusCode.STARTED,
                     VitamLogbookMessages.getCodeOp(INGEST_INT_UPLOAD, StatusCode.STARTED));
+                boolean polling = false;
                 try {
                     // push uploaded sip as stream
                     pushSipStreamToWorkspace(containerGUID.getId(), archiveMimeType,
@@ -253,27 +269,15 @@ public class IngestInternalResource extends ApplicationStatusResource {
                     callLogbookUpdate(logbookOperationsClient, parameters, StatusCode.OK, uploadSIPMsg);
                     // processing
                     parameters.putParameterValue(LogbookParameterName.eventType, INGEST_WORKFLOW);
-                    final ItemStatus processingOk =
+                    final String processId =
                         callProcessingEngine(parameters, logbookOperationsClient, containerGUID.getId());
-                    try (final StorageClient storageClient = StorageClientFactory.getInstance().getClient()) {
-                        final Response response =
-                            storageClient.getContainerAsync(DEFAULT_TENANT, DEFAULT_STRATEGY,
-                                containerGUID.getId() + XML,
-                                StorageCollectionType.REPORTS);
-                        final AsyncInputStreamHelper helper = new AsyncInputStreamHelper(asyncResponse, response);
-                        Status finalStatus = Status.OK;
-                        if (!StatusCode.OK.equals(processingOk.getGlobalStatus())) {
-                            if (StatusCode.WARNING.equals(processingOk.getGlobalStatus())) {
-                                finalStatus = Status.PARTIAL_CONTENT;
-                            } else {
-                                finalStatus = Status.BAD_REQUEST;
-                            }
-                        }
-
-                        helper.writeResponse(Response.status(finalStatus));
-                    }
+                    // the response is written by the poller once the workflow is done, no thread waits for it
+                    new ProcessPoller(asyncResponse, parameters, containerGUID.getId(), processId).schedule();
+                    polling = true;
                 } finally {
-                    cleanWorkspace(containerGUID.getId());
+                    if (!polling) {
+                        cleanWorkspace(containerGUID.getId());
+                    }
                 }
             } catch (final ContentAddressableStorageCompressedFileException e) {
                 if (parameters != null) {
@@ -305,9 +309,7 @@ public class IngestInternalResource extends ApplicationStatusResource {
                 // FIXME P1 in particular Processing Exception could it be a "normal error" ?
                 // Have to determine here if it is an internal error and FATAL result or processing error, so business
                 // error and KO result
-            } catch (final ProcessingException |
-                LogbookClientException | StorageClientException | StorageNotFoundException |
-                InvalidGuidOperationException e) {
+            } catch (final LogbookClientException | InvalidGuidOperationException e) {
                 if (parameters != null) {
                     try {
                         parameters.putParameterValue(LogbookParameterName.eventType, INGEST_WORKFLOW);
@@ -416,9 +418,14 @@ public class IngestInternalResource extends ApplicationStatusResource {
         }
     }
 
-    private ItemStatus callProcessingEngine(final LogbookOperationParameters parameters,
+    /**
+     * Starts the ingest workflow asynchronously: no HTTP connection to the processing is held during the ingest
+     *
+     * @return the id of the process, to poll its status
+     */
+    private String callProcessingEngine(final LogbookOperationParameters parameters,
         final LogbookOperationsClient client,
-        final String containerName) throws IngestInternalException, ProcessingException,
+        final String containerName) throws IngestInternalException,
         LogbookClientNotFoundException, LogbookClientBadRequestException, LogbookClientServerException {
         parameters.putParameterValue(LogbookParameterName.outcomeDetailMessage, "Try to call processing...");
         final String workflowId = "DefaultIngestWorkflow";
@@ -427,14 +434,8 @@ public class IngestInternalResource extends ApplicationStatusResource {
             if (processingClient == null) {
                 processingClient = ProcessingManagementClientFactory.getInstance().getClient();
             }
-            final ItemStatus itemStatus = processingClient.executeVitamProcess(containerName, workflowId);
-
-            callLogbookUpdate(client, parameters, itemStatus.getGlobalStatus(),
-                VitamLogbookMessages.getCodeOp(INGEST_WORKFLOW, itemStatus.getGlobalStatus()));
-
-            return itemStatus;
-        } catch (WorkflowNotFoundException | ProcessingInternalServerException | IllegalArgumentException |
-            ProcessingBadRequestException | ProcessingUnauthorizeException exc) {
+            return processingClient.executeVitamProcessAsync(containerName, workflowId);
+        } catch (ProcessingInternalServerException | IllegalArgumentException exc) {
             LOGGER.error(exc);
             callLogbookUpdate(client, parameters, StatusCode.FATAL,
                 VitamLogbookMessages.getCodeOp(INGEST_WORKFLOW, StatusCode.FATAL));
@@ -444,7 +445,133 @@ public class IngestInternalResource extends ApplicationStatusResource {
                 processingClient.close();
             }
         }
+    }
+
+    private ItemStatus getProcessStatus(final String processId)
+        throws ProcessNotFoundException, ProcessingInternalServerException {
+        ProcessingManagementClient processingClient = processingManagementClientMock;
+        try {
+            if (processingClient == null) {
+                processingClient = ProcessingManagementClientFactory.getInstance().getClient();
+            }
+            return processingClient.getOperationProcessStatus(processId);
+        } finally {
+            if (processingManagementClientMock == null && processingClient != null) {
+                processingClient.close();
+            }
+        }
+    }
+
+    /**
+     * Polls the status of an ingest workflow with a growing delay, each poll being a short task of a shared
+     * scheduler, and completes the suspended response once the workflow is done.<br>
+     * An unknown process, or an unavailable processing, is retried: the processing resumes its processes from their
+     * persisted state after a restart.
+     */
+    private final class ProcessPoller implements Runnable {
+        private final AsyncResponse asyncResponse;
+        private final LogbookOperationParameters parameters;
+        private final String containerName;
+        private final String processId;
+        private final VitamSession session;
+        private long delay = MIN_POLL_DELAY_MILLISECONDS;
+        private long unavailableSince = -1;
+
+        ProcessPoller(AsyncResponse asyncResponse, LogbookOperationParameters parameters, String containerName,
+            String processId) {
+            this.asyncResponse = asyncResponse;
+            this.parameters = parameters;
+            this.containerName = containerName;
+            this.processId = processId;
+            session = VitamSession.from(VitamThreadUtils.getVitamSession());
+        }
+
+        void schedule() {
+            POLLER.schedule(this, delay, TimeUnit.MILLISECONDS);
+            delay = Math.min(delay * 2, MAX_POLL_DELAY_MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            VitamThreadUtils.getVitamSession().mutateFrom(session);
+            try {
+                final ItemStatus itemStatus = getProcessStatus(processId);
+                unavailableSince = -1;
+                if (StatusCode.STARTED.equals(itemStatus.getGlobalStatus())) {
+                    schedule();
+                } else {
+                    // the end of the ingest reads the ATR, so it is not run by the scheduler
+                    VitamThreadPoolExecutor.getDefaultExecutor().execute(() -> complete(itemStatus));
+                }
+            } catch (ProcessNotFoundException | ProcessingInternalServerException exc) {
+                final long now = System.currentTimeMillis();
+                if (unavailableSince < 0) {
+                    unavailableSince = now;
+                }
+                if (now - unavailableSince < maxUnavailableDelay) {
+                    LOGGER.warn("Status of process " + processId + " unavailable, will retry: " + exc.getMessage());
+                    schedule();
+                } else {
+                    // the process may still be resumed: neither FATAL nor workspace cleaning
+                    LOGGER.error("Status of process " + processId + " unavailable, giving up", exc);
+                    AsyncInputStreamHelper.writeErrorAsyncResponse(asyncResponse,
+                        Response.status(Status.SERVICE_UNAVAILABLE).build());
+                }
+            } catch (final IllegalArgumentException exc) {
+                LOGGER.error(exc);
+                VitamThreadPoolExecutor.getDefaultExecutor().execute(() -> fail(StatusCode.FATAL));
+            } finally {
+                VitamThreadUtils.getVitamSession().erase();
+            }
+        }
 
+        private void complete(ItemStatus itemStatus) {
+            try (LogbookOperationsClient logbookOperationsClient =
+                LogbookOperationsClientFactory.getInstance().getClient();
+                StorageClient storageClient = StorageClientFactory.getInstance().getClient()) {
+                callLogbookUpdate(logbookOperationsClient, parameters, itemStatus.getGlobalStatus(),
+                    VitamLogbookMessages.getCodeOp(INGEST_WORKFLOW, itemStatus.getGlobalStatus()));
+                final Response response =
+                    storageClient.getContainerAsync(DEFAULT_TENANT, DEFAULT_STRATEGY, containerName + XML,
+                        StorageCollectionType.REPORTS);
+                final AsyncInputStreamHelper helper = new AsyncInputStreamHelper(asyncResponse, response);
+                Status finalStatus = Status.OK;
+                if (!StatusCode.OK.equals(itemStatus.getGlobalStatus())) {
+                    if (StatusCode.WARNING.equals(itemStatus.getGlobalStatus())) {
+                        finalStatus = Status.PARTIAL_CONTENT;
+                    } else {
+                        finalStatus = Status.BAD_REQUEST;
+                    }
+                }
+                helper.writeResponse(Response.status(finalStatus));
+                cleanWorkspaceQuietly();
+            } catch (final LogbookClientException | StorageClientException | StorageNotFoundException e) {
+                LOGGER.error("Unexpected error was thrown : " + e.getMessage(), e);
+                fail(StatusCode.KO);
+            }
+        }
+
+        private void fail(StatusCode status) {
+            try (LogbookOperationsClient logbookOperationsClient =
+                LogbookOperationsClientFactory.getInstance().getClient()) {
+                parameters.putParameterValue(LogbookParameterName.eventType, INGEST_WORKFLOW);
+                callLogbookUpdate(logbookOperationsClient, parameters, status,
+                    VitamLogbookMessages.getCodeOp(INGEST_WORKFLOW, status));
+            } catch (final LogbookClientException e) {
+                LOGGER.error(e);
+            }
+            AsyncInputStreamHelper.writeErrorAsyncResponse(asyncResponse,
+                Response.status(Status.INTERNAL_SERVER_ERROR).build());
+            cleanWorkspaceQuietly();
+        }
+
+        private void cleanWorkspaceQuietly() {
+            try {
+                cleanWorkspace(containerName);
+            } catch (ContentAddressableStorageServerException | ContentAddressableStorageNotFoundException e) {
+                LOGGER.error(e);
+            }
+        }
     }
 
 }
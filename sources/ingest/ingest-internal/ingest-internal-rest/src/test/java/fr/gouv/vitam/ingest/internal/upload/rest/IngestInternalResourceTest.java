@@ -72,8 +72,7 @@ import fr.gouv.vitam.logbook.common.parameters.LogbookOperationParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookParametersFactory;
 import fr.gouv.vitam.logbook.common.parameters.LogbookTypeProcess;
-import fr.gouv.vitam.processing.common.exception.ProcessingBadRequestException;
-import fr.gouv.vitam.processing.common.exception.ProcessingException;
+import fr.gouv.vitam.processing.common.exception.ProcessNotFoundException;
 import fr.gouv.vitam.processing.common.exception.ProcessingInternalServerException;
 import fr.gouv.vitam.processing.management.client.ProcessingManagementClient;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageCompressedFileException;
@@ -217,7 +216,7 @@ public class IngestInternalResourceTest {
         configuration.setWorkspaceUrl("http://localhost:8888");
         configuration.setProcessingUrl("http://localhost:9999");
 
-        resourceConfig.register(new IngestInternalResource(workspaceClient, processingClient));
+        resourceConfig.register(new IngestInternalResource(workspaceClient, processingClient, 1000));
         resourceConfig.register(RequestIdContainerFilter.class);
 
         final ServletContainer servletContainer = new ServletContainer(resourceConfig);
@@ -257,8 +256,10 @@ public class IngestInternalResourceTest {
             .when().post(LOGBOOK_URL);
 
         final ItemStatus itemStatus = new ItemStatus(processId.toString()).increment(StatusCode.OK);
-        Mockito.doReturn(itemStatus).when(processingClient).executeVitamProcess(Matchers.anyObject(),
+        Mockito.doReturn(processId.toString()).when(processingClient).executeVitamProcessAsync(Matchers.anyObject(),
             Matchers.anyObject());
+        Mockito.when(processingClient.getOperationProcessStatus(processId.toString())).thenReturn(
+            new ItemStatus(processId.toString()).increment(StatusCode.STARTED), itemStatus);
 
         final InputStream inputStream =
             PropertiesUtils.getResourceAsStream("SIP_bordereau_avec_objet_OK.zip");
@@ -296,8 +297,9 @@ public class IngestInternalResourceTest {
 
         final GUID processId = GUIDFactory.newGUID();
         final ItemStatus itemStatus = new ItemStatus(processId.toString()).increment(StatusCode.OK);
-        Mockito.doReturn(itemStatus).when(processingClient).executeVitamProcess(Matchers.anyObject(),
+        Mockito.doReturn(processId.toString()).when(processingClient).executeVitamProcessAsync(Matchers.anyObject(),
             Matchers.anyObject());
+        Mockito.doReturn(itemStatus).when(processingClient).getOperationProcessStatus(processId.toString());
 
         final InputStream inputStreamZip =
             PropertiesUtils.getResourceAsStream("SIP_mauvais_format.pdf");
@@ -344,20 +346,45 @@ public class IngestInternalResourceTest {
     }
 
     @Test
-    public void givenProcessBadRequestWhenUploadSipAsStreamThenRaiseAnExceptionProcessingException()
+    public void givenProcessNotFoundWhenUploadSipAsStreamThenReturnServiceUnavailable()
         throws Exception {
         reset(workspaceClient);
         reset(processingClient);
-        Mockito.doThrow(new ProcessingBadRequestException("Test")).when(processingClient).executeVitamProcess(
-            Matchers.anyObject(),
+        Mockito.doReturn("processId").when(processingClient).executeVitamProcessAsync(Matchers.anyObject(),
             Matchers.anyObject());
+        Mockito.doThrow(new ProcessNotFoundException("Test")).when(processingClient)
+            .getOperationProcessStatus("processId");
         final InputStream inputStream =
             PropertiesUtils.getResourceAsStream("SIP_bordereau_avec_objet_OK.zip");
 
         RestAssured.given().header(GlobalDataRest.X_REQUEST_ID, ingestGuid.getId())
             .body(inputStream).contentType(CommonMediaType.ZIP)
             .when().post(INGEST_URL)
-            .then().statusCode(Status.INTERNAL_SERVER_ERROR.getStatusCode());
+            .then().statusCode(Status.SERVICE_UNAVAILABLE.getStatusCode());
+    }
+
+    @Test
+    public void givenProcessNotFoundDuringRestartWhenUploadSipAsStreamThenReturnOK() throws Exception {
+        reset(workspaceClient);
+        reset(processingClient);
+
+        Mockito.doReturn(false).when(workspaceClient).isExistingContainer(Matchers.anyObject());
+        final GUID processId = GUIDFactory.newGUID();
+        final ItemStatus itemStatus = new ItemStatus(processId.toString()).increment(StatusCode.OK);
+        Mockito.doReturn(processId.toString()).when(processingClient).executeVitamProcessAsync(Matchers.anyObject(),
+            Matchers.anyObject());
+        Mockito.when(processingClient.getOperationProcessStatus(processId.toString()))
+            .thenReturn(new ItemStatus(processId.toString()).increment(StatusCode.STARTED))
+            .thenThrow(new ProcessNotFoundException("Restarting"))
+            .thenThrow(new ProcessingInternalServerException("Restarting"))
+            .thenReturn(itemStatus);
+
+        final InputStream inputStream =
+            PropertiesUtils.getResourceAsStream("SIP_bordereau_avec_objet_OK.zip");
+        RestAssured.given().header(GlobalDataRest.X_REQUEST_ID, ingestGuid.getId())
+            .body(inputStream).contentType(CommonMediaType.ZIP)
+            .when().post(INGEST_URL)
+            .then().statusCode(Status.OK.getStatusCode());
     }
 
     @Test
@@ -365,9 +392,8 @@ public class IngestInternalResourceTest {
         throws Exception {
         reset(workspaceClient);
         reset(processingClient);
-        Mockito.doThrow(new ProcessingInternalServerException("Test1")).when(processingClient).executeVitamProcess(
-            Matchers.anyObject(),
-            Matchers.anyObject());
+        Mockito.doThrow(new ProcessingInternalServerException("Test1")).when(processingClient)
+            .executeVitamProcessAsync(Matchers.anyObject(), Matchers.anyObject());
         final InputStream inputStream =
             PropertiesUtils.getResourceAsStream("SIP_bordereau_avec_objet_OK.zip");
 
@@ -378,19 +404,21 @@ public class IngestInternalResourceTest {
     }
 
     @Test
-    public void givenProcessUnavailableWhenUploadSipAsStreamThenRaiseAnExceptionProcessingException()
+    public void givenProcessUnavailableWhenUploadSipAsStreamThenReturnServiceUnavailable()
         throws Exception {
         reset(workspaceClient);
         reset(processingClient);
-        Mockito.doThrow(new ProcessingException("")).when(processingClient).executeVitamProcess(Matchers.anyObject(),
+        Mockito.doReturn("processId").when(processingClient).executeVitamProcessAsync(Matchers.anyObject(),
             Matchers.anyObject());
+        Mockito.doThrow(new ProcessingInternalServerException("")).when(processingClient)
+            .getOperationProcessStatus("processId");
         final InputStream inputStream =
             PropertiesUtils.getResourceAsStream("SIP_bordereau_avec_objet_OK.zip");
 
         RestAssured.given().header(GlobalDataRest.X_REQUEST_ID, ingestGuid.getId())
             .body(inputStream).contentType(CommonMediaType.ZIP)
             .when().post(INGEST_URL)
-            .then().statusCode(Status.INTERNAL_SERVER_ERROR.getStatusCode());
+            .then().statusCode(Status.SERVICE_UNAVAILABLE.getStatusCode());
     }
 
 }
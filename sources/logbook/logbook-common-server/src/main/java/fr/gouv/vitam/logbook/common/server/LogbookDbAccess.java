@@ -26,11 +26,14 @@
  *******************************************************************************/
 package fr.gouv.vitam.logbook.common.server;
 
+import java.util.Map;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.mongodb.client.MongoCursor;
 
 import fr.gouv.vitam.common.database.builder.request.single.Select;
 import fr.gouv.vitam.common.exception.DatabaseException;
+import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleObjectGroupParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleUnitParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookOperationParameters;
@@ -379,7 +382,38 @@ public interface LogbookDbAccess {
         throws LogbookDatabaseException, LogbookNotFoundException;
 
     /**
-     * Get a list of Logbook Operation through Closeable MongoCursor
+     * Update many Logbook LifeCycle Units at once<br>
+     * <br>
+     * The events are grouped by LifeCycle and added, in their order, within the "events" array of their LifeCycle.
+     *
+     * @param lifecycleItems events of one or several LifeCycles
+     * @return the outcome for each LifeCycle id: OK if updated, KO if not found, FATAL if its update failed
+     *
+     * @throws IllegalArgumentException if parameter has null or empty mandatory values
+     * @throws LogbookDatabaseException
+     */
+    Map<String, StatusCode> bulkWriteLogbookLifeCycleUnit(LogbookLifeCycleUnitParameters... lifecycleItems)
+        throws LogbookDatabaseException;
+
+    /**
+     * Update many Logbook LifeCycle ObjectGroups at once<br>
+     * <br>
+     * The events are grouped by LifeCycle and added, in their order, within the "events" array of their LifeCycle.
+     *
+     * @param lifecycleItems events of one or several LifeCycles
+     * @return the outcome for each LifeCycle id: OK if updated, KO if not found, FATAL if its update failed
+     *
+     * @throws IllegalArgumentException if parameter has null or empty mandatory values
+     * @throws LogbookDatabaseException
+     */
+    Map<String, StatusCode> bulkWriteLogbookLifeCycleObjectGroup(
+        LogbookLifeCycleObjectGroupParameters... lifecycleItems) throws LogbookDatabaseException;
+
+    /**
+     * Get a list of Logbook Operation through Closeable MongoCursor<br>
+     * An Operation only keeps its last 100 events, the others being stored in buckets: the queries on
+     * events.* fields only match these last events, while the returned Operations have all their events when not
+     * sliced.
      *
      * @param select
      * @param sliced If true will return the first and last events only
@@ -42,6 +42,10 @@ public enum LogbookCollections {
      * Operation Collection
      */
     OPERATION(LogbookOperation.class),
+    /**
+     * Buckets of events of the Operations
+     */
+    OPERATION_EVENTS(LogbookOperationEvents.class),
     /**
      * LifeCycle unit Collection
      */
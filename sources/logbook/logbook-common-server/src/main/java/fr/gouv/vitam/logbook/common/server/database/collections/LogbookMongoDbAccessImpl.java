@@ -28,11 +28,20 @@ package fr.gouv.vitam.logbook.common.server.database.collections;
 
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.lt;
 import static com.mongodb.client.model.Filters.or;
 import static com.mongodb.client.model.Indexes.hashed;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 
 import org.bson.Document;
 import org.bson.codecs.configuration.CodecRegistries;
@@ -44,13 +53,25 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.mongodb.BasicDBObject;
 import com.mongodb.ErrorCategory;
 import com.mongodb.MongoClient;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoClientOptions;
 import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.ListIndexesIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoIterable;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.PushOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.model.Updates;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
@@ -68,6 +89,7 @@ import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleObjectGroupParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleUnitParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookOperationParameters;
@@ -116,6 +138,24 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
 
     static final int LAST_EVENT_SLICE = -1;
     static final int TWO_LAST_EVENTS_SLICE = -2;
+    /**
+     * Number of last events kept within the operation document, all the events being in its buckets
+     */
+    static final int LAST_EVENTS_IN_OPERATION = LogbookOperationEvents.BUCKET_SIZE;
+    static final BasicDBObject EVENT_COUNT_PROJECTION = new BasicDBObject(LogbookOperation.EVENT_COUNT, 1);
+    /**
+     * Order of the events within a bucket
+     */
+    private static final Comparator<Document> EVENT_SEQUENCE_ORDER = new Comparator<Document>() {
+        @Override
+        public int compare(Document event1, Document event2) {
+            return Long.compare(getSequence(event1), getSequence(event2));
+        }
+
+        private long getSequence(Document event) {
+            return ((Number) event.get(LogbookOperationEvents.SEQUENCE)).longValue();
+        }
+    };
 
     static {
         DEFAULT_SLICE.putObject(LogbookDocument.EVENTS).put(SLICE, LAST_EVENT_SLICE);
@@ -136,6 +176,7 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
     public LogbookMongoDbAccessImpl(MongoClient mongoClient, final String dbname, final boolean recreate) {
         super(mongoClient, dbname, recreate);
         LogbookCollections.OPERATION.initialize(getMongoDatabase(), recreate);
+        LogbookCollections.OPERATION_EVENTS.initialize(getMongoDatabase(), recreate);
         LogbookCollections.LIFECYCLE_UNIT.initialize(getMongoDatabase(), recreate);
         LogbookCollections.LIFECYCLE_OBJECTGROUP.initialize(getMongoDatabase(), recreate);
     }
@@ -146,12 +187,15 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
      */
     static final MongoClientOptions getMongoClientOptions() {
         final VitamDocumentCodec<LogbookOperation> operationCodec = new VitamDocumentCodec<>(LogbookOperation.class);
+        final VitamDocumentCodec<LogbookOperationEvents> operationEventsCodec =
+            new VitamDocumentCodec<>(LogbookOperationEvents.class);
         final VitamDocumentCodec<LogbookLifeCycleUnit> lifecycleUnitCodec =
             new VitamDocumentCodec<>(LogbookLifeCycleUnit.class);
         final VitamDocumentCodec<LogbookLifeCycleObjectGroup> lifecycleObjectGroupCodec =
             new VitamDocumentCodec<>(LogbookLifeCycleObjectGroup.class);
         final CodecRegistry codecRegistry = CodecRegistries.fromRegistries(MongoClient.getDefaultCodecRegistry(),
-            CodecRegistries.fromCodecs(operationCodec, lifecycleUnitCodec, lifecycleObjectGroupCodec));
+            CodecRegistries.fromCodecs(operationCodec, operationEventsCodec, lifecycleUnitCodec,
+                lifecycleObjectGroupCodec));
         return MongoClientOptions.builder().codecRegistry(codecRegistry).build();
     }
 
@@ -262,12 +306,104 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
         if (sliced) {
             final ObjectNode operationSlice = JsonHandler.createObjectNode();
             operationSlice.putObject(LogbookDocument.EVENTS).put(SLICE, TWO_LAST_EVENTS_SLICE);
-            return select(LogbookCollections.OPERATION, select, operationSlice);
+            return new OperationEventsCursor(select(LogbookCollections.OPERATION, select, operationSlice), false);
         } else {
-            return select(LogbookCollections.OPERATION, select, DEFAULT_SLICE_WITH_ALL_EVENTS);
+            return new OperationEventsCursor(
+                select(LogbookCollections.OPERATION, select, DEFAULT_SLICE_WITH_ALL_EVENTS), true);
         }
     }
 
+    /**
+     * Cursor on Logbook Operations giving all their events, read from their buckets, or their last events only
+     */
+    private final class OperationEventsCursor implements MongoCursor<LogbookOperation> {
+        private final MongoCursor<LogbookOperation> cursor;
+        private final boolean allEvents;
+
+        private OperationEventsCursor(MongoCursor<LogbookOperation> cursor, boolean allEvents) {
+            this.cursor = cursor;
+            this.allEvents = allEvents;
+        }
+
+        @Override
+        public void close() {
+            cursor.close();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor.hasNext();
+        }
+
+        @Override
+        public LogbookOperation next() {
+            return readOperation(cursor.next());
+        }
+
+        @Override
+        public LogbookOperation tryNext() {
+            final LogbookOperation operation = cursor.tryNext();
+            return operation == null ? null : readOperation(operation);
+        }
+
+        private LogbookOperation readOperation(LogbookOperation operation) {
+            if (allEvents) {
+                return mergeOperationEvents(operation);
+            }
+            operation.remove(LogbookOperation.EVENT_COUNT);
+            return operation;
+        }
+
+        @Override
+        public ServerCursor getServerCursor() {
+            return cursor.getServerCursor();
+        }
+
+        @Override
+        public ServerAddress getServerAddress() {
+            return cursor.getServerAddress();
+        }
+    }
+
+    /**
+     * Replace the last events kept in the operation by all its events, read from its buckets.<br>
+     * The buckets are written after the event counter of the operation is incremented: while they miss some of the
+     * counted events (append in progress or failed), the events kept in the operation are returned.
+     *
+     * @param operation the operation
+     * @return the operation with all its events
+     */
+    @SuppressWarnings("unchecked")
+    final LogbookOperation mergeOperationEvents(LogbookOperation operation) {
+        final List<Document> events = new ArrayList<>();
+        final String operationId = operation.getString(LogbookDocument.ID);
+        try (final MongoCursor<LogbookOperationEvents> buckets =
+            LogbookCollections.OPERATION_EVENTS.getCollection()
+                .find(and(gte(LogbookDocument.ID, LogbookOperationEvents.getFirstBucketId(operationId)),
+                    lt(LogbookDocument.ID, LogbookOperationEvents.getAfterLastBucketId(operationId))))
+                .sort(Sorts.ascending(LogbookDocument.ID)).iterator()) {
+            while (buckets.hasNext()) {
+                final List<Document> bucketEvents = (List<Document>) buckets.next().get(LogbookDocument.EVENTS);
+                // concurrent appends may reach one bucket in any order
+                Collections.sort(bucketEvents, EVENT_SEQUENCE_ORDER);
+                for (final Document event : bucketEvents) {
+                    event.remove(LogbookOperationEvents.SEQUENCE);
+                    events.add(event);
+                }
+            }
+        }
+        final Number eventCount = (Number) operation.remove(LogbookOperation.EVENT_COUNT);
+        if (eventCount != null && events.size() < eventCount.longValue()) {
+            if (eventCount.longValue() > LAST_EVENTS_IN_OPERATION) {
+                LOGGER.warn("Operation " + operationId + ": " + events.size() + " events in buckets out of " +
+                    eventCount + ", only the last events are returned");
+            }
+        } else if (!events.isEmpty()) {
+            operation.put(LogbookDocument.EVENTS, events);
+        }
+        return operation;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public MongoCursor<LogbookLifeCycleUnit> getLogbookLifeCycleUnits(JsonNode select)
@@ -383,7 +519,13 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
     @Override
     public LogbookOperation getLogbookOperation(String eventIdentifierProcess)
         throws LogbookDatabaseException, LogbookNotFoundException {
-        return (LogbookOperation) getLogbook(LogbookCollections.OPERATION, eventIdentifierProcess);
+        final LogbookOperation operation =
+            (LogbookOperation) getLogbook(LogbookCollections.OPERATION, eventIdentifierProcess);
+        try {
+            return mergeOperationEvents(operation);
+        } catch (final MongoException e) {
+            throw new LogbookDatabaseException(SELECT_ISSUE + " (" + e.getMessage() + ")", e);
+        }
     }
 
     @Override
@@ -550,12 +692,17 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
         }
     }
 
-    @SuppressWarnings("unchecked")
+    @SuppressWarnings({"unchecked", "rawtypes"})
     final void createLogbook(LogbookCollections collection, LogbookParameters item)
         throws LogbookDatabaseException, LogbookAlreadyExistsException {
         ParametersChecker.checkParameter(ITEM_CANNOT_BE_NULL, item);
+        final VitamDocument document = getDocument(item);
+        if (collection == LogbookCollections.OPERATION) {
+            // its events will be stored in buckets
+            document.append(LogbookOperation.EVENT_COUNT, 0);
+        }
         try {
-            collection.getCollection().insertOne(getDocument(item));
+            collection.getCollection().insertOne(document);
         } catch (final MongoException e) {
             switch (getErrorCategory(e)) {
                 case DUPLICATE_KEY:
@@ -610,6 +757,10 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
             document.remove(LogbookDocument.EVENTS);
             document.remove(LogbookDocument.ID);
 
+            if (collection == LogbookCollections.OPERATION &&
+                appendOperationEvents(mainLogbookDocumentId, Collections.singletonList(document))) {
+                return;
+            }
             final UpdateResult result = collection.getCollection().updateOne(
                 eq(LogbookDocument.ID, mainLogbookDocumentId),
                 Updates.push(LogbookDocument.EVENTS, document));
@@ -629,6 +780,68 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
         }
     }
 
+    /**
+     * Append events to an operation: the operation keeps its last events only and counts all of them, while all the
+     * events are appended to its buckets
+     *
+     * @param operationId the operation id
+     * @param events the events to append
+     * @return False if the operation is not found or was created before the buckets, all its events being in the
+     *         operation document
+     * @throws MongoException
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private boolean appendOperationEvents(String operationId, List<? extends VitamDocument> events) {
+        final Document operation = (Document) LogbookCollections.OPERATION.getCollection().findOneAndUpdate(
+            and(eq(LogbookDocument.ID, operationId), Filters.exists(LogbookOperation.EVENT_COUNT)),
+            Updates.combine(Updates.inc(LogbookOperation.EVENT_COUNT, events.size()),
+                Updates.pushEach(LogbookDocument.EVENTS, events,
+                    new PushOptions().slice(-LAST_EVENTS_IN_OPERATION))),
+            new FindOneAndUpdateOptions().projection(EVENT_COUNT_PROJECTION).returnDocument(ReturnDocument.AFTER));
+        if (operation == null) {
+            return false;
+        }
+        final long eventCount = ((Number) operation.get(LogbookOperation.EVENT_COUNT)).longValue();
+        writeOperationEvents(operationId, eventCount - events.size(), events);
+        return true;
+    }
+
+    /**
+     * Append events to the buckets of an operation, with one write per bucket
+     *
+     * @param operationId the operation id
+     * @param firstSequence the rank of the first event within all the events of the operation
+     * @param events the events to append
+     * @throws MongoException
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void writeOperationEvents(String operationId, long firstSequence, List<? extends VitamDocument> events) {
+        int rank = 0;
+        while (rank < events.size()) {
+            final String bucketId = LogbookOperationEvents.getBucketId(operationId, firstSequence + rank);
+            final List<VitamDocument> bucketEvents = new ArrayList<>();
+            do {
+                final VitamDocument event = events.get(rank);
+                event.append(LogbookOperationEvents.SEQUENCE, firstSequence + rank);
+                bucketEvents.add(event);
+                rank++;
+            } while (rank < events.size() &&
+                bucketId.equals(LogbookOperationEvents.getBucketId(operationId, firstSequence + rank)));
+            final Bson update = Updates.pushEach(LogbookDocument.EVENTS, bucketEvents);
+            try {
+                LogbookCollections.OPERATION_EVENTS.getCollection().updateOne(eq(LogbookDocument.ID, bucketId),
+                    update, new UpdateOptions().upsert(true));
+            } catch (final MongoException e) {
+                if (getErrorCategory(e) != ErrorCategory.DUPLICATE_KEY) {
+                    throw e;
+                }
+                // the bucket was created concurrently: it exists now
+                LogbookCollections.OPERATION_EVENTS.getCollection().updateOne(eq(LogbookDocument.ID, bucketId),
+                    update);
+            }
+        }
+    }
+
     @Override
     public void updateLogbookOperation(LogbookOperationParameters operationItem)
         throws LogbookDatabaseException, LogbookNotFoundException {
@@ -707,9 +920,19 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
             currentEvent.remove(LogbookDocument.ID);
             events.add(currentEvent);
         }
-        document.append(LogbookDocument.EVENTS, events);
+        final boolean inBuckets = collection == LogbookCollections.OPERATION;
+        if (inBuckets) {
+            document.append(LogbookOperation.EVENT_COUNT, events.size());
+            document.append(LogbookDocument.EVENTS, new ArrayList<>(
+                events.subList(Math.max(0, events.size() - LAST_EVENTS_IN_OPERATION), events.size())));
+        } else {
+            document.append(LogbookDocument.EVENTS, events);
+        }
         try {
             collection.getCollection().insertOne(document);
+            if (inBuckets) {
+                writeOperationEvents(document.getId(), 0, events);
+            }
         } catch (final MongoException e) {
             switch (getErrorCategory(e)) {
                 case DUPLICATE_KEY:
@@ -770,6 +993,9 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
         }
 
         try {
+            if (collection == LogbookCollections.OPERATION && appendOperationEvents(mainLogbookDocumentId, events)) {
+                return;
+            }
             final UpdateResult result = collection.getCollection().updateOne(
                 eq(LogbookDocument.ID, mainLogbookDocumentId),
                 Updates.pushEach(LogbookDocument.EVENTS, events));
@@ -807,9 +1033,87 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
         updateBulkLogbook(LogbookCollections.LIFECYCLE_OBJECTGROUP, lifecycleItems);
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    final Map<String, StatusCode> bulkWriteLifeCycles(final LogbookCollections collection,
+        final LogbookParameters... items) throws LogbookDatabaseException {
+        if (items == null || items.length == 0) {
+            throw new IllegalArgumentException(AT_LEAST_ONE_ITEM_IS_NEEDED);
+        }
+        // Group the events by LifeCycle, keeping their order
+        final Map<String, List<VitamDocument>> eventsById = new LinkedHashMap<>();
+        for (final LogbookParameters item : items) {
+            final VitamDocument event = getDocumentForUpdate(item);
+            final String id = event.getId();
+            event.remove(LogbookDocument.EVENTS);
+            event.remove(LogbookDocument.ID);
+            List<VitamDocument> events = eventsById.get(id);
+            if (events == null) {
+                events = new ArrayList<>();
+                eventsById.put(id, events);
+            }
+            events.add(event);
+        }
+        final List<String> ids = new ArrayList<>(eventsById.keySet());
+        final List<UpdateOneModel<VitamDocument>> updates = new ArrayList<>(ids.size());
+        final Map<String, StatusCode> outcomes = new LinkedHashMap<>();
+        for (final Entry<String, List<VitamDocument>> entry : eventsById.entrySet()) {
+            updates.add(new UpdateOneModel<>(eq(LogbookDocument.ID, entry.getKey()),
+                Updates.pushEach(LogbookDocument.EVENTS, entry.getValue())));
+            outcomes.put(entry.getKey(), StatusCode.OK);
+        }
+        int matched;
+        try {
+            // unordered: one failing LifeCycle does not prevent the others to be updated
+            matched = collection.getCollection().bulkWrite(updates, new BulkWriteOptions().ordered(false))
+                .getMatchedCount();
+        } catch (final MongoBulkWriteException e) {
+            for (final BulkWriteError error : e.getWriteErrors()) {
+                LOGGER.error(UPDATE_ISSUE + " " + ids.get(error.getIndex()) + ": " + error.getMessage());
+                outcomes.put(ids.get(error.getIndex()), StatusCode.FATAL);
+            }
+            matched = e.getWriteResult().getMatchedCount() + e.getWriteErrors().size();
+        } catch (final MongoException e) {
+            throw new LogbookDatabaseException(
+                UPDATE_ISSUE + " (" + e.getClass().getName() + " " + e.getMessage() + ": " + e.getCode() + ")", e);
+        }
+        if (matched < ids.size()) {
+            // Some LifeCycles do not exist
+            final Set<String> found = new HashSet<>();
+            try (final MongoCursor<VitamDocument> cursor = collection.getCollection()
+                .find(Filters.in(LogbookDocument.ID, ids)).projection(ID_PROJECTION).iterator()) {
+                while (cursor.hasNext()) {
+                    found.add(cursor.next().getId());
+                }
+            } catch (final MongoException e) {
+                throw new LogbookDatabaseException(SELECT_ISSUE, e);
+            }
+            for (final String id : ids) {
+                if (!found.contains(id)) {
+                    outcomes.put(id, StatusCode.KO);
+                }
+            }
+        }
+        return outcomes;
+    }
+
+    @Override
+    public Map<String, StatusCode> bulkWriteLogbookLifeCycleUnit(LogbookLifeCycleUnitParameters... lifecycleItems)
+        throws LogbookDatabaseException {
+        return bulkWriteLifeCycles(LogbookCollections.LIFECYCLE_UNIT, lifecycleItems);
+    }
+
+    @Override
+    public Map<String, StatusCode> bulkWriteLogbookLifeCycleObjectGroup(
+        LogbookLifeCycleObjectGroupParameters... lifecycleItems) throws LogbookDatabaseException {
+        return bulkWriteLifeCycles(LogbookCollections.LIFECYCLE_OBJECTGROUP, lifecycleItems);
+    }
+
     // Not check, test feature !
     @Override
     public void deleteCollection(LogbookCollections collection) throws DatabaseException {
+        if (collection == LogbookCollections.OPERATION) {
+            LogbookCollections.OPERATION_EVENTS.getCollection().deleteMany(new Document());
+        }
         final long count = collection.getCollection().count();
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug(collection.getName() + " count before: " + count);
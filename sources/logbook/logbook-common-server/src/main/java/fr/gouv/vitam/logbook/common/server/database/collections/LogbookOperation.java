@@ -49,6 +49,11 @@ import fr.gouv.vitam.logbook.common.parameters.LogbookParametersFactory;
  */
 public class LogbookOperation extends VitamDocument<LogbookOperation> {
     private static final long serialVersionUID = -8343195329673741173L;
+    /**
+     * Number of events of the operation, stored in {@link LogbookOperationEvents}. Operations without it (created
+     * before) keep all their events in this document.
+     */
+    public static final String EVENT_COUNT = "_evc";
 
     /**
      * Constructor from LogbookOperationParameters
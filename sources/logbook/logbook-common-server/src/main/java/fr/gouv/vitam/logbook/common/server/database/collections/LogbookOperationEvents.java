@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.logbook.common.server.database.collections;
+
+import org.bson.Document;
+
+/**
+ * Bucket of events of one Logbook Operation<br>
+ * <br>
+ * The events of an operation are stored by bucket of {@link #BUCKET_SIZE} events, in their order of arrival, with an
+ * id made of the operation id and the bucket number, such that the buckets of one operation are read in order with a
+ * range on the id.
+ */
+public class LogbookOperationEvents extends Document {
+    private static final long serialVersionUID = 2419837616432907547L;
+    /**
+     * Number of events in one bucket
+     */
+    public static final int BUCKET_SIZE = 100;
+    /**
+     * Rank of the event within the events of its operation
+     */
+    public static final String SEQUENCE = "_seq";
+    private static final char SEPARATOR = '_';
+    private static final String BUCKET_FORMAT = "%s" + SEPARATOR + "%08d";
+
+    /**
+     * Constructor for Codec
+     *
+     * @param content
+     */
+    public LogbookOperationEvents(Document content) {
+        super(content);
+    }
+
+    /**
+     * @param operationId the operation id
+     * @param sequence the rank of the event within the events of the operation
+     * @return the id of the bucket containing this event
+     */
+    static final String getBucketId(String operationId, long sequence) {
+        return String.format(BUCKET_FORMAT, operationId, sequence / BUCKET_SIZE);
+    }
+
+    /**
+     * @param operationId the operation id
+     * @return the lowest possible bucket id of this operation (included)
+     */
+    static final String getFirstBucketId(String operationId) {
+        return operationId + SEPARATOR;
+    }
+
+    /**
+     * @param operationId the operation id
+     * @return the id after the last possible bucket id of this operation (excluded)
+     */
+    static final String getAfterLastBucketId(String operationId) {
+        return operationId + (char) (SEPARATOR + 1);
+    }
+}
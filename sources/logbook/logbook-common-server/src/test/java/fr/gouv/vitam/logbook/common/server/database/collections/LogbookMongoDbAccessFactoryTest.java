@@ -36,6 +36,7 @@ import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -59,6 +60,7 @@ import fr.gouv.vitam.common.exception.VitamException;
 import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.junit.JunitHelper;
+import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.common.server.application.configuration.DbConfigurationImpl;
 import fr.gouv.vitam.common.server.application.configuration.MongoDbNode;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleObjectGroupParameters;
@@ -599,6 +601,45 @@ public class LogbookMongoDbAccessFactoryTest {
         }
     }
 
+    private static LogbookLifeCycleUnitParameters newLifeCycleUnitParameters(String eventIdProc, String id) {
+        final LogbookLifeCycleUnitParameters parameters = LogbookParametersFactory.newLogbookLifeCycleUnitParameters();
+        for (final LogbookParameterName name : LogbookParameterName.values()) {
+            parameters.putParameterValue(name,
+                GUIDFactory.newEventGUID(0).getId());
+        }
+        parameters.putParameterValue(LogbookParameterName.eventDateTime,
+            LocalDateUtil.now().toString());
+        parameters.putParameterValue(LogbookParameterName.eventIdentifierProcess, eventIdProc);
+        parameters.putParameterValue(LogbookParameterName.objectIdentifier, id);
+        return parameters;
+    }
+
+    @Test
+    public void testBulkWriteLifeCycleUnits() throws VitamException {
+        final String eventIdProc = GUIDFactory.newEventGUID(0).getId();
+        final String unit1 = GUIDFactory.newUnitGUID(0).getId();
+        final String unit2 = GUIDFactory.newUnitGUID(0).getId();
+        final String unknown = GUIDFactory.newUnitGUID(0).getId();
+        mongoDbAccess.createLogbookLifeCycleUnit(eventIdProc, newLifeCycleUnitParameters(eventIdProc, unit1));
+        mongoDbAccess.createLogbookLifeCycleUnit(eventIdProc, newLifeCycleUnitParameters(eventIdProc, unit2));
+
+        final Map<String, StatusCode> outcomes = mongoDbAccess.bulkWriteLogbookLifeCycleUnit(
+            newLifeCycleUnitParameters(eventIdProc, unit1), newLifeCycleUnitParameters(eventIdProc, unit2),
+            newLifeCycleUnitParameters(eventIdProc, unknown), newLifeCycleUnitParameters(eventIdProc, unit1));
+        assertEquals(3, outcomes.size());
+        assertEquals(StatusCode.OK, outcomes.get(unit1));
+        assertEquals(StatusCode.OK, outcomes.get(unit2));
+        assertEquals(StatusCode.KO, outcomes.get(unknown));
+        // the LifeCycle itself and its events
+        assertEquals(3, mongoDbAccess.getLogbookLifeCycleUnit(unit1).getLifeCycles(true).size());
+        assertEquals(2, mongoDbAccess.getLogbookLifeCycleUnit(unit2).getLifeCycles(true).size());
+        assertFalse(mongoDbAccess.existsLogbookLifeCycleUnit(unknown));
+        try {
+            mongoDbAccess.bulkWriteLogbookLifeCycleUnit();
+            fail("Should throw an exception");
+        } catch (final IllegalArgumentException e) {}
+    }
+
     @Test
     public void testFunctionalLifeCycleObjectGroup() throws VitamException {
         assertNotNull(mongoDbAccess);
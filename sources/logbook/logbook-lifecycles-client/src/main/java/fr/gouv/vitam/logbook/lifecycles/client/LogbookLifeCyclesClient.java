@@ -26,11 +26,14 @@
  *******************************************************************************/
 package fr.gouv.vitam.logbook.lifecycles.client;
 
+import java.util.Map;
+
 import com.fasterxml.jackson.databind.JsonNode;
 
 import fr.gouv.vitam.common.client.BasicClient;
 import fr.gouv.vitam.common.client.VitamRequestIterator;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientAlreadyExistsException;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientBadRequestException;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientException;
@@ -237,4 +240,34 @@ public interface LogbookLifeCyclesClient extends BasicClient {
     void bulkUpdateObjectGroup(String objectIdentifier, Iterable<LogbookLifeCycleParameters> queue)
         throws LogbookClientNotFoundException, LogbookClientBadRequestException, LogbookClientServerException;
 
+    /**
+     * Bulk Update for many Units<br>
+     * <br>
+     * Unlike {@link #bulkUpdateUnit(String, Iterable)}, the queue may contain the events of several Units: they are
+     * all written at once, each one in its order within its Unit.
+     *
+     * @param eventIdProc the operation identifier
+     * @param queue queue of LogbookLifeCycleParameters to update, for one or several Units
+     * @return the outcome for each Unit id: OK if updated, KO if not found, FATAL if its update failed
+     * @throws LogbookClientBadRequestException if the argument is incorrect
+     * @throws LogbookClientServerException if the Server got an internal error
+     */
+    Map<String, StatusCode> bulkWriteUnit(String eventIdProc, Iterable<LogbookLifeCycleParameters> queue)
+        throws LogbookClientBadRequestException, LogbookClientServerException;
+
+    /**
+     * Bulk Update for many ObjectGroups<br>
+     * <br>
+     * Unlike {@link #bulkUpdateObjectGroup(String, Iterable)}, the queue may contain the events of several
+     * ObjectGroups: they are all written at once, each one in its order within its ObjectGroup.
+     *
+     * @param eventIdProc the operation identifier
+     * @param queue queue of LogbookLifeCycleParameters to update, for one or several ObjectGroups
+     * @return the outcome for each ObjectGroup id: OK if updated, KO if not found, FATAL if its update failed
+     * @throws LogbookClientBadRequestException if the argument is incorrect
+     * @throws LogbookClientServerException if the Server got an internal error
+     */
+    Map<String, StatusCode> bulkWriteObjectGroup(String eventIdProc, Iterable<LogbookLifeCycleParameters> queue)
+        throws LogbookClientBadRequestException, LogbookClientServerException;
+
 }
@@ -28,6 +28,8 @@ package fr.gouv.vitam.logbook.lifecycles.client;
 
 
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.ws.rs.HttpMethod;
 
@@ -42,6 +44,7 @@ import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.common.parameter.ParameterHelper;
 import fr.gouv.vitam.logbook.common.client.ErrorMessage;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientAlreadyExistsException;
@@ -205,4 +208,26 @@ class LogbookLifeCyclesClientMock extends AbstractMockClient implements LogbookL
         bulkUpdate(eventIdProc, queue);
     }
 
+    @Override
+    public Map<String, StatusCode> bulkWriteUnit(String eventIdProc, Iterable<LogbookLifeCycleParameters> queue)
+        throws LogbookClientBadRequestException {
+        return bulkWrite(eventIdProc, queue);
+    }
+
+    @Override
+    public Map<String, StatusCode> bulkWriteObjectGroup(String eventIdProc,
+        Iterable<LogbookLifeCycleParameters> queue) throws LogbookClientBadRequestException {
+        return bulkWrite(eventIdProc, queue);
+    }
+
+    private Map<String, StatusCode> bulkWrite(String eventIdProc, Iterable<LogbookLifeCycleParameters> queue)
+        throws LogbookClientBadRequestException {
+        bulkUpdate(eventIdProc, queue);
+        final Map<String, StatusCode> outcomes = new LinkedHashMap<>();
+        for (final LogbookLifeCycleParameters parameters : queue) {
+            outcomes.put(parameters.getParameterValue(LogbookParameterName.objectIdentifier), StatusCode.OK);
+        }
+        return outcomes;
+    }
+
 }
@@ -26,6 +26,11 @@
  *******************************************************************************/
 package fr.gouv.vitam.logbook.lifecycles.client;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -43,6 +48,7 @@ import fr.gouv.vitam.common.exception.VitamClientInternalException;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.common.parameter.ParameterHelper;
 import fr.gouv.vitam.logbook.common.client.ErrorMessage;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientAlreadyExistsException;
@@ -70,6 +76,7 @@ class LogbookLifeCyclesClientRest extends DefaultClient implements LogbookLifeCy
     private static final String OPERATIONS_URL = "/operations";
     private static final String UNIT_LIFECYCLES_URL = "/unitlifecycles";
     private static final String OBJECT_GROUP_LIFECYCLES_URL = "/objectgrouplifecycles";
+    private static final String BULK_URL = "/bulk";
     private static final ServerIdentity SERVER_IDENTITY = ServerIdentity.getInstance();
     private static final int TENANT_ID = 0;
 
@@ -418,4 +425,56 @@ class LogbookLifeCyclesClientRest extends DefaultClient implements LogbookLifeCy
         }
     }
 
+    @Override
+    public Map<String, StatusCode> bulkWriteUnit(String eventIdProc, Iterable<LogbookLifeCycleParameters> queue)
+        throws LogbookClientBadRequestException, LogbookClientServerException {
+        return bulkWrite(eventIdProc, queue, UNIT_LIFECYCLES_URL);
+    }
+
+    @Override
+    public Map<String, StatusCode> bulkWriteObjectGroup(String eventIdProc,
+        Iterable<LogbookLifeCycleParameters> queue)
+        throws LogbookClientBadRequestException, LogbookClientServerException {
+        return bulkWrite(eventIdProc, queue, OBJECT_GROUP_LIFECYCLES_URL);
+    }
+
+    private Map<String, StatusCode> bulkWrite(String eventIdProc, Iterable<LogbookLifeCycleParameters> queue,
+        String uri) throws LogbookClientBadRequestException, LogbookClientServerException {
+        if (queue == null) {
+            LOGGER.error(eventIdProc + " " + ErrorMessage.LOGBOOK_MISSING_MANDATORY_PARAMETER.getMessage());
+            throw new LogbookClientBadRequestException(
+                ErrorMessage.LOGBOOK_MISSING_MANDATORY_PARAMETER.getMessage());
+        }
+        Response response = null;
+        try {
+            response = performRequest(HttpMethod.PUT, OPERATIONS_URL + "/" + eventIdProc + uri + BULK_URL, null,
+                queue, MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+            final Status status = Status.fromStatusCode(response.getStatus());
+            switch (status) {
+                case OK:
+                    LOGGER.debug(eventIdProc + " " + Response.Status.OK.getReasonPhrase());
+                    final JsonNode result = JsonHandler.getFromString(response.readEntity(String.class));
+                    final Map<String, StatusCode> outcomes = new LinkedHashMap<>();
+                    final Iterator<Entry<String, JsonNode>> fields = result.fields();
+                    while (fields.hasNext()) {
+                        final Entry<String, JsonNode> field = fields.next();
+                        outcomes.put(field.getKey(), StatusCode.valueOf(field.getValue().asText()));
+                    }
+                    return outcomes;
+                case BAD_REQUEST:
+                    LOGGER.error(eventIdProc + " " + ErrorMessage.LOGBOOK_MISSING_MANDATORY_PARAMETER.getMessage());
+                    throw new LogbookClientBadRequestException(
+                        ErrorMessage.LOGBOOK_MISSING_MANDATORY_PARAMETER.getMessage());
+                default:
+                    LOGGER.error(ErrorMessage.INTERNAL_SERVER_ERROR.getMessage() + ':' + status.getReasonPhrase());
+                    throw new LogbookClientServerException(ErrorMessage.INTERNAL_SERVER_ERROR.getMessage());
+            }
+        } catch (final VitamClientInternalException | InvalidParseOperationException | IllegalArgumentException e) {
+            LOGGER.error(ErrorMessage.INTERNAL_SERVER_ERROR.getMessage(), e);
+            throw new LogbookClientServerException(ErrorMessage.INTERNAL_SERVER_ERROR.getMessage(), e);
+        } finally {
+            consumeAnyEntityAndClose(response);
+        }
+    }
+
 }
@@ -26,11 +26,15 @@
  *******************************************************************************/
 package fr.gouv.vitam.logbook.lifecycles.client;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Map;
+
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -50,6 +54,7 @@ import fr.gouv.vitam.common.exception.VitamApplicationServerException;
 import fr.gouv.vitam.common.exception.VitamClientInternalException;
 import fr.gouv.vitam.common.guid.GUID;
 import fr.gouv.vitam.common.guid.GUIDFactory;
+import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.common.server.application.AbstractVitamApplication;
 import fr.gouv.vitam.common.server.application.configuration.DefaultVitamApplicationConfiguration;
@@ -159,6 +164,22 @@ public class LogbookLifeCyclesClientRestTest extends VitamJerseyTest {
             return expectedResponse.put();
         }
 
+        @PUT
+        @Path("/operations/{id_op}/unitlifecycles/bulk")
+        @Consumes(MediaType.APPLICATION_JSON)
+        @Produces(MediaType.APPLICATION_JSON)
+        public Response bulkWriteUnit(String arrayNodeLifecycle) {
+            return expectedResponse.put();
+        }
+
+        @PUT
+        @Path("/operations/{id_op}/objectgrouplifecycles/bulk")
+        @Consumes(MediaType.APPLICATION_JSON)
+        @Produces(MediaType.APPLICATION_JSON)
+        public Response bulkWriteObjectGroup(String arrayNodeLifecycle) {
+            return expectedResponse.put();
+        }
+
         @PUT
         @Path("/operations/{id_op}/unitlifecycles/{id_lc}/commit")
         @Consumes(MediaType.APPLICATION_JSON)
@@ -579,6 +600,34 @@ public class LogbookLifeCyclesClientRestTest extends VitamJerseyTest {
         assertNotNull(client.objectGroupLifeCyclesByOperationIterator("id"));
     }
 
+    @Test
+    public void bulkWriteExecution() throws Exception {
+        when(mock.put()).thenReturn(Response.status(Response.Status.OK)
+            .entity(JsonHandler.createObjectNode().put("unit1", "OK").put("unit2", "KO")).build());
+        final Map<String, StatusCode> outcomes =
+            client.bulkWriteUnit("id", Arrays.asList(getCompleteLifeCycleUnitParameters()));
+        assertEquals(2, outcomes.size());
+        assertEquals(StatusCode.OK, outcomes.get("unit1"));
+        assertEquals(StatusCode.KO, outcomes.get("unit2"));
+
+        reset(mock);
+        when(mock.put()).thenReturn(Response.status(Response.Status.BAD_REQUEST).build());
+        try {
+            client.bulkWriteObjectGroup("id", Arrays.asList(getCompleteLifeCycleObjectGroupParameters()));
+            fail("Should raized an exception");
+        } catch (final LogbookClientBadRequestException e) {
+
+        }
+        reset(mock);
+        when(mock.put()).thenReturn(Response.status(Response.Status.INTERNAL_SERVER_ERROR).build());
+        try {
+            client.bulkWriteObjectGroup("id", Arrays.asList(getCompleteLifeCycleObjectGroupParameters()));
+            fail("Should raized an exception");
+        } catch (final LogbookClientServerException e) {
+
+        }
+    }
+
     @Test
     public void closeExecution() throws Exception {
         client.close();
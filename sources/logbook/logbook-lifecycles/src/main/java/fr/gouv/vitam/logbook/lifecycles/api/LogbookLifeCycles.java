@@ -27,10 +27,12 @@
 package fr.gouv.vitam.logbook.lifecycles.api;
 
 import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleObjectGroupParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleUnitParameters;
@@ -211,6 +213,18 @@ public interface LogbookLifeCycles {
     public LogbookLifeCycleUnit getCursorUnitNext(String cursorId)
         throws LogbookNotFoundException, LogbookDatabaseException;
 
+    /**
+     * Get the next available Unit Lifecycles, at most limit of them.<br>
+     * The cursor is closed once all entries are read.
+     *
+     * @param cursorId
+     * @param limit the maximum number of Lifecycles to return
+     * @return the next available, less than limit (possibly none) if there is no more entry
+     * @throws LogbookDatabaseException if the cursor is not found
+     */
+    public List<LogbookLifeCycleUnit> getCursorUnitNext(String cursorId, int limit)
+        throws LogbookDatabaseException;
+
     /**
      * Create a cursor for all ObjectGroup Lifecycles from one operation
      *
@@ -233,6 +247,18 @@ public interface LogbookLifeCycles {
     public LogbookLifeCycleObjectGroup getCursorObjectGroupNext(String cursorId)
         throws LogbookNotFoundException, LogbookDatabaseException;
 
+    /**
+     * Get the next available ObjectGroup Lifecycles, at most limit of them.<br>
+     * The cursor is closed once all entries are read.
+     *
+     * @param cursorId
+     * @param limit the maximum number of Lifecycles to return
+     * @return the next available, less than limit (possibly none) if there is no more entry
+     * @throws LogbookDatabaseException if the cursor is not found
+     */
+    public List<LogbookLifeCycleObjectGroup> getCursorObjectGroupNext(String cursorId, int limit)
+        throws LogbookDatabaseException;
+
     /**
      * Finalize the cursor
      *
@@ -269,4 +295,20 @@ public interface LogbookLifeCycles {
     void updateBulkLogbookLifecycle(String idOp, LogbookLifeCycleParameters[] lifecycleArray)
         throws LogbookDatabaseException, LogbookNotFoundException;
 
+    /**
+     * Update many Logbook Lifecycles with multiple sub-events <br>
+     * <br>
+     * The entries are grouped by Lifecycle and added in order within the "events" array of their Lifecycle.
+     *
+     * @param idOp Operation Id
+     * @param lifecycleArray containing the Lifecycle Logbook entries of one or several Lifecycles, all Unit or all
+     *        ObjectGroup ones
+     * @return the outcome for each Lifecycle id: OK if updated, KO if not found, FATAL if its update failed
+     *
+     * @throws IllegalArgumentException if parameter has null or empty mandatory values
+     * @throws LogbookDatabaseException
+     */
+    Map<String, StatusCode> bulkWriteLogbookLifecycles(String idOp, LogbookLifeCycleParameters[] lifecycleArray)
+        throws LogbookDatabaseException;
+
 }
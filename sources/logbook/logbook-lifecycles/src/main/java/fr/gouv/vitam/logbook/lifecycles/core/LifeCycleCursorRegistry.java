@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.logbook.lifecycles.core;
+
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.mongodb.client.MongoCursor;
+
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.guid.GUIDFactory;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.thread.VitamThreadFactory;
+import fr.gouv.vitam.logbook.common.server.exception.LogbookDatabaseException;
+
+/**
+ * Registry of the MongoCursors opened to iterate over the LifeCycles of one operation.<br>
+ * <br>
+ * A cursor not used during the idle timeout is closed and removed by a background purge, and the number of cursors
+ * opened at once on this node is bounded, so that clients abandoning their iteration cannot leak cursors.
+ */
+public final class LifeCycleCursorRegistry {
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(LifeCycleCursorRegistry.class);
+
+    /**
+     * Default maximum number of cursors opened at once
+     */
+    public static final int DEFAULT_MAX_CURSORS = 1000;
+    /**
+     * Default idle timeout of a cursor in ms
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT = 300000L;
+    private static final long PURGE_DELAY = 10000L;
+    private static final ScheduledExecutorService PURGER =
+        Executors.newSingleThreadScheduledExecutor(VitamThreadFactory.getInstance());
+
+    private static final LifeCycleCursorRegistry REGISTRY = new LifeCycleCursorRegistry();
+
+    private final ConcurrentHashMap<String, RegisteredCursor> cursors = new ConcurrentHashMap<>();
+    // slots reserved by the registered cursors and the registrations in progress
+    private final AtomicInteger nbCursors = new AtomicInteger();
+    private final AtomicLong nbExpired = new AtomicLong();
+    private final AtomicLong nbRejected = new AtomicLong();
+    private volatile int maxCursors = DEFAULT_MAX_CURSORS;
+    private volatile long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+    /**
+     * Cursor and its last access time
+     */
+    private static final class RegisteredCursor {
+        private final MongoCursor<?> cursor;
+        private final Class<?> type;
+        private volatile long lastAccess;
+
+        private RegisteredCursor(MongoCursor<?> cursor, Class<?> type) {
+            this.cursor = cursor;
+            this.type = type;
+            lastAccess = System.currentTimeMillis();
+        }
+    }
+
+    LifeCycleCursorRegistry() {
+        PURGER.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                purgeExpired();
+            }
+        }, PURGE_DELAY, PURGE_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the registry shared by all the requests of this node
+     */
+    public static LifeCycleCursorRegistry getInstance() {
+        return REGISTRY;
+    }
+
+    /**
+     * Change the limits of the registry
+     *
+     * @param maxCursors maximum number of cursors opened at once, default value if less than 1
+     * @param idleTimeout idle timeout of a cursor in ms, default value if less than 1
+     * @return this
+     */
+    public LifeCycleCursorRegistry setLimits(int maxCursors, long idleTimeout) {
+        this.maxCursors = maxCursors > 0 ? maxCursors : DEFAULT_MAX_CURSORS;
+        this.idleTimeout = idleTimeout > 0 ? idleTimeout : DEFAULT_IDLE_TIMEOUT;
+        return this;
+    }
+
+    /**
+     * Register a new cursor
+     *
+     * @param cursor the cursor to register
+     * @param type the class of the documents returned by the cursor
+     * @return the X-Cursor-Id
+     * @throws LogbookDatabaseException if too many cursors are already opened (the cursor is then closed)
+     */
+    public String register(MongoCursor<?> cursor, Class<?> type) throws LogbookDatabaseException {
+        ParametersChecker.checkParameter("Cursor and type", cursor, type);
+        if (!reserveSlot()) {
+            purgeExpired();
+            if (!reserveSlot()) {
+                nbRejected.incrementAndGet();
+                cursor.close();
+                throw new LogbookDatabaseException("Too many opened cursors: " + maxCursors);
+            }
+        }
+        final String cursorId = GUIDFactory.newGUID().toString();
+        cursors.put(cursorId, new RegisteredCursor(cursor, type));
+        return cursorId;
+    }
+
+    /**
+     * @return True if a slot is reserved for a new cursor, False if too many cursors are opened
+     */
+    private boolean reserveSlot() {
+        if (nbCursors.incrementAndGet() > maxCursors) {
+            nbCursors.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get a registered cursor and mark it as used
+     *
+     * @param cursorId the X-Cursor-Id
+     * @param type the expected class of the documents returned by the cursor
+     * @return the cursor
+     * @throws LogbookDatabaseException if the cursor is unknown, expired or not linked to this type
+     */
+    @SuppressWarnings("unchecked")
+    public <T> MongoCursor<T> get(String cursorId, Class<T> type) throws LogbookDatabaseException {
+        final RegisteredCursor registered = cursors.get(cursorId);
+        if (registered == null) {
+            throw new LogbookDatabaseException("Cursor already closed");
+        }
+        if (!type.equals(registered.type)) {
+            throw new LogbookDatabaseException("Cursor not linked to " + type.getSimpleName());
+        }
+        registered.lastAccess = System.currentTimeMillis();
+        return (MongoCursor<T>) registered.cursor;
+    }
+
+    /**
+     * Close and remove a cursor
+     *
+     * @param cursorId the X-Cursor-Id
+     */
+    public void close(String cursorId) {
+        final RegisteredCursor registered = cursors.remove(cursorId);
+        if (registered != null) {
+            nbCursors.decrementAndGet();
+            registered.cursor.close();
+        }
+    }
+
+    /**
+     * Close and remove the cursors not used since the idle timeout
+     */
+    void purgeExpired() {
+        final long limit = System.currentTimeMillis() - idleTimeout;
+        for (final Entry<String, RegisteredCursor> entry : cursors.entrySet()) {
+            final RegisteredCursor registered = entry.getValue();
+            if (registered.lastAccess < limit && cursors.remove(entry.getKey(), registered)) {
+                nbCursors.decrementAndGet();
+                nbExpired.incrementAndGet();
+                LOGGER.info("Cursor expired: " + entry.getKey());
+                try {
+                    registered.cursor.close();
+                } catch (final RuntimeException e) {
+                    LOGGER.warn("Cannot close expired cursor", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of cursors currently opened
+     */
+    public long getOpenedCursors() {
+        return nbCursors.get();
+    }
+
+    /**
+     * @return the number of cursors closed since they were not used during the idle timeout
+     */
+    public long getExpiredCursors() {
+        return nbExpired.get();
+    }
+
+    /**
+     * @return the number of cursors refused since too many cursors were already opened
+     */
+    public long getRejectedCursors() {
+        return nbRejected.get();
+    }
+}
@@ -29,7 +29,6 @@ package fr.gouv.vitam.logbook.lifecycles.core;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.mongodb.client.MongoCursor;
@@ -40,9 +39,9 @@ import fr.gouv.vitam.common.database.builder.request.exception.InvalidCreateOper
 import fr.gouv.vitam.common.database.builder.request.single.Select;
 import fr.gouv.vitam.common.database.parser.request.single.SelectParserSingle;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
-import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleObjectGroupParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleUnitParameters;
@@ -64,9 +63,9 @@ public class LogbookLifeCyclesImpl implements LogbookLifeCycles {
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(LogbookLifeCyclesImpl.class);
 
     /**
-     * This is valid as Static final since this has to be shared among all requests and Concurrent for Thread safety
+     * Shared among all requests since a cursor is used through several requests
      */
-    private static final Map<String, MongoCursor<?>> mapXCursor = new ConcurrentHashMap<>();
+    private static final LifeCycleCursorRegistry CURSORS = LifeCycleCursorRegistry.getInstance();
     private final LogbookDbAccess mongoDbAccess;
 
     /**
@@ -138,93 +137,85 @@ public class LogbookLifeCyclesImpl implements LogbookLifeCycles {
     @Override
     public String createCursorUnit(String operationId, JsonNode select)
         throws LogbookDatabaseException {
-        String newxcursorid;
-        // First time call
-        newxcursorid = GUIDFactory.newGUID().toString();
-        MongoCursor<LogbookLifeCycleUnit> cursor;
         try {
             final SelectParserSingle parser = new SelectParserSingle(new LogbookVarNameAdapter());
             parser.parse(select);
             parser.addCondition(QueryHelper.eq(LogbookMongoDbName.eventIdentifierProcess.getDbname(), operationId));
             final Select selectRequest = parser.getRequest();
-            cursor = mongoDbAccess.getLogbookLifeCycleUnitsFull(selectRequest);
-            mapXCursor.put(newxcursorid, cursor);
+            return CURSORS.register(mongoDbAccess.getLogbookLifeCycleUnitsFull(selectRequest),
+                LogbookLifeCycleUnit.class);
         } catch (InvalidParseOperationException | InvalidCreateOperationException e) {
             throw new LogbookDatabaseException(e);
         }
-        return newxcursorid;
     }
 
     @Override
     public LogbookLifeCycleUnit getCursorUnitNext(String cursorId)
         throws LogbookNotFoundException, LogbookDatabaseException {
-        try {
-            @SuppressWarnings("unchecked")
-            final MongoCursor<LogbookLifeCycleUnit> cursor =
-                (MongoCursor<LogbookLifeCycleUnit>) mapXCursor.get(cursorId);
-            if (cursor != null) {
-                if (cursor.hasNext()) {
-                    return cursor.next();
-                }
-                cursor.close();
-                mapXCursor.remove(cursorId);
-                throw new LogbookNotFoundException("No more entries");
-            }
-        } catch (final ClassCastException e) {
-            throw new LogbookDatabaseException("Cursor not linked to Unit", e);
-        }
-        throw new LogbookDatabaseException("Cursor already closed");
+        return getCursorNext(cursorId, LogbookLifeCycleUnit.class);
+    }
+
+    @Override
+    public List<LogbookLifeCycleUnit> getCursorUnitNext(String cursorId, int limit)
+        throws LogbookDatabaseException {
+        return getCursorNext(cursorId, limit, LogbookLifeCycleUnit.class);
     }
 
     @Override
     public String createCursorObjectGroup(String operationId, JsonNode select)
         throws LogbookDatabaseException {
-        String newxcursorid;
-        // First time call
-        newxcursorid = GUIDFactory.newGUID().toString();
-        MongoCursor<LogbookLifeCycleObjectGroup> cursor;
         try {
             final SelectParserSingle parser = new SelectParserSingle(new LogbookVarNameAdapter());
             parser.parse(select);
             parser.addCondition(QueryHelper.eq(LogbookMongoDbName.eventIdentifierProcess.getDbname(), operationId));
             final Select selectRequest = parser.getRequest();
-            cursor = mongoDbAccess.getLogbookLifeCycleObjectGroupsFull(selectRequest);
-            mapXCursor.put(newxcursorid, cursor);
+            return CURSORS.register(mongoDbAccess.getLogbookLifeCycleObjectGroupsFull(selectRequest),
+                LogbookLifeCycleObjectGroup.class);
         } catch (InvalidParseOperationException | InvalidCreateOperationException e) {
             throw new LogbookDatabaseException(e);
         }
-        return newxcursorid;
     }
 
     @Override
     public LogbookLifeCycleObjectGroup getCursorObjectGroupNext(String cursorId)
         throws LogbookNotFoundException, LogbookDatabaseException {
-        try {
-            @SuppressWarnings("unchecked")
-            final MongoCursor<LogbookLifeCycleObjectGroup> cursor =
-                (MongoCursor<LogbookLifeCycleObjectGroup>) mapXCursor.get(cursorId);
-            if (cursor != null) {
-                if (cursor.hasNext()) {
-                    return cursor.next();
-                }
-                cursor.close();
-                mapXCursor.remove(cursorId);
-                throw new LogbookNotFoundException("No more entries");
+        return getCursorNext(cursorId, LogbookLifeCycleObjectGroup.class);
+    }
+
+    @Override
+    public List<LogbookLifeCycleObjectGroup> getCursorObjectGroupNext(String cursorId, int limit)
+        throws LogbookDatabaseException {
+        return getCursorNext(cursorId, limit, LogbookLifeCycleObjectGroup.class);
+    }
+
+    private <T> T getCursorNext(String cursorId, Class<T> type)
+        throws LogbookNotFoundException, LogbookDatabaseException {
+        final MongoCursor<T> cursor = CURSORS.get(cursorId, type);
+        if (cursor.hasNext()) {
+            return cursor.next();
+        }
+        CURSORS.close(cursorId);
+        throw new LogbookNotFoundException("No more entries");
+    }
+
+    private <T> List<T> getCursorNext(String cursorId, int limit, Class<T> type)
+        throws LogbookDatabaseException {
+        ParametersChecker.checkValue("limit", limit, 1);
+        final MongoCursor<T> cursor = CURSORS.get(cursorId, type);
+        final List<T> list = new ArrayList<>(limit);
+        while (list.size() < limit) {
+            if (!cursor.hasNext()) {
+                CURSORS.close(cursorId);
+                break;
             }
-        } catch (final ClassCastException e) {
-            throw new LogbookDatabaseException("Cursor not linked to ObjectGroup", e);
+            list.add(cursor.next());
         }
-        throw new LogbookDatabaseException("Cursor already closed");
+        return list;
     }
 
     @Override
     public void finalizeCursor(String cursorId) {
-        final MongoCursor<?> cursor = mapXCursor.get(cursorId);
-        if (cursor != null) {
-            cursor.close();
-            mapXCursor.remove(cursorId);
-            return;
-        }
+        CURSORS.close(cursorId);
     }
 
     @Override
@@ -336,6 +327,26 @@ public class LogbookLifeCyclesImpl implements LogbookLifeCycles {
                 .updateBulkLogbookLifeCycleObjectGroup((LogbookLifeCycleObjectGroupParameters[]) lifecycleArray);
         }
     }
+
+    @Override
+    public Map<String, StatusCode> bulkWriteLogbookLifecycles(String idOp, LogbookLifeCycleParameters[] lifecycleArray)
+        throws LogbookDatabaseException {
+        ParametersChecker.checkParameter("idOperation should not be null or empty", idOp);
+        if (lifecycleArray == null || lifecycleArray.length == 0) {
+            throw new IllegalArgumentException("No LifeCycle Logbook");
+        }
+        for (final LogbookLifeCycleParameters parameters : lifecycleArray) {
+            if (!idOp.equals(parameters.getParameterValue(LogbookParameterName.eventIdentifierProcess))) {
+                LOGGER.error("incoherence entry for idOperation");
+                throw new IllegalArgumentException("incoherence entry for idOperation");
+            }
+        }
+        if (lifecycleArray instanceof LogbookLifeCycleUnitParameters[]) {
+            return mongoDbAccess.bulkWriteLogbookLifeCycleUnit((LogbookLifeCycleUnitParameters[]) lifecycleArray);
+        }
+        return mongoDbAccess
+            .bulkWriteLogbookLifeCycleObjectGroup((LogbookLifeCycleObjectGroupParameters[]) lifecycleArray);
+    }
 }
 
 
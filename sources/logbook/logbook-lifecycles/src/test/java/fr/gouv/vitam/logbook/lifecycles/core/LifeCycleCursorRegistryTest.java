@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.logbook.lifecycles.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.mongodb.client.MongoCursor;
+
+import fr.gouv.vitam.logbook.common.server.database.collections.LogbookLifeCycleObjectGroup;
+import fr.gouv.vitam.logbook.common.server.database.collections.LogbookLifeCycleUnit;
+import fr.gouv.vitam.logbook.common.server.exception.LogbookDatabaseException;
+
+public class LifeCycleCursorRegistryTest {
+
+    @SuppressWarnings("unchecked")
+    private static MongoCursor<LogbookLifeCycleUnit> newCursor() {
+        return mock(MongoCursor.class);
+    }
+
+    @Test
+    public void givenRegisteredCursorWhenGetThenSameCursor() throws Exception {
+        final LifeCycleCursorRegistry registry = new LifeCycleCursorRegistry();
+        final MongoCursor<LogbookLifeCycleUnit> cursor = newCursor();
+        final String cursorId = registry.register(cursor, LogbookLifeCycleUnit.class);
+        assertEquals(1, registry.getOpenedCursors());
+        assertSame(cursor, registry.get(cursorId, LogbookLifeCycleUnit.class));
+        try {
+            registry.get(cursorId, LogbookLifeCycleObjectGroup.class);
+            fail("Should raise an exception");
+        } catch (final LogbookDatabaseException e) {
+            // expected
+        }
+        registry.close(cursorId);
+        verify(cursor).close();
+        assertEquals(0, registry.getOpenedCursors());
+        try {
+            registry.get(cursorId, LogbookLifeCycleUnit.class);
+            fail("Should raise an exception");
+        } catch (final LogbookDatabaseException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void givenIdleCursorWhenPurgeThenClosed() throws Exception {
+        final LifeCycleCursorRegistry registry = new LifeCycleCursorRegistry().setLimits(0, 50);
+        final MongoCursor<LogbookLifeCycleUnit> cursor = newCursor();
+        final String cursorId = registry.register(cursor, LogbookLifeCycleUnit.class);
+        registry.purgeExpired();
+        verify(cursor, never()).close();
+        Thread.sleep(100);
+        registry.purgeExpired();
+        verify(cursor).close();
+        assertEquals(0, registry.getOpenedCursors());
+        assertEquals(1, registry.getExpiredCursors());
+        try {
+            registry.get(cursorId, LogbookLifeCycleUnit.class);
+            fail("Should raise an exception");
+        } catch (final LogbookDatabaseException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void givenTooManyCursorsWhenRegisterThenRejected() throws Exception {
+        final LifeCycleCursorRegistry registry = new LifeCycleCursorRegistry().setLimits(2, 0);
+        registry.register(newCursor(), LogbookLifeCycleUnit.class);
+        registry.register(newCursor(), LogbookLifeCycleUnit.class);
+        final MongoCursor<LogbookLifeCycleUnit> cursor = newCursor();
+        try {
+            registry.register(cursor, LogbookLifeCycleUnit.class);
+            fail("Should raise an exception");
+        } catch (final LogbookDatabaseException e) {
+            // expected
+        }
+        verify(cursor).close();
+        assertEquals(2, registry.getOpenedCursors());
+        assertEquals(1, registry.getRejectedCursors());
+    }
+
+    @Test
+    public void givenConcurrentRegistrationsWhenTooManyThenLimitKept() throws Exception {
+        final int maxCursors = 10;
+        final int nbThreads = 8;
+        final int nbPerThread = 10;
+        final LifeCycleCursorRegistry registry = new LifeCycleCursorRegistry().setLimits(maxCursors, 0);
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < nbThreads; i++) {
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    for (int j = 0; j < nbPerThread; j++) {
+                        try {
+                            registry.register(newCursor(), LogbookLifeCycleUnit.class);
+                        } catch (final LogbookDatabaseException e) {
+                            // expected once the limit is reached
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+        start.countDown();
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertEquals(maxCursors, registry.getOpenedCursors());
+        assertEquals(nbThreads * nbPerThread - maxCursors, registry.getRejectedCursors());
+    }
+}
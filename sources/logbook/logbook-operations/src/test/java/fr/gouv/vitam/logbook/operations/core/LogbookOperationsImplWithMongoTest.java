@@ -42,7 +42,9 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.mongodb.MongoClient;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
 
 import de.flapdoodle.embed.mongo.MongodExecutable;
 import de.flapdoodle.embed.mongo.MongodProcess;
@@ -52,6 +54,7 @@ import de.flapdoodle.embed.mongo.config.Net;
 import de.flapdoodle.embed.mongo.distribution.Version;
 import de.flapdoodle.embed.process.runtime.Network;
 import fr.gouv.vitam.common.database.builder.query.CompareQuery;
+import fr.gouv.vitam.common.database.builder.query.QueryHelper;
 import fr.gouv.vitam.common.database.builder.request.configuration.BuilderToken.QUERY;
 import fr.gouv.vitam.common.database.builder.request.single.Select;
 import fr.gouv.vitam.common.guid.GUID;
@@ -69,11 +72,13 @@ import fr.gouv.vitam.logbook.common.server.LogbookDbAccess;
 import fr.gouv.vitam.logbook.common.server.database.collections.LogbookDocument;
 import fr.gouv.vitam.logbook.common.server.database.collections.LogbookMongoDbAccessFactory;
 import fr.gouv.vitam.logbook.common.server.database.collections.LogbookOperation;
+import fr.gouv.vitam.logbook.common.server.database.collections.LogbookOperationEvents;
 import fr.gouv.vitam.logbook.common.server.exception.LogbookAlreadyExistsException;
 import fr.gouv.vitam.logbook.common.server.exception.LogbookNotFoundException;
 
 public class LogbookOperationsImplWithMongoTest {
     private static final String DATABASE_HOST = "localhost";
+    private static final String DATABASE_NAME = "vitam-test";
     static LogbookDbAccess mongoDbAccess;
     static MongodExecutable mongodExecutable;
     static MongodProcess mongod;
@@ -119,7 +124,7 @@ public class LogbookOperationsImplWithMongoTest {
         mongoDbAccess =
             LogbookMongoDbAccessFactory.create(
                 new DbConfigurationImpl(nodes,
-                    "vitam-test"));
+                    DATABASE_NAME));
         final String datestring1 = "2015-01-01";
         final String datestring2 = "2016-12-12";
         final String datestring3 = "1990-10-01";
@@ -257,4 +262,70 @@ public class LogbookOperationsImplWithMongoTest {
         assertEquals(secureOperation.get("evTypeProc"), LogbookTypeProcess.TRACEABILITY.toString());
     }
 
+    @Test
+    public void givenManyEventsWhenGetByIdThenAllEventsInOrder() throws Exception {
+        logbookOperationsImpl = new LogbookOperationsImpl(mongoDbAccess);
+        final GUID operationId = GUIDFactory.newEventGUID(0);
+        logbookOperationsImpl.create(LogbookParametersFactory.newLogbookOperationParameters(
+            operationId, "eventType", operationId, LogbookTypeProcess.INGEST,
+            StatusCode.STARTED, "start ingest", operationId));
+        // more events than in 2 buckets
+        final int nbEvents = 2 * LogbookOperationEvents.BUCKET_SIZE + 50;
+        final LogbookOperationParameters[] events = new LogbookOperationParameters[nbEvents - 1];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = LogbookParametersFactory.newLogbookOperationParameters(
+                GUIDFactory.newEventGUID(0), "eventType" + i, operationId, LogbookTypeProcess.INGEST,
+                StatusCode.OK, "step " + i, operationId);
+        }
+        logbookOperationsImpl.updateBulkLogbookOperation(events);
+        logbookOperationsImpl.update(LogbookParametersFactory.newLogbookOperationParameters(
+            GUIDFactory.newEventGUID(0), "lastEventType", operationId, LogbookTypeProcess.INGEST,
+            StatusCode.OK, "end ingest", operationId));
+
+        final LogbookOperation operation = logbookOperationsImpl.getById(operationId.getId());
+        @SuppressWarnings("unchecked")
+        final List<Document> allEvents = (List<Document>) operation.get(LogbookDocument.EVENTS);
+        assertEquals(nbEvents, allEvents.size());
+        for (int i = 0; i < events.length; i++) {
+            assertEquals("eventType" + i, allEvents.get(i).getString("evType"));
+        }
+        assertEquals("lastEventType", allEvents.get(nbEvents - 1).getString("evType"));
+        assertFalse(operation.containsKey(LogbookOperation.EVENT_COUNT));
+
+        // the listing of operations still gives the last event
+        final Select select = new Select();
+        select.setQuery(QueryHelper.eq("evIdProc", operationId.getId()));
+        final List<LogbookOperation> operations = logbookOperationsImpl.select(select.getFinalSelect());
+        assertEquals(1, operations.size());
+        @SuppressWarnings("unchecked")
+        final List<Document> lastEvents = (List<Document>) operations.get(0).get(LogbookDocument.EVENTS);
+        assertEquals("lastEventType", lastEvents.get(lastEvents.size() - 1).getString("evType"));
+        assertFalse(operations.get(0).containsKey(LogbookOperation.EVENT_COUNT));
+    }
+
+    @Test
+    public void givenMissingBucketWhenGetByIdThenEventsOfOperation() throws Exception {
+        logbookOperationsImpl = new LogbookOperationsImpl(mongoDbAccess);
+        final GUID operationId = GUIDFactory.newEventGUID(0);
+        logbookOperationsImpl.create(LogbookParametersFactory.newLogbookOperationParameters(
+            operationId, "eventType", operationId, LogbookTypeProcess.INGEST,
+            StatusCode.STARTED, "start ingest", operationId));
+        for (int i = 0; i < 3; i++) {
+            logbookOperationsImpl.update(LogbookParametersFactory.newLogbookOperationParameters(
+                GUIDFactory.newEventGUID(0), "eventType" + i, operationId, LogbookTypeProcess.INGEST,
+                StatusCode.OK, "step " + i, operationId));
+        }
+        // as if the last append had failed to write its bucket
+        try (final MongoClient client = new MongoClient(DATABASE_HOST, port)) {
+            client.getDatabase(DATABASE_NAME).getCollection(LogbookOperationEvents.class.getSimpleName())
+                .deleteOne(Filters.eq(LogbookDocument.ID, operationId.getId() + "_00000000"));
+        }
+
+        final LogbookOperation operation = logbookOperationsImpl.getById(operationId.getId());
+        @SuppressWarnings("unchecked")
+        final List<Document> allEvents = (List<Document>) operation.get(LogbookDocument.EVENTS);
+        assertEquals(3, allEvents.size());
+        assertEquals("eventType2", allEvents.get(2).getString("evType"));
+        assertFalse(operation.containsKey(LogbookOperation.EVENT_COUNT));
+    }
 }
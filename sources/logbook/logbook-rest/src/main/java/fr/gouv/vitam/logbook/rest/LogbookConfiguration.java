@@ -41,6 +41,12 @@ public final class LogbookConfiguration extends DbConfigurationImpl {
 
     private String workspaceUrl;
 
+    private int cursorBatchSize;
+
+    private int maxCursors;
+
+    private long cursorIdleTimeout;
+
     public String getP12LogbookPassword() {
         return p12LogbookPassword;
     }
@@ -64,4 +70,46 @@ public final class LogbookConfiguration extends DbConfigurationImpl {
     public void setWorkspaceUrl(String workspaceUrl) {
         this.workspaceUrl = workspaceUrl;
     }
+
+    /**
+     * @return the number of LifeCycles returned by each request of a cursor, default value if 0
+     */
+    public int getCursorBatchSize() {
+        return cursorBatchSize;
+    }
+
+    /**
+     * @param cursorBatchSize the number of LifeCycles returned by each request of a cursor
+     */
+    public void setCursorBatchSize(int cursorBatchSize) {
+        this.cursorBatchSize = cursorBatchSize;
+    }
+
+    /**
+     * @return the maximum number of LifeCycle cursors opened at once, default value if 0
+     */
+    public int getMaxCursors() {
+        return maxCursors;
+    }
+
+    /**
+     * @param maxCursors the maximum number of LifeCycle cursors opened at once
+     */
+    public void setMaxCursors(int maxCursors) {
+        this.maxCursors = maxCursors;
+    }
+
+    /**
+     * @return the time in ms after which an unused LifeCycle cursor is closed, default value if 0
+     */
+    public long getCursorIdleTimeout() {
+        return cursorIdleTimeout;
+    }
+
+    /**
+     * @param cursorIdleTimeout the time in ms after which an unused LifeCycle cursor is closed
+     */
+    public void setCursorIdleTimeout(long cursorIdleTimeout) {
+        this.cursorIdleTimeout = cursorIdleTimeout;
+    }
 }
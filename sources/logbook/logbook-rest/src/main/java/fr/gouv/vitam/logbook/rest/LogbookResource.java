@@ -34,6 +34,8 @@ import java.security.NoSuchAlgorithmException;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -50,8 +52,10 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
 
+import com.codahale.metrics.Gauge;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import fr.gouv.vitam.common.GlobalDataRest;
 import fr.gouv.vitam.common.ParametersChecker;
@@ -67,7 +71,9 @@ import fr.gouv.vitam.common.logging.SysErrLogger;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.RequestResponseOK;
+import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.common.parameter.ParameterHelper;
+import fr.gouv.vitam.common.server.application.AbstractVitamApplication;
 import fr.gouv.vitam.common.server.application.configuration.DbConfiguration;
 import fr.gouv.vitam.common.server.application.configuration.DbConfigurationImpl;
 import fr.gouv.vitam.common.server.application.resources.ApplicationStatusResource;
@@ -77,6 +83,7 @@ import fr.gouv.vitam.common.timestamp.TimestampGenerator;
 import fr.gouv.vitam.logbook.administration.core.LogbookAdministration;
 import fr.gouv.vitam.logbook.administration.core.TraceabilityException;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleObjectGroupParameters;
+import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleUnitParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookOperationParameters;
 import fr.gouv.vitam.logbook.common.server.LogbookDbAccess;
@@ -89,6 +96,7 @@ import fr.gouv.vitam.logbook.common.server.exception.LogbookDatabaseException;
 import fr.gouv.vitam.logbook.common.server.exception.LogbookException;
 import fr.gouv.vitam.logbook.common.server.exception.LogbookNotFoundException;
 import fr.gouv.vitam.logbook.lifecycles.api.LogbookLifeCycles;
+import fr.gouv.vitam.logbook.lifecycles.core.LifeCycleCursorRegistry;
 import fr.gouv.vitam.logbook.lifecycles.core.LogbookLifeCyclesImpl;
 import fr.gouv.vitam.logbook.operations.api.LogbookOperations;
 import fr.gouv.vitam.logbook.operations.core.LogbookOperationsImpl;
@@ -100,7 +108,7 @@ import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
 @Path("/logbook/v1")
 @javax.ws.rs.ApplicationPath("webresources")
 public class LogbookResource extends ApplicationStatusResource {
-    private static final int MAX_NB_PART_ITERATOR = 100;
+    private static final int DEFAULT_NB_PART_ITERATOR = 100;
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(LogbookResource.class);
     public static final String CERTIFICATE_ALIAS = "localhost";
     private final LogbookOperations logbookOperation;
@@ -108,6 +116,7 @@ public class LogbookResource extends ApplicationStatusResource {
     private final DbConfiguration logbookConfiguration;
     private final LogbookDbAccess mongoDbAccess;
     private final LogbookAdministration logbookAdministration;
+    private final int nbPartIterator;
 
     /**
      * Constructor
@@ -149,6 +158,31 @@ public class LogbookResource extends ApplicationStatusResource {
         LOGGER.debug("LogbookResource operation initialized");
 
         logbookLifeCycle = new LogbookLifeCyclesImpl(mongoDbAccess);
+        nbPartIterator = configuration.getCursorBatchSize() > 0 ? configuration.getCursorBatchSize()
+            : DEFAULT_NB_PART_ITERATOR;
+        final LifeCycleCursorRegistry cursorRegistry = LifeCycleCursorRegistry.getInstance()
+            .setLimits(configuration.getMaxCursors(), configuration.getCursorIdleTimeout());
+        AbstractVitamApplication.getBusinessMetricsRegistry().register("Logbook lifecycle opened cursors",
+            new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return cursorRegistry.getOpenedCursors();
+                }
+            });
+        AbstractVitamApplication.getBusinessMetricsRegistry().register("Logbook lifecycle expired cursors",
+            new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return cursorRegistry.getExpiredCursors();
+                }
+            });
+        AbstractVitamApplication.getBusinessMetricsRegistry().register("Logbook lifecycle rejected cursors",
+            new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return cursorRegistry.getRejectedCursors();
+                }
+            });
         LOGGER.debug("LogbookResource lifecycles initialized");
     }
 
@@ -478,18 +512,13 @@ public class LogbookResource extends ApplicationStatusResource {
             }
             final RequestResponseOK responseOK =
                 new RequestResponseOK().setQuery(nodeQuery);
-            int nb = 0;
-            try {
-                for (; nb < MAX_NB_PART_ITERATOR; nb++) {
-                    final LogbookLifeCycleUnit lcUnit = logbookLifeCycle.getCursorUnitNext(cursorId);
-                    responseOK.addResult(JsonHandler.toJsonNode(lcUnit));
-                }
-            } catch (final LogbookNotFoundException e) {
-                // Ignore
-                SysErrLogger.FAKE_LOGGER.ignoreLog(e);
+            final List<LogbookLifeCycleUnit> lcUnits = logbookLifeCycle.getCursorUnitNext(cursorId, nbPartIterator);
+            for (final LogbookLifeCycleUnit lcUnit : lcUnits) {
+                responseOK.addResult(JsonHandler.toJsonNode(lcUnit));
             }
+            final int nb = lcUnits.size();
             final ResponseBuilder builder =
-                Response.status(nb < MAX_NB_PART_ITERATOR ? Status.OK : Status.PARTIAL_CONTENT)
+                Response.status(nb < nbPartIterator ? Status.OK : Status.PARTIAL_CONTENT)
                     .entity(responseOK
                         .setHits(nb, 0, nb).setQuery(nodeQuery));
             return VitamRequestIterator.setHeaders(builder, xcursor, cursorId).build();
@@ -771,6 +800,47 @@ public class LogbookResource extends ApplicationStatusResource {
         return Response.status(Response.Status.OK).build();
     }
 
+    /**
+     * Update many Unit Lifecycles With Bulk Mode
+     *
+     * @param idOp
+     * @param arrayNodeLifecycle as ArrayNode of operations to add to existing Lifecycle Logbook entries, for one or
+     *        several Lifecycles
+     * @return Response with a status of OK and the outcome (OK, KO if not found, FATAL) of each Lifecycle id
+     */
+    @PUT
+    @Path("/operations/{id_op}/unitlifecycles/bulk")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    // Note: here let String since we need JsonHandler to parser the object
+    public Response bulkWriteUnit(@PathParam("id_op") String idOp, String arrayNodeLifecycle) {
+        try {
+            return bulkWriteLifeCycles(idOp,
+                JsonHandler.getFromString(arrayNodeLifecycle, LogbookLifeCycleUnitParameters[].class));
+        } catch (final InvalidParseOperationException exc) {
+            LOGGER.error(exc);
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+    }
+
+    private Response bulkWriteLifeCycles(String idOp, LogbookLifeCycleParameters[] arrayLifecycles) {
+        try {
+            final Map<String, StatusCode> outcomes =
+                logbookLifeCycle.bulkWriteLogbookLifecycles(idOp, arrayLifecycles);
+            final ObjectNode result = JsonHandler.createObjectNode();
+            for (final Entry<String, StatusCode> outcome : outcomes.entrySet()) {
+                result.put(outcome.getKey(), outcome.getValue().name());
+            }
+            return Response.status(Response.Status.OK).entity(result).build();
+        } catch (final LogbookDatabaseException exc) {
+            LOGGER.error(exc);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+        } catch (final IllegalArgumentException exc) {
+            LOGGER.error(exc);
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+    }
+
     /**
      * gets the unit life cycle based on its id
      *
@@ -846,19 +916,14 @@ public class LogbookResource extends ApplicationStatusResource {
             }
             final RequestResponseOK responseOK =
                 new RequestResponseOK().setQuery(nodeQuery);
-            int nb = 0;
-            try {
-                for (; nb < MAX_NB_PART_ITERATOR; nb++) {
-                    final LogbookLifeCycleObjectGroup lcObjectGroup =
-                        logbookLifeCycle.getCursorObjectGroupNext(cursorId);
-                    responseOK.addResult(JsonHandler.toJsonNode(lcObjectGroup));
-                }
-            } catch (final LogbookNotFoundException e) {
-                // Ignore
-                SysErrLogger.FAKE_LOGGER.ignoreLog(e);
+            final List<LogbookLifeCycleObjectGroup> lcObjectGroups =
+                logbookLifeCycle.getCursorObjectGroupNext(cursorId, nbPartIterator);
+            for (final LogbookLifeCycleObjectGroup lcObjectGroup : lcObjectGroups) {
+                responseOK.addResult(JsonHandler.toJsonNode(lcObjectGroup));
             }
+            final int nb = lcObjectGroups.size();
             final ResponseBuilder builder =
-                Response.status(nb < MAX_NB_PART_ITERATOR ? Status.OK : Status.PARTIAL_CONTENT)
+                Response.status(nb < nbPartIterator ? Status.OK : Status.PARTIAL_CONTENT)
                     .entity(responseOK
                         .setHits(nb, 0, nb).setQuery(nodeQuery));
             return VitamRequestIterator.setHeaders(builder, xcursor, cursorId).build();
@@ -1137,6 +1202,29 @@ public class LogbookResource extends ApplicationStatusResource {
         return Response.status(Response.Status.OK).build();
     }
 
+    /**
+     * Update many ObjectGroup Lifecycles With Bulk Mode
+     *
+     * @param idOp
+     * @param arrayNodeLifecycle as ArrayNode of operations to add to existing Lifecycle Logbook entries, for one or
+     *        several Lifecycles
+     * @return Response with a status of OK and the outcome (OK, KO if not found, FATAL) of each Lifecycle id
+     */
+    @PUT
+    @Path("/operations/{id_op}/objectgrouplifecycles/bulk")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    // Note: here let String since we need JsonHandler to parser the object
+    public Response bulkWriteObjectGroup(@PathParam("id_op") String idOp, String arrayNodeLifecycle) {
+        try {
+            return bulkWriteLifeCycles(idOp,
+                JsonHandler.getFromString(arrayNodeLifecycle, LogbookLifeCycleObjectGroupParameters[].class));
+        } catch (final InvalidParseOperationException exc) {
+            LOGGER.error(exc);
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+    }
+
     /**
      * gets the object group life cycle based on its id
      *
@@ -29,6 +29,7 @@ package fr.gouv.vitam.logbook.rest;
 import static com.jayway.restassured.RestAssured.get;
 import static com.jayway.restassured.RestAssured.given;
 import static com.jayway.restassured.RestAssured.with;
+import static org.hamcrest.Matchers.equalTo;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -67,6 +68,7 @@ import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.common.server.application.configuration.DbConfigurationImpl;
 import fr.gouv.vitam.common.server.application.configuration.MongoDbNode;
+import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookOperationParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookParameterName;
 import fr.gouv.vitam.logbook.common.parameters.LogbookParametersFactory;
@@ -88,6 +90,10 @@ public class LogbookResourceTest {
     private static final String OPERATION_ID_URI = "/{id_op}";
     private static final String STATUS_URI = "/status";
     private static final String TRACEABILITY_URI = "/operations/traceability";
+    private static final String UNIT_LIFECYCLE_ID_URI = "/operations/{id_op}/unitlifecycles/{id_lc}";
+    private static final String UNIT_LIFECYCLES_BULK_URI = "/operations/{id_op}/unitlifecycles/bulk";
+    private static final String OBJECT_GROUP_LIFECYCLE_ID_URI = "/operations/{id_op}/objectgrouplifecycles/{id_lc}";
+    private static final String OBJECT_GROUP_LIFECYCLES_BULK_URI = "/operations/{id_op}/objectgrouplifecycles/bulk";
     private static int databasePort;
     private static int serverPort;
     private static LogbookApplication application;
@@ -316,6 +322,109 @@ public class LogbookResourceTest {
             .statusCode(Status.OK.getStatusCode());
     }
 
+    private static LogbookLifeCycleParameters getLifeCycleParameters(LogbookLifeCycleParameters parameters,
+        GUID eip, GUID lifeCycleId, StatusCode status) {
+        parameters.setStatus(status);
+        parameters.setTypeProcess(LogbookTypeProcess.INGEST);
+        parameters.putParameterValue(LogbookParameterName.eventIdentifier, GUIDFactory.newEventGUID(0).getId());
+        parameters.putParameterValue(LogbookParameterName.eventIdentifierProcess, eip.getId());
+        parameters.putParameterValue(LogbookParameterName.objectIdentifier, lifeCycleId.getId());
+        parameters.putParameterValue(LogbookParameterName.eventType, "eventTypeValue1");
+        parameters.putParameterValue(LogbookParameterName.outcomeDetail, "outcomeDetail");
+        parameters.putParameterValue(LogbookParameterName.outcomeDetailMessage, "outcomeDetailMessage");
+        parameters.putParameterValue(LogbookParameterName.eventDateTime, LocalDateUtil.now().toString());
+        parameters.putParameterValue(LogbookParameterName.agentIdentifier,
+            ServerIdentity.getInstance().getJsonIdentity());
+        return parameters;
+    }
+
+    @Test
+    public void testBulkWriteUnitLifeCycles() {
+        final GUID eip = GUIDFactory.newEventGUID(0);
+        final GUID unitId = GUIDFactory.newUnitGUID(0);
+        final GUID unknownId = GUIDFactory.newUnitGUID(0);
+        given()
+            .contentType(ContentType.JSON)
+            .body(getLifeCycleParameters(LogbookParametersFactory.newLogbookLifeCycleUnitParameters(), eip, unitId,
+                StatusCode.STARTED).toString())
+            .when()
+            .post(UNIT_LIFECYCLE_ID_URI, eip.getId(), unitId.getId())
+            .then()
+            .statusCode(Status.CREATED.getStatusCode());
+
+        // one outcome per lifecycle: the unknown one is KO
+        final List<LogbookLifeCycleParameters> events = new ArrayList<>();
+        events.add(getLifeCycleParameters(LogbookParametersFactory.newLogbookLifeCycleUnitParameters(), eip, unitId,
+            StatusCode.OK));
+        events.add(getLifeCycleParameters(LogbookParametersFactory.newLogbookLifeCycleUnitParameters(), eip, unitId,
+            StatusCode.OK));
+        events.add(getLifeCycleParameters(LogbookParametersFactory.newLogbookLifeCycleUnitParameters(), eip,
+            unknownId, StatusCode.OK));
+        given()
+            .contentType(ContentType.JSON)
+            .body(JsonHandler.unprettyPrint(events))
+            .when()
+            .put(UNIT_LIFECYCLES_BULK_URI, eip.getId())
+            .then()
+            .statusCode(Status.OK.getStatusCode())
+            .body(unitId.getId(), equalTo(StatusCode.OK.name()))
+            .body(unknownId.getId(), equalTo(StatusCode.KO.name()));
+
+        // events of another operation
+        given()
+            .contentType(ContentType.JSON)
+            .body(JsonHandler.unprettyPrint(events))
+            .when()
+            .put(UNIT_LIFECYCLES_BULK_URI, GUIDFactory.newEventGUID(0).getId())
+            .then()
+            .statusCode(Status.BAD_REQUEST.getStatusCode());
+        given()
+            .contentType(ContentType.JSON)
+            .body("not an array")
+            .when()
+            .put(UNIT_LIFECYCLES_BULK_URI, eip.getId())
+            .then()
+            .statusCode(Status.BAD_REQUEST.getStatusCode());
+    }
+
+    @Test
+    public void testBulkWriteObjectGroupLifeCycles() {
+        final GUID eip = GUIDFactory.newEventGUID(0);
+        final GUID objectGroupId = GUIDFactory.newObjectGroupGUID(0);
+        final GUID unknownId = GUIDFactory.newObjectGroupGUID(0);
+        given()
+            .contentType(ContentType.JSON)
+            .body(getLifeCycleParameters(LogbookParametersFactory.newLogbookLifeCycleObjectGroupParameters(), eip,
+                objectGroupId, StatusCode.STARTED).toString())
+            .when()
+            .post(OBJECT_GROUP_LIFECYCLE_ID_URI, eip.getId(), objectGroupId.getId())
+            .then()
+            .statusCode(Status.CREATED.getStatusCode());
+
+        final List<LogbookLifeCycleParameters> events = new ArrayList<>();
+        events.add(getLifeCycleParameters(LogbookParametersFactory.newLogbookLifeCycleObjectGroupParameters(), eip,
+            objectGroupId, StatusCode.OK));
+        events.add(getLifeCycleParameters(LogbookParametersFactory.newLogbookLifeCycleObjectGroupParameters(), eip,
+            unknownId, StatusCode.OK));
+        given()
+            .contentType(ContentType.JSON)
+            .body(JsonHandler.unprettyPrint(events))
+            .when()
+            .put(OBJECT_GROUP_LIFECYCLES_BULK_URI, eip.getId())
+            .then()
+            .statusCode(Status.OK.getStatusCode())
+            .body(objectGroupId.getId(), equalTo(StatusCode.OK.name()))
+            .body(unknownId.getId(), equalTo(StatusCode.KO.name()));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(JsonHandler.unprettyPrint(events))
+            .when()
+            .put(OBJECT_GROUP_LIFECYCLES_BULK_URI, GUIDFactory.newEventGUID(0).getId())
+            .then()
+            .statusCode(Status.BAD_REQUEST.getStatusCode());
+    }
+
     @Test
     public void testError() {
         // Create KO since Bad Request
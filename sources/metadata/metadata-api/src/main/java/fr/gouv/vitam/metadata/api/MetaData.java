@@ -59,6 +59,21 @@ public interface MetaData {
         MetaDataAlreadyExistException, MetaDataExecutionException, MetaDataDocumentSizeException;
 
 
+    /**
+     * insert several Units at once
+     *
+     * @param insertRequests array of insert requests, each as { $roots: roots, $data : data} (no $query allowed)
+     *
+     * @throws InvalidParseOperationException Throw if json format is not correct
+     * @throws MetaDataNotFoundException Throw if parent of one unit is not found
+     * @throws MetaDataAlreadyExistException Throw if one Unit id already exists
+     * @throws MetaDataExecutionException Throw if error occurs when send Units to database
+     * @throws MetaDataDocumentSizeException Throw if one Unit size is too big
+     */
+    public void insertUnits(ArrayNode insertRequests)
+        throws InvalidParseOperationException, MetaDataNotFoundException, MetaDataAlreadyExistException,
+        MetaDataExecutionException, MetaDataDocumentSizeException;
+
     /**
      * Search UNITs by Select {@link Select}Query
      *
@@ -150,4 +165,19 @@ public interface MetaData {
     void insertObjectGroup(JsonNode objectRequest) throws InvalidParseOperationException, MetaDataNotFoundException,
         MetaDataAlreadyExistException, MetaDataExecutionException, MetaDataDocumentSizeException;
 
+    /**
+     * insert several ObjectGroups at once
+     *
+     * @param insertRequests array of insert requests, each as { $roots: roots, $data : data} (no $query allowed)
+     *
+     * @throws InvalidParseOperationException Throw if json format is not correct
+     * @throws MetaDataNotFoundException Throw if parent of one ObjectGroup is not found
+     * @throws MetaDataAlreadyExistException Throw if one ObjectGroup id already exists
+     * @throws MetaDataExecutionException Throw if error occurs when send ObjectGroups to database
+     * @throws MetaDataDocumentSizeException Throw if one ObjectGroup size is too big
+     */
+    void insertObjectGroups(ArrayNode insertRequests) throws InvalidParseOperationException,
+        MetaDataNotFoundException, MetaDataAlreadyExistException, MetaDataExecutionException,
+        MetaDataDocumentSizeException;
+
 }
@@ -40,6 +40,7 @@ public class MetaDataConfiguration extends DbConfigurationImpl {
 
     private String clusterName;
     private List<ElasticsearchNode> elasticsearchNodes;
+    private boolean resultCache;
 
     /**
      * MetaDataConfiguration constructor
@@ -116,4 +117,20 @@ public class MetaDataConfiguration extends DbConfigurationImpl {
         return this;
     }
 
+    /**
+     * @return True if the intermediate results of the queries are cached (false by default)
+     */
+    public boolean isResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * @param resultCache True to cache the intermediate results of the queries
+     * @return MetaDataConfiguration
+     */
+    public MetaDataConfiguration setResultCache(boolean resultCache) {
+        this.resultCache = resultCache;
+        return this;
+    }
+
 }
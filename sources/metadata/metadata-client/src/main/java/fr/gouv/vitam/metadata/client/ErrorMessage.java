@@ -37,6 +37,7 @@ public enum ErrorMessage {
     SELECT_OBJECT_GROUP_QUERY_NULL("Select object group query is null"),
     UPDATE_UNITS_QUERY_NULL("Update units query is null"),
     INSERT_UNITS_QUERY_NULL("Insert units query is null"),
+    INSERT_OBJECT_GROUPS_QUERY_NULL("Insert object groups query is null"),
     BLANK_PARAM("Unit id parameter is blank"),
     INTERNAL_SERVER_ERROR("Internal Server Error"),
     SIZE_TOO_LARGE("Document Size is Too Large"),
@@ -28,6 +28,7 @@
 package fr.gouv.vitam.metadata.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 
 import fr.gouv.vitam.common.client.BasicClient;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
@@ -58,6 +59,23 @@ public interface MetaDataClient extends BasicClient {
         MetaDataNotFoundException, MetaDataAlreadyExistException, MetaDataDocumentSizeException,
         MetaDataClientServerException;
 
+    /**
+     * Insert several units at once
+     *
+     * @param insertQueries array of insert queries as JsonNode (one per unit, parents given through $roots only)<br>
+     *        null is not allowed
+     * @return the result as JsonNode
+     * @throws InvalidParseOperationException
+     * @throws MetaDataExecutionException
+     * @throws MetaDataNotFoundException
+     * @throws MetaDataAlreadyExistException
+     * @throws MetaDataDocumentSizeException
+     * @throws MetaDataClientServerException
+     */
+    JsonNode insertUnits(ArrayNode insertQueries) throws InvalidParseOperationException, MetaDataExecutionException,
+        MetaDataNotFoundException, MetaDataAlreadyExistException, MetaDataDocumentSizeException,
+        MetaDataClientServerException;
+
     /**
      * Search units by select query (DSL)
      *
@@ -139,4 +157,21 @@ public interface MetaDataClient extends BasicClient {
     JsonNode insertObjectGroup(JsonNode insertQuery) throws InvalidParseOperationException, MetaDataExecutionException,
         MetaDataNotFoundException, MetaDataAlreadyExistException, MetaDataDocumentSizeException,
         MetaDataClientServerException;
+
+    /**
+     * Insert several object groups at once
+     *
+     * @param insertQueries array of insert queries as JsonNode (one per object group)<br>
+     *        null is not allowed
+     * @return response as JsonNode contains the request result
+     * @throws InvalidParseOperationException
+     * @throws MetaDataExecutionException
+     * @throws MetaDataNotFoundException
+     * @throws MetaDataAlreadyExistException
+     * @throws MetaDataDocumentSizeException
+     * @throws MetaDataClientServerException
+     */
+    JsonNode insertObjectGroups(ArrayNode insertQueries) throws InvalidParseOperationException,
+        MetaDataExecutionException, MetaDataNotFoundException, MetaDataAlreadyExistException,
+        MetaDataDocumentSizeException, MetaDataClientServerException;
 }
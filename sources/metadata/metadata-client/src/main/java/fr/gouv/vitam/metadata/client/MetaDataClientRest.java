@@ -32,6 +32,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.google.common.base.Strings;
 
 import fr.gouv.vitam.common.ParametersChecker;
@@ -74,9 +75,27 @@ public class MetaDataClientRest extends DefaultClient implements MetaDataClient
         } catch (final IllegalArgumentException e) {
             throw new InvalidParseOperationException(e);
         }
+        return performInsert("/units", insertQuery);
+    }
+
+    @Override
+    public JsonNode insertUnits(ArrayNode insertQueries)
+        throws InvalidParseOperationException, MetaDataExecutionException, MetaDataNotFoundException,
+        MetaDataAlreadyExistException, MetaDataDocumentSizeException, MetaDataClientServerException {
+        try {
+            ParametersChecker.checkParameter(ErrorMessage.INSERT_UNITS_QUERY_NULL.getMessage(), insertQueries);
+        } catch (final IllegalArgumentException e) {
+            throw new InvalidParseOperationException(e);
+        }
+        return performInsert("/units/bulk", insertQueries);
+    }
+
+    private JsonNode performInsert(String path, JsonNode insertQuery)
+        throws InvalidParseOperationException, MetaDataExecutionException, MetaDataNotFoundException,
+        MetaDataAlreadyExistException, MetaDataDocumentSizeException, MetaDataClientServerException {
         Response response = null;
         try {
-            response = performRequest(HttpMethod.POST, "/units", null, insertQuery, MediaType.APPLICATION_JSON_TYPE,
+            response = performRequest(HttpMethod.POST, path, null, insertQuery, MediaType.APPLICATION_JSON_TYPE,
                 MediaType.APPLICATION_JSON_TYPE);
             if (response.getStatus() == Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()) {
                 throw new MetaDataExecutionException(INTERNAL_SERVER_ERROR);
@@ -229,28 +248,18 @@ public class MetaDataClientRest extends DefaultClient implements MetaDataClient
         throws InvalidParseOperationException, MetaDataExecutionException, MetaDataNotFoundException,
         MetaDataAlreadyExistException, MetaDataDocumentSizeException, MetaDataClientServerException {
         ParametersChecker.checkParameter("Insert Request is a mandatory parameter", insertQuery);
-        Response response = null;
+        return performInsert("/objectgroups", insertQuery);
+    }
+
+    @Override
+    public JsonNode insertObjectGroups(ArrayNode insertQueries)
+        throws InvalidParseOperationException, MetaDataExecutionException, MetaDataNotFoundException,
+        MetaDataAlreadyExistException, MetaDataDocumentSizeException, MetaDataClientServerException {
         try {
-            response =
-                performRequest(HttpMethod.POST, "/objectgroups", null, insertQuery, MediaType.APPLICATION_JSON_TYPE,
-                    MediaType.APPLICATION_JSON_TYPE);
-            if (response.getStatus() == Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()) {
-                throw new MetaDataExecutionException(INTERNAL_SERVER_ERROR);
-            } else if (response.getStatus() == Response.Status.NOT_FOUND.getStatusCode()) {
-                throw new MetaDataNotFoundException(ErrorMessage.NOT_FOUND.getMessage());
-            } else if (response.getStatus() == Response.Status.CONFLICT.getStatusCode()) {
-                throw new MetaDataAlreadyExistException(ErrorMessage.DATA_ALREADY_EXISTS.getMessage());
-            } else if (response.getStatus() == Response.Status.REQUEST_ENTITY_TOO_LARGE.getStatusCode()) {
-                throw new MetaDataDocumentSizeException(ErrorMessage.SIZE_TOO_LARGE.getMessage());
-            } else if (response.getStatus() == Response.Status.BAD_REQUEST.getStatusCode()) {
-                throw new InvalidParseOperationException(ErrorMessage.INVALID_PARSE_OPERATION.getMessage());
-            }
-            return JsonHandler.getFromString(response.readEntity(String.class));
-        } catch (final VitamClientInternalException e) {
-            LOGGER.error(INTERNAL_SERVER_ERROR, e);
-            throw new MetaDataClientServerException(INTERNAL_SERVER_ERROR, e);
-        } finally {
-            consumeAnyEntityAndClose(response);
+            ParametersChecker.checkParameter(ErrorMessage.INSERT_OBJECT_GROUPS_QUERY_NULL.getMessage(), insertQueries);
+        } catch (final IllegalArgumentException e) {
+            throw new InvalidParseOperationException(e);
         }
+        return performInsert("/objectgroups/bulk", insertQueries);
     }
 }
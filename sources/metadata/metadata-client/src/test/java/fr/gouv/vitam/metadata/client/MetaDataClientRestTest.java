@@ -43,6 +43,8 @@ import javax.ws.rs.core.Response;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.junit.Test;
 
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.exception.VitamApplicationServerException;
 import fr.gouv.vitam.common.json.JsonHandler;
@@ -120,6 +122,14 @@ public class MetaDataClientRestTest extends VitamJerseyTest {
             return expectedResponse.post();
         }
 
+        @Path("units/bulk")
+        @POST
+        @Consumes(MediaType.APPLICATION_JSON)
+        @Produces(MediaType.APPLICATION_JSON)
+        public Response insertUnits(String request) {
+            return expectedResponse.post();
+        }
+
         @Path("units")
         @GET
         @Consumes(MediaType.APPLICATION_JSON)
@@ -152,6 +162,14 @@ public class MetaDataClientRestTest extends VitamJerseyTest {
             return expectedResponse.post();
         }
 
+        @Path("objectgroups/bulk")
+        @POST
+        @Consumes(MediaType.APPLICATION_JSON)
+        @Produces(MediaType.APPLICATION_JSON)
+        public Response insertObjectGroups(String insertRequest) {
+            return expectedResponse.post();
+        }
+
         @Path("objectgroups/{id_og}")
         @GET
         @Consumes(MediaType.APPLICATION_JSON)
@@ -203,6 +221,26 @@ public class MetaDataClientRestTest extends VitamJerseyTest {
         client.insertUnit(JsonHandler.getFromString(VALID_QUERY));
     }
 
+    @Test
+    public void insertUnitsTest() throws Exception {
+        when(mock.post())
+            .thenReturn(Response.status(Response.Status.CREATED).entity(JsonHandler.createObjectNode()).build());
+        final ArrayNode insertQueries = JsonHandler.createArrayNode();
+        insertQueries.add(JsonHandler.getFromString(VALID_QUERY)).add(JsonHandler.getFromString(VALID_QUERY));
+        client.insertUnits(insertQueries);
+    }
+
+    @Test(expected = MetaDataAlreadyExistException.class)
+    public void givenUnitAlreadyExistsWhenInsertUnitsThenReturnConflict() throws Exception {
+        when(mock.post()).thenReturn(Response.status(Response.Status.CONFLICT).build());
+        client.insertUnits(JsonHandler.createArrayNode().add(JsonHandler.getFromString(VALID_QUERY)));
+    }
+
+    @Test(expected = InvalidParseOperationException.class)
+    public void givenNullRequestWhenInsertUnitsThenReturnBadRequest() throws Exception {
+        client.insertUnits(null);
+    }
+
     @Test(expected = MetaDataNotFoundException.class)
     public void givenParentNotFoundRequestWhenInsertObjectGroupsThenReturnNotFound() throws Exception {
         when(mock.post()).thenReturn(Response.status(Response.Status.NOT_FOUND).build());
@@ -245,6 +283,24 @@ public class MetaDataClientRestTest extends VitamJerseyTest {
         }
     }
 
+    @Test
+    public void insertObjectGroupsTest() throws Exception {
+        when(mock.post())
+            .thenReturn(Response.status(Response.Status.CREATED).entity(JsonHandler.createObjectNode()).build());
+        client.insertObjectGroups(JsonHandler.createArrayNode().add(JsonHandler.getFromString(VALID_QUERY)));
+    }
+
+    @Test(expected = MetaDataNotFoundException.class)
+    public void givenParentNotFoundRequestWhenInsertObjectGroupsBulkThenReturnNotFound() throws Exception {
+        when(mock.post()).thenReturn(Response.status(Response.Status.NOT_FOUND).build());
+        client.insertObjectGroups(JsonHandler.createArrayNode().add(JsonHandler.getFromString(VALID_QUERY)));
+    }
+
+    @Test(expected = InvalidParseOperationException.class)
+    public void givenNullRequestWhenInsertObjectGroupsBulkThenRaiseInvalidParse() throws Exception {
+        client.insertObjectGroups(null);
+    }
+
     @Test(expected = InvalidParseOperationException.class)
     public void selectUnitShouldRaiseExceptionWhenExecution() throws Exception {
         when(mock.get()).thenReturn(Response.status(Response.Status.INTERNAL_SERVER_ERROR).build());
@@ -148,6 +148,33 @@ public class MetaDataImpl implements MetaData {
         }
     }
 
+    @Override
+    public void insertUnits(ArrayNode insertRequests)
+        throws InvalidParseOperationException, MetaDataDocumentSizeException, MetaDataExecutionException,
+        MetaDataAlreadyExistException, MetaDataNotFoundException {
+        final List<InsertParserMultiple> insertParsers = new ArrayList<>(insertRequests.size());
+        for (final JsonNode insertRequest : insertRequests) {
+            final InsertParserMultiple insertParser = new InsertParserMultiple(new MongoDbVarNameAdapter());
+            insertParser.parse(insertRequest);
+            insertParsers.add(insertParser);
+        }
+        DbRequestFactoryImpl.getInstance().create().execInsertUnitRequests(insertParsers);
+    }
+
+    @Override
+    public void insertObjectGroups(ArrayNode insertRequests)
+        throws InvalidParseOperationException, MetaDataDocumentSizeException, MetaDataExecutionException,
+        MetaDataAlreadyExistException, MetaDataNotFoundException {
+        final List<InsertParserMultiple> insertParsers = new ArrayList<>(insertRequests.size());
+        for (final JsonNode insertRequest : insertRequests) {
+            final InsertParserMultiple insertParser = new InsertParserMultiple(new MongoDbVarNameAdapter());
+            insertParser.parse(insertRequest);
+            insertParser.getRequest().addHintFilter(BuilderToken.FILTERARGS.OBJECTGROUPS.exactToken());
+            insertParsers.add(insertParser);
+        }
+        DbRequestFactoryImpl.getInstance().create().execInsertObjectGroupRequests(insertParsers);
+    }
+
     @Override
     public ArrayNode selectUnitsByQuery(JsonNode selectQuery)
         throws MetaDataExecutionException, InvalidParseOperationException,
@@ -37,24 +37,39 @@ import static com.mongodb.client.model.Filters.eq;
 import static com.mongodb.client.model.Filters.gte;
 import static com.mongodb.client.model.Filters.in;
 import static com.mongodb.client.model.Filters.lte;
+import static com.mongodb.client.model.Updates.inc;
+import static com.mongodb.client.model.Updates.set;
+import static com.mongodb.client.model.Updates.unset;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
 import org.bson.conversions.Bson;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoException;
 import com.mongodb.MongoWriteException;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 
@@ -69,6 +84,7 @@ import fr.gouv.vitam.common.database.builder.request.multiple.Update;
 import fr.gouv.vitam.common.database.parser.query.PathQuery;
 import fr.gouv.vitam.common.database.parser.query.helper.QueryDepthHelper;
 import fr.gouv.vitam.common.database.parser.request.GlobalDatasParser;
+import fr.gouv.vitam.common.database.parser.request.multiple.InsertParserMultiple;
 import fr.gouv.vitam.common.database.parser.request.multiple.RequestParserMultiple;
 import fr.gouv.vitam.common.database.translators.RequestToAbstract;
 import fr.gouv.vitam.common.database.translators.elasticsearch.QueryToElasticsearch;
@@ -80,9 +96,11 @@ import fr.gouv.vitam.common.database.translators.mongodb.RequestToMongodb;
 import fr.gouv.vitam.common.database.translators.mongodb.SelectToMongodb;
 import fr.gouv.vitam.common.database.translators.mongodb.UpdateToMongodb;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.guid.GUIDSet;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.metadata.api.exception.MetaDataAlreadyExistException;
+import fr.gouv.vitam.metadata.api.exception.MetaDataDocumentSizeException;
 import fr.gouv.vitam.metadata.api.exception.MetaDataExecutionException;
 import fr.gouv.vitam.metadata.api.exception.MetaDataNotFoundException;
 import fr.gouv.vitam.metadata.core.database.configuration.GlobalDatasDb;
@@ -107,6 +125,14 @@ public class DbRequest {
 
     private static final String NO_RESULT_AT_RANK = "No result at rank: ";
 
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+    // MongoDB maximum BSON document size
+    private static final int MAX_DOCUMENT_SIZE = 16 * 1024 * 1024;
+
+    private static final String UNIT_ALREADY_EXISTS = "Unit already exists: ";
+
+    private static final String OBJECTGROUP_ALREADY_EXISTS = "ObjectGroup already exists: ";
+
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(DbRequest.class);
 
     /**
@@ -280,7 +306,7 @@ public class DbRequest {
             (FindIterable<ObjectGroup>) MongoDbMetadataHelper.select(MetadataCollections.C_OBJECTGROUP,
                 MongoDbMetadataHelper.queryForAncestorsOrSame(roots, defaultStartSet.getCurrentIds()),
                 ObjectGroup.OBJECTGROUP_VITAM_PROJECTION);
-        final Set<String> newRoots = new HashSet<>();
+        final Set<String> newRoots = new GUIDSet();
         try (final MongoCursor<ObjectGroup> cursor = iterable.iterator()) {
             while (cursor.hasNext()) {
                 final ObjectGroup og = cursor.next();
@@ -317,7 +343,7 @@ public class DbRequest {
             (FindIterable<Unit>) MongoDbMetadataHelper.select(MetadataCollections.C_UNIT,
                 MongoDbMetadataHelper.queryForAncestorsOrSame(current, defaultStartSet.getCurrentIds()),
                 MongoDbMetadataHelper.ID_PROJECTION);
-        final Set<String> newRoots = new HashSet<>();
+        final Set<String> newRoots = new GUIDSet();
         try (final MongoCursor<Unit> cursor = iterable.iterator()) {
             while (cursor.hasNext()) {
                 final Unit unit = cursor.next();
@@ -367,6 +393,16 @@ public class DbRequest {
             exactDepth = GlobalDatasParser.MAXDEPTH;
         }
         final int relativeDepth = QueryDepthHelper.HELPER.getRelativeDepth(realQuery);
+        final ResultCache resultCache = ResultCache.getInstance();
+        final Object cacheKey = resultCache.getKey(collectionType, realQuery, previous);
+        if (cacheKey != null) {
+            final Result cached = resultCache.get(cacheKey);
+            if (cached != null) {
+                LOGGER.debug("Result from cache");
+                previous.clear();
+                return cached;
+            }
+        }
         Result result;
         try {
             if (collectionType == FILTERARGS.UNITS) {
@@ -392,6 +428,9 @@ public class DbRequest {
         } finally {
             previous.clear();
         }
+        if (cacheKey != null) {
+            resultCache.put(cacheKey, result);
+        }
         return result;
     }
 
@@ -525,12 +564,13 @@ public class DbRequest {
                 while (cursor.hasNext()) {
                     final Unit unit = cursor.next();
                     if (tocheck) {
-                        // now check for relativeDepth > 1
+                        // now check for relativeDepth > 1: the parents of one unit are far less than the previous
+                        // ids, so check the parents against the previous ids
                         final Map<String, Integer> depths = unit.getDepths();
+                        final Set<String> previousIds = previous.getCurrentIds();
                         boolean check = false;
-                        for (final String pid : previous.getCurrentIds()) {
-                            final Integer depth = depths.get(pid);
-                            if (depth != null && depth <= relativeDepth) {
+                        for (final Entry<String, Integer> depth : depths.entrySet()) {
+                            if (depth.getValue() <= relativeDepth && previousIds.contains(depth.getKey())) {
                                 check = true;
                                 break;
                             }
@@ -575,7 +615,7 @@ public class DbRequest {
         final AggregateIterable<Unit> aggregateIterable =
             MetadataCollections.C_UNIT.getCollection().aggregate(pipeline);
         final Unit aggregate = aggregateIterable.first();
-        final Set<String> set = new HashSet<>();
+        final Set<String> set = new GUIDSet();
         if (aggregate != null) {
             @SuppressWarnings("unchecked")
             final List<Map<String, Integer>> array = (List<Map<String, Integer>>) aggregate.get("deptharray");
@@ -757,6 +797,7 @@ public class DbRequest {
         LOGGER.debug(
             "To Update: " + MongoDbHelper.bsonToString(roots, false) + " " + MongoDbHelper.bsonToString(update, false));
         try {
+            ResultCache.getInstance().invalidate();
             if (model == FILTERARGS.UNITS) {
                 final UpdateResult result = MongoDbMetadataHelper.update(MetadataCollections.C_UNIT,
                     roots, update, last.getCurrentIds().size());
@@ -775,6 +816,8 @@ public class DbRequest {
             throw e;
         } catch (final Exception e) {
             throw new MetaDataExecutionException("Update concern", e);
+        } finally {
+            ResultCache.getInstance().invalidate();
         }
     }
 
@@ -823,18 +866,19 @@ public class DbRequest {
         LOGGER.debug("To Insert: " + data);
         final FILTERARGS model = requestToMongodb.model();
         try {
+            ResultCache.getInstance().invalidate();
             if (model == FILTERARGS.UNITS) {
                 final Unit unit = new Unit(data);
                 if (MongoDbMetadataHelper.exists(MetadataCollections.C_UNIT, unit.getId())) {
                     // Should not exist
-                    throw new MetaDataAlreadyExistException("Unit already exists: " + unit.getId());
+                    throw new MetaDataAlreadyExistException(UNIT_ALREADY_EXISTS + unit.getId());
                 }
                 unit.save();
                 @SuppressWarnings("unchecked")
                 final FindIterable<Unit> iterable =
                     (FindIterable<Unit>) MongoDbMetadataHelper.select(MetadataCollections.C_UNIT,
                         in(MetadataDocument.ID, last.getCurrentIds()), Unit.UNIT_VITAM_PROJECTION);
-                final Set<String> notFound = new HashSet<>(last.getCurrentIds());
+                final Set<String> notFound = new GUIDSet(last.getCurrentIds());
                 // TODO P2 optimize by trying to update only once the unit
                 try (MongoCursor<Unit> cursor = iterable.iterator()) {
                     while (cursor.hasNext()) {
@@ -851,7 +895,7 @@ public class DbRequest {
                 last.clear();
                 last.addId(unit.getId());
                 last.setNbResult(1);
-                insertBulk(requestToMongodb, last);
+                insertBulk(model, last);
                 // FIXME P1 should handle micro update on parents in ES
                 return last;
             }
@@ -860,7 +904,7 @@ public class DbRequest {
             final ObjectGroup og = new ObjectGroup(data);
             if (MongoDbMetadataHelper.exists(MetadataCollections.C_OBJECTGROUP, og.getId())) {
                 // Should not exist
-                throw new MetaDataAlreadyExistException("ObjectGroup already exists: " + og.getId());
+                throw new MetaDataAlreadyExistException(OBJECTGROUP_ALREADY_EXISTS + og.getId());
             }
             if (last.getCurrentIds().isEmpty() && og.getFathersUnitIds(false).isEmpty()) {
                 // Must not be
@@ -872,7 +916,7 @@ public class DbRequest {
             final FindIterable<Unit> iterable =
                 (FindIterable<Unit>) MongoDbMetadataHelper.select(MetadataCollections.C_UNIT,
                     in(MetadataDocument.ID, last.getCurrentIds()), Unit.UNIT_VITAM_PROJECTION);
-            final Set<String> notFound = new HashSet<>(last.getCurrentIds());
+            final Set<String> notFound = new GUIDSet(last.getCurrentIds());
             // TODO P2 optimize by trying to update only once the og
             try (MongoCursor<Unit> cursor = iterable.iterator()) {
                 while (cursor.hasNext()) {
@@ -895,21 +939,22 @@ public class DbRequest {
             throw e;
         } catch (final MongoException e) {
             throw new MetaDataExecutionException("Insert concern", e);
+        } finally {
+            ResultCache.getInstance().invalidate();
         }
     }
     
     /**
      * Bulk insert in ES
      * 
-     * @param requestToMongodb
+     * @param model
      * @param result
      * @throws MetaDataExecutionException
      */
-    private void insertBulk(InsertToMongodb requestToMongodb, Result result) throws MetaDataExecutionException {
+    private void insertBulk(FILTERARGS model, Result result) throws MetaDataExecutionException {
         // index Metadata
         final Set<String> ids = result.getCurrentIds();
 
-        final FILTERARGS model = requestToMongodb.model();
         // index Unit
         if (model == FILTERARGS.UNITS) {
             final Bson finalQuery = in(MetadataDocument.ID, ids);
@@ -923,6 +968,335 @@ public class DbRequest {
         }
     }
 
+    /**
+     * Insert several Units at once (used in ingest).<br>
+     * Requests are applied in order: a Unit can have as parent a Unit inserted by a previous request of the list. The
+     * parents must be given through $roots only (no $query).<br>
+     * Database accesses are grouped: one existence check, one read of the parents, one insertMany, one bulk update of
+     * the parents and one ES bulk.<br>
+     * The MongoDB writes are all or nothing: if the insertMany or the update of the parents fails, the inserted Units
+     * are removed and the parents already updated are restored, so that the whole bulk can be retried.
+     *
+     * @param requestParsers the parsed insert requests
+     * @return the Result containing the ids of the inserted Units
+     * @throws InvalidParseOperationException
+     * @throws MetaDataAlreadyExistException
+     * @throws MetaDataExecutionException
+     * @throws MetaDataNotFoundException
+     * @throws MetaDataDocumentSizeException if one of the Units is too large to be stored
+     */
+    @SuppressWarnings("unchecked")
+    public Result execInsertUnitRequests(final List<InsertParserMultiple> requestParsers)
+        throws InvalidParseOperationException, MetaDataAlreadyExistException, MetaDataExecutionException,
+        MetaDataNotFoundException, MetaDataDocumentSizeException {
+        final Map<String, Unit> units = new LinkedHashMap<>();
+        final Map<String, Set<String>> unitParents = new HashMap<>();
+        final Set<String> parentIds = new HashSet<>();
+        for (final InsertParserMultiple requestParser : requestParsers) {
+            final InsertToMongodb requestToMongodb = getBulkInsertRequest(requestParser, FILTERARGS.UNITS);
+            final Unit unit = new Unit(requestToMongodb.getFinalData());
+            if (units.put(unit.getId(), unit) != null) {
+                throw new MetaDataAlreadyExistException(UNIT_ALREADY_EXISTS + unit.getId());
+            }
+            final Set<String> roots = requestParser.getRequest().getRoots();
+            unitParents.put(unit.getId(), roots);
+            parentIds.addAll(roots);
+        }
+        if (units.isEmpty()) {
+            return MongoDbMetadataHelper.createOneResult(FILTERARGS.UNITS);
+        }
+        try {
+            ResultCache.getInstance().invalidate();
+            checkNotExisting(MetadataCollections.C_UNIT, units.keySet(), UNIT_ALREADY_EXISTS);
+            parentIds.removeAll(units.keySet());
+            final Map<String, Unit> existingParents = new HashMap<>();
+            if (!parentIds.isEmpty()) {
+                final FindIterable<Unit> iterable =
+                    (FindIterable<Unit>) MongoDbMetadataHelper.select(MetadataCollections.C_UNIT,
+                        in(MetadataDocument.ID, parentIds), Unit.UNIT_VITAM_PROJECTION);
+                try (MongoCursor<Unit> cursor = iterable.iterator()) {
+                    while (cursor.hasNext()) {
+                        final Unit parentUnit = cursor.next();
+                        existingParents.put(parentUnit.getId(), parentUnit);
+                    }
+                }
+            }
+            // Compute links in the order of the requests
+            final Map<String, Unit> prepared = new HashMap<>();
+            final Map<String, Integer> childrenByExistingParent = new HashMap<>();
+            for (final Unit unit : units.values()) {
+                final List<Unit> parents = new ArrayList<>();
+                final Set<String> notFound = new HashSet<>();
+                for (final String parentId : unitParents.get(unit.getId())) {
+                    Unit parentUnit = prepared.get(parentId);
+                    if (parentUnit != null) {
+                        parentUnit.put(Unit.NBCHILD, ((Number) parentUnit.get(Unit.NBCHILD)).longValue() + 1);
+                    } else {
+                        parentUnit = existingParents.get(parentId);
+                        if (parentUnit == null) {
+                            notFound.add(parentId);
+                            continue;
+                        }
+                        childrenByExistingParent.merge(parentId, 1, Integer::sum);
+                    }
+                    parents.add(parentUnit);
+                }
+                if (!notFound.isEmpty()) {
+                    LOGGER.error("Cannot find parent: " + notFound);
+                    throw new MetaDataNotFoundException("Cannot find Parent: " + notFound);
+                }
+                prepared.put(unit.getId(), unit.prepareBulkInsert(parents));
+            }
+            checkDocumentSize(MetadataCollections.C_UNIT, Unit.class, units.values());
+            final List<WriteModel<Unit>> updates = new ArrayList<>(childrenByExistingParent.size());
+            final List<WriteModel<Unit>> rollbacks = new ArrayList<>(childrenByExistingParent.size());
+            for (final Entry<String, Integer> entry : childrenByExistingParent.entrySet()) {
+                updates.add(new UpdateOneModel<>(eq(MetadataDocument.ID, entry.getKey()),
+                    inc(Unit.NBCHILD, entry.getValue())));
+                rollbacks.add(new UpdateOneModel<>(eq(MetadataDocument.ID, entry.getKey()),
+                    inc(Unit.NBCHILD, -entry.getValue())));
+            }
+            bulkInsert(MetadataCollections.C_UNIT, new ArrayList<>(units.values()), updates, rollbacks);
+            final Result result = MongoDbMetadataHelper.createOneResult(FILTERARGS.UNITS, units.keySet());
+            result.setNbResult(units.size());
+            insertBulk(FILTERARGS.UNITS, result);
+            return result;
+        } catch (final MongoBulkWriteException e) {
+            if (e.getWriteErrors().stream().anyMatch(error -> error.getCode() == DUPLICATE_KEY_ERROR)) {
+                throw new MetaDataAlreadyExistException(e);
+            }
+            throw new MetaDataExecutionException("Insert concern", e);
+        } catch (final MongoException e) {
+            throw new MetaDataExecutionException("Insert concern", e);
+        } finally {
+            ResultCache.getInstance().invalidate();
+        }
+    }
+
+    /**
+     * Insert several ObjectGroups at once (used in ingest).<br>
+     * The parents must be given through $roots only (no $query) or already be in the _up field of each ObjectGroup.
+     * <br>
+     * Database accesses are grouped: one existence check, one read of the parents, one insertMany and one bulk update
+     * of the parents.<br>
+     * The MongoDB writes are all or nothing: if the insertMany or the update of the parents fails, the inserted
+     * ObjectGroups are removed and the parents already linked are unlinked, so that the whole bulk can be retried.
+     *
+     * @param requestParsers the parsed insert requests
+     * @return the Result containing the ids of the inserted ObjectGroups
+     * @throws InvalidParseOperationException
+     * @throws MetaDataAlreadyExistException
+     * @throws MetaDataExecutionException
+     * @throws MetaDataNotFoundException
+     * @throws MetaDataDocumentSizeException if one of the ObjectGroups is too large to be stored
+     */
+    @SuppressWarnings("unchecked")
+    public Result execInsertObjectGroupRequests(final List<InsertParserMultiple> requestParsers)
+        throws InvalidParseOperationException, MetaDataAlreadyExistException, MetaDataExecutionException,
+        MetaDataNotFoundException, MetaDataDocumentSizeException {
+        final Map<String, ObjectGroup> objectGroups = new LinkedHashMap<>();
+        final Map<String, Set<String>> objectGroupParents = new HashMap<>();
+        final Map<String, String> parentToObjectGroup = new HashMap<>();
+        for (final InsertParserMultiple requestParser : requestParsers) {
+            final InsertToMongodb requestToMongodb = getBulkInsertRequest(requestParser, FILTERARGS.OBJECTGROUPS);
+            final ObjectGroup og = new ObjectGroup(requestToMongodb.getFinalData());
+            if (objectGroups.put(og.getId(), og) != null) {
+                throw new MetaDataAlreadyExistException(OBJECTGROUP_ALREADY_EXISTS + og.getId());
+            }
+            final Set<String> roots = requestParser.getRequest().getRoots();
+            if (roots.isEmpty() && og.getFathersUnitIds(false).isEmpty()) {
+                LOGGER.debug("No Unit parent defined");
+                throw new MetaDataNotFoundException("No Unit parent defined");
+            }
+            for (final String parentId : roots) {
+                final String previous = parentToObjectGroup.put(parentId, og.getId());
+                if (previous != null && !previous.equals(og.getId())) {
+                    throw new MetaDataExecutionException(
+                        "Cannot change ObjectGroup of Unit without removing it first");
+                }
+            }
+            objectGroupParents.put(og.getId(), roots);
+        }
+        if (objectGroups.isEmpty()) {
+            return MongoDbMetadataHelper.createOneResult(FILTERARGS.OBJECTGROUPS);
+        }
+        try {
+            ResultCache.getInstance().invalidate();
+            checkNotExisting(MetadataCollections.C_OBJECTGROUP, objectGroups.keySet(), OBJECTGROUP_ALREADY_EXISTS);
+            for (final ObjectGroup og : objectGroups.values()) {
+                og.prepareBulkInsert(objectGroupParents.get(og.getId()));
+            }
+            final List<WriteModel<Unit>> updates = new ArrayList<>(parentToObjectGroup.size());
+            final List<WriteModel<Unit>> rollbacks = new ArrayList<>(parentToObjectGroup.size());
+            if (!parentToObjectGroup.isEmpty()) {
+                final Set<String> notFound = new HashSet<>(parentToObjectGroup.keySet());
+                final FindIterable<Unit> iterable =
+                    (FindIterable<Unit>) MongoDbMetadataHelper.select(MetadataCollections.C_UNIT,
+                        in(MetadataDocument.ID, parentToObjectGroup.keySet()), Unit.UNIT_OBJECTGROUP_PROJECTION);
+                try (MongoCursor<Unit> cursor = iterable.iterator()) {
+                    while (cursor.hasNext()) {
+                        final Unit parentUnit = cursor.next();
+                        final ObjectGroup og = objectGroups.get(parentToObjectGroup.get(parentUnit.getId()));
+                        notFound.remove(parentUnit.getId());
+                        final String old = parentUnit.getObjectGroupId(false);
+                        final Bson update = parentUnit.prepareBulkObjectGroupLink(og);
+                        if (update != null) {
+                            final Bson filter = eq(MetadataDocument.ID, parentUnit.getId());
+                            updates.add(new UpdateOneModel<>(filter, update));
+                            rollbacks.add(new UpdateOneModel<>(filter,
+                                old == null ? unset(MetadataDocument.OG) : set(MetadataDocument.OG, old)));
+                        }
+                    }
+                }
+                if (!notFound.isEmpty()) {
+                    LOGGER.error("Cannot find parent: " + notFound);
+                    throw new MetaDataNotFoundException("Cannot find Parent: " + notFound);
+                }
+            }
+            checkDocumentSize(MetadataCollections.C_OBJECTGROUP, ObjectGroup.class, objectGroups.values());
+            bulkInsert(MetadataCollections.C_OBJECTGROUP, new ArrayList<>(objectGroups.values()), updates, rollbacks);
+        } catch (final MongoBulkWriteException e) {
+            if (e.getWriteErrors().stream().anyMatch(error -> error.getCode() == DUPLICATE_KEY_ERROR)) {
+                throw new MetaDataAlreadyExistException(e);
+            }
+            throw new MetaDataExecutionException("Insert concern", e);
+        } catch (final MongoException e) {
+            throw new MetaDataExecutionException("Insert concern", e);
+        } finally {
+            ResultCache.getInstance().invalidate();
+        }
+        final Result result =
+            MongoDbMetadataHelper.createOneResult(FILTERARGS.OBJECTGROUPS, objectGroups.keySet());
+        result.setNbResult(objectGroups.size());
+        return result;
+    }
+
+    /**
+     * Insert the documents then apply the updates of their parent Units, in order. On failure, the updates already
+     * applied are reverted with their rollback (same index) and the inserted documents are removed before the
+     * exception is rethrown.
+     *
+     * @param collection the collection of the documents
+     * @param documents the new documents
+     * @param updates the updates of the parent Units
+     * @param rollbacks the reverse of each update
+     * @throws MongoException if the insert or the updates failed
+     */
+    @SuppressWarnings("unchecked")
+    private void bulkInsert(final MetadataCollections collection, final List<? extends MetadataDocument<?>> documents,
+        final List<WriteModel<Unit>> updates, final List<WriteModel<Unit>> rollbacks) {
+        try {
+            collection.getCollection().insertMany(documents);
+        } catch (final MongoException e) {
+            // ordered insert: the documents before the failing one are inserted, unknown on other errors
+            final int inserted = e instanceof MongoBulkWriteException
+                ? getFirstErrorIndex((MongoBulkWriteException) e) : documents.size();
+            rollbackInsert(collection, documents.subList(0, inserted), e);
+            throw e;
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+        try {
+            MetadataCollections.C_UNIT.getCollection().bulkWrite(updates, new BulkWriteOptions().ordered(true));
+        } catch (final MongoException e) {
+            if (e instanceof MongoBulkWriteException) {
+                final int applied = getFirstErrorIndex((MongoBulkWriteException) e);
+                if (applied > 0) {
+                    try {
+                        MetadataCollections.C_UNIT.getCollection().bulkWrite(rollbacks.subList(0, applied),
+                            new BulkWriteOptions().ordered(false));
+                    } catch (final MongoException e1) {
+                        LOGGER.error("Cannot restore the parents of the bulk insert", e1);
+                        e.addSuppressed(e1);
+                    }
+                }
+            } else {
+                LOGGER.error("The parents of the bulk insert may be partially updated", e);
+            }
+            rollbackInsert(collection, documents, e);
+            throw e;
+        }
+    }
+
+    private static int getFirstErrorIndex(final MongoBulkWriteException e) {
+        return e.getWriteErrors().stream().mapToInt(BulkWriteError::getIndex).min().orElse(0);
+    }
+
+    private void rollbackInsert(final MetadataCollections collection,
+        final List<? extends MetadataDocument<?>> documents, final MongoException cause) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        final List<String> ids = new ArrayList<>(documents.size());
+        for (final MetadataDocument<?> document : documents) {
+            ids.add(document.getId());
+        }
+        try {
+            collection.getCollection().deleteMany(in(MetadataDocument.ID, ids));
+        } catch (final MongoException e) {
+            LOGGER.error("Cannot remove the documents of the failed bulk insert: " + ids, e);
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Check that each document can be stored in MongoDB
+     *
+     * @param collection
+     * @param clasz the class of the documents
+     * @param documents
+     * @throws MetaDataDocumentSizeException if one of the documents is larger than the MongoDB limit
+     */
+    private <T extends MetadataDocument<T>> void checkDocumentSize(final MetadataCollections collection,
+        final Class<T> clasz, final Collection<T> documents) throws MetaDataDocumentSizeException {
+        final Codec<T> codec = collection.getCollection().getCodecRegistry().get(clasz);
+        for (final T document : documents) {
+            final int size = new RawBsonDocument(document, codec).getByteBuffer().remaining();
+            if (size > MAX_DOCUMENT_SIZE) {
+                throw new MetaDataDocumentSizeException(
+                    "Document " + document.getId() + " is too large: " + size + " bytes");
+            }
+        }
+    }
+
+    /**
+     * Check that the request can be part of a bulk insert
+     *
+     * @param requestParser
+     * @param model the expected model
+     * @return the translated request
+     * @throws InvalidParseOperationException if the request is not a simple insert on the expected model
+     */
+    private InsertToMongodb getBulkInsertRequest(final InsertParserMultiple requestParser, final FILTERARGS model)
+        throws InvalidParseOperationException {
+        if (requestParser.model() != model) {
+            throw new InvalidParseOperationException("Bulk insert of " + model + " only");
+        }
+        if (requestParser.getRequest().getNbQueries() > 0) {
+            throw new InvalidParseOperationException("Bulk insert does not allow $query, only $roots");
+        }
+        return (InsertToMongodb) RequestToMongodb.getRequestToMongoDb(requestParser);
+    }
+
+    /**
+     * Check in one request that none of the ids already exists
+     *
+     * @param collection
+     * @param ids
+     * @param message
+     * @throws MetaDataAlreadyExistException if one of the ids already exists
+     */
+    private void checkNotExisting(final MetadataCollections collection, final Set<String> ids, final String message)
+        throws MetaDataAlreadyExistException {
+        final MetadataDocument<?> existing = (MetadataDocument<?>) MongoDbMetadataHelper
+            .select(collection, in(MetadataDocument.ID, ids), MongoDbMetadataHelper.ID_PROJECTION).first();
+        if (existing != null) {
+            // Should not exist
+            throw new MetaDataAlreadyExistException(message + existing.getId());
+        }
+    }
+
     /**
      * Finalize the queries with last True Delete
      *
@@ -938,6 +1312,7 @@ public class DbRequest {
         LOGGER.debug("To Delete: " + MongoDbHelper.bsonToString(roots, false));
         final FILTERARGS model = requestToMongodb.model();
         try {
+            ResultCache.getInstance().invalidate();
             if (model == FILTERARGS.UNITS) {
                 final DeleteResult result = MongoDbMetadataHelper.delete(MetadataCollections.C_UNIT,
                     roots, last.getCurrentIds().size());
@@ -956,6 +1331,8 @@ public class DbRequest {
             throw e;
         } catch (final Exception e) {
             throw new MetaDataExecutionException("Delete concern", e);
+        } finally {
+            ResultCache.getInstance().invalidate();
         }
     }
 
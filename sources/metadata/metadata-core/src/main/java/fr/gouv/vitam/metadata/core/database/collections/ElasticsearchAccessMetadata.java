@@ -26,7 +26,6 @@
  *******************************************************************************/
 package fr.gouv.vitam.metadata.core.database.collections;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -44,8 +43,8 @@ import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.index.IndexRequest.OpType;
 import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
-import org.elasticsearch.action.search.SearchType;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.IdsQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
@@ -53,7 +52,9 @@ import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.index.query.TermsQueryBuilder;
 import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.search.SearchHit;
-import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.metrics.sum.Sum;
+import org.elasticsearch.search.sort.SortOrder;
 
 import com.mongodb.DBObject;
 import com.mongodb.client.MongoCursor;
@@ -78,6 +79,13 @@ import fr.gouv.vitam.metadata.core.database.configuration.GlobalDatasDb;
 public class ElasticsearchAccessMetadata extends ElasticsearchAccess {
 
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ElasticsearchAccessMetadata.class);
+    /**
+     * Sort on the index order, the cheapest one for a scroll
+     */
+    private static final String DOC_ORDER = "_doc";
+    private static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
+    private int scrollPageSize = GlobalDatas.LIMIT_LOAD;
 
     /**
      * @param clusterName
@@ -88,6 +96,15 @@ public class ElasticsearchAccessMetadata extends ElasticsearchAccess {
         super(clusterName, nodes);
     }
 
+    /**
+     * Method used for test purpose
+     *
+     * @param scrollPageSize the number of hits fetched for each page of a search
+     */
+    void setScrollPageSize(int scrollPageSize) {
+        this.scrollPageSize = scrollPageSize;
+    }
+
     /**
      * Delete one index
      *
@@ -554,6 +571,7 @@ public class ElasticsearchAccessMetadata extends ElasticsearchAccess {
     }
 
     /**
+     * Search all the ids matching the query: all the hits are read, page by page, without fetching the sources
      *
      * @param collection
      * @param type
@@ -566,9 +584,16 @@ public class ElasticsearchAccessMetadata extends ElasticsearchAccess {
     protected final Result search(final MetadataCollections collection, final String type, final QueryBuilder query,
         final QueryBuilder filter) throws MetaDataExecutionException {
         // Note: Could change the code to allow multiple indexes and multiple types
+        // Only the ids are fetched, in index order (no scoring), page by page through a scroll
         final SearchRequestBuilder request =
-            client.prepareSearch(collection.getName().toLowerCase()).setSearchType(SearchType.DFS_QUERY_THEN_FETCH)
-                .setTypes(type).setExplain(false).setSize(GlobalDatas.LIMIT_LOAD);
+            client.prepareSearch(collection.getName().toLowerCase()).setTypes(type).setExplain(false)
+                .setFetchSource(false).addSort(DOC_ORDER, SortOrder.ASC).setScroll(SCROLL_KEEP_ALIVE)
+                .setSize(scrollPageSize);
+        final boolean isUnit = collection == MetadataCollections.C_UNIT;
+        if (isUnit) {
+            // number of immediate children of all the units computed from doc values
+            request.addAggregation(AggregationBuilders.sum(Unit.NBCHILD).field(Unit.NBCHILD));
+        }
         if (filter != null) {
             if (GlobalDatasDb.USE_FILTERED_REQUEST) {
                 final BoolQueryBuilder filteredQueryBuilder = QueryBuilders.boolQuery().must(query).filter(filter);
@@ -584,54 +609,68 @@ public class ElasticsearchAccessMetadata extends ElasticsearchAccess {
         } else {
             LOGGER.debug("ESReq: {}", request);
         }
-        final SearchResponse response;
+        SearchResponse response;
         try {
             response = request.get();
         } catch (final Exception e) {
             LOGGER.debug(e.getMessage(), e);
             throw new MetaDataExecutionException(e.getMessage(), e);
         }
-        if (response.status() != RestStatus.OK) {
-            LOGGER.error("Error " + response.status() + " from : " + request + ":" + query + " # " + filter);
-            return null;
-        }
-        final SearchHits hits = response.getHits();
-        if (hits.getTotalHits() > GlobalDatas.LIMIT_LOAD) {
-            LOGGER.warn("Warning, more than " + GlobalDatas.LIMIT_LOAD + " hits: " + hits.getTotalHits());
-        }
-        if (hits.getTotalHits() == 0) {
-            LOGGER.error("No result from : " + request);
-            return null;
-        }
-        long nb = 0;
-        final boolean isUnit = collection == MetadataCollections.C_UNIT;
-        final Result resultRequest = isUnit ? MongoDbMetadataHelper.createOneResult(FILTERARGS.UNITS)
-            : MongoDbMetadataHelper.createOneResult(FILTERARGS.OBJECTGROUPS);
-        final Iterator<SearchHit> iterator = hits.iterator();
-        while (iterator.hasNext()) {
-            final SearchHit hit = iterator.next();
-            final String id = hit.getId();
-            final Map<String, Object> src = hit.getSource();
-            if (src != null && isUnit) {
-                final Object val = src.get(Unit.NBCHILD);
-                if (val == null) {
-                    LOGGER.error("Not found " + Unit.NBCHILD);
-                } else if (val instanceof Integer) {
-                    nb += (Integer) val;
-                    if (GlobalDatasDb.PRINT_REQUEST) {
-                        LOGGER.debug("Result: {} : {}", id, val);
-                    }
-                } else {
-                    LOGGER.error("Not Integer: " + val.getClass().getName());
+        try {
+            if (response.status() != RestStatus.OK) {
+                LOGGER.error("Error " + response.status() + " from : " + request + ":" + query + " # " + filter);
+                return null;
+            }
+            final long totalHits = response.getHits().getTotalHits();
+            if (totalHits == 0) {
+                LOGGER.error("No result from : " + request);
+                return null;
+            }
+            long nb = 0;
+            if (isUnit) {
+                final Sum nbChild = response.getAggregations().get(Unit.NBCHILD);
+                nb = (long) nbChild.getValue();
+            }
+            final Result resultRequest = isUnit ? MongoDbMetadataHelper.createOneResult(FILTERARGS.UNITS)
+                : MongoDbMetadataHelper.createOneResult(FILTERARGS.OBJECTGROUPS);
+            long nbHits = 0;
+            SearchHit[] hits = response.getHits().getHits();
+            while (hits.length > 0) {
+                for (final SearchHit hit : hits) {
+                    resultRequest.addId(hit.getId());
                 }
+                nbHits += hits.length;
+                if (nbHits >= totalHits) {
+                    break;
+                }
+                try {
+                    response = client.prepareSearchScroll(response.getScrollId()).setScroll(SCROLL_KEEP_ALIVE).get();
+                } catch (final Exception e) {
+                    LOGGER.debug(e.getMessage(), e);
+                    throw new MetaDataExecutionException(e.getMessage(), e);
+                }
+                hits = response.getHits().getHits();
+            }
+            resultRequest.setNbResult(nb);
+            if (GlobalDatasDb.PRINT_REQUEST) {
+                LOGGER.debug("FinalEsResult: {} : {}", resultRequest.getCurrentIds(), resultRequest.getNbResult());
             }
-            resultRequest.addId(id);
+            return resultRequest;
+        } finally {
+            clearScroll(response.getScrollId());
         }
-        resultRequest.setNbResult(nb);
-        if (GlobalDatasDb.PRINT_REQUEST) {
-            LOGGER.debug("FinalEsResult: {} : {}", resultRequest.getCurrentIds(), resultRequest.getNbResult());
+    }
+
+    private void clearScroll(String scrollId) {
+        if (scrollId == null) {
+            return;
+        }
+        try {
+            client.prepareClearScroll().addScrollId(scrollId).get();
+        } catch (final Exception e) {
+            // the scroll will expire by itself
+            LOGGER.warn("Cannot clear scroll", e);
         }
-        return resultRequest;
     }
 
     /**
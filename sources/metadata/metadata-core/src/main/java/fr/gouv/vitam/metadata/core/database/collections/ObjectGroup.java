@@ -27,6 +27,7 @@
 package fr.gouv.vitam.metadata.core.database.collections;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.bson.BSONObject;
@@ -228,6 +229,27 @@ public class ObjectGroup extends MetadataDocument<ObjectGroup> {
         return this;
     }
 
+    /**
+     * Prepare this new ObjectGroup for a bulk insert: computes in memory what {@link #save()} followed by
+     * {@link Unit#addObjectGroup(ObjectGroup)} from each parent would write in the database
+     *
+     * @param parentIds the ids of the parent Units
+     * @return this
+     */
+    final ObjectGroup prepareBulkInsert(final Collection<String> parentIds) {
+        testAndCheckId();
+        putBeforeSave();
+        MongoDbMetadataHelper.updateLinkset(this, null, VitamLinks.UNIT_TO_OBJECTGROUP, false);
+        @SuppressWarnings("unchecked")
+        final List<String> ups = (List<String>) get(VitamLinks.UNIT_TO_OBJECTGROUP.field2to1);
+        for (final String parentId : parentIds) {
+            if (!ups.contains(parentId)) {
+                ups.add(parentId);
+            }
+        }
+        return this;
+    }
+
     @Override
     protected boolean updated() throws MetaDataExecutionException {
         final ObjectGroup vt =
@@ -28,7 +28,6 @@ package fr.gouv.vitam.metadata.core.database.collections;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -40,6 +39,7 @@ import com.mongodb.BasicDBList;
 import fr.gouv.vitam.common.SingletonUtils;
 import fr.gouv.vitam.common.database.builder.request.configuration.BuilderToken.FILTERARGS;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.guid.GUIDSet;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 
@@ -59,9 +59,9 @@ public abstract class Result {
     public static final String IDLIST = "idList";
 
     /**
-     * Current Ids in the result
+     * Current Ids in the result, kept in binary form for GUIDs
      */
-    protected Set<String> currentIds = new HashSet<>();
+    protected Set<String> currentIds = new GUIDSet();
     /**
      * Number of result (might be different on update/delete than currentUnits)
      */
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.metadata.core.database.collections;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import fr.gouv.vitam.common.database.builder.query.Query;
+import fr.gouv.vitam.common.database.builder.request.configuration.BuilderToken.FILTERARGS;
+import fr.gouv.vitam.common.guid.GUIDSet;
+import fr.gouv.vitam.common.lru.ConcurrentLruCache;
+import fr.gouv.vitam.metadata.core.database.configuration.GlobalDatasDb;
+
+/**
+ * Cache of the intermediate Results of the queries of a multi-query request.<br>
+ * <br>
+ * A Result is cached for a query fragment and the previous Result it was applied to. Any write on Units or ObjectGroups
+ * invalidates the whole cache, so that a cached Result is always the one the database would give.<br>
+ * <br>
+ * The cache is local to each server, so it is disabled by default and its Results expire quickly: another server may
+ * have changed the database.
+ */
+public final class ResultCache {
+    private static final ResultCache RESULT_CACHE = new ResultCache();
+
+    private final ConcurrentLruCache<Key, Set<String>> cache =
+        new ConcurrentLruCache<>(GlobalDatasDb.MAXLRU_RESULTS, GlobalDatasDb.LRU_RESULTS_TTLMS);
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean enabled = GlobalDatasDb.USELRUCACHE;
+
+    private ResultCache() {
+        // Singleton
+    }
+
+    /**
+     * @return the Result cache of this server
+     */
+    public static ResultCache getInstance() {
+        return RESULT_CACHE;
+    }
+
+    /**
+     * @param enabled True to cache the Results, false to disable the cache
+     * @return this
+     */
+    public ResultCache setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        invalidate();
+        return this;
+    }
+
+    /**
+     * Get the key of a query applied to the previous Result, to be computed before the previous Result is cleared
+     *
+     * @param type the type of the Result
+     * @param query the query fragment
+     * @param previous the previous Result
+     * @return the key, or null if this query must not be cached
+     */
+    Object getKey(FILTERARGS type, Query query, Result previous) {
+        if (!enabled || previous.getCurrentIds().size() > GlobalDatasDb.MAXLRU_RESULT_IDS) {
+            return null;
+        }
+        return new Key(generation.get(), type, query.toString(), previous.getCurrentIds());
+    }
+
+    /**
+     * @param key the key returned by {@link #getKey(FILTERARGS, Query, Result)}
+     * @return the cached Result, or null if not cached
+     */
+    Result get(Object key) {
+        final Key cacheKey = (Key) key;
+        final Set<String> ids = cache.get(cacheKey);
+        if (ids == null) {
+            return null;
+        }
+        return MongoDbMetadataHelper.createOneResult(cacheKey.type, ids);
+    }
+
+    /**
+     * @param key the key returned by {@link #getKey(FILTERARGS, Query, Result)}
+     * @param result the Result of the query
+     */
+    void put(Object key, Result result) {
+        if (result == null || result.isError() || result.getCurrentIds().size() > GlobalDatasDb.MAXLRU_RESULT_IDS) {
+            return;
+        }
+        // entries of a previous generation cannot be read anymore, they are evicted as the oldest ones
+        cache.put((Key) key, new GUIDSet(result.getCurrentIds()));
+    }
+
+    /**
+     * Invalidate all the cached Results, to be called both before and after (in a finally block) any write on Units or
+     * ObjectGroups: a Result computed while the write is in progress, including its indexation in ES, may be stale
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * @return the number of queries answered by the cache
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * @return the number of queries not answered by the cache
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * Key of a cached Result
+     */
+    private static final class Key {
+        private final long generation;
+        private final FILTERARGS type;
+        private final String query;
+        private final Set<String> previousIds;
+        private final int hash;
+
+        private Key(long generation, FILTERARGS type, String query, Set<String> previousIds) {
+            this.generation = generation;
+            this.type = type;
+            this.query = query;
+            this.previousIds = new GUIDSet(previousIds);
+            hash = ((Long.hashCode(generation) * 31 + type.hashCode()) * 31 + query.hashCode()) * 31 +
+                this.previousIds.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return generation == other.generation && type == other.type && hash == other.hash &&
+                query.equals(other.query) && previousIds.equals(other.previousIds);
+        }
+    }
+}
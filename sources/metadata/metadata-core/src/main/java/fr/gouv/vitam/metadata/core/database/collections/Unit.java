@@ -571,6 +571,57 @@ public class Unit extends MetadataDocument<Unit> {
         update(update);
     }
 
+    /**
+     * Prepare this new Unit for a bulk insert: computes in memory what {@link #save()} followed by
+     * {@link #addUnit(Unit)} from each parent would write in the database
+     *
+     * @param parents the immediate parents, with at least the {@link #UNIT_VITAM_PROJECTION} fields
+     * @return this
+     */
+    @SuppressWarnings("unchecked")
+    final Unit prepareBulkInsert(final List<Unit> parents) {
+        testAndCheckId();
+        putBeforeSave();
+        getMaxDepth();
+        getMinDepth();
+        MongoDbMetadataHelper.updateLinkset(this, null, VitamLinks.UNIT_TO_UNIT, false);
+        append(NBCHILD, nb);
+        append(UNITUPS, new ArrayList<>());
+        nb = 0;
+        final List<String> ups = (List<String>) get(VitamLinks.UNIT_TO_UNIT.field2to1);
+        final List<String> unitUps = (List<String>) get(UNITUPS);
+        for (final Unit parent : parents) {
+            ArrayList<Document> depths = (ArrayList<Document>) get(UNITDEPTHS);
+            if (depths == null) {
+                depths = new ArrayList<>();
+                put(UNITDEPTHS, depths);
+            }
+            if (!ups.contains(parent.getId())) {
+                ups.add(parent.getId());
+            }
+            for (final Bson depth : parent.getSubDepth()) {
+                final Document document = new Document((BasicDBObject) depth);
+                if (!depths.contains(document)) {
+                    depths.add(document);
+                }
+            }
+            for (final String up : parent.getSubUnitUps()) {
+                if (!unitUps.contains(up)) {
+                    unitUps.add(up);
+                }
+            }
+            final int min = parent.getInteger(MINDEPTH, 0) + 1;
+            if (min < getInteger(MINDEPTH)) {
+                put(MINDEPTH, min);
+            }
+            final int max = parent.getInteger(MAXDEPTH, 0) + 1;
+            if (max > getInteger(MAXDEPTH)) {
+                put(MAXDEPTH, max);
+            }
+        }
+        return this;
+    }
+
     /**
      * Add the link (N)-N between this Unit and sub Unit (update only subUnit)
      *
@@ -736,12 +787,8 @@ public class Unit extends MetadataDocument<Unit> {
      */
     public Unit addObjectGroup(final ObjectGroup data)
         throws MetaDataExecutionException {
-        final String old = getObjectGroupId(false);
-        final String newGOT = data.getId();
         // TODO P1 when update is ready: change Junit to reflect this case
-        if (old != null && !old.isEmpty() && !old.equals(newGOT)) {
-            throw new MetaDataExecutionException("Cannot change ObjectGroup of Unit without removing it first");
-        }
+        checkObjectGroupChange(data);
         final BasicDBObject update =
             MongoDbMetadataHelper.addLink(this, VitamLinks.UNIT_TO_OBJECTGROUP, data);
         if (update != null) {
@@ -751,6 +798,31 @@ public class Unit extends MetadataDocument<Unit> {
         return this;
     }
 
+    /**
+     * Prepare the link (N)-1 between this existing Unit and a new ObjectGroup for a bulk insert: checks and sets in
+     * memory the ObjectGroup of this Unit as {@link #addObjectGroup(ObjectGroup)} does, the parents of the ObjectGroup
+     * being set by {@link ObjectGroup#prepareBulkInsert(java.util.Collection)}
+     *
+     * @param data the new ObjectGroup
+     * @return the update to apply to this Unit, null if this Unit already has this ObjectGroup
+     * @throws MetaDataExecutionException if this Unit already has another ObjectGroup
+     */
+    final Bson prepareBulkObjectGroupLink(final ObjectGroup data) throws MetaDataExecutionException {
+        checkObjectGroupChange(data);
+        if (data.getId().equals(getObjectGroupId(false))) {
+            return null;
+        }
+        MongoDbMetadataHelper.addLink(this, VitamLinks.UNIT_TO_OBJECTGROUP, data);
+        return set(VitamLinks.UNIT_TO_OBJECTGROUP.field1to2, data.getId());
+    }
+
+    private void checkObjectGroupChange(final ObjectGroup data) throws MetaDataExecutionException {
+        final String old = getObjectGroupId(false);
+        if (old != null && !old.isEmpty() && !old.equals(data.getId())) {
+            throw new MetaDataExecutionException("Cannot change ObjectGroup of Unit without removing it first");
+        }
+    }
+
     /**
      *
      * @param remove
@@ -89,7 +89,7 @@ public class GlobalDatasDb extends GlobalDatasParser {
      */
     public static final boolean SAVERESULT = true;
     /**
-     * Shall we use SynchronizedLruCache for cache of results
+     * Shall we use an LRU cache for the intermediate results of the queries, by default (enabled by configuration)
      */
     public static final boolean USELRUCACHE = false;
     /**
@@ -104,6 +104,18 @@ public class GlobalDatasDb extends GlobalDatasParser {
      * Default LRU Size
      */
     public static final int MAXLRU = 1000000;
+    /**
+     * TTL in ms of the intermediate results in the LRU cache : 1 min, as it is local to each server
+     */
+    public static final int LRU_RESULTS_TTLMS = 60 * 1000;
+    /**
+     * Maximum number of intermediate results in the LRU cache
+     */
+    public static final int MAXLRU_RESULTS = 10000;
+    /**
+     * Maximum number of ids of an intermediate result (and of its previous result) kept in the LRU cache
+     */
+    public static final int MAXLRU_RESULT_IDS = 10000;
     /**
      * Shall we use Redis for cache of results
      */
@@ -965,6 +965,133 @@ public class DbRequestTest {
         assertFalse(result.isError());
     }
 
+    private InsertParserMultiple createBulkInsertParser(GUID uuid, GUID uuidParent, boolean isOG)
+        throws InvalidParseOperationException {
+        final Insert insert = new Insert();
+        if (isOG) {
+            insert.addHintFilter(BuilderToken.FILTERARGS.OBJECTGROUPS.exactToken());
+        }
+        insert.addData((ObjectNode) JsonHandler.getFromString("{\"#id\":\"" + uuid + "\", \"title\":\"bulk\"}"));
+        if (uuidParent != null) {
+            insert.addRoots(uuidParent.getId());
+        }
+        final InsertParserMultiple insertParser = new InsertParserMultiple(mongoDbVarNameAdapter);
+        insertParser.parse(insert.getFinalInsert());
+        return insertParser;
+    }
+
+    private Document getOne(DbRequest dbRequest, GUID uuid, boolean isOG) throws Exception {
+        final Result result = checkExistence(dbRequest, uuid, isOG);
+        final BasicDBList list = (BasicDBList) result.getFinal().get(Result.RESULT_FIELD);
+        return list == null || list.isEmpty() ? null : (Document) list.get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testInsertUnitRequests() throws Exception {
+        final DbRequest dbRequest = new DbRequest();
+        final GUID uuidParent = GUIDFactory.newUnitGUID(tenantId);
+        final GUID uuid1 = GUIDFactory.newUnitGUID(tenantId);
+        final GUID uuid2 = GUIDFactory.newUnitGUID(tenantId);
+        final RequestParserMultiple requestParser =
+            RequestParserHelper.getParser(createInsertRequestWithUUID(uuidParent), mongoDbVarNameAdapter);
+        executeRequest(dbRequest, requestParser);
+
+        // uuid2 is a child of uuid1 inserted in the same bulk
+        final Result result = dbRequest.execInsertUnitRequests(Arrays.asList(
+            createBulkInsertParser(uuid1, uuidParent, false), createBulkInsertParser(uuid2, uuid1, false)));
+        assertEquals(2, result.getNbResult());
+        assertEquals(1, ((Number) getOne(dbRequest, uuidParent, false).get(Unit.NBCHILD)).intValue());
+        assertEquals(1, ((Number) getOne(dbRequest, uuid1, false).get(Unit.NBCHILD)).intValue());
+        final Document unit2 = getOne(dbRequest, uuid2, false);
+        assertEquals(Arrays.asList(uuid1.getId()), unit2.get(MetadataDocument.UP));
+        assertTrue(((List<String>) unit2.get(Unit.UNITUPS)).containsAll(
+            Arrays.asList(uuidParent.getId(), uuid1.getId())));
+
+        // all or nothing: the new Unit of a bulk with an existing Unit is not inserted
+        final GUID uuid3 = GUIDFactory.newUnitGUID(tenantId);
+        try {
+            dbRequest.execInsertUnitRequests(Arrays.asList(
+                createBulkInsertParser(uuid3, uuidParent, false), createBulkInsertParser(uuid1, uuidParent, false)));
+            fail("Should raise an exception");
+        } catch (final MetaDataAlreadyExistException e) {
+            // expected
+        }
+        assertEquals(null, getOne(dbRequest, uuid3, false));
+        assertEquals(1, ((Number) getOne(dbRequest, uuidParent, false).get(Unit.NBCHILD)).intValue());
+
+        // unknown parent
+        try {
+            dbRequest.execInsertUnitRequests(Arrays.asList(
+                createBulkInsertParser(uuid3, GUIDFactory.newUnitGUID(tenantId), false)));
+            fail("Should raise an exception");
+        } catch (final MetaDataNotFoundException e) {
+            // expected
+        }
+        assertEquals(null, getOne(dbRequest, uuid3, false));
+    }
+
+    @Test
+    public void givenResultCacheWhenInsertThenQueryNotStale() throws Exception {
+        ResultCache.getInstance().setEnabled(true);
+        try {
+            final DbRequest dbRequest = new DbRequest();
+            final GUID uuidParent = GUIDFactory.newUnitGUID(tenantId);
+            final GUID uuid1 = GUIDFactory.newUnitGUID(tenantId);
+            // the empty Results are computed (and cached) before the inserts
+            assertEquals(null, getOne(dbRequest, uuidParent, false));
+            assertEquals(null, getOne(dbRequest, uuid1, false));
+
+            executeRequest(dbRequest,
+                RequestParserHelper.getParser(createInsertRequestWithUUID(uuidParent), mongoDbVarNameAdapter));
+            assertEquals(uuidParent.getId(), getOne(dbRequest, uuidParent, false).getString(MetadataDocument.ID));
+
+            dbRequest.execInsertUnitRequests(Arrays.asList(createBulkInsertParser(uuid1, uuidParent, false)));
+            assertEquals(uuid1.getId(), getOne(dbRequest, uuid1, false).getString(MetadataDocument.ID));
+            assertEquals(1, ((Number) getOne(dbRequest, uuidParent, false).get(Unit.NBCHILD)).intValue());
+        } finally {
+            ResultCache.getInstance().setEnabled(false);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testInsertObjectGroupRequests() throws Exception {
+        final DbRequest dbRequest = new DbRequest();
+        final GUID uuidUnit = GUIDFactory.newUnitGUID(tenantId);
+        final GUID uuidOg = GUIDFactory.newObjectGroupGUID(tenantId);
+        final RequestParserMultiple requestParser =
+            RequestParserHelper.getParser(createInsertRequestWithUUID(uuidUnit), mongoDbVarNameAdapter);
+        executeRequest(dbRequest, requestParser);
+
+        final Result result =
+            dbRequest.execInsertObjectGroupRequests(Arrays.asList(createBulkInsertParser(uuidOg, uuidUnit, true)));
+        assertEquals(1, result.getNbResult());
+        // same links as a single insert: _og on the Unit and _up on the ObjectGroup
+        assertEquals(uuidOg.getId(), getOne(dbRequest, uuidUnit, false).getString(MetadataDocument.OG));
+        assertTrue(((List<String>) getOne(dbRequest, uuidOg, true).get(MetadataDocument.UP))
+            .contains(uuidUnit.getId()));
+
+        // the Unit has already another ObjectGroup: nothing is inserted
+        final GUID uuidOg2 = GUIDFactory.newObjectGroupGUID(tenantId);
+        try {
+            dbRequest.execInsertObjectGroupRequests(Arrays.asList(createBulkInsertParser(uuidOg2, uuidUnit, true)));
+            fail("Should raise an exception");
+        } catch (final MetaDataExecutionException e) {
+            // expected
+        }
+        assertEquals(null, getOne(dbRequest, uuidOg2, true));
+        assertEquals(uuidOg.getId(), getOne(dbRequest, uuidUnit, false).getString(MetadataDocument.OG));
+
+        // no parent
+        try {
+            dbRequest.execInsertObjectGroupRequests(Arrays.asList(createBulkInsertParser(uuidOg2, null, true)));
+            fail("Should raise an exception");
+        } catch (final MetaDataNotFoundException e) {
+            // expected
+        }
+    }
+
     private Result checkExistence(DbRequest dbRequest, GUID uuid, boolean isOG)
         throws InvalidCreateOperationException, InvalidParseOperationException, MetaDataExecutionException,
         MetaDataAlreadyExistException, MetaDataNotFoundException, InstantiationException, IllegalAccessException {
@@ -27,18 +27,25 @@
 package fr.gouv.vitam.metadata.core.database.collections;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeTrue;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.elasticsearch.index.query.QueryBuilders;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import fr.gouv.vitam.common.database.builder.request.configuration.BuilderToken.FILTERARGS;
+import fr.gouv.vitam.common.database.builder.request.configuration.GlobalDatas;
 import fr.gouv.vitam.common.database.server.elasticsearch.ElasticsearchNode;
 import fr.gouv.vitam.common.exception.VitamApplicationServerException;
 import fr.gouv.vitam.common.guid.GUIDFactory;
@@ -139,4 +146,32 @@ public class ElasticsearchAccessMetadataTest {
 
     }
 
+    @Test
+    public void testElasticsearchSearchAllHitsByPages() throws Exception {
+        assertEquals(true, esClient.addIndex(MetadataCollections.C_UNIT));
+        try {
+            final Map<String, String> units = new HashMap<>();
+            for (int i = 0; i < 25; i++) {
+                units.put(GUIDFactory.newUnitGUID(TENANT_ID).toString(),
+                    "{ \"Title\":\"title" + i + "\", \"" + Unit.NBCHILD + "\": " + i + "}");
+            }
+            assertTrue(esClient.addEntryIndexesBlocking(MetadataCollections.C_UNIT, units));
+            esClient.refreshIndex(MetadataCollections.C_UNIT);
+
+            // more hits than the size of one page
+            esClient.setScrollPageSize(10);
+            final Result result = esClient.search(MetadataCollections.C_UNIT, Unit.TYPEUNIQUE,
+                QueryBuilders.matchAllQuery(), null);
+            assertEquals(FILTERARGS.UNITS, result.type);
+            assertEquals(units.keySet(), result.getCurrentIds());
+            // sum of the number of children of all the units
+            assertEquals(300, result.getNbResult());
+
+            assertNull(esClient.search(MetadataCollections.C_UNIT, Unit.TYPEUNIQUE,
+                QueryBuilders.termQuery("Title", "unknown"), null));
+        } finally {
+            esClient.setScrollPageSize(GlobalDatas.LIMIT_LOAD);
+            esClient.deleteIndex(MetadataCollections.C_UNIT);
+        }
+    }
 }
@@ -31,6 +31,8 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -98,4 +100,15 @@ public class ObjectGroupTest {
         final ObjectGroup group = new ObjectGroup(go);
         assertFalse(group.isImmediateParent(groupGUID));
     }
+
+    @Test
+    public void givenObjectGroupWhenPrepareBulkInsertThenParentsSet() {
+        final String unitId = GUIDFactory.newUnitGUID(0).getId();
+        final String otherUnitId = GUIDFactory.newUnitGUID(0).getId();
+        final ObjectGroup group = new ObjectGroup("{\"_id\":\"" + GUIDFactory.newObjectGroupGUID(0).getId() +
+            "\", \"_up\":[\"" + unitId + "\"]}");
+        group.prepareBulkInsert(Arrays.asList(unitId, otherUnitId));
+        assertEquals(Arrays.asList(unitId, otherUnitId), group.getFathersUnitIds(false));
+        assertEquals(0, group.getInteger(ObjectGroup.NB_COPY).intValue());
+    }
 }
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.metadata.core.database.collections;
+
+import static fr.gouv.vitam.common.database.builder.query.QueryHelper.eq;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.gouv.vitam.common.database.builder.query.Query;
+import fr.gouv.vitam.common.database.builder.request.configuration.BuilderToken.FILTERARGS;
+
+public class ResultCacheTest {
+
+    @Before
+    public void setUp() {
+        ResultCache.getInstance().setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        ResultCache.getInstance().setEnabled(false);
+    }
+
+    @Test
+    public void givenCacheDisabledWhenGetKeyThenNotCached() throws Exception {
+        final ResultCache resultCache = ResultCache.getInstance().setEnabled(false);
+        assertNull(resultCache.getKey(FILTERARGS.UNITS, eq("Title", "disabled"), new ResultDefault(FILTERARGS.UNITS)));
+    }
+
+    @Test
+    public void givenCachedResultWhenSameQueryOnSamePreviousThenGetCachedResult() throws Exception {
+        final ResultCache resultCache = ResultCache.getInstance();
+        final Query query = eq("Title", "cached");
+        final Result previous = new ResultDefault(FILTERARGS.UNITS, Arrays.asList("id1", "id2"));
+        final Object key = resultCache.getKey(FILTERARGS.UNITS, query, previous);
+        assertNotNull(key);
+        assertNull(resultCache.get(key));
+
+        resultCache.put(key, new ResultDefault(FILTERARGS.UNITS, Arrays.asList("id3")));
+        final Result cached = resultCache.get(resultCache.getKey(FILTERARGS.UNITS, query,
+            new ResultDefault(FILTERARGS.UNITS, Arrays.asList("id2", "id1"))));
+        assertNotNull(cached);
+        assertEquals(1, cached.getNbResult());
+        assertEquals("id3", cached.getCurrentIds().iterator().next());
+
+        // another previous result or another type is not the same entry
+        assertNull(resultCache.get(resultCache.getKey(FILTERARGS.UNITS, query,
+            new ResultDefault(FILTERARGS.UNITS, Arrays.asList("id1")))));
+        assertNull(resultCache.get(resultCache.getKey(FILTERARGS.OBJECTGROUPS, query, previous)));
+    }
+
+    @Test
+    public void givenCachedResultWhenInvalidateThenNotCachedAnymore() throws Exception {
+        final ResultCache resultCache = ResultCache.getInstance();
+        final Query query = eq("Title", "invalidated");
+        final Result previous = new ResultDefault(FILTERARGS.UNITS);
+        final long hits = resultCache.getHitCount();
+        resultCache.put(resultCache.getKey(FILTERARGS.UNITS, query, previous),
+            new ResultDefault(FILTERARGS.UNITS, Arrays.asList("id1")));
+        assertNotNull(resultCache.get(resultCache.getKey(FILTERARGS.UNITS, query, previous)));
+        assertEquals(hits + 1, resultCache.getHitCount());
+
+        resultCache.invalidate();
+        assertNull(resultCache.get(resultCache.getKey(FILTERARGS.UNITS, query, previous)));
+    }
+
+    @Test
+    public void givenErrorResultWhenPutThenNotCached() throws Exception {
+        final ResultCache resultCache = ResultCache.getInstance();
+        final Object key =
+            resultCache.getKey(FILTERARGS.UNITS, eq("Title", "error"), new ResultDefault(FILTERARGS.UNITS));
+        resultCache.put(key, new ResultError(FILTERARGS.UNITS));
+        resultCache.put(key, null);
+        assertNull(resultCache.get(key));
+    }
+}
@@ -28,9 +28,11 @@ package fr.gouv.vitam.metadata.core.database.collections;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,6 +43,7 @@ import org.junit.Test;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.metadata.api.exception.MetaDataExecutionException;
 
@@ -140,4 +143,44 @@ public class UnitTest {
         unit.getObjectGroupId(true);
         unit.getObjectGroupId(false);
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void givenUnitsWhenPrepareBulkInsertThenLinksComputed() {
+        final String parentId = GUIDFactory.newUnitGUID(0).getId();
+        final String childId = GUIDFactory.newUnitGUID(0).getId();
+        final Unit parent = new Unit("{\"_id\":\"" + parentId + "\"}").prepareBulkInsert(new ArrayList<>());
+        assertEquals(0, ((Number) parent.get(Unit.NBCHILD)).intValue());
+        assertTrue(((List<String>) parent.get(MetadataDocument.UP)).isEmpty());
+        assertTrue(((List<String>) parent.get(Unit.UNITUPS)).isEmpty());
+        assertEquals(1, parent.getInteger(Unit.MAXDEPTH).intValue());
+
+        final List<Unit> parents = new ArrayList<>();
+        parents.add(parent);
+        final Unit child = new Unit("{\"_id\":\"" + childId + "\"}").prepareBulkInsert(parents);
+        assertEquals(Arrays.asList(parentId), child.get(MetadataDocument.UP));
+        assertEquals(Arrays.asList(parentId), child.get(Unit.UNITUPS));
+        assertEquals(2, child.getInteger(Unit.MAXDEPTH).intValue());
+        assertTrue(((List<Document>) child.get(Unit.UNITDEPTHS)).contains(new Document(parentId, 1)));
+    }
+
+    @Test
+    public void givenUnitWhenPrepareBulkObjectGroupLinkThenObjectGroupSet() throws MetaDataExecutionException {
+        final String ogId = GUIDFactory.newObjectGroupGUID(0).getId();
+        final ObjectGroup og = new ObjectGroup("{\"_id\":\"" + ogId + "\"}");
+        final Unit unit = new Unit(s1);
+        assertNotNull(unit.prepareBulkObjectGroupLink(og));
+        assertEquals(ogId, unit.getObjectGroupId(false));
+        // already linked: nothing to update
+        assertNull(unit.prepareBulkObjectGroupLink(og));
+    }
+
+    @Test(expected = MetaDataExecutionException.class)
+    public void givenUnitWithObjectGroupWhenPrepareBulkObjectGroupLinkThenRaiseAnException()
+        throws MetaDataExecutionException {
+        final Unit unit = new Unit(s1);
+        unit.put(MetadataDocument.OG, GUIDFactory.newObjectGroupGUID(0).getId());
+        unit.prepareBulkObjectGroupLink(new ObjectGroup("{\"_id\":\"" + GUIDFactory.newObjectGroupGUID(0).getId() +
+            "\"}"));
+    }
 }
@@ -51,6 +51,8 @@ public class GlobalDatasDbTest {
         assertEquals(3600000, GlobalDatasDb.TTLMS);
         assertEquals(3600, GlobalDatasDb.TTL);
         assertEquals(1000000, GlobalDatasDb.MAXLRU);
+        assertEquals(10000, GlobalDatasDb.MAXLRU_RESULTS);
+        assertEquals(10000, GlobalDatasDb.MAXLRU_RESULT_IDS);
         assertEquals(false, GlobalDatasDb.USEREDIS);
     }
 }
@@ -37,6 +37,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
+import com.codahale.metrics.Gauge;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
@@ -48,6 +49,7 @@ import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.RequestResponseOK;
 import fr.gouv.vitam.common.security.SanityChecker;
+import fr.gouv.vitam.common.server.application.AbstractVitamApplication;
 import fr.gouv.vitam.common.server.application.resources.ApplicationStatusResource;
 import fr.gouv.vitam.metadata.api.MetaData;
 import fr.gouv.vitam.metadata.api.config.MetaDataConfiguration;
@@ -58,6 +60,7 @@ import fr.gouv.vitam.metadata.api.exception.MetaDataNotFoundException;
 import fr.gouv.vitam.metadata.core.MetaDataImpl;
 import fr.gouv.vitam.metadata.core.MongoDbAccessMetadataFactory;
 import fr.gouv.vitam.metadata.core.database.collections.MongoDbAccessMetadataImpl;
+import fr.gouv.vitam.metadata.core.database.collections.ResultCache;
 
 /**
  * Units resource REST API
@@ -76,6 +79,21 @@ public class MetaDataResource extends ApplicationStatusResource {
     public MetaDataResource(MetaDataConfiguration configuration) {
         metaDataImpl = MetaDataImpl.newMetadata(configuration, new MongoDbAccessMetadataFactory());
         LOGGER.info("init MetaData Resource server");
+        final ResultCache resultCache = ResultCache.getInstance().setEnabled(configuration.isResultCache());
+        AbstractVitamApplication.getBusinessMetricsRegistry().register("Metadata result cache hits",
+            new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return resultCache.getHitCount();
+                }
+            });
+        AbstractVitamApplication.getBusinessMetricsRegistry().register("Metadata result cache misses",
+            new Gauge<Long>() {
+                @Override
+                public Long getValue() {
+                    return resultCache.getMissCount();
+                }
+            });
     }
 
     MongoDbAccessMetadataImpl getMongoDbAccess() {
@@ -157,6 +175,54 @@ public class MetaDataResource extends ApplicationStatusResource {
             .build();
     }
 
+    /**
+     * Insert several units at once with a json array of insert requests
+     *
+     * @param insertRequests array of insert requests (one per unit, no $query allowed)
+     * @return Response
+     */
+    @Path("units/bulk")
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response insertUnits(JsonNode insertRequests) {
+        try {
+            if (insertRequests == null || !insertRequests.isArray()) {
+                throw new InvalidParseOperationException("Bulk insert request must be an array");
+            }
+            // each request is checked on its own: the array may be larger than one Json document
+            for (final JsonNode insertRequest : insertRequests) {
+                SanityChecker.checkJsonAll(insertRequest);
+            }
+            metaDataImpl.insertUnits((ArrayNode) insertRequests);
+        } catch (final InvalidParseOperationException e) {
+            return insertErrorResponse(Status.BAD_REQUEST, e);
+        } catch (final MetaDataNotFoundException e) {
+            return insertErrorResponse(Status.NOT_FOUND, e);
+        } catch (final MetaDataAlreadyExistException e) {
+            return insertErrorResponse(Status.CONFLICT, e);
+        } catch (final MetaDataExecutionException e) {
+            return insertErrorResponse(Status.INTERNAL_SERVER_ERROR, e);
+        } catch (final MetaDataDocumentSizeException e) {
+            return insertErrorResponse(Status.REQUEST_ENTITY_TOO_LARGE, e);
+        }
+        return Response.status(Status.CREATED)
+            .entity(new RequestResponseOK()
+                .setHits(insertRequests.size(), 0, insertRequests.size()))
+            .build();
+    }
+
+    private Response insertErrorResponse(Status status, Exception e) {
+        LOGGER.error(e);
+        return Response.status(status)
+            .entity(new VitamError(status.name()).setHttpCode(status.getStatusCode())
+                .setContext("ingest")
+                .setState("code_vitam")
+                .setMessage(status.getReasonPhrase())
+                .setDescription(status.getReasonPhrase()))
+            .build();
+    }
+
     /**
      * Select unit with json request
      *
@@ -411,6 +477,43 @@ public class MetaDataResource extends ApplicationStatusResource {
             .build();
     }
 
+    /**
+     * Insert several object groups at once with a json array of insert requests
+     *
+     * @param insertRequests array of insert requests (one per object group, no $query allowed)
+     * @return the Response
+     */
+    @Path("objectgroups/bulk")
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response insertObjectGroups(JsonNode insertRequests) {
+        try {
+            if (insertRequests == null || !insertRequests.isArray()) {
+                throw new InvalidParseOperationException("Bulk insert request must be an array");
+            }
+            // each request is checked on its own: the array may be larger than one Json document
+            for (final JsonNode insertRequest : insertRequests) {
+                SanityChecker.checkJsonAll(insertRequest);
+            }
+            metaDataImpl.insertObjectGroups((ArrayNode) insertRequests);
+        } catch (final InvalidParseOperationException e) {
+            return insertErrorResponse(Status.BAD_REQUEST, e);
+        } catch (final MetaDataNotFoundException e) {
+            return insertErrorResponse(Status.NOT_FOUND, e);
+        } catch (final MetaDataAlreadyExistException e) {
+            return insertErrorResponse(Status.CONFLICT, e);
+        } catch (final MetaDataExecutionException e) {
+            return insertErrorResponse(Status.INTERNAL_SERVER_ERROR, e);
+        } catch (final MetaDataDocumentSizeException e) {
+            return insertErrorResponse(Status.REQUEST_ENTITY_TOO_LARGE, e);
+        }
+        return Response.status(Status.CREATED)
+            .entity(new RequestResponseOK()
+                .setHits(insertRequests.size(), 0, insertRequests.size()))
+            .build();
+    }
+
     /**
      * Get ObjectGroup
      *
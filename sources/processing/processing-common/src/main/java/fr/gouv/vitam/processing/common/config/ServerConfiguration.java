@@ -35,8 +35,16 @@ import fr.gouv.vitam.common.server.application.configuration.DefaultVitamApplica
  */
 public class ServerConfiguration extends DefaultVitamApplicationConfiguration {
 
+    private static final int DEFAULT_MAX_RUNNING_WORKFLOWS = 10;
+    private static final int DEFAULT_MAX_WAITING_WORKFLOWS = 100;
+    private static final long DEFAULT_PROCESS_RETENTION_SECONDS = 3600;
+
     private String urlMetadata;
     private String urlWorkspace;
+    private int maxRunningWorkflows = DEFAULT_MAX_RUNNING_WORKFLOWS;
+    private int maxWaitingWorkflows = DEFAULT_MAX_WAITING_WORKFLOWS;
+    private String processStateFolder;
+    private long processRetentionSeconds = DEFAULT_PROCESS_RETENTION_SECONDS;
 
     /**
      * @return the urlMetadata
@@ -78,4 +86,74 @@ public class ServerConfiguration extends DefaultVitamApplicationConfiguration {
         return this;
     }
 
+    /**
+     * @return the maximum number of workflows executed at the same time
+     */
+    public int getMaxRunningWorkflows() {
+        return maxRunningWorkflows;
+    }
+
+    /**
+     * @param maxRunningWorkflows the maximum number of workflows executed at the same time
+     * @return the update ServerConfiguration object
+     */
+    public ServerConfiguration setMaxRunningWorkflows(int maxRunningWorkflows) {
+        ParametersChecker.checkValue("maxRunningWorkflows", maxRunningWorkflows, 1);
+        this.maxRunningWorkflows = maxRunningWorkflows;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of submitted workflows waiting for a free execution slot
+     */
+    public int getMaxWaitingWorkflows() {
+        return maxWaitingWorkflows;
+    }
+
+    /**
+     * @param maxWaitingWorkflows the maximum number of submitted workflows waiting for a free execution slot
+     * @return the update ServerConfiguration object
+     */
+    public ServerConfiguration setMaxWaitingWorkflows(int maxWaitingWorkflows) {
+        ParametersChecker.checkValue("maxWaitingWorkflows", maxWaitingWorkflows, 1);
+        this.maxWaitingWorkflows = maxWaitingWorkflows;
+        return this;
+    }
+
+    /**
+     * @return the folder where the process states are checkpointed, empty if they are kept in memory only
+     */
+    public String getProcessStateFolder() {
+        if (processStateFolder == null) {
+            return "";
+        }
+        return processStateFolder;
+    }
+
+    /**
+     * @param processStateFolder the folder where the process states are checkpointed
+     * @return the update ServerConfiguration object
+     */
+    public ServerConfiguration setProcessStateFolder(String processStateFolder) {
+        this.processStateFolder = processStateFolder;
+        return this;
+    }
+
+    /**
+     * @return the delay in seconds during which the state of a finished process is kept
+     */
+    public long getProcessRetentionSeconds() {
+        return processRetentionSeconds;
+    }
+
+    /**
+     * @param processRetentionSeconds the delay in seconds during which the state of a finished process is kept
+     * @return the update ServerConfiguration object
+     */
+    public ServerConfiguration setProcessRetentionSeconds(long processRetentionSeconds) {
+        ParametersChecker.checkValue("processRetentionSeconds", processRetentionSeconds, 0);
+        this.processRetentionSeconds = processRetentionSeconds;
+        return this;
+    }
+
 }
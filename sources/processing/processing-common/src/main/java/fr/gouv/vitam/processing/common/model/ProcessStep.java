@@ -62,6 +62,7 @@ public class ProcessStep extends Step {
         setStepName(step.getStepName());
         setBehavior(step.getBehavior());
         setWorkerGroupId(step.getWorkerGroupId());
+        setPipelined(step.isPipelined());
         this.elementProcessed = elementProcessed;
         this.elementToProcess = elementToProcess;
     }
@@ -89,6 +90,7 @@ public class ProcessStep extends Step {
         setStepName(step.getStepName());
         setBehavior(step.getBehavior());
         setWorkerGroupId(step.getWorkerGroupId());
+        setPipelined(step.isPipelined());
         this.elementProcessed = elementProcessed;
         this.elementToProcess = elementToProcess;
     }
@@ -43,6 +43,7 @@ public class Step {
     private String stepName;
     private ProcessBehavior behavior;
     private Distribution distribution;
+    private boolean pipelined;
     @JsonProperty("actions")
     private List<Action> actions;
 
@@ -147,4 +148,21 @@ public class Step {
         return this;
     }
 
+    /**
+     * @return True if the objects of this step can be processed as soon as they leave the previous step, instead of
+     *         waiting for the previous step to be fully done
+     */
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    /**
+     * @param pipelined True if the objects of this step can be processed as soon as they leave the previous step
+     * @return the updated Step
+     */
+    public Step setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+        return this;
+    }
+
 }
@@ -41,6 +41,9 @@ public class DistributionTest {
         assertEquals(DistributionKind.LIST.value(),
             new Distribution().setKind(DistributionKind.LIST).getKind().value());
         assertEquals(Test, new Distribution().setElement(Test).getElement());
+        assertEquals(1, new Distribution().getBatchSize());
+        assertEquals(1, new Distribution().setBatchSize(-5).getBatchSize());
+        assertEquals(50, new Distribution().setBatchSize(50).getBatchSize());
     }
 
 }
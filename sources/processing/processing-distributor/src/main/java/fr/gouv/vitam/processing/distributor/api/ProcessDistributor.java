@@ -26,6 +26,10 @@
  *******************************************************************************/
 package fr.gouv.vitam.processing.distributor.api;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.processing.common.exception.ProcessingBadRequestException;
 import fr.gouv.vitam.processing.common.exception.WorkerAlreadyExistsException;
@@ -54,6 +58,21 @@ public interface ProcessDistributor extends AutoCloseable {
      */
     ItemStatus distribute(WorkerParameters workParams, Step step, String workflowId);
 
+    /**
+     * Distribute a chain of steps working on the same list of objects: each object is sent to the next step as soon
+     * as it is done by the previous one
+     *
+     * @param workParams {@link fr.gouv.vitam.processing.common.parameter.WorkerParameters} null not allowed
+     * @param steps the ordered steps by unique step id, null or empty not allowed
+     * @param workflowId workflow Id
+     * @param stepStarted called in the calling thread with the unique id of each step, before its first objects are
+     *        distributed, null not allowed; a step never reached (the pipeline stopping before) is not started
+     *
+     * @return the list of CompositeItemStatus, one for each step in the same order
+     */
+    List<ItemStatus> distributePipeline(WorkerParameters workParams, Map<String, ? extends Step> steps,
+        String workflowId, Consumer<String> stepStarted);
+
     /**
      * Register a new worker knowing its family
      *
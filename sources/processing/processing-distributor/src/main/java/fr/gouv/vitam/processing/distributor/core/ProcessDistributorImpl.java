@@ -28,26 +28,39 @@ package fr.gouv.vitam.processing.distributor.core;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
-import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.exception.VitamClientInternalException;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
 import fr.gouv.vitam.processing.common.exception.HandlerNotFoundException;
 import fr.gouv.vitam.processing.common.exception.ProcessingBadRequestException;
+import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.exception.WorkerAlreadyExistsException;
 import fr.gouv.vitam.processing.common.exception.WorkerFamilyNotFoundException;
 import fr.gouv.vitam.processing.common.exception.WorkerNotFoundException;
@@ -57,11 +70,12 @@ import fr.gouv.vitam.processing.common.model.Step;
 import fr.gouv.vitam.processing.common.model.WorkerBean;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameterName;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
+import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
 import fr.gouv.vitam.processing.distributor.api.ProcessDistributor;
 import fr.gouv.vitam.processing.engine.core.monitoring.ProcessMonitoringImpl;
 import fr.gouv.vitam.worker.client.WorkerClient;
-import fr.gouv.vitam.worker.client.WorkerClientConfiguration;
-import fr.gouv.vitam.worker.client.WorkerClientFactory;
+import fr.gouv.vitam.worker.client.exception.WorkerNotFoundClientException;
+import fr.gouv.vitam.worker.client.exception.WorkerServerClientException;
 import fr.gouv.vitam.worker.common.DescriptionStep;
 import fr.gouv.vitam.workspace.client.WorkspaceClient;
 import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
@@ -73,8 +87,6 @@ import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
  * TODO P1:
  * - handle listing of items through a limited arraylist (memory) and through iterative (async) listing from
  * Workspace
- * - handle result in FATAL mode from one distributed item to stop the distribution in FATAL mode (do not
- * continue)
  * - try to handle distribution on 1 or on many as the same loop (so using a default arrayList of 1)
  * - handle error level using order in enum in ProcessResponse.getGlobalProcessStatusCode instead of manually comparing:
  *  <code>
@@ -101,9 +113,21 @@ public class ProcessDistributorImpl implements ProcessDistributor {
     private static final String ELEMENT_UNITS = "Units";
     private static final String INGEST_LEVEL_STACK = "ingestLevelStack.json";
     private static final String OBJECTS_LIST_EMPTY = "OBJECTS_LIST_EMPTY";
+    private static final String WORKERS_LIST_EMPTY = "WORKERS_LIST_EMPTY";
+    /**
+     * Family of the workers serving the steps whose workerGroupId is not a registered family
+     */
+    private static final String DEFAULT_FAMILY = "defaultFamily";
+    private static final long WAIT_FOR_WORKER_MILLISECONDS = 100;
+    private static final long CHECK_DEAD_WORKERS_MILLISECONDS = 1000;
+    private static final int MAX_ATTEMPTS = 3;
+    /**
+     * Maximum number of batches either distributed to a step of a pipeline or done and waiting for the next step:
+     * beyond, the step is not served until the next one takes some of its objects
+     */
+    private static final int MAX_WAITING_BATCHES = 100;
 
-    private static final Map<String, NavigableMap<String, WorkerBean>> WORKERS_LIST = new HashMap<>();
-    private final List<String> availableWorkers = new ArrayList<>();
+    private static final WorkerRegistry WORKER_REGISTRY = new WorkerRegistry();
 
     /**
      * Constructor with parameter worker
@@ -117,10 +141,11 @@ public class ProcessDistributorImpl implements ProcessDistributor {
         ParametersChecker.checkParameter("workerId is a mandatory parameter", workerId);
         ParametersChecker.checkParameter("familyId is a mandatory parameter", familyId);
         workerBean.setWorkerId(workerId);
-        final NavigableMap<String, WorkerBean> workers = new TreeMap<>();
-        workers.put(workerId, workerBean);
-        WORKERS_LIST.put(familyId, workers);
-        availableWorkers.add(workerId);
+        try {
+            WORKER_REGISTRY.register(familyId, workerBean);
+        } catch (final WorkerAlreadyExistsException e) {
+            LOGGER.warn(e);
+        }
     }
 
     /**
@@ -128,7 +153,7 @@ public class ProcessDistributorImpl implements ProcessDistributor {
      *
      */
     Map<String, NavigableMap<String, WorkerBean>> getWorkersList() {
-        return WORKERS_LIST;
+        return WORKER_REGISTRY.getWorkers();
     }
 
     /**
@@ -158,12 +183,13 @@ public class ProcessDistributorImpl implements ProcessDistributor {
 
             if (step.getDistribution().getKind().equals(DistributionKind.LIST)) {
                 try (final WorkspaceClient workspaceClient = WorkspaceClientFactory.getInstance().getClient()) {
-                    List<URI> objectsList = null;
+                    // Each level must be fully processed before the next one starts (Units are indexed from the
+                    // roots to the leaves), items within one level are distributed concurrently
+                    final List<List<URI>> objectsLevels = new ArrayList<>();
+                    long nbObjects = 0;
 
                     // Test regarding Unit to be indexed
                     if (step.getDistribution().getElement().equals(ELEMENT_UNITS)) {
-                        objectsList = new ArrayList<>();
-
                         // get the file to retrieve the GUID
                         final InputStream levelFile =
                             (InputStream) workspaceClient.getObject(workParams.getContainerName(),
@@ -174,56 +200,36 @@ public class ProcessDistributorImpl implements ProcessDistributor {
                             final Entry<String, JsonNode> guidFieldList = iteratorlLevelFile.next();
                             final JsonNode guid = guidFieldList.getValue();
                             if (guid != null && guid.size() > 0) {
+                                final List<URI> objectsList = new ArrayList<>();
                                 for (final JsonNode _idGuid : guid) {
                                     // include the GUID in the new URI
                                     objectsList.add(new URI(_idGuid.asText() + XML_EXTENSION));
                                 }
+                                objectsLevels.add(objectsList);
+                                nbObjects += objectsList.size();
                             }
                         }
                     } else {
                         //
-                        objectsList = workspaceClient
+                        final List<URI> objectsList = workspaceClient
                             .getListUriDigitalObjectFromFolder(workParams.getContainerName(),
                                 step.getDistribution().getElement());
+                        if (objectsList != null && !objectsList.isEmpty()) {
+                            objectsLevels.add(objectsList);
+                            nbObjects += objectsList.size();
+                        }
                     }
                     // Iterate over Objects List
-                    if (objectsList == null || objectsList.isEmpty()) {
+                    if (nbObjects == 0) {
                         responses.setItemsStatus(OBJECTS_LIST_EMPTY,
                             getItemStatus(OBJECTS_LIST_EMPTY, StatusCode.WARNING));
                     } else {
                         // update the number of element to process
-                        ProcessMonitoringImpl.getInstance().updateStep(processId, uniqueStepId, objectsList.size(),
+                        ProcessMonitoringImpl.getInstance().updateStep(processId, uniqueStepId, nbObjects,
                             false);
-                        for (final URI objectUri : objectsList) {
-                            if (availableWorkers.isEmpty()) {
-                                LOGGER.error("available Workers List is empty()" + StatusCode.FATAL.toString());
-                                responses.setItemsStatus("WORKERS_LIST_EMPTY",
-                                    getItemStatus("WORKERS_LIST_EMPTY", StatusCode.FATAL));
+                        for (final List<URI> objectsList : objectsLevels) {
+                            if (!distributeOnList(workParams, step, objectsList, responses)) {
                                 break;
-                            } else {
-                                // Load configuration
-                                // TODO P1 : management of parallel distribution and availability
-                                loadWorkerClient(WORKERS_LIST.get("defaultFamily").firstEntry().getValue());
-                                // run step
-                                workParams.setObjectName(objectUri.getPath());
-                                final ItemStatus actionsResponse;
-                                try (WorkerClient workerClient = WorkerClientFactory.getInstance().getClient()) {
-                                    actionsResponse =
-                                        workerClient.submitStep(
-                                            new DescriptionStep(step, workParams));
-                                }
-                                // FIXME P1 : This is inefficient. The aggregation of results must be placed here and
-                                // not in ProcessResponse
-                                responses.setItemsStatus(actionsResponse);
-                                // update the number of processed element
-                                ProcessMonitoringImpl.getInstance().updateStep(processId, uniqueStepId, 0, true);
-
-                                // if the step has been defined as Blocking and then stepStatus is KO or FATAL
-                                // then break the process
-                                if (step.getBehavior().equals(ProcessBehavior.BLOCKING) &&
-                                    responses.getGlobalStatus().isGreaterOrEqualToFatal()) {
-                                    break;
-                                }
                             }
                         }
                     }
@@ -231,18 +237,27 @@ public class ProcessDistributorImpl implements ProcessDistributor {
             } else {
                 // update the number of element to process
                 ProcessMonitoringImpl.getInstance().updateStep(processId, uniqueStepId, 1, false);
-                if (availableWorkers.isEmpty()) {
-                    LOGGER.error("available Workers List is empty()" + StatusCode.FATAL.toString());
-                    responses.increment(StatusCode.FATAL);
-                } else {
-                    // TODO P1 : management of parallel distribution and availability
-                    loadWorkerClient(WORKERS_LIST.get("defaultFamily").firstEntry().getValue());
-                    workParams.setObjectName(step.getDistribution().getElement());
-                    responses.setItemsStatus(
-                        WorkerClientFactory.getInstance().getClient().submitStep(
-                            new DescriptionStep(step, workParams)));
-                    // update the number of processed element
-                    ProcessMonitoringImpl.getInstance().updateStep(processId, uniqueStepId, 0, true);
+                workParams.setObjectName(step.getDistribution().getElement());
+                final DescriptionStep descriptionStep = new DescriptionStep(step, workParams);
+                final String family = WORKER_REGISTRY.resolveFamily(step.getWorkerGroupId(), DEFAULT_FAMILY);
+                for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+                    final WorkerLoad workerLoad = WORKER_REGISTRY.selectWorker(family, true);
+                    if (workerLoad == null) {
+                        LOGGER.error("available Workers List is empty()" + StatusCode.FATAL.toString());
+                        responses.increment(StatusCode.FATAL);
+                        break;
+                    }
+                    try {
+                        responses.setItemsStatus(submitStep(workerLoad, descriptionStep, 1));
+                        // update the number of processed element
+                        ProcessMonitoringImpl.getInstance().updateStep(processId, uniqueStepId, 0, true);
+                        break;
+                    } catch (final WorkerServerClientException e) {
+                        if (!isUnreachable(e) || attempt == MAX_ATTEMPTS) {
+                            throw e;
+                        }
+                        LOGGER.warn("Worker unreachable, retry on another worker", e);
+                    }
                 }
             }
 
@@ -252,7 +267,10 @@ public class ProcessDistributorImpl implements ProcessDistributor {
         } catch (final HandlerNotFoundException e) {
             responses.increment(StatusCode.FATAL);
             LOGGER.error("Handler Not Found Exception", e);
-
+        } catch (final InterruptedException e) {
+            responses.increment(StatusCode.FATAL);
+            LOGGER.error(EXCEPTION_MESSAGE, e);
+            Thread.currentThread().interrupt();
         } catch (final Exception e) {
             responses.increment(StatusCode.FATAL);
             LOGGER.error(EXCEPTION_MESSAGE, e);
@@ -264,13 +282,454 @@ public class ProcessDistributorImpl implements ProcessDistributor {
         return responses;
     }
 
-    private void loadWorkerClient(WorkerBean workerBean) {
-        final WorkerClientConfiguration workerClientConfiguration =
-            new WorkerClientConfiguration(workerBean.getConfiguration().getServerHost(),
-                workerBean.getConfiguration().getServerPort());
-        WorkerClientFactory.changeMode(workerClientConfiguration);
+    @Override
+    public List<ItemStatus> distributePipeline(WorkerParameters workParams, Map<String, ? extends Step> steps,
+        String workflowId, Consumer<String> stepStarted) {
+        ParametersChecker.checkParameter("WorkParams is a mandatory parameter", workParams);
+        ParametersChecker.checkParameter("Steps is a mandatory parameter", steps);
+        ParametersChecker.checkParameter("workflowId is a mandatory parameter", workflowId);
+        ParametersChecker.checkParameter("stepStarted is a mandatory parameter", stepStarted);
+        ParametersChecker.checkValue("steps", steps.size(), 1);
+        final long time = System.currentTimeMillis();
+        final String processId = workParams.getProcessId();
+        final List<ItemStatus> responses = new ArrayList<>(steps.size());
+        for (final Step step : steps.values()) {
+            responses.add(new ItemStatus(step.getStepName()));
+        }
+        final Step firstStep = steps.values().iterator().next();
+        try {
+            workParams.putParameterValue(WorkerParameterName.workflowStatusKo,
+                ProcessMonitoringImpl.getInstance().getFinalWorkflowStatus(processId).name());
+            try (final WorkspaceClient workspaceClient = WorkspaceClientFactory.getInstance().getClient()) {
+                // all the steps of the pipeline work on the same objects
+                final List<URI> objectsList = workspaceClient.getListUriDigitalObjectFromFolder(
+                    workParams.getContainerName(), firstStep.getDistribution().getElement());
+                if (objectsList == null || objectsList.isEmpty()) {
+                    steps.keySet().forEach(stepStarted);
+                    for (final ItemStatus response : responses) {
+                        response.setItemsStatus(OBJECTS_LIST_EMPTY,
+                            getItemStatus(OBJECTS_LIST_EMPTY, StatusCode.WARNING));
+                    }
+                } else {
+                    // update the number of element to process
+                    for (final String uniqueStepId : steps.keySet()) {
+                        ProcessMonitoringImpl.getInstance().updateStep(processId, uniqueStepId,
+                            objectsList.size(), false);
+                    }
+                    distributeOnPipeline(workParams, steps, objectsList, responses, stepStarted);
+                }
+            }
+        } catch (final InterruptedException e) {
+            incrementFatal(responses);
+            LOGGER.error(EXCEPTION_MESSAGE, e);
+            Thread.currentThread().interrupt();
+        } catch (final Exception e) {
+            incrementFatal(responses);
+            LOGGER.error(EXCEPTION_MESSAGE, e);
+        } finally {
+            LOGGER.debug(ELAPSED_TIME_MESSAGE + (System.currentTimeMillis() - time) / 1000 + "s /pipeline from :" +
+                getSafetyStepName(firstStep) + "/workflowId :" + workflowId);
+        }
+        return responses;
+    }
+
+    private static void incrementFatal(List<ItemStatus> responses) {
+        for (final ItemStatus response : responses) {
+            response.increment(StatusCode.FATAL);
+        }
+    }
+
+    /**
+     * Distribute concurrently one list of objects through a chain of steps, each object being sent to the next step
+     * as soon as its batch is done by the previous one.
+     *
+     * @param workParams the parameters of the workflow
+     * @param steps the ordered steps by unique step id
+     * @param objectsList the objects to distribute
+     * @param responses the aggregated status of each step, in the same order
+     * @param stepStarted called with the unique id of each step before its first objects are distributed
+     * @return false if the distribution must stop (blocking step in KO or FATAL, or no worker available)
+     * @throws InterruptedException if interrupted while waiting for a worker
+     * @throws ProcessingException if the monitoring cannot be updated
+     */
+    boolean distributeOnPipeline(WorkerParameters workParams, Map<String, ? extends Step> steps,
+        List<URI> objectsList, List<ItemStatus> responses, Consumer<String> stepStarted)
+        throws InterruptedException, ProcessingException {
+        final List<PipelineStage> stages = new ArrayList<>(steps.size());
+        int rank = 0;
+        for (final Entry<String, ? extends Step> entry : steps.entrySet()) {
+            stages.add(new PipelineStage(entry.getValue(), entry.getKey(), responses.get(rank++)));
+        }
+        return distributeOnStages(workParams, stages, objectsList, stepStarted);
+    }
+
+    /**
+     * Distribute concurrently one list of objects on all workers of the family.<br>
+     * <br>
+     * Each worker receives at most as many concurrent requests as its capacity, the worker with the best score being
+     * chosen first. Each request holds up to the batch size of the step distribution objects. Results are aggregated
+     * in the calling thread as soon as they come back. Objects sent to a worker which cannot be reached are sent
+     * again to another worker.
+     *
+     * @param workParams the parameters of the step
+     * @param step the step to distribute
+     * @param objectsList the objects to distribute
+     * @param responses the aggregated status of the step
+     * @return false if the distribution must stop (blocking step in KO or FATAL, or no worker available)
+     * @throws InterruptedException if interrupted while waiting for a worker
+     * @throws ProcessingException if the monitoring cannot be updated
+     */
+    boolean distributeOnList(WorkerParameters workParams, Step step, List<URI> objectsList,
+        ItemStatus responses) throws InterruptedException, ProcessingException {
+        return distributeOnStages(workParams,
+            Collections.singletonList(new PipelineStage(step, workParams.getStepUniqId(), responses)), objectsList,
+            uniqueId -> {
+                // a single step is started by the caller
+            });
+    }
+
+    /**
+     * Distribute concurrently one list of objects through a chain of steps.<br>
+     * <br>
+     * The objects of a batch done by one step are queued for the next step. The later steps are always served first
+     * when a worker is available, so that the objects waiting between two steps are bounded by the objects in flight
+     * instead of the whole list, and a step is not served while too many of its objects are waiting for the next one.
+     * With only one step, this is the plain distribution of the list.
+     *
+     * @param workParams the parameters of the workflow
+     * @param stages the chained steps
+     * @param objectsList the objects to distribute
+     * @param stepStarted called with the unique id of each step before its first objects are distributed
+     * @return false if the distribution must stop (blocking step in KO or FATAL, or no worker available)
+     * @throws InterruptedException if interrupted while waiting for a worker
+     * @throws ProcessingException if the monitoring cannot be updated
+     */
+    private boolean distributeOnStages(WorkerParameters workParams, List<PipelineStage> stages,
+        List<URI> objectsList, Consumer<String> stepStarted) throws InterruptedException, ProcessingException {
+        final CompletionService<ItemStatus> completionService =
+            new ExecutorCompletionService<>(VitamThreadPoolExecutor.getDefaultExecutor());
+        final Map<Future<ItemStatus>, ObjectsBatch> inFlight = new HashMap<>();
+        final Iterator<URI> iterator = skipProcessedObjects(workParams, stages, objectsList, stepStarted).iterator();
+        // chained steps share the same workerGroupId
+        final String family = WORKER_REGISTRY.resolveFamily(stages.get(0).step.getWorkerGroupId(), DEFAULT_FAMILY);
+        for (final PipelineStage stage : stages) {
+            if (stage.responses.shallStop(stage.blocking)) {
+                return false;
+            }
+        }
+        boolean stop = false;
+        try {
+            while (!stop) {
+                final int rank = nextStage(stages, iterator);
+                if (rank < 0) {
+                    if (inFlight.isEmpty()) {
+                        break;
+                    }
+                    final Future<ItemStatus> done = take(completionService, inFlight);
+                    stop = aggregate(workParams, done, inFlight.remove(done), stages, true);
+                    continue;
+                }
+                final WorkerLoad workerLoad = WORKER_REGISTRY.selectWorker(family, false);
+                if (workerLoad == null) {
+                    if (!WORKER_REGISTRY.hasWorker(family)) {
+                        LOGGER.error("available Workers List is empty()" + StatusCode.FATAL.toString());
+                        stages.get(rank).responses.setItemsStatus(WORKERS_LIST_EMPTY,
+                            getItemStatus(WORKERS_LIST_EMPTY, StatusCode.FATAL));
+                        stop = true;
+                        break;
+                    }
+                    // All workers are busy: wait for one of our own items or for a slot freed by another process
+                    final Future<ItemStatus> done =
+                        completionService.poll(WAIT_FOR_WORKER_MILLISECONDS, TimeUnit.MILLISECONDS);
+                    if (done != null) {
+                        stop = aggregate(workParams, done, inFlight.remove(done), stages, true);
+                    } else {
+                        cancelOnDeadWorkers(inFlight);
+                    }
+                    continue;
+                }
+                final PipelineStage stage = stages.get(rank);
+                start(stage, stepStarted);
+                ObjectsBatch batch = stage.retries.poll();
+                if (batch == null) {
+                    final List<String> objectNames = new ArrayList<>(stage.batchSize);
+                    if (rank == 0) {
+                        while (iterator.hasNext() && objectNames.size() < stage.batchSize) {
+                            objectNames.add(iterator.next().getPath());
+                        }
+                    } else {
+                        while (!stage.ready.isEmpty() && objectNames.size() < stage.batchSize) {
+                            objectNames.add(stage.ready.poll());
+                        }
+                    }
+                    batch = new ObjectsBatch(rank, objectNames);
+                }
+                batch.attempts++;
+                batch.workerLoad = workerLoad;
+                final WorkerParameters itemParams = copyParameters(workParams);
+                itemParams.setCurrentStep(stage.step.getStepName());
+                itemParams.setStepUniqId(stage.uniqueStepId);
+                itemParams.setObjectName(batch.objectNames.get(0));
+                final DescriptionStep descriptionStep = new DescriptionStep(stage.step, itemParams);
+                if (batch.objectNames.size() > 1) {
+                    descriptionStep.setObjectNameList(batch.objectNames);
+                }
+                final int nbItems = batch.objectNames.size();
+                stage.inFlightObjects += nbItems;
+                inFlight.put(completionService.submit(() -> submitStep(workerLoad, descriptionStep, nbItems)),
+                    batch);
+                // aggregate already finished items without waiting
+                Future<ItemStatus> done;
+                while (!stop && (done = completionService.poll()) != null) {
+                    stop = aggregate(workParams, done, inFlight.remove(done), stages, true);
+                }
+            }
+        } finally {
+            // wait for all in-flight items, even when stopping, in order to aggregate their status
+            while (!inFlight.isEmpty()) {
+                final Future<ItemStatus> done = take(completionService, inFlight);
+                stop |= aggregate(workParams, done, inFlight.remove(done), stages, false);
+            }
+        }
+        return !stop;
+    }
+
+    /**
+     * Wait for the next item done, cancelling meanwhile the items sent to a worker found dead while processing them
+     *
+     * @return the item done or cancelled
+     */
+    private static Future<ItemStatus> take(CompletionService<ItemStatus> completionService,
+        Map<Future<ItemStatus>, ObjectsBatch> inFlight) throws InterruptedException {
+        Future<ItemStatus> done;
+        while ((done = completionService.poll(CHECK_DEAD_WORKERS_MILLISECONDS, TimeUnit.MILLISECONDS)) == null) {
+            cancelOnDeadWorkers(inFlight);
+        }
+        return done;
+    }
+
+    /**
+     * Cancel the items sent to a worker marked dead, as by the heartbeat of a hung worker, so that they are
+     * aggregated as unreachable and sent again to another worker
+     */
+    private static void cancelOnDeadWorkers(Map<Future<ItemStatus>, ObjectsBatch> inFlight) {
+        for (final Entry<Future<ItemStatus>, ObjectsBatch> entry : inFlight.entrySet()) {
+            final WorkerLoad workerLoad = entry.getValue().workerLoad;
+            if (!workerLoad.isAlive() && entry.getKey().cancel(true)) {
+                LOGGER.warn("Items sent to the dead worker " + workerLoad.getWorkerBean().getWorkerId() +
+                    " are cancelled");
+            }
+        }
+    }
+
+    /**
+     * Skip the objects already processed before the process was resumed: their status is counted again and they are
+     * queued for the first step which did not process them yet
+     *
+     * @return the objects to distribute to the first step
+     */
+    private static List<URI> skipProcessedObjects(WorkerParameters workParams, List<PipelineStage> stages,
+        List<URI> objectsList, Consumer<String> stepStarted) throws ProcessingException {
+        final List<Map<String, StatusCode>> processedObjects = new ArrayList<>(stages.size());
+        boolean resumed = false;
+        for (final PipelineStage stage : stages) {
+            final Map<String, StatusCode> processed =
+                ProcessMonitoringImpl.getInstance().getProcessedObjects(workParams.getProcessId(),
+                    stage.uniqueStepId);
+            processedObjects.add(processed);
+            resumed |= !processed.isEmpty();
+        }
+        if (!resumed) {
+            return objectsList;
+        }
+        final List<URI> remaining = new ArrayList<>();
+        for (final URI uri : objectsList) {
+            final String objectName = uri.getPath();
+            int rank = 0;
+            StatusCode status;
+            while (rank < stages.size() && (status = processedObjects.get(rank).get(objectName)) != null) {
+                start(stages.get(rank), stepStarted);
+                stages.get(rank).responses.increment(status);
+                rank++;
+            }
+            if (rank == 0) {
+                remaining.add(uri);
+            } else if (rank < stages.size()) {
+                stages.get(rank).ready.add(objectName);
+            }
+        }
+        LOGGER.info("Resumed distribution: " + remaining.size() + " objects left out of " + objectsList.size());
+        return remaining;
+    }
+
+    private static void start(PipelineStage stage, Consumer<String> stepStarted) {
+        if (!stage.started) {
+            stage.started = true;
+            stepStarted.accept(stage.uniqueStepId);
+        }
+    }
+
+    /**
+     * @return the rank of the step having objects to distribute, the last steps first, or -1 if none
+     */
+    private static int nextStage(List<PipelineStage> stages, Iterator<URI> iterator) {
+        for (int rank = stages.size() - 1; rank > 0; rank--) {
+            final PipelineStage stage = stages.get(rank);
+            if (!stage.retries.isEmpty() || !stage.ready.isEmpty() && !isSaturated(stages, rank)) {
+                return rank;
+            }
+        }
+        if (!stages.get(0).retries.isEmpty() || iterator.hasNext() && !isSaturated(stages, 0)) {
+            return 0;
+        }
+        return -1;
+    }
+
+    /**
+     * @return True if too many objects of the step are distributed or waiting for the next step (back-pressure)
+     */
+    private static boolean isSaturated(List<PipelineStage> stages, int rank) {
+        if (rank + 1 >= stages.size()) {
+            return false;
+        }
+        final PipelineStage next = stages.get(rank + 1);
+        return stages.get(rank).inFlightObjects + next.ready.size() >= MAX_WAITING_BATCHES * next.batchSize;
+    }
+
+    /**
+     * Submit a step to one worker, keeping its health up to date, then release the reserved slot
+     *
+     * @param workerLoad the selected worker
+     * @param descriptionStep the step and objects to process
+     * @param nbItems the number of objects to process
+     * @return the status of the items
+     * @throws WorkerNotFoundClientException if the worker does not know the step
+     * @throws WorkerServerClientException if the worker failed or cannot be reached
+     */
+    private ItemStatus submitStep(WorkerLoad workerLoad, DescriptionStep descriptionStep, int nbItems)
+        throws WorkerNotFoundClientException, WorkerServerClientException {
+        final long start = System.currentTimeMillis();
+        boolean released = false;
+        try (WorkerClient workerClient = getWorkerClient(workerLoad)) {
+            final ItemStatus itemStatus = workerClient.submitStep(descriptionStep);
+            workerLoad.release(System.currentTimeMillis() - start, nbItems);
+            released = true;
+            return itemStatus;
+        } catch (final WorkerServerClientException e) {
+            if (isUnreachable(e)) {
+                LOGGER.warn("Worker " + workerLoad.getWorkerBean().getWorkerId() + " is not reachable");
+                workerLoad.markDead();
+            }
+            throw e;
+        } finally {
+            if (!released) {
+                workerLoad.release();
+            }
+        }
     }
 
+    /**
+     * @return true if the exception comes from a worker which cannot be reached, not from the processing itself
+     */
+    private static boolean isUnreachable(Throwable throwable) {
+        return throwable instanceof WorkerServerClientException &&
+            throwable.getCause() instanceof VitamClientInternalException;
+    }
+
+    /**
+     * Aggregate the result of one distributed item or batch of items, then queue its objects for the next step
+     *
+     * @param retry false if unreachable workers must not lead to a new attempt
+     * @return true if the distribution must stop
+     */
+    private boolean aggregate(WorkerParameters workParams, Future<ItemStatus> done, ObjectsBatch batch,
+        List<PipelineStage> stages, boolean retry)
+        throws InterruptedException, ProcessingException {
+        final PipelineStage stage = stages.get(batch.stage);
+        stage.inFlightObjects -= batch.objectNames.size();
+        StatusCode batchStatus;
+        Map<String, StatusCode> objectStatuses = null;
+        try {
+            // FIXME P1 : This is inefficient. The aggregation of results must be placed here and
+            // not in ProcessResponse
+            final ItemStatus itemStatus = done.get();
+            objectStatuses = removeObjectStatuses(itemStatus);
+            stage.responses.setItemsStatus(itemStatus);
+            batchStatus = itemStatus.getGlobalStatus();
+        } catch (final ExecutionException | CancellationException e) {
+            // a cancelled item was sent to a worker found dead while processing it
+            final boolean unreachable = e instanceof CancellationException || isUnreachable(e.getCause());
+            if (retry && unreachable && batch.attempts < MAX_ATTEMPTS) {
+                // the worker is dead: its items will be processed by another one
+                stage.retries.add(batch);
+                return false;
+            }
+            LOGGER.error(EXCEPTION_MESSAGE, e instanceof ExecutionException ? e.getCause() : e);
+            stage.responses.increment(StatusCode.FATAL);
+            batchStatus = StatusCode.FATAL;
+        }
+        // update the processed elements: without the status of each object, they all have the status of the batch
+        final Map<String, StatusCode> processed = new LinkedHashMap<>();
+        for (final String objectName : batch.objectNames) {
+            final StatusCode status = objectStatuses == null ? batchStatus : objectStatuses.get(objectName);
+            if (status != null) {
+                processed.put(objectName, status);
+            }
+        }
+        if (processed.size() < batch.objectNames.size()) {
+            LOGGER.warn((batch.objectNames.size() - processed.size()) + " objects not processed by the step " +
+                stage.step.getStepName() + " after a stop");
+        }
+        ProcessMonitoringImpl.getInstance().updateProcessedObjects(workParams.getProcessId(), stage.uniqueStepId,
+            processed);
+        // if the step has been defined as Blocking and then stepStatus is KO or FATAL
+        // then break the process
+        if (stage.responses.shallStop(stage.blocking)) {
+            return true;
+        }
+        if (batch.stage + 1 < stages.size()) {
+            stages.get(batch.stage + 1).ready.addAll(processed.keySet());
+        }
+        return false;
+    }
+
+    /**
+     * Remove from the response of a batch the status of each of its objects
+     *
+     * @return the status of each object processed by the worker, null if the response does not give them
+     */
+    private static Map<String, StatusCode> removeObjectStatuses(ItemStatus itemStatus) {
+        final Object value = itemStatus.getData() == null ? null
+            : itemStatus.getData().remove(DescriptionStep.OBJECT_STATUSES);
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        final Map<String, StatusCode> objectStatuses = new HashMap<>();
+        for (final Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            objectStatuses.put(String.valueOf(entry.getKey()), StatusCode.valueOf(String.valueOf(entry.getValue())));
+        }
+        return objectStatuses;
+    }
+
+    /**
+     * Get a client to the given worker
+     *
+     * @param workerLoad the selected worker
+     * @return a new WorkerClient
+     */
+    WorkerClient getWorkerClient(WorkerLoad workerLoad) {
+        return workerLoad.getClient();
+    }
+
+    private WorkerParameters copyParameters(WorkerParameters workParams) {
+        final Map<String, String> map = new HashMap<>();
+        for (final Entry<WorkerParameterName, String> entry : workParams.getMapParameters().entrySet()) {
+            if (entry.getValue() != null) {
+                map.put(entry.getKey().name(), entry.getValue());
+            }
+        }
+        return WorkerParametersFactory.newWorkerParameters().setMap(map);
+    }
 
     private String getSafetyStepName(Step step) {
 
@@ -292,43 +751,13 @@ public class ProcessDistributorImpl implements ProcessDistributor {
             LOGGER.error("Worker Information incorrect", e);
             throw new ProcessingBadRequestException("Worker description is incorrect");
         }
-        if (WORKERS_LIST.get(familyId) != null) {
-            LOGGER.debug("Family known");
-            final NavigableMap<String, WorkerBean> familyWorkers = WORKERS_LIST.get(familyId);
-            if (familyWorkers.get(workerId) != null) {
-                LOGGER.error("Worker already registered");
-                throw new WorkerAlreadyExistsException("Worker already registered");
-            } else {
-                familyWorkers.put(workerId, worker);
-                WORKERS_LIST.put(familyId, familyWorkers);
-                availableWorkers.add(workerId);
-            }
-        } else {
-            LOGGER.debug("Family unknown");
-            final NavigableMap<String, WorkerBean> familyWorkers = new TreeMap<>();
-
-            familyWorkers.put(workerId, worker);
-            WORKERS_LIST.put(familyId, familyWorkers);
-            availableWorkers.add(workerId);
-        }
+        WORKER_REGISTRY.register(familyId, worker);
     }
 
     @Override
     public void unregisterWorker(String familyId, String workerId)
         throws WorkerNotFoundException, WorkerFamilyNotFoundException {
-        final NavigableMap<String, WorkerBean> familyWorkers = WORKERS_LIST.get(familyId);
-        if (familyWorkers != null) {
-            if (familyWorkers.get(workerId) != null) {
-                familyWorkers.remove(workerId);
-                WORKERS_LIST.put(familyId, familyWorkers);
-            } else {
-                LOGGER.error("Worker does not exist in this family");
-                throw new WorkerNotFoundException("Worker does not exist in this family");
-            }
-        } else {
-            LOGGER.error("Worker Family does not exist");
-            throw new WorkerFamilyNotFoundException("Worker Family does not exist");
-        }
+        WORKER_REGISTRY.unregister(familyId, workerId);
     }
 
     private ItemStatus getItemStatus(String label, StatusCode statusCode) {
@@ -340,4 +769,42 @@ public class ProcessDistributorImpl implements ProcessDistributor {
     public void close() {
         // Nothing
     }
+
+    /**
+     * One step of a distribution, with the objects waiting for it
+     */
+    private static class PipelineStage {
+        private final Step step;
+        private final String uniqueStepId;
+        private final ItemStatus responses;
+        private final boolean blocking;
+        private final int batchSize;
+        private final Deque<String> ready = new ArrayDeque<>();
+        private final Deque<ObjectsBatch> retries = new ArrayDeque<>();
+        private int inFlightObjects;
+        private boolean started;
+
+        PipelineStage(Step step, String uniqueStepId, ItemStatus responses) {
+            this.step = step;
+            this.uniqueStepId = uniqueStepId;
+            this.responses = responses;
+            blocking = ProcessBehavior.BLOCKING.equals(step.getBehavior());
+            batchSize = step.getDistribution().getBatchSize();
+        }
+    }
+
+    /**
+     * Objects sent together to one worker
+     */
+    private static class ObjectsBatch {
+        private final int stage;
+        private final List<String> objectNames;
+        private int attempts;
+        private WorkerLoad workerLoad;
+
+        ObjectsBatch(int stage, List<String> objectNames) {
+            this.stage = stage;
+            this.objectNames = objectNames;
+        }
+    }
 }
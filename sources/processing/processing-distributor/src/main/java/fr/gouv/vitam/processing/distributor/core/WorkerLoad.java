@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.processing.distributor.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import fr.gouv.vitam.processing.common.model.WorkerBean;
+import fr.gouv.vitam.worker.client.WorkerClient;
+import fr.gouv.vitam.worker.client.WorkerClientConfiguration;
+import fr.gouv.vitam.worker.client.WorkerClientFactory;
+
+/**
+ * Load and health of one registered worker, used by the distributor to bound the number of concurrent requests sent
+ * to this worker and to select the best worker of a family.<br>
+ * <br>
+ * Liveness is refreshed by each successful call (or status check) to the worker, and lost on the first call that
+ * cannot reach it.
+ */
+class WorkerLoad {
+
+    /**
+     * Weight of the last measure in the average latency
+     */
+    private static final double LATENCY_WEIGHT = 0.2;
+
+    private final WorkerBean workerBean;
+    private final int capacity;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private volatile WorkerClientFactory workerClientFactory;
+    private volatile boolean alive = true;
+    private volatile long lastHeartbeat = System.currentTimeMillis();
+    private volatile double latency = 0;
+
+    /**
+     * Constructor
+     *
+     * @param workerBean the registered worker
+     */
+    WorkerLoad(WorkerBean workerBean) {
+        this.workerBean = workerBean;
+        capacity = (int) Math.max(1L, Math.min(Integer.MAX_VALUE, workerBean.getCapacity()));
+    }
+
+    /**
+     * Try to reserve one slot on this worker
+     *
+     * @return true if a slot was reserved, false if the worker is dead or already at its capacity
+     */
+    boolean tryAcquire() {
+        if (!alive) {
+            return false;
+        }
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Reserve one slot on this worker even if it is already at its capacity
+     */
+    void forceAcquire() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Release one slot previously reserved through {@link #tryAcquire()}
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Release one slot after a successful call, recording the call as a heartbeat
+     *
+     * @param elapsed the duration of the call in milliseconds
+     * @param nbItems the number of items handled by the call
+     */
+    void release(long elapsed, int nbItems) {
+        synchronized (this) {
+            final double itemLatency = (double) elapsed / Math.max(1, nbItems);
+            latency = latency == 0 ? itemLatency : latency + LATENCY_WEIGHT * (itemLatency - latency);
+        }
+        heartbeat();
+        release();
+    }
+
+    /**
+     * Mark this worker as alive
+     */
+    void heartbeat() {
+        lastHeartbeat = System.currentTimeMillis();
+        alive = true;
+    }
+
+    /**
+     * Mark this worker as dead: no more items will be sent to it until the next heartbeat
+     */
+    void markDead() {
+        alive = false;
+    }
+
+    /**
+     * @return true if the last call to this worker succeeded
+     */
+    boolean isAlive() {
+        return alive;
+    }
+
+    /**
+     * @return the time of the last successful call to this worker
+     */
+    long getLastHeartbeat() {
+        return lastHeartbeat;
+    }
+
+    /**
+     * @return the average processing time of one item in milliseconds, 0 if unknown
+     */
+    double getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return the ratio between in-flight requests and the capacity of the worker
+     */
+    double getLoad() {
+        return (double) inFlight.get() / capacity;
+    }
+
+    /**
+     * @return the estimated time to process one more item, relative to other workers
+     */
+    double getScore() {
+        return (inFlight.get() + 1) * Math.max(1, latency) / capacity;
+    }
+
+    /**
+     * @return the number of in-flight requests
+     */
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return the maximum number of in-flight requests
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the registered worker
+     */
+    WorkerBean getWorkerBean() {
+        return workerBean;
+    }
+
+    /**
+     * @return a new client to this worker
+     */
+    WorkerClient getClient() {
+        if (workerClientFactory == null) {
+            workerClientFactory = WorkerClientFactory.getInstance(
+                new WorkerClientConfiguration(workerBean.getConfiguration().getServerHost(),
+                    workerBean.getConfiguration().getServerPort()));
+        }
+        return workerClientFactory.getClient();
+    }
+}
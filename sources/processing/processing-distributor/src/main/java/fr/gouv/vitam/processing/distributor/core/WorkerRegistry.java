@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.processing.distributor.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.model.VitamAutoCloseable;
+import fr.gouv.vitam.common.thread.VitamThreadFactory;
+import fr.gouv.vitam.processing.common.exception.WorkerAlreadyExistsException;
+import fr.gouv.vitam.processing.common.exception.WorkerFamilyNotFoundException;
+import fr.gouv.vitam.processing.common.exception.WorkerNotFoundException;
+import fr.gouv.vitam.processing.common.model.WorkerBean;
+import fr.gouv.vitam.worker.client.WorkerClient;
+
+/**
+ * Registry of the workers, by family, shared by all distributions.<br>
+ * <br>
+ * It can be read and modified concurrently. A background task, running while some workers are registered, checks the
+ * status of the workers which are dead or without any successful call for too long, in order to bring back a
+ * restarted worker, to detect a dead one before sending it items, or to detect a hung one so that its in-flight items
+ * are sent again to another worker.
+ */
+class WorkerRegistry implements VitamAutoCloseable {
+
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(WorkerRegistry.class);
+    private static final long HEARTBEAT_PERIOD_SECONDS = 10;
+    private static final long IDLE_HEARTBEAT_MILLISECONDS = 60000;
+
+    private final Map<String, ConcurrentNavigableMap<String, WorkerLoad>> families = new ConcurrentHashMap<>();
+    private ScheduledExecutorService heartbeat;
+
+    /**
+     * Register a new worker
+     *
+     * @param familyId the family of the worker
+     * @param workerBean the worker description, with its id
+     * @throws WorkerAlreadyExistsException if the worker is already registered in this family
+     */
+    void register(String familyId, WorkerBean workerBean) throws WorkerAlreadyExistsException {
+        final ConcurrentNavigableMap<String, WorkerLoad> familyWorkers =
+            families.computeIfAbsent(familyId, key -> new ConcurrentSkipListMap<>());
+        if (familyWorkers.putIfAbsent(workerBean.getWorkerId(), new WorkerLoad(workerBean)) != null) {
+            LOGGER.error("Worker already registered");
+            throw new WorkerAlreadyExistsException("Worker already registered");
+        }
+        startHeartbeat();
+    }
+
+    /**
+     * Unregister a worker. Its in-flight items are not interrupted.
+     *
+     * @param familyId the family of the worker
+     * @param workerId the id of the worker
+     * @throws WorkerNotFoundException if the worker is not registered in this family
+     * @throws WorkerFamilyNotFoundException if the family is unknown
+     */
+    void unregister(String familyId, String workerId)
+        throws WorkerNotFoundException, WorkerFamilyNotFoundException {
+        final ConcurrentNavigableMap<String, WorkerLoad> familyWorkers = families.get(familyId);
+        if (familyWorkers == null) {
+            LOGGER.error("Worker Family does not exist");
+            throw new WorkerFamilyNotFoundException("Worker Family does not exist");
+        }
+        final WorkerLoad workerLoad = familyWorkers.remove(workerId);
+        if (workerLoad == null) {
+            LOGGER.error("Worker does not exist in this family");
+            throw new WorkerNotFoundException("Worker does not exist in this family");
+        }
+        workerLoad.markDead();
+        if (families.values().stream().allMatch(Map::isEmpty)) {
+            close();
+        }
+    }
+
+    /**
+     * Select the alive worker of the family with the best score having a free slot, and reserve this slot
+     *
+     * @param familyId the family of workers
+     * @param force if true and all alive workers are busy, the best one is reserved anyway
+     * @return the selected worker (to release once done) or null if none is available
+     */
+    WorkerLoad selectWorker(String familyId, boolean force) {
+        final List<WorkerLoad> candidates = getAliveWorkers(familyId);
+        // the scores change while other distributions acquire slots: sort on a snapshot of them
+        final Map<WorkerLoad, Double> scores = new IdentityHashMap<>();
+        for (final WorkerLoad candidate : candidates) {
+            scores.put(candidate, candidate.getScore());
+        }
+        candidates.sort(Comparator.comparingDouble(scores::get));
+        for (final WorkerLoad candidate : candidates) {
+            if (candidate.tryAcquire()) {
+                return candidate;
+            }
+        }
+        if (force && !candidates.isEmpty()) {
+            final WorkerLoad candidate = candidates.get(0);
+            candidate.forceAcquire();
+            return candidate;
+        }
+        return null;
+    }
+
+    /**
+     * @param familyId the family of workers
+     * @return true if at least one worker of the family is alive
+     */
+    boolean hasWorker(String familyId) {
+        return !getAliveWorkers(familyId).isEmpty();
+    }
+
+    /**
+     * Resolve the family of workers serving a step: the family named after the workerGroupId of the step when some
+     * workers registered in it, the default family otherwise
+     *
+     * @param workerGroupId the workerGroupId of the step, may be null or empty
+     * @param defaultFamily the family used by the steps without a dedicated family
+     * @return the family of workers to use
+     */
+    String resolveFamily(String workerGroupId, String defaultFamily) {
+        if (workerGroupId != null && !workerGroupId.isEmpty() && families.containsKey(workerGroupId)) {
+            return workerGroupId;
+        }
+        return defaultFamily;
+    }
+
+    private List<WorkerLoad> getAliveWorkers(String familyId) {
+        final List<WorkerLoad> alive = new ArrayList<>();
+        final ConcurrentNavigableMap<String, WorkerLoad> familyWorkers = families.get(familyId);
+        if (familyWorkers != null) {
+            for (final WorkerLoad workerLoad : familyWorkers.values()) {
+                if (workerLoad.isAlive()) {
+                    alive.add(workerLoad);
+                }
+            }
+        }
+        return alive;
+    }
+
+    /**
+     * @return a copy of the registered workers, by family
+     */
+    Map<String, NavigableMap<String, WorkerBean>> getWorkers() {
+        final Map<String, NavigableMap<String, WorkerBean>> workers = new TreeMap<>();
+        for (final Entry<String, ConcurrentNavigableMap<String, WorkerLoad>> family : families.entrySet()) {
+            final NavigableMap<String, WorkerBean> familyWorkers = new TreeMap<>();
+            for (final Entry<String, WorkerLoad> worker : family.getValue().entrySet()) {
+                familyWorkers.put(worker.getKey(), worker.getValue().getWorkerBean());
+            }
+            workers.put(family.getKey(), familyWorkers);
+        }
+        return workers;
+    }
+
+    private synchronized void startHeartbeat() {
+        if (heartbeat == null) {
+            heartbeat = Executors.newSingleThreadScheduledExecutor(VitamThreadFactory.getInstance());
+            heartbeat.scheduleWithFixedDelay(this::checkWorkers, HEARTBEAT_PERIOD_SECONDS, HEARTBEAT_PERIOD_SECONDS,
+                TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * @return true if the background task checking the workers is running
+     */
+    synchronized boolean isHeartbeatStarted() {
+        return heartbeat != null;
+    }
+
+    /**
+     * Stop the background task checking the workers, until a worker is registered again
+     */
+    @Override
+    public synchronized void close() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+            heartbeat = null;
+        }
+    }
+
+    /**
+     * Check the status of the dead workers and of the workers without any successful call for too long, even busy:
+     * a worker which stays busy without answering is marked dead, so that its in-flight items are sent again
+     */
+    void checkWorkers() {
+        final long limit = System.currentTimeMillis() - IDLE_HEARTBEAT_MILLISECONDS;
+        for (final ConcurrentNavigableMap<String, WorkerLoad> familyWorkers : families.values()) {
+            for (final WorkerLoad workerLoad : familyWorkers.values()) {
+                if (!workerLoad.isAlive() || workerLoad.getLastHeartbeat() < limit) {
+                    checkWorker(workerLoad);
+                }
+            }
+        }
+    }
+
+    private void checkWorker(WorkerLoad workerLoad) {
+        try (WorkerClient workerClient = workerLoad.getClient()) {
+            workerClient.checkStatus();
+            if (!workerLoad.isAlive()) {
+                LOGGER.info("Worker " + workerLoad.getWorkerBean().getWorkerId() + " is back");
+            }
+            workerLoad.heartbeat();
+        } catch (final Exception e) {
+            if (workerLoad.isAlive()) {
+                LOGGER.warn("Worker " + workerLoad.getWorkerBean().getWorkerId() + " is not reachable", e);
+            }
+            workerLoad.markDead();
+        }
+    }
+}
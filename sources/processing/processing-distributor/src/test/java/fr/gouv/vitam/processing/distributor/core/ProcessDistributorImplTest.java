@@ -26,19 +26,37 @@
  *******************************************************************************/
 package fr.gouv.vitam.processing.distributor.core;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.AfterClass;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import fr.gouv.vitam.common.exception.VitamClientInternalException;
 import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.junit.JunitHelper;
+import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.processing.common.exception.ProcessingBadRequestException;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
@@ -59,9 +77,18 @@ import fr.gouv.vitam.processing.common.model.WorkerBean;
 import fr.gouv.vitam.processing.common.model.WorkerRemoteConfiguration;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
 import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
+import fr.gouv.vitam.processing.engine.core.monitoring.FileProcessStateStore;
 import fr.gouv.vitam.processing.engine.core.monitoring.ProcessMonitoringImpl;
+import fr.gouv.vitam.processing.engine.core.monitoring.ProcessState;
+import fr.gouv.vitam.processing.engine.core.monitoring.ProcessStateStore;
+import fr.gouv.vitam.worker.client.WorkerClient;
+import fr.gouv.vitam.worker.client.exception.WorkerServerClientException;
+import fr.gouv.vitam.worker.common.DescriptionStep;
 
 public class ProcessDistributorImplTest {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     private WorkerParameters params;
     private static final ProcessDistributorImpl PROCESS_DISTRIBUTOR =
         ProcessDistributorImplFactory.getDefaultDistributor();
@@ -76,6 +103,10 @@ public class ProcessDistributorImplTest {
         "{ \"name\" : \"workername\", \"family\" : \"familyname\", \"capacity\" : 10, \"storage\" : 100," +
             "\"status\" : \"Active\", \"configuration\" : {\"serverHost\" : \"localhost\", \"serverPort\" : \"89102\" } }";
 
+    private static final String DEFAULT_FAMILY_WORKER_DESCRIPTION =
+        "{ \"name\" : \"workername\", \"family\" : \"defaultFamily\", \"capacity\" : 2, \"storage\" : 100," +
+            "\"status\" : \"Active\", \"configuration\" : {\"serverHost\" : \"localhost\", \"serverPort\" : \"89102\" } }";
+
     @Before
     public void setUp() throws Exception {
         junitHelper = JunitHelper.getInstance();
@@ -275,4 +306,218 @@ public class ProcessDistributorImplTest {
         final ProcessDistributorImpl processDImpl = new ProcessDistributorImpl(null, null, null);
     }
 
+    @Test
+    public void givenSeveralWorkersWhenDistributeListThenItemsAreProcessedConcurrently() throws Exception {
+        final AtomicInteger running = new AtomicInteger(0);
+        final AtomicInteger maxRunning = new AtomicInteger(0);
+        final AtomicInteger submitted = new AtomicInteger(0);
+        final WorkerClient workerClient = mock(WorkerClient.class);
+        final WorkerClient unreachableClient = mock(WorkerClient.class);
+        final AtomicReference<String> unreachableWorker = new AtomicReference<>();
+        final AtomicReference<WorkerLoad> unreachableLoad = new AtomicReference<>();
+        final ProcessDistributorImpl distributor = new ProcessDistributorImpl() {
+            @Override
+            WorkerClient getWorkerClient(WorkerLoad workerLoad) {
+                if (workerLoad.getWorkerBean().getWorkerId().equals(unreachableWorker.get())) {
+                    unreachableLoad.set(workerLoad);
+                    return unreachableClient;
+                }
+                return workerClient;
+            }
+        };
+        // tests may run in parallel: use only one method registering workers in the default family
+        distributor.registerWorker("defaultFamily", "ConcurrentWorker1", DEFAULT_FAMILY_WORKER_DESCRIPTION);
+        distributor.registerWorker("defaultFamily", "ConcurrentWorker2", DEFAULT_FAMILY_WORKER_DESCRIPTION);
+        try {
+            final List<URI> objects = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                objects.add(new URI("object" + i + ".json"));
+            }
+
+            doAnswer(invocation -> {
+                final int current = running.incrementAndGet();
+                maxRunning.accumulateAndGet(current, Math::max);
+                submitted.incrementAndGet();
+                Thread.sleep(20);
+                running.decrementAndGet();
+                return getWorkerResponse(StatusCode.OK);
+            }).when(workerClient).submitStep(anyObject());
+            ItemStatus responses = new ItemStatus("TEST");
+            assertTrue(distributor.distributeOnList(params, worfklow.getSteps().get(0), objects, responses));
+            assertEquals(20, submitted.get());
+            assertEquals(StatusCode.OK, responses.getGlobalStatus());
+            assertTrue(maxRunning.get() > 1);
+            // 2 workers with a capacity of 2
+            assertTrue(maxRunning.get() <= 4);
+
+            // Batch mode: 5 objects per call
+            // new process: the objects of the previous distribution are not already processed
+            processMonitoring.initOrderedWorkflow("processId", worfklow, "containerName");
+            submitted.set(0);
+            final AtomicInteger batchedObjects = new AtomicInteger(0);
+            doAnswer(invocation -> {
+                submitted.incrementAndGet();
+                batchedObjects.addAndGet(((DescriptionStep) invocation.getArguments()[0]).getObjectNameList().size());
+                return getWorkerResponse(StatusCode.OK);
+            }).when(workerClient).submitStep(anyObject());
+            final Step batchStep = new Step().setStepName("TEST").setBehavior(ProcessBehavior.BLOCKING)
+                .setDistribution(new Distribution().setKind(DistributionKind.LIST).setBatchSize(5))
+                .setActions(worfklow.getSteps().get(0).getActions());
+            responses = new ItemStatus("TEST");
+            assertTrue(distributor.distributeOnList(params, batchStep, objects, responses));
+            assertEquals(4, submitted.get());
+            assertEquals(20, batchedObjects.get());
+            assertEquals(StatusCode.OK, responses.getGlobalStatus());
+
+            // Batch mode: only the objects reported by the worker are processed
+            processMonitoring.initOrderedWorkflow("processId", worfklow, "containerName");
+            doAnswer(invocation -> {
+                final List<String> objectNames = ((DescriptionStep) invocation.getArguments()[0]).getObjectNameList();
+                final Map<String, String> objectStatuses = new HashMap<>();
+                objectStatuses.put(objectNames.get(0), StatusCode.OK.name());
+                objectStatuses.put(objectNames.get(1), StatusCode.WARNING.name());
+                return getWorkerResponse(StatusCode.WARNING).setData(DescriptionStep.OBJECT_STATUSES, objectStatuses);
+            }).when(workerClient).submitStep(anyObject());
+            final Step partialStep = new Step().setStepName("TEST").setBehavior(ProcessBehavior.NOBLOCKING)
+                .setDistribution(new Distribution().setKind(DistributionKind.LIST).setBatchSize(5))
+                .setActions(worfklow.getSteps().get(0).getActions());
+            responses = new ItemStatus("TEST");
+            assertTrue(distributor.distributeOnList(params, partialStep, objects, responses));
+            assertEquals(8, processMonitoring.getWorkflowStatus("processId").get(params.getStepUniqId())
+                .getElementProcessed());
+            assertFalse(responses.getData().containsKey(DescriptionStep.OBJECT_STATUSES));
+
+            // Blocking step stops on first KO
+            // new process: the objects of the previous distribution are not already processed
+            processMonitoring.initOrderedWorkflow("processId", worfklow, "containerName");
+            submitted.set(0);
+            doAnswer(invocation -> {
+                submitted.incrementAndGet();
+                return getWorkerResponse(StatusCode.KO);
+            }).when(workerClient).submitStep(anyObject());
+            final Step step = new Step().setStepName("TEST").setBehavior(ProcessBehavior.BLOCKING)
+                .setActions(worfklow.getSteps().get(0).getActions());
+            responses = new ItemStatus("TEST");
+            assertFalse(distributor.distributeOnList(params, step, objects, responses));
+            assertEquals(StatusCode.KO, responses.getGlobalStatus());
+            assertTrue(submitted.get() < 20);
+
+            // Items sent to an unreachable worker are processed by the other one
+            // new process: the objects of the previous distribution are not already processed
+            processMonitoring.initOrderedWorkflow("processId", worfklow, "containerName");
+            submitted.set(0);
+            doAnswer(invocation -> {
+                submitted.incrementAndGet();
+                return getWorkerResponse(StatusCode.OK);
+            }).when(workerClient).submitStep(anyObject());
+            doThrow(new WorkerServerClientException("down", new VitamClientInternalException("down")))
+                .when(unreachableClient).submitStep(anyObject());
+            unreachableWorker.set("ConcurrentWorker1");
+            responses = new ItemStatus("TEST");
+            assertTrue(distributor.distributeOnList(params, step, objects, responses));
+            assertEquals(20, submitted.get());
+            assertEquals(StatusCode.OK, responses.getGlobalStatus());
+            assertEquals(20, responses.getStatusMeter().get(StatusCode.OK.getStatusLevel()).intValue());
+
+            // Items sent to a hung worker are sent again to the other one once the heartbeat marks it dead
+            processMonitoring.initOrderedWorkflow("processId", worfklow, "containerName");
+            submitted.set(0);
+            unreachableLoad.get().heartbeat();
+            doAnswer(invocation -> {
+                unreachableLoad.get().markDead();
+                Thread.sleep(60000);
+                return getWorkerResponse(StatusCode.KO);
+            }).when(unreachableClient).submitStep(anyObject());
+            responses = new ItemStatus("TEST");
+            assertTrue(distributor.distributeOnList(params, step, objects, responses));
+            assertEquals(20, submitted.get());
+            assertEquals(StatusCode.OK, responses.getGlobalStatus());
+            assertEquals(20, responses.getStatusMeter().get(StatusCode.OK.getStatusLevel()).intValue());
+
+            // Pipelined steps: objects done by the first step go to the second one before the first step ends
+            unreachableWorker.set(null);
+            final List<String> stepNames = Collections.synchronizedList(new ArrayList<>());
+            doAnswer(invocation -> {
+                stepNames.add(((DescriptionStep) invocation.getArguments()[0]).getStep().getStepName());
+                Thread.sleep(5);
+                return getWorkerResponse(StatusCode.OK);
+            }).when(workerClient).submitStep(anyObject());
+            final Distribution distribution = new Distribution().setKind(DistributionKind.LIST);
+            final WorkFlow pipelineWorkflow = new WorkFlow().setId(WORKFLOW_ID).setSteps(Arrays.asList(
+                new Step().setStepName("FIRST").setBehavior(ProcessBehavior.BLOCKING).setDistribution(distribution)
+                    .setActions(worfklow.getSteps().get(0).getActions()),
+                new Step().setStepName("SECOND").setBehavior(ProcessBehavior.BLOCKING).setDistribution(distribution)
+                    .setActions(worfklow.getSteps().get(0).getActions()).setPipelined(true)));
+            params.setProcessId("pipelineProcessId");
+            final Map<String, ProcessStep> pipelineSteps =
+                processMonitoring.initOrderedWorkflow("pipelineProcessId", pipelineWorkflow, "containerName");
+            final List<ItemStatus> pipelineResponses = Arrays.asList(new ItemStatus("FIRST"), new ItemStatus("SECOND"));
+            final List<String> startedSteps = new ArrayList<>();
+            assertTrue(distributor.distributeOnPipeline(params, pipelineSteps, objects, pipelineResponses,
+                startedSteps::add));
+            assertEquals(new ArrayList<>(pipelineSteps.keySet()), startedSteps);
+            assertEquals(40, stepNames.size());
+            assertTrue(stepNames.indexOf("SECOND") < stepNames.lastIndexOf("FIRST"));
+            for (final ItemStatus pipelineResponse : pipelineResponses) {
+                assertEquals(StatusCode.OK, pipelineResponse.getGlobalStatus());
+                assertEquals(20, pipelineResponse.getStatusMeter().get(StatusCode.OK.getStatusLevel()).intValue());
+            }
+            for (final ProcessStep processStep : processMonitoring.getWorkflowStatus("pipelineProcessId").values()) {
+                assertEquals(20, processStep.getElementProcessed());
+            }
+
+            // Pipeline stopped by its first step: the second step is never started
+            doAnswer(invocation -> getWorkerResponse(StatusCode.KO)).when(workerClient).submitStep(anyObject());
+            params.setProcessId("stoppedPipelineProcessId");
+            final Map<String, ProcessStep> stoppedSteps =
+                processMonitoring.initOrderedWorkflow("stoppedPipelineProcessId", pipelineWorkflow, "containerName");
+            final List<ItemStatus> stoppedResponses = Arrays.asList(new ItemStatus("FIRST"), new ItemStatus("SECOND"));
+            startedSteps.clear();
+            assertFalse(distributor.distributeOnPipeline(params, stoppedSteps, objects.subList(0, 1),
+                stoppedResponses, startedSteps::add));
+            assertEquals(Collections.singletonList(stoppedSteps.keySet().iterator().next()), startedSteps);
+            assertEquals(StatusCode.KO, stoppedResponses.get(0).getGlobalStatus());
+            assertEquals(StatusCode.UNKNOWN, stoppedResponses.get(1).getGlobalStatus());
+
+            // Resumed step after a restart: objects already processed are not distributed again
+            submitted.set(0);
+            doAnswer(invocation -> {
+                submitted.incrementAndGet();
+                return getWorkerResponse(StatusCode.OK);
+            }).when(workerClient).submitStep(anyObject());
+            params.setProcessId("resumedProcessId");
+            final ProcessStateStore store = new FileProcessStateStore(tempFolder.newFolder());
+            final ProcessStep resumedStep =
+                new ProcessStep(worfklow.getSteps().get(0), "containerName", WORKFLOW_ID, 0, 20, 0);
+            final String resumedStepId = resumedStep.getId();
+            final LinkedHashMap<String, ProcessStep> resumedSteps = new LinkedHashMap<>();
+            resumedSteps.put(resumedStepId, resumedStep);
+            store.save(new ProcessState("resumedProcessId", WORKFLOW_ID, "containerName", resumedSteps));
+            params.setStepUniqId(resumedStepId);
+            final Map<String, StatusCode> processed = new HashMap<>();
+            for (int i = 0; i < 15; i++) {
+                processed.put(objects.get(i).getPath(), StatusCode.OK);
+            }
+            store.appendProcessedObjects("resumedProcessId", resumedStepId, processed);
+            processMonitoring.setStateStore(store);
+            try {
+                responses = new ItemStatus("TEST");
+                assertTrue(distributor.distributeOnList(params, step, objects, responses));
+                assertEquals(5, submitted.get());
+                assertEquals(20, responses.getStatusMeter().get(StatusCode.OK.getStatusLevel()).intValue());
+                assertEquals(20, processMonitoring.getProcessedObjects("resumedProcessId", resumedStepId).size());
+            } finally {
+                processMonitoring.setStateStore(null);
+            }
+        } finally {
+            distributor.unregisterWorker("defaultFamily", "ConcurrentWorker1");
+            distributor.unregisterWorker("defaultFamily", "ConcurrentWorker2");
+        }
+    }
+
+    private static ItemStatus getWorkerResponse(StatusCode statusCode) {
+        final ItemStatus itemStatus = new ItemStatus("ItemId").increment(statusCode);
+        return new ItemStatus("StepId").setItemsStatus("ItemId", itemStatus);
+    }
+
 }
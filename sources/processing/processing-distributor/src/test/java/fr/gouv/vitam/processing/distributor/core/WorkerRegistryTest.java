@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.processing.distributor.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import fr.gouv.vitam.processing.common.exception.WorkerAlreadyExistsException;
+import fr.gouv.vitam.processing.common.exception.WorkerFamilyNotFoundException;
+import fr.gouv.vitam.processing.common.exception.WorkerNotFoundException;
+import fr.gouv.vitam.processing.common.model.WorkerBean;
+import fr.gouv.vitam.processing.common.model.WorkerRemoteConfiguration;
+
+public class WorkerRegistryTest {
+
+    private static final String FAMILY = "family";
+
+    private static WorkerBean newWorker(String workerId, long capacity) {
+        return new WorkerBean("name", FAMILY, capacity, 1, "active",
+            new WorkerRemoteConfiguration("localhost", 8098)).setWorkerId(workerId);
+    }
+
+    @Test
+    public void givenRegisteredWorkersWhenSelectThenCapacityAndLivenessAreUsed() throws Exception {
+        final WorkerRegistry registry = new WorkerRegistry();
+        assertFalse(registry.hasWorker(FAMILY));
+        assertNull(registry.selectWorker(FAMILY, true));
+        registry.register(FAMILY, newWorker("worker1", 1));
+        registry.register(FAMILY, newWorker("worker2", 2));
+        assertEquals(2, registry.getWorkers().get(FAMILY).size());
+
+        // 3 slots in total
+        final WorkerLoad first = registry.selectWorker(FAMILY, false);
+        final WorkerLoad second = registry.selectWorker(FAMILY, false);
+        final WorkerLoad third = registry.selectWorker(FAMILY, false);
+        assertTrue(first != null && second != null && third != null);
+        assertNull(registry.selectWorker(FAMILY, false));
+        final WorkerLoad forced = registry.selectWorker(FAMILY, true);
+        assertTrue(forced != null);
+        forced.release();
+        first.release(10, 1);
+        assertTrue(first.getLatency() > 0);
+        assertEquals(first, registry.selectWorker(FAMILY, false));
+
+        // a dead worker is not selected anymore
+        first.markDead();
+        second.release();
+        third.release();
+        final WorkerLoad alive = registry.selectWorker(FAMILY, false);
+        assertTrue(alive != first);
+        alive.markDead();
+        assertFalse(registry.hasWorker(FAMILY));
+        assertNull(registry.selectWorker(FAMILY, true));
+        first.heartbeat();
+        assertTrue(registry.hasWorker(FAMILY));
+    }
+
+    @Test(expected = WorkerAlreadyExistsException.class)
+    public void givenRegisteredWorkerWhenRegisterAgainThenException() throws Exception {
+        final WorkerRegistry registry = new WorkerRegistry();
+        registry.register(FAMILY, newWorker("worker1", 1));
+        registry.register(FAMILY, newWorker("worker1", 1));
+    }
+
+    @Test
+    public void givenRegisteredWorkerWhenUnregisterThenRemoved() throws Exception {
+        final WorkerRegistry registry = new WorkerRegistry();
+        assertFalse(registry.isHeartbeatStarted());
+        registry.register(FAMILY, newWorker("worker1", 1));
+        assertTrue(registry.isHeartbeatStarted());
+        registry.unregister(FAMILY, "worker1");
+        assertEquals(0, registry.getWorkers().get(FAMILY).size());
+        assertFalse(registry.hasWorker(FAMILY));
+        // no more worker to check
+        assertFalse(registry.isHeartbeatStarted());
+        registry.register(FAMILY, newWorker("worker1", 1));
+        assertTrue(registry.isHeartbeatStarted());
+        registry.close();
+        assertFalse(registry.isHeartbeatStarted());
+        registry.unregister(FAMILY, "worker1");
+        try {
+            registry.unregister(FAMILY, "worker1");
+            fail("Should raise an exception");
+        } catch (final WorkerNotFoundException e) {
+            // expected
+        }
+        try {
+            registry.unregister("unknown", "worker1");
+            fail("Should raise an exception");
+        } catch (final WorkerFamilyNotFoundException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void givenWorkerGroupIdWhenResolveFamilyThenRegisteredFamilyOrDefault() throws Exception {
+        final WorkerRegistry registry = new WorkerRegistry();
+        assertEquals("default", registry.resolveFamily(FAMILY, "default"));
+        assertEquals("default", registry.resolveFamily(null, "default"));
+        assertEquals("default", registry.resolveFamily("", "default"));
+        registry.register(FAMILY, newWorker("worker1", 1));
+        assertEquals(FAMILY, registry.resolveFamily(FAMILY, "default"));
+        assertEquals("default", registry.resolveFamily("other", "default"));
+    }
+}
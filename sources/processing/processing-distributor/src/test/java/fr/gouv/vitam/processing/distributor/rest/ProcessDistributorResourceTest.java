@@ -32,6 +32,10 @@ import static com.jayway.restassured.RestAssured.get;
 import static com.jayway.restassured.RestAssured.given;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.ws.rs.core.Response.Status;
 
@@ -270,6 +274,12 @@ public class ProcessDistributorResourceTest {
             return new ItemStatus("itemId");
         }
 
+        @Override
+        public List<ItemStatus> distributePipeline(WorkerParameters workParams, Map<String, ? extends Step> steps,
+            String workflowId, Consumer<String> stepStarted) {
+            return new ArrayList<>();
+        }
+
         @Override
         public void close() {
             // Nothing
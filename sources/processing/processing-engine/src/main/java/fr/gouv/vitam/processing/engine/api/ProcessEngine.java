@@ -40,7 +40,8 @@ public interface ProcessEngine {
     /**
      * Starts a new process instance in the exactly specified process definition with the given id.
      *
-     * @param workParams used to encapsulate a parameters
+     * @param workParams used to encapsulate a parameters; if its process id is set, it is used as the id of the
+     *        new process, or the unfinished process with this id is resumed from its last done step and objects
      * @param workflowId used to identify workflow id
      * @return the reponse of EngineResponse type that contains message and status code
      * @throws IllegalArgumentException throws when arguments workParams or workflowId are null
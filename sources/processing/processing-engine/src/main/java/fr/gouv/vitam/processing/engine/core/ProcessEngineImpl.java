@@ -28,11 +28,13 @@ package fr.gouv.vitam.processing.engine.core;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.exception.InvalidGuidOperationException;
-import fr.gouv.vitam.common.guid.GUID;
 import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.guid.GUIDReader;
 import fr.gouv.vitam.common.i18n.VitamLogbookMessages;
@@ -54,9 +56,12 @@ import fr.gouv.vitam.logbook.operations.client.LogbookOperationsClientFactory;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.exception.WorkflowNotFoundException;
 import fr.gouv.vitam.processing.common.model.Action;
+import fr.gouv.vitam.processing.common.model.Distribution;
+import fr.gouv.vitam.processing.common.model.DistributionKind;
 import fr.gouv.vitam.processing.common.model.ProcessBehavior;
 import fr.gouv.vitam.processing.common.model.ProcessResponse;
 import fr.gouv.vitam.processing.common.model.ProcessStep;
+import fr.gouv.vitam.processing.common.model.Step;
 import fr.gouv.vitam.processing.common.model.WorkFlow;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
 import fr.gouv.vitam.processing.common.utils.ProcessPopulator;
@@ -81,11 +86,11 @@ public class ProcessEngineImpl implements ProcessEngine {
     private static final String MESSAGE_IDENTIFIER = "messageIdentifier";
 
     private static final String OBJECTS_LIST_EMPTY = "OBJECTS_LIST_EMPTY";
+    private static final String ELEMENT_UNITS = "Units";
 
     private final Map<String, WorkFlow> poolWorkflows;
 
     private final ProcessDistributor processDistributorMock;
-    private final Map<String, String> messageIdentifierMap = new HashMap<>();
 
 
     /**
@@ -136,42 +141,83 @@ public class ProcessEngineImpl implements ProcessEngine {
          */
         if (!poolWorkflows.containsKey(workflowId)) {
             LOGGER.error(WORKFLOW_NOT_FOUND_MESSAGE);
+            if (workParams.getProcessId() != null) {
+                // a resumed process cannot go further
+                finishWorkflow(workParams.getProcessId());
+            }
             throw new WorkflowNotFoundException(WORKFLOW_NOT_FOUND_MESSAGE);
         }
         final ProcessResponse processResponse = new ProcessResponse();
-        final GUID processId = GUIDFactory.newGUID();
-        final ItemStatus workflowStatus = new ItemStatus(processId.toString());
+        // the process id may have been given by the caller in order to follow an asynchronous execution
+        final String processId =
+            workParams.getProcessId() != null ? workParams.getProcessId() : GUIDFactory.newGUID().getId();
+        final ItemStatus workflowStatus = new ItemStatus(processId);
 
         try (LogbookOperationsClient client = LogbookOperationsClientFactory.getInstance().getClient()) {
             final WorkFlow workFlow = poolWorkflows.get(workflowId);
 
             if (workFlow != null && workFlow.getSteps() != null && !workFlow.getSteps().isEmpty()) {
 
-                processResponse.setProcessId(processId.getId());
-                workParams.setProcessId(processId.getId());
-                LOGGER.info("Start Workflow: " + processId.getId());
+                processResponse.setProcessId(processId);
+                workParams.setProcessId(processId);
+                LOGGER.info("Start Workflow: " + processId);
 
 
-                final Map<String, ProcessStep> processSteps = ProcessMonitoringImpl.getInstance().initOrderedWorkflow(
-                    workParams.getProcessId(), workFlow,
-                    workParams.getContainerName());
+                // a process already known and not finished (typically before a restart) is resumed
+                Map<String, ProcessStep> processSteps =
+                    ProcessMonitoringImpl.getInstance().resumeOrderedWorkflow(processId);
+                if (processSteps == null) {
+                    processSteps = ProcessMonitoringImpl.getInstance().initOrderedWorkflow(
+                        workParams.getProcessId(), workFlow,
+                        workParams.getContainerName());
+                } else {
+                    LOGGER.info("Resume Workflow: " + processId);
+                }
 
                 /**
                  * call process distribute to manage steps
                  */
                 boolean finished = true;
-                ItemStatus stepResponse;
-                for (final Map.Entry<String, ProcessStep> entry : processSteps.entrySet()) {
-                    final ProcessStep step = entry.getValue();
-                    stepResponse = processStep(processId.getId(), step, entry.getKey(), workParams,
-                        workflowStatus, client, workflowId, messageIdentifierMap.get(processId.getId()),
-                        tenantId, finished);
-                    // if the step has been defined as Blocking and then stepStatus is KO or FATAL
-                    // then break the process
-                    if (stepResponse.shallStop(step.getBehavior().equals(ProcessBehavior.BLOCKING))) {
-                        finished = false;
-                        break;
+                final List<Map.Entry<String, ProcessStep>> entries = new ArrayList<>(processSteps.entrySet());
+                int rank = 0;
+                while (finished && rank < entries.size()) {
+                    final ProcessStep current = entries.get(rank).getValue();
+                    if (isDone(current)) {
+                        // step already done before the process was resumed
+                        workflowStatus.increment(current.getStepStatusCode());
+                        finished = !new ItemStatus(current.getStepName()).increment(current.getStepStatusCode())
+                            .shallStop(current.getBehavior().equals(ProcessBehavior.BLOCKING));
+                        rank++;
+                        continue;
+                    }
+                    // chain the following steps declared as pipelined with this one
+                    int last = rank;
+                    while (last + 1 < entries.size() &&
+                        canChain(entries.get(last).getValue(), entries.get(last + 1).getValue())) {
+                        last++;
+                    }
+                    if (last == rank) {
+                        final ProcessStep step = entries.get(rank).getValue();
+                        final ItemStatus stepResponse = processStep(processId, step, entries.get(rank).getKey(),
+                            workParams, workflowStatus, client, workflowId,
+                            ProcessMonitoringImpl.getInstance().getMessageIdentifier(processId), tenantId, finished);
+                        // if the step has been defined as Blocking and then stepStatus is KO or FATAL
+                        // then break the process
+                        finished = !stepResponse.shallStop(step.getBehavior().equals(ProcessBehavior.BLOCKING));
+                    } else {
+                        final Map<String, ProcessStep> pipeline = new LinkedHashMap<>();
+                        for (int i = rank; i <= last; i++) {
+                            pipeline.put(entries.get(i).getKey(), entries.get(i).getValue());
+                        }
+                        final List<ItemStatus> stepResponses =
+                            processPipeline(processId, pipeline, workParams, workflowStatus, client, workflowId,
+                                tenantId);
+                        for (int i = rank; i <= last && finished; i++) {
+                            finished = !stepResponses.get(i - rank).shallStop(
+                                entries.get(i).getValue().getBehavior().equals(ProcessBehavior.BLOCKING));
+                        }
                     }
+                    rank = last + 1;
                 }
 
                 // Workflow was break, go last step
@@ -179,22 +225,22 @@ public class ProcessEngineImpl implements ProcessEngine {
                     final String theLastKey = new ArrayList<>(processSteps.keySet()).get(processSteps.size() - 1);
                     final ProcessStep lastStep = processSteps.get(theLastKey);
                     // check if it's a final step
-                    if (ProcessBehavior.FINALLY.equals(lastStep.getBehavior())) {
-                        processStep(processId.getId(), lastStep, theLastKey, workParams,
-                            workflowStatus, client, workflowId, messageIdentifierMap.get(processId.getId()),
-                            tenantId, finished);
+                    if (ProcessBehavior.FINALLY.equals(lastStep.getBehavior()) && !isDone(lastStep)) {
+                        processStep(processId, lastStep, theLastKey, workParams,
+                            workflowStatus, client, workflowId,
+                            ProcessMonitoringImpl.getInstance().getMessageIdentifier(processId), tenantId, finished);
                     } else {
                         LOGGER.info("No final step found");
                     }
                 }
 
-                messageIdentifierMap.remove(processId);
-                LOGGER.info("End Workflow: " + processId.getId());
+                LOGGER.info("End Workflow: " + processId);
             }
         } catch (final Exception e) {
             processResponse.setStatus(StatusCode.FATAL);
             LOGGER.error(RUNTIME_EXCEPTION_MESSAGE, e);
         } finally {
+            finishWorkflow(processId);
             LOGGER.info(ELAPSED_TIME_MESSAGE + (System.currentTimeMillis() - time) / 1000 + "s, Status: " +
                 processResponse.getStatus());
         }
@@ -204,12 +250,129 @@ public class ProcessEngineImpl implements ProcessEngine {
 
 
 
+    private static void finishWorkflow(String processId) {
+        try {
+            ProcessMonitoringImpl.getInstance().finishWorkflow(processId);
+        } catch (final ProcessingException e) {
+            // the workflow was not even initialized
+            LOGGER.debug(e);
+        }
+    }
+
+    /**
+     * @return True if the step has already been done, when the process is resumed
+     */
+    private static boolean isDone(ProcessStep step) {
+        return step.getStepStatusCode() != null && !StatusCode.UNKNOWN.equals(step.getStepStatusCode()) &&
+            !StatusCode.STARTED.equals(step.getStepStatusCode());
+    }
+
+    /**
+     * Check if a step can take the objects of the previous step as soon as they are done
+     *
+     * @param previous the previous step
+     * @param next the next step
+     * @return True if the next step is declared as pipelined and works on the same objects as the previous one
+     */
+    private static boolean canChain(Step previous, Step next) {
+        final Distribution previousDistribution = previous.getDistribution();
+        final Distribution nextDistribution = next.getDistribution();
+        if (!next.isPipelined() || previousDistribution == null || nextDistribution == null ||
+            ProcessBehavior.FINALLY.equals(next.getBehavior()) ||
+            ProcessBehavior.FINALLY.equals(previous.getBehavior())) {
+            return false;
+        }
+        // Units are distributed level by level, so they cannot be chained
+        return DistributionKind.LIST.equals(previousDistribution.getKind()) &&
+            DistributionKind.LIST.equals(nextDistribution.getKind()) &&
+            nextDistribution.getElement() != null && !ELEMENT_UNITS.equals(nextDistribution.getElement()) &&
+            nextDistribution.getElement().equals(previousDistribution.getElement()) &&
+            next.getWorkerGroupId().equals(previous.getWorkerGroupId());
+    }
+
     private ItemStatus processStep(String processId, ProcessStep step, String uniqueId, WorkerParameters workParams,
         ItemStatus workflowStatus, LogbookOperationsClient client, String workflowId, String messageIdentifier,
         int tenantId, boolean finished)
         throws InvalidGuidOperationException, LogbookClientBadRequestException, LogbookClientNotFoundException,
         LogbookClientServerException, ProcessingException {
 
+        final LogbookOperationParameters parameters = startStep(step, uniqueId, workParams, client, tenantId);
+        workParams.setCurrentStep(step.getStepName());
+        ProcessDistributor processDistributor = processDistributorMock;
+        try {
+            if (processDistributor == null) {
+                processDistributor = ProcessDistributorImplFactory.getDefaultDistributor();
+            }
+            final ItemStatus stepResponse =
+                processDistributor.distribute(workParams, step, workflowId);
+            endStep(processId, step, uniqueId, workParams, stepResponse, parameters, workflowStatus, client,
+                messageIdentifier, tenantId);
+            return stepResponse;
+        } finally {
+            closeDistributor(processDistributor);
+        }
+    }
+
+    private List<ItemStatus> processPipeline(String processId, Map<String, ProcessStep> steps,
+        WorkerParameters workParams, ItemStatus workflowStatus, LogbookOperationsClient client, String workflowId,
+        int tenantId)
+        throws InvalidGuidOperationException, LogbookClientBadRequestException, LogbookClientNotFoundException,
+        LogbookClientServerException, ProcessingException {
+
+        // each step is started when its first objects are distributed, so that a step never reached is not logged
+        final Map<String, LogbookOperationParameters> parameters = new HashMap<>();
+        final Consumer<String> stepStarted = uniqueId -> {
+            try {
+                parameters.put(uniqueId, startStep(steps.get(uniqueId), uniqueId, workParams, client, tenantId));
+            } catch (InvalidGuidOperationException | LogbookClientBadRequestException |
+                LogbookClientNotFoundException | LogbookClientServerException | ProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        ProcessDistributor processDistributor = processDistributorMock;
+        try {
+            if (processDistributor == null) {
+                processDistributor = ProcessDistributorImplFactory.getDefaultDistributor();
+            }
+            final List<ItemStatus> stepResponses =
+                processDistributor.distributePipeline(workParams, steps, workflowId, stepStarted);
+            int rank = 0;
+            for (final Map.Entry<String, ProcessStep> entry : steps.entrySet()) {
+                LogbookOperationParameters stepParameters = parameters.get(entry.getKey());
+                if (stepParameters == null && rank == 0) {
+                    // the pipeline failed before distributing anything: its status is given by its first step
+                    stepParameters = startStep(entry.getValue(), entry.getKey(), workParams, client, tenantId);
+                }
+                if (stepParameters == null) {
+                    LOGGER.info("Step not reached: " + entry.getKey());
+                } else {
+                    endStep(processId, entry.getValue(), entry.getKey(), workParams, stepResponses.get(rank),
+                        stepParameters, workflowStatus, client,
+                        ProcessMonitoringImpl.getInstance().getMessageIdentifier(processId), tenantId);
+                }
+                rank++;
+            }
+            return stepResponses;
+        } finally {
+            closeDistributor(processDistributor);
+        }
+    }
+
+    private void closeDistributor(ProcessDistributor processDistributor) {
+        if (processDistributorMock == null && processDistributor != null) {
+            try {
+                processDistributor.close();
+            } catch (final Exception exc) {
+                SysErrLogger.FAKE_LOGGER.ignoreLog(exc);
+            }
+        }
+    }
+
+    private LogbookOperationParameters startStep(ProcessStep step, String uniqueId, WorkerParameters workParams,
+        LogbookOperationsClient client, int tenantId)
+        throws InvalidGuidOperationException, LogbookClientBadRequestException, LogbookClientNotFoundException,
+        LogbookClientServerException, ProcessingException {
+
         workParams.setStepUniqId(uniqueId);
         LOGGER.info("Start Workflow: " + uniqueId + " Step:" + step.getStepName());
         final LogbookOperationParameters parameters = LogbookParametersFactory.newLogbookOperationParameters(
@@ -226,117 +389,106 @@ public class ProcessEngineImpl implements ProcessEngine {
         ProcessMonitoringImpl.getInstance().updateStepStatus(
             workParams.getProcessId(), uniqueId,
             StatusCode.STARTED);
+        return parameters;
+    }
 
-        workParams.setCurrentStep(step.getStepName());
-        ProcessDistributor processDistributor = processDistributorMock;
-        try {
-            if (processDistributor == null) {
-                processDistributor = ProcessDistributorImplFactory.getDefaultDistributor();
-            }
-            final ItemStatus stepResponse =
-                processDistributor.distribute(workParams, step, workflowId);
+    private void endStep(String processId, ProcessStep step, String uniqueId, WorkerParameters workParams,
+        ItemStatus stepResponse, LogbookOperationParameters parameters, ItemStatus workflowStatus,
+        LogbookOperationsClient client, String messageIdentifier, int tenantId)
+        throws InvalidGuidOperationException, LogbookClientBadRequestException, LogbookClientNotFoundException,
+        LogbookClientServerException, ProcessingException {
 
-            // update workflow Status
-            workflowStatus.increment(stepResponse.getGlobalStatus());
-            final LogbookOperationsClientHelper helper = new LogbookOperationsClientHelper();
-            for (final Action action : step.getActions()) {
-                final String hanlderId = action.getActionDefinition().getActionKey();
-                // Each handler could have a list itself => ItemStatus
-                final ItemStatus itemStatus = stepResponse.getItemsStatus().get(hanlderId);
-                if (itemStatus != null) {
-                    final LogbookOperationParameters actionParameters =
-                        LogbookParametersFactory.newLogbookOperationParameters(
-                            GUIDFactory.newEventGUID(tenantId),
-                            hanlderId,
-                            GUIDReader.getGUID(workParams.getContainerName()),
-                            LogbookTypeProcess.INGEST,
-                            StatusCode.STARTED,
-                            VitamLogbookMessages.getCodeOp(hanlderId, StatusCode.STARTED),
-                            GUIDReader.getGUID(workParams.getContainerName()));
-                    helper.updateDelegate(actionParameters);
-                    if (itemStatus instanceof ItemStatus) {
-                        final ItemStatus actionStatus = itemStatus;
-                        for (final ItemStatus sub : actionStatus.getItemsStatus().values()) {
-                            final LogbookOperationParameters sublogbook =
-                                LogbookParametersFactory.newLogbookOperationParameters(
-                                    GUIDFactory.newEventGUID(tenantId),
-                                    actionStatus.getItemId(),
-                                    GUIDReader.getGUID(workParams.getContainerName()),
-                                    LogbookTypeProcess.INGEST,
-                                    sub.getGlobalStatus(),
-                                    sub.getItemId(), " Detail= " + sub.computeStatusMeterMessage(),
-                                    GUIDReader.getGUID(workParams.getContainerName()));
-                            helper.updateDelegate(sublogbook);
-                        }
+        // update workflow Status
+        workflowStatus.increment(stepResponse.getGlobalStatus());
+        final LogbookOperationsClientHelper helper = new LogbookOperationsClientHelper();
+        for (final Action action : step.getActions()) {
+            final String hanlderId = action.getActionDefinition().getActionKey();
+            // Each handler could have a list itself => ItemStatus
+            final ItemStatus itemStatus = stepResponse.getItemsStatus().get(hanlderId);
+            if (itemStatus != null) {
+                final LogbookOperationParameters actionParameters =
+                    LogbookParametersFactory.newLogbookOperationParameters(
+                        GUIDFactory.newEventGUID(tenantId),
+                        hanlderId,
+                        GUIDReader.getGUID(workParams.getContainerName()),
+                        LogbookTypeProcess.INGEST,
+                        StatusCode.STARTED,
+                        VitamLogbookMessages.getCodeOp(hanlderId, StatusCode.STARTED),
+                        GUIDReader.getGUID(workParams.getContainerName()));
+                helper.updateDelegate(actionParameters);
+                if (itemStatus instanceof ItemStatus) {
+                    final ItemStatus actionStatus = itemStatus;
+                    for (final ItemStatus sub : actionStatus.getItemsStatus().values()) {
+                        final LogbookOperationParameters sublogbook =
+                            LogbookParametersFactory.newLogbookOperationParameters(
+                                GUIDFactory.newEventGUID(tenantId),
+                                actionStatus.getItemId(),
+                                GUIDReader.getGUID(workParams.getContainerName()),
+                                LogbookTypeProcess.INGEST,
+                                sub.getGlobalStatus(),
+                                sub.getItemId(), " Detail= " + sub.computeStatusMeterMessage(),
+                                GUIDReader.getGUID(workParams.getContainerName()));
+                        helper.updateDelegate(sublogbook);
                     }
-
-                    final LogbookOperationParameters sublogbook =
-                        LogbookParametersFactory.newLogbookOperationParameters(
-                            GUIDFactory.newEventGUID(tenantId),
-                            itemStatus.getItemId(),
-                            GUIDReader.getGUID(workParams.getContainerName()),
-                            LogbookTypeProcess.INGEST,
-                            itemStatus.getGlobalStatus(),
-                            null, " Detail= " + itemStatus.computeStatusMeterMessage(),
-                            GUIDReader.getGUID(workParams.getContainerName()));
-                    helper.updateDelegate(sublogbook);
                 }
-            }
 
-            final ItemStatus itemStatusObjectListEmpty = stepResponse.getItemsStatus().get(OBJECTS_LIST_EMPTY);
-            if (itemStatusObjectListEmpty != null) {
-                final LogbookOperationParameters actionParameters =
+                final LogbookOperationParameters sublogbook =
                     LogbookParametersFactory.newLogbookOperationParameters(
                         GUIDFactory.newEventGUID(tenantId),
-                        OBJECTS_LIST_EMPTY,
+                        itemStatus.getItemId(),
                         GUIDReader.getGUID(workParams.getContainerName()),
                         LogbookTypeProcess.INGEST,
-                        itemStatusObjectListEmpty.getGlobalStatus(),
-                        VitamLogbookMessages.getCodeOp(OBJECTS_LIST_EMPTY, itemStatusObjectListEmpty.getGlobalStatus()),
+                        itemStatus.getGlobalStatus(),
+                        null, " Detail= " + itemStatus.computeStatusMeterMessage(),
                         GUIDReader.getGUID(workParams.getContainerName()));
-                helper.updateDelegate(actionParameters);
+                helper.updateDelegate(sublogbook);
             }
+        }
 
-            if (messageIdentifier == null) {
-                if (stepResponse.getData().get(MESSAGE_IDENTIFIER) != null) {
-                    messageIdentifier = stepResponse.getData().get(MESSAGE_IDENTIFIER).toString();
-                    messageIdentifierMap.put(processId, messageIdentifier);
-                }
+        final ItemStatus itemStatusObjectListEmpty = stepResponse.getItemsStatus().get(OBJECTS_LIST_EMPTY);
+        if (itemStatusObjectListEmpty != null) {
+            final LogbookOperationParameters actionParameters =
+                LogbookParametersFactory.newLogbookOperationParameters(
+                    GUIDFactory.newEventGUID(tenantId),
+                    OBJECTS_LIST_EMPTY,
+                    GUIDReader.getGUID(workParams.getContainerName()),
+                    LogbookTypeProcess.INGEST,
+                    itemStatusObjectListEmpty.getGlobalStatus(),
+                    VitamLogbookMessages.getCodeOp(OBJECTS_LIST_EMPTY, itemStatusObjectListEmpty.getGlobalStatus()),
+                    GUIDReader.getGUID(workParams.getContainerName()));
+            helper.updateDelegate(actionParameters);
+        }
 
+        if (messageIdentifier == null) {
+            if (stepResponse.getData().get(MESSAGE_IDENTIFIER) != null) {
+                messageIdentifier = stepResponse.getData().get(MESSAGE_IDENTIFIER).toString();
+                // kept with the state of the process, so that a resumed process still logs it
+                ProcessMonitoringImpl.getInstance().setMessageIdentifier(processId, messageIdentifier);
             }
 
-            if (messageIdentifier != null && !messageIdentifier.isEmpty()) {
-                parameters.putParameterValue(LogbookParameterName.objectIdentifierIncome, messageIdentifier);
-            }
+        }
 
-            parameters.putParameterValue(LogbookParameterName.eventIdentifier, GUIDFactory.newEventGUID(tenantId).getId());
-            parameters.putParameterValue(LogbookParameterName.outcome, stepResponse.getGlobalStatus().name());
-            parameters.putParameterValue(LogbookParameterName.outcomeDetailMessage,
-                VitamLogbookMessages.getCodeOp(stepResponse.getItemId(), stepResponse.getGlobalStatus()));
-            helper.updateDelegate(parameters);
-            client.bulkUpdate(workParams.getContainerName(),
-                helper.removeUpdateDelegate(workParams.getContainerName()));
-
-            // update the process monitoring with the final status
-            ProcessMonitoringImpl.getInstance().updateStepStatus(
-                workParams.getProcessId(), uniqueId,
-                stepResponse.getGlobalStatus());
-            LOGGER.info("End Workflow: " + uniqueId + " Step:" + step.getStepName());
-            // TODO P1 : deal with the pause
-            // else if (step.getStepType().equals(StepType.PAUSE)) {
-            // THEN PAUSE
-            // }
-            return stepResponse;
-        } finally {
-            if (processDistributorMock == null && processDistributor != null) {
-                try {
-                    processDistributor.close();
-                } catch (final Exception exc) {
-                    SysErrLogger.FAKE_LOGGER.ignoreLog(exc);
-                }
-            }
+        if (messageIdentifier != null && !messageIdentifier.isEmpty()) {
+            parameters.putParameterValue(LogbookParameterName.objectIdentifierIncome, messageIdentifier);
         }
+
+        parameters.putParameterValue(LogbookParameterName.eventIdentifier, GUIDFactory.newEventGUID(tenantId).getId());
+        parameters.putParameterValue(LogbookParameterName.outcome, stepResponse.getGlobalStatus().name());
+        parameters.putParameterValue(LogbookParameterName.outcomeDetailMessage,
+            VitamLogbookMessages.getCodeOp(stepResponse.getItemId(), stepResponse.getGlobalStatus()));
+        helper.updateDelegate(parameters);
+        client.bulkUpdate(workParams.getContainerName(),
+            helper.removeUpdateDelegate(workParams.getContainerName()));
+
+        // update the process monitoring with the final status
+        ProcessMonitoringImpl.getInstance().updateStepStatus(
+            workParams.getProcessId(), uniqueId,
+            stepResponse.getGlobalStatus());
+        LOGGER.info("End Workflow: " + uniqueId + " Step:" + step.getStepName());
+        // TODO P1 : deal with the pause
+        // else if (step.getStepType().equals(StepType.PAUSE)) {
+        // THEN PAUSE
+        // }
     }
 
 }
-
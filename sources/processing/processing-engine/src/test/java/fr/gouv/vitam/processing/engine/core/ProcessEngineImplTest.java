@@ -26,12 +26,20 @@
  *******************************************************************************/
 package fr.gouv.vitam.processing.engine.core;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentMatcher;
 import org.mockito.Matchers;
 import org.mockito.Mockito;
 
@@ -39,9 +47,12 @@ import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.processing.common.exception.WorkflowNotFoundException;
+import fr.gouv.vitam.processing.common.model.ProcessBehavior;
 import fr.gouv.vitam.processing.common.model.ProcessStep;
+import fr.gouv.vitam.processing.common.model.Step;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
 import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
+import fr.gouv.vitam.processing.common.utils.ProcessPopulator;
 import fr.gouv.vitam.processing.distributor.api.ProcessDistributor;
 import fr.gouv.vitam.processing.engine.core.monitoring.ProcessMonitoringImpl;
 
@@ -92,6 +103,94 @@ public class ProcessEngineImplTest {
         assertNotNull(map);
     }
 
+    @Test
+    public void processEngineTestWithPipelinedSteps() throws Exception {
+        processEngine.setWorkflow("workflowJSONPipelined");
+        final ItemStatus stepResponse = new ItemStatus("stepName").increment(StatusCode.OK);
+        Mockito.when(processDistributor.distributePipeline(Matchers.anyObject(), Matchers.anyObject(),
+            Matchers.eq("workflowJSONPipelined"), Matchers.anyObject())).thenAnswer(invocation -> {
+                startSteps(invocation.getArguments(), 2);
+                return Arrays.asList(stepResponse, stepResponse);
+            });
+        Mockito.when(processDistributor.distribute(Matchers.anyObject(), Matchers.anyObject(),
+            Matchers.eq("workflowJSONPipelined"))).thenReturn(stepResponse);
+
+        response = processEngine.startWorkflow(workParams, "workflowJSONPipelined");
+        assertEquals(StatusCode.OK, response.getGlobalStatus());
+        // the two object steps are chained, the final step is distributed alone
+        Mockito.verify(processDistributor).distributePipeline(Matchers.anyObject(),
+            Matchers.argThat(new ArgumentMatcher<Map<String, ? extends Step>>() {
+                @Override
+                public boolean matches(Object argument) {
+                    return ((Map<?, ?>) argument).size() == 2;
+                }
+            }), Matchers.eq("workflowJSONPipelined"), Matchers.anyObject());
+        Mockito.verify(processDistributor).distribute(Matchers.anyObject(), Matchers.anyObject(),
+            Matchers.eq("workflowJSONPipelined"));
+        for (final ProcessStep step : processMonitoring.getWorkflowStatus(workParams.getProcessId()).values()) {
+            assertEquals(StatusCode.OK, step.getStepStatusCode());
+        }
+    }
+
+    @Test
+    public void processEngineTestWithPipelineStoppedByFirstStep() throws Exception {
+        processEngine.setWorkflow("workflowJSONPipelined");
+        final ItemStatus stepResponse = new ItemStatus("stepName").increment(StatusCode.KO);
+        Mockito.when(processDistributor.distributePipeline(Matchers.anyObject(), Matchers.anyObject(),
+            Matchers.eq("workflowJSONPipelined"), Matchers.anyObject())).thenAnswer(invocation -> {
+                startSteps(invocation.getArguments(), 1);
+                return Arrays.asList(stepResponse, new ItemStatus("stepName"));
+            });
+        Mockito.when(processDistributor.distribute(Matchers.anyObject(), Matchers.anyObject(),
+            Matchers.eq("workflowJSONPipelined"))).thenReturn(new ItemStatus("stepName").increment(StatusCode.OK));
+
+        response = processEngine.startWorkflow(workParams, "workflowJSONPipelined");
+        assertEquals(StatusCode.KO, response.getGlobalStatus());
+        final List<ProcessStep> steps =
+            new ArrayList<>(processMonitoring.getWorkflowStatus(workParams.getProcessId()).values());
+        assertEquals(StatusCode.KO, steps.get(0).getStepStatusCode());
+        // never reached: neither started nor ended
+        assertEquals(StatusCode.UNKNOWN, steps.get(1).getStepStatusCode());
+        assertEquals(StatusCode.OK, steps.get(2).getStepStatusCode());
+    }
+
+    /**
+     * Start the first steps of a pipeline, as the distributor does
+     */
+    @SuppressWarnings("unchecked")
+    private static void startSteps(Object[] arguments, int nbSteps) {
+        final Iterator<String> uniqueIds = ((Map<String, ?>) arguments[1]).keySet().iterator();
+        for (int i = 0; i < nbSteps; i++) {
+            ((Consumer<String>) arguments[3]).accept(uniqueIds.next());
+        }
+    }
+
+    @Test
+    public void processEngineTestResumeFromLastDoneStep() throws Exception {
+        final ItemStatus stepResponse = new ItemStatus("stepName").increment(StatusCode.OK);
+        Mockito.when(processDistributor.distribute(Matchers.anyObject(), Matchers.anyObject(),
+            Matchers.eq("workflowJSONFinallyStep"))).thenReturn(stepResponse);
+        // a process interrupted after its first step
+        final String processId = GUIDFactory.newGUID().getId();
+        final Map<String, ProcessStep> steps = processMonitoring.initOrderedWorkflow(processId,
+            ProcessPopulator.populate("workflowJSONFinallyStep"), workParams.getContainerName());
+        processMonitoring.updateStepStatus(processId, steps.keySet().iterator().next(), StatusCode.OK);
+
+        workParams.setProcessId(processId);
+        response = processEngine.startWorkflow(workParams, "workflowJSONFinallyStep");
+        assertEquals(StatusCode.OK, response.getGlobalStatus());
+        // only the final step is executed
+        Mockito.verify(processDistributor).distribute(Matchers.anyObject(),
+            Matchers.argThat(new ArgumentMatcher<Step>() {
+                @Override
+                public boolean matches(Object argument) {
+                    return ProcessBehavior.FINALLY.equals(((Step) argument).getBehavior());
+                }
+            }), Matchers.eq("workflowJSONFinallyStep"));
+        Mockito.verifyNoMoreInteractions(processDistributor);
+        assertNull(processMonitoring.resumeOrderedWorkflow(processId));
+    }
+
     @Test(expected = WorkflowNotFoundException.class)
     public void givenWorkFlowIdasNullThenReturnNotFoundException() throws Exception {
         processEngine.startWorkflow(workParams, "notExist");
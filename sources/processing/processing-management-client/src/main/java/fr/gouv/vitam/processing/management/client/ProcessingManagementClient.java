@@ -28,6 +28,7 @@ package fr.gouv.vitam.processing.management.client;
 
 import fr.gouv.vitam.common.client.MockOrRestClient;
 import fr.gouv.vitam.common.model.ItemStatus;
+import fr.gouv.vitam.processing.common.exception.ProcessNotFoundException;
 import fr.gouv.vitam.processing.common.exception.ProcessingBadRequestException;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.exception.ProcessingInternalServerException;
@@ -59,6 +60,31 @@ public interface ProcessingManagementClient extends MockOrRestClient {
         throws ProcessingUnauthorizeException, ProcessingBadRequestException, WorkflowNotFoundException,
         ProcessingException;
 
+    /**
+     * executeVitamProcessAsync : submit a processing operation of a workflow, without waiting for its end
+     *
+     * @param container : name of the container
+     * @param workflow : id of the workflow
+     * @return the id of the process, to be used with {@link #getOperationProcessStatus(String)}
+     * @throws IllegalArgumentException thrown in case of illegal argument in request server error
+     * @throws ProcessingInternalServerException thrown if too many workflows are running, in case of internal server
+     *         error or technical error between client and server
+     */
+    String executeVitamProcessAsync(String container, String workflow) throws ProcessingInternalServerException;
+
+    /**
+     * getOperationProcessStatus : get the status of a process submitted asynchronously
+     *
+     * @param processId : id of the process
+     * @return the final status of the process, or a STARTED status with the progress of each step as data while
+     *         the process is running
+     * @throws ProcessNotFoundException thrown if the process is unknown or already purged
+     * @throws ProcessingInternalServerException thrown in case of internal server error or technical error between
+     *         client and server
+     */
+    ItemStatus getOperationProcessStatus(String processId)
+        throws ProcessNotFoundException, ProcessingInternalServerException;
+
     /**
      * Register a new worker knowing its family and with a WorkerBean. If a problem is encountered, an exception is
      * thrown.
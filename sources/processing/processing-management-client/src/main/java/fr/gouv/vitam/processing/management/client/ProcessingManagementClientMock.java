@@ -33,6 +33,7 @@ import fr.gouv.vitam.common.SingletonUtils;
 import fr.gouv.vitam.common.client.AbstractMockClient;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.processing.common.exception.ProcessNotFoundException;
 import fr.gouv.vitam.processing.common.exception.ProcessingBadRequestException;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.exception.ProcessingUnauthorizeException;
@@ -63,6 +64,16 @@ public class ProcessingManagementClientMock extends AbstractMockClient implement
         return new ItemStatus("FakeId", "FakeMessage", StatusCode.OK, status, SingletonUtils.singletonMap(), null);
     }
 
+    @Override
+    public String executeVitamProcessAsync(String container, String workflow) {
+        return "FakeId";
+    }
+
+    @Override
+    public ItemStatus getOperationProcessStatus(String processId) throws ProcessNotFoundException {
+        return new ItemStatus(processId).increment(StatusCode.OK);
+    }
+
     @Override
     public void registerWorker(String familyId, String workerId, WorkerBean workerDescription)
         throws ProcessingBadRequestException, WorkerAlreadyExistsException {
@@ -40,6 +40,7 @@ import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.processing.common.ProcessingEntry;
+import fr.gouv.vitam.processing.common.exception.ProcessNotFoundException;
 import fr.gouv.vitam.processing.common.exception.ProcessingBadRequestException;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.exception.ProcessingInternalServerException;
@@ -104,6 +105,59 @@ class ProcessingManagementClientRest extends DefaultClient implements Processing
         }
     }
 
+    @Override
+    public String executeVitamProcessAsync(String container, String workflow)
+        throws ProcessingInternalServerException {
+        ParametersChecker.checkParameter("container is a mandatory parameter", container);
+        ParametersChecker.checkParameter("workflow is a mandatory parameter", workflow);
+        Response response = null;
+        try {
+            response =
+                performRequest(HttpMethod.POST, "/operations/async", null,
+                    JsonHandler.toJsonNode(new ProcessingEntry(container, workflow)), MediaType.APPLICATION_JSON_TYPE,
+                    MediaType.APPLICATION_JSON_TYPE);
+            if (response.getStatus() == Status.PRECONDITION_FAILED.getStatusCode()) {
+                throw new IllegalArgumentException(ILLEGAL_ARGUMENT);
+            } else if (response.getStatus() != Status.ACCEPTED.getStatusCode()) {
+                throw new ProcessingInternalServerException(INTERNAL_SERVER_ERROR2);
+            }
+            return response.readEntity(ItemStatus.class).getItemId();
+        } catch (final VitamClientInternalException e) {
+            LOGGER.error(PROCESSING_INTERNAL_SERVER_ERROR, e);
+            throw new ProcessingInternalServerException(INTERNAL_SERVER_ERROR2, e);
+        } catch (final InvalidParseOperationException e) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT, e);
+        } finally {
+            consumeAnyEntityAndClose(response);
+        }
+    }
+
+    @Override
+    public ItemStatus getOperationProcessStatus(String processId)
+        throws ProcessNotFoundException, ProcessingInternalServerException {
+        ParametersChecker.checkParameter("processId is a mandatory parameter", processId);
+        Response response = null;
+        try {
+            response = performRequest(HttpMethod.GET, "/operations/" + processId, null,
+                MediaType.APPLICATION_JSON_TYPE);
+            if (response.getStatus() == Status.NOT_FOUND.getStatusCode()) {
+                throw new ProcessNotFoundException("Process Not Found");
+            } else if (response.getStatus() != Status.OK.getStatusCode() &&
+                response.getStatus() != Status.ACCEPTED.getStatusCode()) {
+                throw new ProcessingInternalServerException(INTERNAL_SERVER_ERROR2);
+            }
+            return response.readEntity(ItemStatus.class);
+        } catch (final javax.ws.rs.ProcessingException e) {
+            LOGGER.error(e);
+            throw new ProcessingInternalServerException(INTERNAL_SERVER_ERROR2, e);
+        } catch (final VitamClientInternalException e) {
+            LOGGER.error(PROCESSING_INTERNAL_SERVER_ERROR, e);
+            throw new ProcessingInternalServerException(INTERNAL_SERVER_ERROR2, e);
+        } finally {
+            consumeAnyEntityAndClose(response);
+        }
+    }
+
     @Override
     public void registerWorker(String familyId, String workerId, WorkerBean workerDescription)
         throws ProcessingBadRequestException, WorkerAlreadyExistsException {
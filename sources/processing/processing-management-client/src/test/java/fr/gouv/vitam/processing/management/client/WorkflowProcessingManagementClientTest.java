@@ -34,8 +34,10 @@ import static org.mockito.Mockito.when;
 import java.util.function.Supplier;
 
 import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -46,10 +48,12 @@ import org.junit.Test;
 
 import fr.gouv.vitam.common.exception.VitamApplicationServerException;
 import fr.gouv.vitam.common.model.ItemStatus;
+import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.common.server.application.AbstractVitamApplication;
 import fr.gouv.vitam.common.server.application.configuration.DefaultVitamApplicationConfiguration;
 import fr.gouv.vitam.common.server.application.junit.VitamJerseyTest;
 import fr.gouv.vitam.processing.common.ProcessingEntry;
+import fr.gouv.vitam.processing.common.exception.ProcessNotFoundException;
 import fr.gouv.vitam.processing.common.exception.ProcessingInternalServerException;
 import fr.gouv.vitam.processing.common.exception.ProcessingUnauthorizeException;
 import fr.gouv.vitam.processing.common.exception.WorkflowNotFoundException;
@@ -117,6 +121,21 @@ public class WorkflowProcessingManagementClientTest extends VitamJerseyTest {
         public Response executeVitamProcess(ProcessingEntry workflow) {
             return expectedResponse.get();
         }
+
+        @Path("operations/async")
+        @POST
+        @Consumes(MediaType.APPLICATION_JSON)
+        @Produces(MediaType.APPLICATION_JSON)
+        public Response executeVitamProcessAsync(ProcessingEntry workflow) {
+            return expectedResponse.get();
+        }
+
+        @Path("operations/{id}")
+        @GET
+        @Produces(MediaType.APPLICATION_JSON)
+        public Response getVitamProcessStatus(@PathParam("id") String processId) {
+            return expectedResponse.get();
+        }
     }
 
     @Test(expected = WorkflowNotFoundException.class)
@@ -160,4 +179,30 @@ public class WorkflowProcessingManagementClientTest extends VitamJerseyTest {
         assertNotNull(ret);
         assertEquals(desired.getGlobalStatus(), ret.getGlobalStatus());
     }
+
+    @Test
+    public void givenAsyncProcessWhenSubmitThenReturnProcessIdAndStatus() throws Exception {
+        when(mock.get()).thenReturn(
+            Response.status(Status.ACCEPTED).entity(new ItemStatus("processId").increment(StatusCode.STARTED)).build());
+        assertEquals("processId", client.executeVitamProcessAsync(CONTAINER, WORKFLOWID));
+        when(mock.get()).thenReturn(
+            Response.status(Status.ACCEPTED).entity(new ItemStatus("processId").increment(StatusCode.STARTED)).build());
+        assertEquals(StatusCode.STARTED, client.getOperationProcessStatus("processId").getGlobalStatus());
+
+        when(mock.get()).thenReturn(
+            Response.status(Status.OK).entity(new ItemStatus("processId").increment(StatusCode.OK)).build());
+        assertEquals(StatusCode.OK, client.getOperationProcessStatus("processId").getGlobalStatus());
+    }
+
+    @Test(expected = ProcessNotFoundException.class)
+    public void givenUnknownProcessWhenGetStatusThenReturnNotFound() throws Exception {
+        when(mock.get()).thenReturn(Response.status(Status.NOT_FOUND).build());
+        client.getOperationProcessStatus("processId");
+    }
+
+    @Test(expected = ProcessingInternalServerException.class)
+    public void givenTooManyProcessesWhenSubmitAsyncThenReturnServiceUnavailable() throws Exception {
+        when(mock.get()).thenReturn(Response.status(Status.SERVICE_UNAVAILABLE).build());
+        client.executeVitamProcessAsync(CONTAINER, WORKFLOWID);
+    }
 }
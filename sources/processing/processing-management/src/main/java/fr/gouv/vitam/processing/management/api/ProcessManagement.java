@@ -27,8 +27,12 @@
 package fr.gouv.vitam.processing.management.api;
 
 
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.VitamAutoCloseable;
+import fr.gouv.vitam.processing.common.exception.ProcessNotFoundException;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.exception.WorkflowNotFoundException;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
@@ -52,4 +56,37 @@ public interface ProcessManagement extends VitamAutoCloseable {
      *
      */
     ItemStatus submitWorkflow(WorkerParameters workParams, String workflowId) throws ProcessingException;
+
+    /**
+     * Submit a Vitam process by workflow id, to be executed asynchronously
+     *
+     * @param workParams null not allowed; if its process id is set, the unfinished process with this id is resumed
+     * @param workflowId null not allowed
+     * @return the id of the process, to be used to get its status
+     * @throws IllegalArgumentException thrown in case parameters workParams or workflowId are null
+     * @throws RejectedExecutionException thrown if too many workflows are already running or waiting
+     */
+    String submitWorkflowAsync(WorkerParameters workParams, String workflowId);
+
+    /**
+     * Get the status of a process submitted through {@link #submitWorkflowAsync(WorkerParameters, String)}.<br>
+     * <br>
+     * While the process is running, the global status is STARTED and the data hold the progress of each step. Once
+     * the process is finished, its final status is returned, as many times as asked until the process is purged
+     * after the retention delay.
+     *
+     * @param processId null not allowed
+     * @return the status of the process
+     * @throws ProcessNotFoundException thrown if the process is unknown or already purged
+     * @throws ProcessingException thrown in case of a technical exception
+     */
+    ItemStatus getWorkflowStatus(String processId) throws ProcessingException;
+
+    /**
+     * Submit again asynchronously all the processes left unfinished, typically by a restart of the server
+     *
+     * @return the ids of the resumed processes
+     * @throws ProcessingException thrown if the states of the processes cannot be read
+     */
+    List<String> resumeWorkflows() throws ProcessingException;
 }
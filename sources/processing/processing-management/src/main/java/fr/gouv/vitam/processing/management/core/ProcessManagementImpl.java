@@ -26,16 +26,35 @@
  *******************************************************************************/
 package fr.gouv.vitam.processing.management.core;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
 import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.ItemStatus;
+import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
 import fr.gouv.vitam.processing.common.config.ServerConfiguration;
+import fr.gouv.vitam.processing.common.exception.ProcessNotFoundException;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.exception.WorkflowNotFoundException;
+import fr.gouv.vitam.processing.common.model.ProcessStep;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
+import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
 import fr.gouv.vitam.processing.engine.api.ProcessEngine;
 import fr.gouv.vitam.processing.engine.core.ProcessEngineImplFactory;
+import fr.gouv.vitam.processing.engine.core.monitoring.ProcessMonitoringImpl;
+import fr.gouv.vitam.processing.engine.core.monitoring.ProcessState;
 import fr.gouv.vitam.processing.management.api.ProcessManagement;
 import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
 
@@ -44,6 +63,18 @@ import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
  */
 public class ProcessManagementImpl implements ProcessManagement {
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ProcessManagementImpl.class);
+    private static final String PROCESS_DOES_NOT_EXIST = "Process does not exist";
+
+    /**
+     * Ids of the processes submitted asynchronously and not finished yet: their final status is then kept by the
+     * process monitoring until the retention delay is over
+     */
+    private static final Set<String> ASYNC_WORKFLOWS = ConcurrentHashMap.newKeySet();
+    /**
+     * Bounded executor shared by all asynchronous workflows, created from the first configuration used
+     */
+    private static VitamThreadPoolExecutor workflowExecutor;
+
     private final ProcessEngine processEngine;
     private ServerConfiguration serverConfig;
 
@@ -108,6 +139,118 @@ public class ProcessManagementImpl implements ProcessManagement {
         return response;
     }
 
+    @Override
+    public String submitWorkflowAsync(WorkerParameters workParams, String workflowId) {
+        ParametersChecker.checkParameter("WorkParams is a mandatory parameter", workParams);
+        ParametersChecker.checkParameter("workflowId is a mandatory parameter", workflowId);
+        workParams.setUrlMetadata(serverConfig.getUrlMetadata());
+        workParams.setUrlWorkspace(serverConfig.getUrlWorkspace());
+        WorkspaceClientFactory.changeMode(serverConfig.getUrlWorkspace());
+        // a given process id is the one of an unfinished process to be resumed
+        final String processId =
+            workParams.getProcessId() != null ? workParams.getProcessId() : GUIDFactory.newGUID().getId();
+        workParams.setProcessId(processId);
+        if (!ASYNC_WORKFLOWS.add(processId)) {
+            throw new IllegalArgumentException("Process already running: " + processId);
+        }
+        try {
+            getWorkflowExecutor(serverConfig).execute(() -> runWorkflow(workParams, workflowId));
+        } catch (final RejectedExecutionException e) {
+            ASYNC_WORKFLOWS.remove(processId);
+            throw e;
+        }
+        LOGGER.debug("Workflow submitted: " + processId);
+        return processId;
+    }
+
+    @Override
+    public List<String> resumeWorkflows() throws ProcessingException {
+        final List<String> processIds = new ArrayList<>();
+        for (final ProcessState state : ProcessMonitoringImpl.getInstance().getUnfinishedProcesses()) {
+            if (ASYNC_WORKFLOWS.contains(state.getProcessId())) {
+                continue;
+            }
+            final WorkerParameters workParams = WorkerParametersFactory.newWorkerParameters()
+                .setContainerName(state.getContainerName()).setProcessId(state.getProcessId());
+            try {
+                processIds.add(submitWorkflowAsync(workParams, state.getWorkflowId()));
+                LOGGER.info("Workflow resumed: " + state.getProcessId());
+            } catch (final RejectedExecutionException e) {
+                LOGGER.error("Workflow cannot be resumed: " + state.getProcessId(), e);
+            }
+        }
+        return processIds;
+    }
+
+    /**
+     * Execute a workflow submitted asynchronously, and keep its final status
+     */
+    private void runWorkflow(WorkerParameters workParams, String workflowId) {
+        final String processId = workParams.getProcessId();
+        ItemStatus result;
+        try {
+            result = processEngine.startWorkflow(workParams, workflowId);
+        } catch (final Exception e) {
+            LOGGER.error("Workflow failed: " + processId, e);
+            result = new ItemStatus(processId).setMessage(e.getMessage()).increment(StatusCode.FATAL);
+        }
+        try {
+            ProcessMonitoringImpl.getInstance().setWorkflowResult(processId, result);
+        } catch (final ProcessingException e) {
+            LOGGER.error("Final status of the workflow cannot be kept: " + processId, e);
+        } finally {
+            ASYNC_WORKFLOWS.remove(processId);
+        }
+    }
+
+    @Override
+    public ItemStatus getWorkflowStatus(String processId) throws ProcessingException {
+        ParametersChecker.checkParameter("processId is a mandatory parameter", processId);
+        if (ASYNC_WORKFLOWS.contains(processId)) {
+            return getRunningStatus(processId);
+        }
+        // the final status is kept before the process is removed from the running ones
+        final ItemStatus result = ProcessMonitoringImpl.getInstance().getWorkflowResult(processId);
+        if (result == null) {
+            throw new ProcessNotFoundException(PROCESS_DOES_NOT_EXIST);
+        }
+        return result;
+    }
+
+    /**
+     * @return a STARTED status holding the progress of each step, by step id
+     */
+    private ItemStatus getRunningStatus(String processId) {
+        final ItemStatus status = new ItemStatus(processId).increment(StatusCode.STARTED);
+        final Map<String, ProcessStep> steps;
+        try {
+            steps = ProcessMonitoringImpl.getInstance().getWorkflowStatus(processId);
+        } catch (final ProcessingException e) {
+            // Workflow still waiting for an execution slot
+            LOGGER.debug(e);
+            return status;
+        }
+        for (final Entry<String, ProcessStep> entry : steps.entrySet()) {
+            final Map<String, Object> progress = new HashMap<>();
+            progress.put("stepName", entry.getValue().getStepName());
+            progress.put("stepStatus", entry.getValue().getStepStatusCode());
+            progress.put("elementToProcess", entry.getValue().getElementToProcess());
+            progress.put("elementProcessed", entry.getValue().getElementProcessed());
+            status.setData(entry.getKey(), progress);
+        }
+        return status;
+    }
+
+    private static synchronized VitamThreadPoolExecutor getWorkflowExecutor(ServerConfiguration serverConfig) {
+        if (workflowExecutor == null) {
+            workflowExecutor = new VitamThreadPoolExecutor(serverConfig.getMaxRunningWorkflows(),
+                serverConfig.getMaxRunningWorkflows(), 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(serverConfig.getMaxWaitingWorkflows()));
+            workflowExecutor.allowCoreThreadTimeOut(true);
+        }
+        return workflowExecutor;
+    }
+
     @Override
     public void close() {
         // Nothing to do
@@ -26,6 +26,11 @@
  *******************************************************************************/
 package fr.gouv.vitam.processing.management.rest;
 
+import java.io.File;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 import org.glassfish.jersey.server.ResourceConfig;
 
 import fr.gouv.vitam.common.ServerIdentity;
@@ -36,10 +41,15 @@ import fr.gouv.vitam.common.server.VitamServer;
 import fr.gouv.vitam.common.server.application.AbstractVitamApplication;
 import fr.gouv.vitam.common.server.application.resources.AdminStatusResource;
 import fr.gouv.vitam.common.server.application.resources.VitamServiceRegistry;
+import fr.gouv.vitam.common.thread.VitamThreadFactory;
 import fr.gouv.vitam.logbook.operations.client.LogbookOperationsClientFactory;
 import fr.gouv.vitam.metadata.client.MetaDataClientFactory;
 import fr.gouv.vitam.processing.common.config.ServerConfiguration;
+import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.distributor.rest.ProcessDistributorResource;
+import fr.gouv.vitam.processing.engine.core.monitoring.FileProcessStateStore;
+import fr.gouv.vitam.processing.engine.core.monitoring.ProcessMonitoringImpl;
+import fr.gouv.vitam.processing.management.core.ProcessManagementImpl;
 import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
 
 
@@ -53,6 +63,8 @@ public class ProcessManagementApplication
     private static final String CONF_FILE_NAME = "processing.conf";
     private static final String MODULE_NAME = ServerIdentity.getInstance().getRole();
     public static final String PARAMETER_JETTY_SERVER_PORT = "jetty.processing.port";
+    private static final long RESUME_DELAY_SECONDS = 30;
+    private static final long PURGE_PERIOD_SECONDS = 60;
 
     static VitamServiceRegistry serviceRegistry = null;
 
@@ -115,10 +127,37 @@ public class ProcessManagementApplication
             .register(WorkspaceClientFactory.getInstance())
             // Metadata dependency: optional ???
             .registerOptional(MetaDataClientFactory.getInstance());
+        configureProcessStates(getConfiguration());
         // FIXME P1 worker optional register: How to do it ?
         resourceConfig
             .register(new ProcessManagementResource(getConfiguration()))
             .register(new ProcessDistributorResource(getConfiguration()))
             .register(new AdminStatusResource(serviceRegistry));
     }
+
+    /**
+     * Set the retention and the durable store of the process states, purge periodically the finished processes, then
+     * resume the unfinished processes once the workers had time to register again
+     *
+     * @param configuration the server configuration
+     */
+    private static void configureProcessStates(ServerConfiguration configuration) {
+        ProcessMonitoringImpl.getInstance().setRetention(configuration.getProcessRetentionSeconds());
+        final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(VitamThreadFactory.getInstance());
+        scheduler.scheduleWithFixedDelay(() -> ProcessMonitoringImpl.getInstance().purgeFinishedWorkflows(),
+            PURGE_PERIOD_SECONDS, PURGE_PERIOD_SECONDS, TimeUnit.SECONDS);
+        if (configuration.getProcessStateFolder().isEmpty()) {
+            return;
+        }
+        ProcessMonitoringImpl.getInstance()
+            .setStateStore(new FileProcessStateStore(new File(configuration.getProcessStateFolder())));
+        scheduler.schedule(() -> {
+            try (ProcessManagementImpl processManagement = new ProcessManagementImpl(configuration)) {
+                processManagement.resumeWorkflows();
+            } catch (final ProcessingException e) {
+                LOGGER.error("Unfinished workflows cannot be resumed", e);
+            }
+        }, RESUME_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
 }
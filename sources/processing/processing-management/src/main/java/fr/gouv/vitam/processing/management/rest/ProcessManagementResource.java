@@ -26,11 +26,14 @@
  *******************************************************************************/
 package fr.gouv.vitam.processing.management.rest;
 
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 
 import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -42,11 +45,13 @@ import fr.gouv.vitam.common.error.VitamError;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.ItemStatus;
+import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.common.server.application.AbstractVitamApplication;
 import fr.gouv.vitam.common.server.application.resources.ApplicationStatusResource;
 import fr.gouv.vitam.processing.common.ProcessingEntry;
 import fr.gouv.vitam.processing.common.config.ServerConfiguration;
 import fr.gouv.vitam.processing.common.exception.HandlerNotFoundException;
+import fr.gouv.vitam.processing.common.exception.ProcessNotFoundException;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.exception.WorkflowNotFoundException;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
@@ -149,6 +154,90 @@ public class ProcessManagementResource extends ApplicationStatusResource {
         return Response.status(status).entity(resp).build();
     }
 
+    /**
+     * Submit the process as a set of operations, executed asynchronously.
+     *
+     * @param process as Json of type ProcessingEntry, indicate the container and workflowId
+     * @return http response ACCEPTED with the id of the process as item id
+     */
+    @Path("operations/async")
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response executeVitamProcessAsync(ProcessingEntry process) {
+        Status status;
+        final WorkerParameters workParam = WorkerParametersFactory.newWorkerParameters().setContainerName(process
+            .getContainer()).setUrlMetadata(config.getUrlMetadata()).setUrlWorkspace(config.getUrlWorkspace());
+        ProcessManagement processManagement = processManagementMock;
+        try {
+            if (processManagement == null) {
+                processManagement = new ProcessManagementImpl(config); // NOSONAR mock management
+            }
+            final String processId = processManagement.submitWorkflowAsync(workParam, process.getWorkflow());
+            return Response.status(Status.ACCEPTED).entity(new ItemStatus(processId).increment(StatusCode.STARTED))
+                .build();
+        } catch (final IllegalArgumentException e) {
+            // if the entry argument if illegal
+            LOGGER.error(e);
+            status = Status.PRECONDITION_FAILED;
+            return Response.status(status)
+                .entity(getErrorEntity(status))
+                .build();
+        } catch (final RejectedExecutionException e) {
+            // if too many workflows are already submitted
+            LOGGER.error(e);
+            status = Status.SERVICE_UNAVAILABLE;
+            return Response.status(status)
+                .entity(getErrorEntity(status))
+                .build();
+        } finally {
+            if (processManagementMock == null && processManagement != null) {
+                processManagement.close();
+            }
+        }
+    }
+
+    /**
+     * Get the status of a process submitted asynchronously.
+     *
+     * @param processId the id of the process
+     * @return http response ACCEPTED with the progress while running, else OK with the final status of the process
+     */
+    @Path("operations/{id}")
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getVitamProcessStatus(@PathParam("id") String processId) {
+        Status status;
+        ItemStatus resp;
+        ProcessManagement processManagement = processManagementMock;
+        try {
+            if (processManagement == null) {
+                processManagement = new ProcessManagementImpl(config); // NOSONAR mock management
+            }
+            resp = processManagement.getWorkflowStatus(processId);
+        } catch (final ProcessNotFoundException e) {
+            LOGGER.error(e);
+            status = Status.NOT_FOUND;
+            return Response.status(status)
+                .entity(getErrorEntity(status))
+                .build();
+        } catch (final ProcessingException e) {
+            LOGGER.error(e);
+            status = Status.INTERNAL_SERVER_ERROR;
+            return Response.status(status)
+                .entity(getErrorEntity(status))
+                .build();
+        } finally {
+            if (processManagementMock == null && processManagement != null) {
+                processManagement.close();
+            }
+        }
+        if (StatusCode.STARTED.equals(resp.getGlobalStatus())) {
+            return Response.status(Status.ACCEPTED).entity(resp).build();
+        }
+        return Response.status(Status.OK).entity(resp).build();
+    }
+
     private Status getStatusFrom(ItemStatus response) {
         switch (response.getGlobalStatus()) {
             case KO:
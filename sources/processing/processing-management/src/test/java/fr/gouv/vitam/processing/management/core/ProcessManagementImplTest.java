@@ -26,16 +26,35 @@
  *******************************************************************************/
 package fr.gouv.vitam.processing.management.core;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fr.gouv.vitam.common.model.ItemStatus;
+import fr.gouv.vitam.common.model.StatusCode;
 
 import fr.gouv.vitam.processing.common.config.ServerConfiguration;
+import fr.gouv.vitam.processing.common.exception.ProcessNotFoundException;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.exception.WorkflowNotFoundException;
+import fr.gouv.vitam.processing.common.model.WorkFlow;
 import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
+import fr.gouv.vitam.processing.engine.core.monitoring.FileProcessStateStore;
+import fr.gouv.vitam.processing.engine.core.monitoring.ProcessMonitoringImpl;
 
 public class ProcessManagementImplTest {
     private ProcessManagementImpl processManagementImpl;
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Test(expected = IllegalArgumentException.class)
     public void givenProcessingManagementWhenWorkflowIsNullThenThrowIllegalArgumentException()
         throws ProcessingException {
@@ -58,4 +77,65 @@ public class ProcessManagementImplTest {
                 .setUrlWorkspace("http://localhost:8083"));
         processManagementImpl.submitWorkflow(WorkerParametersFactory.newWorkerParameters(), "DefaultIngestWorkflow");
     }
+
+    @Test
+    public void givenProcessingManagementWhenSubmitAsyncThenPollUntilFinished() throws Exception {
+        processManagementImpl =
+            new ProcessManagementImpl(new ServerConfiguration().setUrlMetadata("http://localhost:8083")
+                .setUrlWorkspace("http://localhost:8083"));
+        final String processId =
+            processManagementImpl.submitWorkflowAsync(WorkerParametersFactory.newWorkerParameters(), "XXX");
+        assertNotNull(processId);
+        ItemStatus status = processManagementImpl.getWorkflowStatus(processId);
+        for (int i = 0; i < 100 && StatusCode.STARTED.equals(status.getGlobalStatus()); i++) {
+            Thread.sleep(50);
+            status = processManagementImpl.getWorkflowStatus(processId);
+        }
+        // unknown workflow
+        assertEquals(StatusCode.FATAL, status.getGlobalStatus());
+        // the final status can be read again
+        assertEquals(StatusCode.FATAL, processManagementImpl.getWorkflowStatus(processId).getGlobalStatus());
+        final ProcessMonitoringImpl processMonitoring = ProcessMonitoringImpl.getInstance();
+        processMonitoring.setRetention(0);
+        try {
+            processMonitoring.purgeFinishedWorkflows();
+            processManagementImpl.getWorkflowStatus(processId);
+            fail("Should raise an exception");
+        } catch (final ProcessNotFoundException e) {
+            // purged
+        } finally {
+            processMonitoring.setRetention(3600);
+        }
+    }
+
+    @Test(expected = ProcessNotFoundException.class)
+    public void givenUnknownProcessWhenGetStatusThenThrowProcessNotFoundException() throws Exception {
+        processManagementImpl = new ProcessManagementImpl(new ServerConfiguration());
+        processManagementImpl.getWorkflowStatus("unknown");
+    }
+
+    @Test
+    public void givenUnfinishedProcessWhenResumeThenWorkflowSubmittedAgain() throws Exception {
+        processManagementImpl =
+            new ProcessManagementImpl(new ServerConfiguration().setUrlMetadata("http://localhost:8083")
+                .setUrlWorkspace("http://localhost:8083"));
+        assertTrue(processManagementImpl.resumeWorkflows().isEmpty());
+        final ProcessMonitoringImpl processMonitoring = ProcessMonitoringImpl.getInstance();
+        processMonitoring.setStateStore(new FileProcessStateStore(tempFolder.newFolder()));
+        try {
+            processMonitoring.initOrderedWorkflow("unfinishedProcessId", new WorkFlow().setId("XXX"),
+                "containerName");
+            assertEquals(Collections.singletonList("unfinishedProcessId"), processManagementImpl.resumeWorkflows());
+            ItemStatus status = processManagementImpl.getWorkflowStatus("unfinishedProcessId");
+            for (int i = 0; i < 100 && StatusCode.STARTED.equals(status.getGlobalStatus()); i++) {
+                Thread.sleep(50);
+                status = processManagementImpl.getWorkflowStatus("unfinishedProcessId");
+            }
+            // unknown workflow: the process is finished anyway
+            assertEquals(StatusCode.FATAL, status.getGlobalStatus());
+            assertTrue(processManagementImpl.resumeWorkflows().isEmpty());
+        } finally {
+            processMonitoring.setStateStore(null);
+        }
+    }
 }
@@ -33,6 +33,8 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.when;
 
+import java.util.concurrent.RejectedExecutionException;
+
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -62,6 +64,7 @@ import fr.gouv.vitam.common.server.VitamServerFactory;
 import fr.gouv.vitam.processing.common.ProcessingEntry;
 import fr.gouv.vitam.processing.common.config.ServerConfiguration;
 import fr.gouv.vitam.processing.common.exception.HandlerNotFoundException;
+import fr.gouv.vitam.processing.common.exception.ProcessNotFoundException;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.exception.WorkflowNotFoundException;
 import fr.gouv.vitam.processing.management.api.ProcessManagement;
@@ -225,4 +228,33 @@ public class ProcessManagementResourceMockedTest {
                 .getStatusCode());
     }
 
+    @Test
+    public void executeVitamProcessAsyncThenGetStatus() throws Exception {
+        reset(mock);
+        when(mock.submitWorkflowAsync(anyObject(), anyString())).thenReturn("processId");
+        given().contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+            .body(new ProcessingEntry("fake", "fake")).when().post("operations/async").then()
+            .statusCode(Response.Status.ACCEPTED.getStatusCode());
+
+        when(mock.getWorkflowStatus("processId")).thenReturn(new ItemStatus("processId").increment(StatusCode.STARTED));
+        given().accept(MediaType.APPLICATION_JSON).when().get("operations/processId").then()
+            .statusCode(Response.Status.ACCEPTED.getStatusCode());
+
+        when(mock.getWorkflowStatus("processId")).thenReturn(new ItemStatus("processId").increment(StatusCode.KO));
+        given().accept(MediaType.APPLICATION_JSON).when().get("operations/processId").then()
+            .statusCode(Response.Status.OK.getStatusCode());
+
+        when(mock.getWorkflowStatus("processId")).thenThrow(new ProcessNotFoundException(""));
+        given().accept(MediaType.APPLICATION_JSON).when().get("operations/processId").then()
+            .statusCode(Response.Status.NOT_FOUND.getStatusCode());
+    }
+
+    @Test
+    public void executeVitamProcessAsyncWhenTooManyWorkflowsThenServiceUnavailable() throws Exception {
+        reset(mock);
+        when(mock.submitWorkflowAsync(anyObject(), anyString())).thenThrow(new RejectedExecutionException());
+        given().contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+            .body(new ProcessingEntry("fake", "fake")).when().post("operations/async").then()
+            .statusCode(Response.Status.SERVICE_UNAVAILABLE.getStatusCode());
+    }
 }
@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.processing.engine.core.monitoring;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.json.JsonHandler;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.processing.common.exception.ProcessingException;
+import fr.gouv.vitam.processing.common.model.ProcessStep;
+
+/**
+ * Process state store using one local folder.<br>
+ * <br>
+ * Each process has a Json checkpoint file, replaced atomically, and a journal of its processed objects, one line per
+ * object, only appended between two checkpoints. The journal of a running process is kept opened until the process
+ * is closed or deleted.
+ */
+public class FileProcessStateStore implements ProcessStateStore {
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(FileProcessStateStore.class);
+
+    private static final String STATE_EXTENSION = ".json";
+    private static final String TMP_EXTENSION = ".tmp";
+    private static final String OBJECTS_EXTENSION = ".objects";
+    private static final String SEPARATOR = "\t";
+
+    private final File folder;
+    private final Map<String, BufferedWriter> journals = new ConcurrentHashMap<>();
+
+    /**
+     * @param folder the folder of the store, created if needed
+     * @throws IllegalArgumentException if the folder cannot be used
+     */
+    public FileProcessStateStore(File folder) {
+        ParametersChecker.checkParameter("folder is a mandatory parameter", folder);
+        if (!folder.isDirectory() && !folder.mkdirs()) {
+            throw new IllegalArgumentException("Cannot create the process state folder " + folder);
+        }
+        this.folder = folder;
+    }
+
+    @Override
+    public void save(ProcessState state) throws ProcessingException {
+        ParametersChecker.checkParameter("state is a mandatory parameter", state);
+        final File stateFile = getFile(state.getProcessId(), STATE_EXTENSION);
+        final File tmpFile = getFile(state.getProcessId(), STATE_EXTENSION + TMP_EXTENSION);
+        try {
+            JsonHandler.writeAsFile(state, tmpFile);
+            Files.move(tmpFile.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (InvalidParseOperationException | IOException e) {
+            throw new ProcessingException("Cannot save the state of the process " + state.getProcessId(), e);
+        }
+    }
+
+    @Override
+    public void appendProcessedObjects(String processId, String uniqueId, Map<String, StatusCode> objectStatuses)
+        throws ProcessingException {
+        ParametersChecker.checkParameter("objectStatuses is a mandatory parameter", objectStatuses);
+        try {
+            final BufferedWriter journal = getJournal(processId);
+            synchronized (journal) {
+                for (final Map.Entry<String, StatusCode> entry : objectStatuses.entrySet()) {
+                    journal.write(uniqueId + SEPARATOR + entry.getValue().name() + SEPARATOR + entry.getKey());
+                    journal.write('\n');
+                }
+                journal.flush();
+            }
+        } catch (final IOException | UncheckedIOException e) {
+            throw new ProcessingException("Cannot journal the objects of the process " + processId, e);
+        }
+    }
+
+    @Override
+    public ProcessState load(String processId) throws ProcessingException {
+        final File stateFile = getFile(processId, STATE_EXTENSION);
+        if (!stateFile.isFile()) {
+            return null;
+        }
+        try {
+            final ProcessState state = JsonHandler.getFromFile(stateFile, ProcessState.class);
+            // the number of processed elements is not checkpointed at each object
+            final Map<String, Long> counts = new HashMap<>();
+            readJournal(processId, fields -> counts.merge(fields[0], 1L, Long::sum));
+            for (final Map.Entry<String, Long> count : counts.entrySet()) {
+                final ProcessStep step = state.getSteps().get(count.getKey());
+                if (step != null && step.getElementProcessed() < count.getValue()) {
+                    step.setElementProcessed(count.getValue());
+                }
+            }
+            return state.setRestored(true);
+        } catch (InvalidParseOperationException | IOException | IllegalArgumentException e) {
+            throw new ProcessingException("Cannot load the state of the process " + processId, e);
+        }
+    }
+
+    @Override
+    public Map<String, StatusCode> loadProcessedObjects(String processId, String uniqueId)
+        throws ProcessingException {
+        final Map<String, StatusCode> processedObjects = new HashMap<>();
+        try {
+            readJournal(processId, fields -> {
+                if (fields[0].equals(uniqueId)) {
+                    processedObjects.put(fields[2], StatusCode.valueOf(fields[1]));
+                }
+            });
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ProcessingException("Cannot read the objects of the process " + processId, e);
+        }
+        return processedObjects;
+    }
+
+    @Override
+    public void close(String processId) {
+        final BufferedWriter journal = journals.remove(processId);
+        if (journal != null) {
+            synchronized (journal) {
+                try {
+                    journal.close();
+                } catch (final IOException e) {
+                    LOGGER.warn("Cannot close the journal of the process " + processId, e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<String> listProcessIds() throws ProcessingException {
+        final File[] files = folder.listFiles((dir, name) -> name.endsWith(STATE_EXTENSION));
+        if (files == null) {
+            throw new ProcessingException("Cannot list the process state folder " + folder);
+        }
+        final List<String> processIds = new ArrayList<>(files.length);
+        for (final File file : files) {
+            final String name = file.getName();
+            processIds.add(name.substring(0, name.length() - STATE_EXTENSION.length()));
+        }
+        return processIds;
+    }
+
+    @Override
+    public void delete(String processId) throws ProcessingException {
+        close(processId);
+        try {
+            Files.deleteIfExists(getFile(processId, OBJECTS_EXTENSION).toPath());
+            Files.deleteIfExists(getFile(processId, STATE_EXTENSION).toPath());
+        } catch (final IOException e) {
+            throw new ProcessingException("Cannot delete the state of the process " + processId, e);
+        }
+        LOGGER.debug("Process state deleted: " + processId);
+    }
+
+    private BufferedWriter getJournal(String processId) {
+        final File objectsFile = getFile(processId, OBJECTS_EXTENSION);
+        return journals.computeIfAbsent(processId, key -> {
+            try {
+                final boolean partialLine = endsWithPartialLine(objectsFile);
+                final BufferedWriter journal = Files.newBufferedWriter(objectsFile.toPath(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                if (partialLine) {
+                    // terminate the line partially written before a crash, so that it stays ignored
+                    journal.write('\n');
+                }
+                return journal;
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static boolean endsWithPartialLine(File file) throws IOException {
+        if (!file.isFile() || file.length() == 0) {
+            return false;
+        }
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            randomAccessFile.seek(file.length() - 1);
+            return randomAccessFile.read() != '\n';
+        }
+    }
+
+    /**
+     * Stream the complete lines of the journal of a process, a partially written last line being ignored: its
+     * objects will be processed again
+     */
+    private void readJournal(String processId, Consumer<String[]> consumer) throws IOException {
+        final File objectsFile = getFile(processId, OBJECTS_EXTENSION);
+        if (!objectsFile.isFile()) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(objectsFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] fields = line.split(SEPARATOR, 3);
+                if (fields.length == 3) {
+                    consumer.accept(fields);
+                }
+            }
+        }
+    }
+
+    private File getFile(String processId, String extension) {
+        ParametersChecker.checkParameter("processId is a mandatory parameter", processId);
+        final File file = new File(folder, processId + extension);
+        if (!folder.equals(file.getParentFile())) {
+            throw new IllegalArgumentException("Invalid process id " + processId);
+        }
+        return file;
+    }
+}
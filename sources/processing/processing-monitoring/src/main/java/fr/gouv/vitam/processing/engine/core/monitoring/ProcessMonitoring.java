@@ -26,8 +26,10 @@
  *******************************************************************************/
 package fr.gouv.vitam.processing.engine.core.monitoring;
 
+import java.util.List;
 import java.util.Map;
 
+import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.model.ProcessStep;
@@ -36,7 +38,6 @@ import fr.gouv.vitam.processing.common.model.WorkFlow;
 /**
  * Process Monitoring Interface offers services in order to monitor workflows
  */
-// FIXME P1 : propose a method that could purge the workflows
 public interface ProcessMonitoring {
 
     /**
@@ -91,4 +92,89 @@ public interface ProcessMonitoring {
      */
     StatusCode getFinalWorkflowStatus(String processId) throws ProcessingException;
 
+    /**
+     * Update a step in a workflow with the objects it has processed, so that they are not processed again if the
+     * process is resumed
+     *
+     * @param processId the id of the process to be updated
+     * @param uniqueId the unique Id of the step
+     * @param objectStatuses the objects processed with their status: FATAL objects are counted but will be processed
+     *        again
+     * @throws ProcessingException if the step does not exist
+     */
+    void updateProcessedObjects(String processId, String uniqueId, Map<String, StatusCode> objectStatuses)
+        throws ProcessingException;
+
+    /**
+     * Get the objects already processed by a step, when the process is resumed: they are read from the durable store
+     * on demand and not kept in memory
+     *
+     * @param processId the id of the process
+     * @param uniqueId the unique Id of the step
+     * @return the objects already processed with their status, empty if none
+     * @throws ProcessingException if the process does not exist
+     */
+    Map<String, StatusCode> getProcessedObjects(String processId, String uniqueId) throws ProcessingException;
+
+    /**
+     * Keep the identifier of the message processed, so that it is still known when the process is resumed
+     *
+     * @param processId the id of the process
+     * @param messageIdentifier the identifier of the message (SIP) processed
+     * @throws ProcessingException if the process does not exist or its state cannot be written
+     */
+    void setMessageIdentifier(String processId, String messageIdentifier) throws ProcessingException;
+
+    /**
+     * Get the identifier of the message processed
+     *
+     * @param processId the id of the process
+     * @return the identifier of the message, or null if it is not known yet
+     * @throws ProcessingException if the process does not exist
+     */
+    String getMessageIdentifier(String processId) throws ProcessingException;
+
+    /**
+     * Mark a process as finished: it will be purged once the retention delay is over
+     *
+     * @param processId the id of the process
+     * @throws ProcessingException if the process does not exist
+     */
+    void finishWorkflow(String processId) throws ProcessingException;
+
+    /**
+     * Keep the final status of a process until it is purged, marking it as finished if needed
+     *
+     * @param processId the id of the process, known or not (as when its workflow does not exist)
+     * @param result the final status of the process
+     * @throws ProcessingException if the state of the process cannot be written
+     */
+    void setWorkflowResult(String processId, ItemStatus result) throws ProcessingException;
+
+    /**
+     * Get the final status of a process, which can be read as many times as needed until the process is purged
+     *
+     * @param processId the id of the process
+     * @return the final status, or null if the process is unknown or has no final status yet
+     * @throws ProcessingException if the state of the process cannot be read
+     */
+    ItemStatus getWorkflowResult(String processId) throws ProcessingException;
+
+    /**
+     * Get the steps of a process which was not finished, in order to resume it
+     *
+     * @param processId the id of the process
+     * @return the ordered steps of the process, or null if the process is unknown or finished
+     * @throws ProcessingException if the state of the process cannot be read
+     */
+    Map<String, ProcessStep> resumeOrderedWorkflow(String processId) throws ProcessingException;
+
+    /**
+     * Get all the processes not finished according to the durable store, typically after a restart
+     *
+     * @return the states of the unfinished processes, empty if none or if there is no durable store
+     * @throws ProcessingException if the store cannot be read
+     */
+    List<ProcessState> getUnfinishedProcesses() throws ProcessingException;
+
 }
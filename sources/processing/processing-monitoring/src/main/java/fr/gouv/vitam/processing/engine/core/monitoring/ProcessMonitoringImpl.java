@@ -26,10 +26,19 @@
  *******************************************************************************/
 package fr.gouv.vitam.processing.engine.core.monitoring;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.model.ProcessStep;
@@ -37,17 +46,28 @@ import fr.gouv.vitam.processing.common.model.Step;
 import fr.gouv.vitam.processing.common.model.WorkFlow;
 
 /**
- * ProcessMonitoringImpl class implementing the ProcessMonitoring and using a concurrent HashMap to persist objects
+ * ProcessMonitoringImpl class implementing the ProcessMonitoring and using a concurrent HashMap to persist objects.<br>
+ * <br>
+ * When a {@link ProcessStateStore} is set, the state of each process is checkpointed at each step change and the
+ * processed objects are journaled, so that an unfinished process can be resumed after a restart. Finished processes
+ * are purged from memory and from the store once the retention delay is over, by {@link #purgeFinishedWorkflows()}
+ * which shall be called periodically.
  */
 public class ProcessMonitoringImpl implements ProcessMonitoring {
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ProcessMonitoringImpl.class);
 
-    private static final Map<String, Map<String, ProcessStep>> WORKFLOWS_LIST = new ConcurrentHashMap<>();
+    private static final long DEFAULT_RETENTION_SECONDS = 3600;
+
+    private static final Map<String, ProcessState> WORKFLOWS_LIST = new ConcurrentHashMap<>();
 
     private static final ProcessMonitoringImpl INSTANCE = new ProcessMonitoringImpl();
 
     private static final String PROCESS_DOES_NOT_EXIST = "Process does not exist";
     private static final String STEP_DOES_NOT_EXIST = "Step does not exist";
 
+    private volatile ProcessStateStore stateStore;
+    private volatile long retentionMillis = TimeUnit.SECONDS.toMillis(DEFAULT_RETENTION_SECONDS);
+
     private ProcessMonitoringImpl() {
         // doNothing
     }
@@ -63,10 +83,34 @@ public class ProcessMonitoringImpl implements ProcessMonitoring {
         return INSTANCE;
     }
 
+    /**
+     * Set the durable store of the process states
+     *
+     * @param stateStore the store, null to keep the states in memory only
+     * @return this
+     */
+    public ProcessMonitoringImpl setStateStore(ProcessStateStore stateStore) {
+        this.stateStore = stateStore;
+        return this;
+    }
+
+    /**
+     * Set the delay during which a finished process is kept
+     *
+     * @param retentionSeconds the retention delay in seconds
+     * @return this
+     */
+    public ProcessMonitoringImpl setRetention(long retentionSeconds) {
+        ParametersChecker.checkValue("retentionSeconds", retentionSeconds, 0);
+        retentionMillis = TimeUnit.SECONDS.toMillis(retentionSeconds);
+        return this;
+    }
+
     @Override
     public Map<String, ProcessStep> initOrderedWorkflow(String processId, WorkFlow workflow, String containerName)
         throws IllegalArgumentException {
-        final Map<String, ProcessStep> orderedWorkflow = new LinkedHashMap<>();
+        purgeFinishedWorkflows();
+        final LinkedHashMap<String, ProcessStep> orderedWorkflow = new LinkedHashMap<>();
         String uniqueId;
         int iterator = 0;
         for (final Step step : workflow.getSteps()) {
@@ -75,78 +119,231 @@ public class ProcessMonitoringImpl implements ProcessMonitoring {
             orderedWorkflow.put(uniqueId, processStep);
             iterator++;
         }
-        WORKFLOWS_LIST.put(processId, orderedWorkflow);
+        final ProcessState state = new ProcessState(processId, workflow.getId(), containerName, orderedWorkflow);
+        WORKFLOWS_LIST.put(processId, state);
+        try {
+            checkpoint(state);
+        } catch (final ProcessingException e) {
+            // the process can still run, it only could not be resumed
+            LOGGER.error(e);
+        }
         return orderedWorkflow;
     }
 
     @Override
     public void updateStep(String processId, String uniqueId, long elementToProcess, boolean elementProcessed)
         throws ProcessingException {
-        if (WORKFLOWS_LIST.containsKey(processId)) {
-            final Map<String, ProcessStep> orderedSteps = WORKFLOWS_LIST.get(processId);
-            if (orderedSteps.containsKey(uniqueId)) {
-                final ProcessStep step = orderedSteps.get(uniqueId);
-                if (elementProcessed) {
-                    step.setElementProcessed(step.getElementProcessed() + 1);
-                } else {
-                    step.setElementToProcess(elementToProcess);
-                }
-                orderedSteps.put(uniqueId, step);
-                WORKFLOWS_LIST.put(processId, orderedSteps);
-            } else {
-                throw new ProcessingException(STEP_DOES_NOT_EXIST);
+        final ProcessState state = getState(processId);
+        final ProcessStep step = getStep(state, uniqueId);
+        if (elementProcessed) {
+            step.setElementProcessed(step.getElementProcessed() + 1);
+        } else {
+            step.setElementToProcess(elementToProcess);
+            checkpoint(state);
+        }
+    }
+
+    @Override
+    public void updateProcessedObjects(String processId, String uniqueId, Map<String, StatusCode> objectStatuses)
+        throws ProcessingException {
+        ParametersChecker.checkParameter("objectStatuses is a mandatory parameter", objectStatuses);
+        final ProcessState state = getState(processId);
+        final ProcessStep step = getStep(state, uniqueId);
+        step.setElementProcessed(step.getElementProcessed() + objectStatuses.size());
+        final Map<String, StatusCode> journaled = new LinkedHashMap<>();
+        for (final Map.Entry<String, StatusCode> entry : objectStatuses.entrySet()) {
+            if (!entry.getValue().isGreaterOrEqualToFatal()) {
+                journaled.put(entry.getKey(), entry.getValue());
             }
+        }
+        final ProcessStateStore store = stateStore;
+        if (!journaled.isEmpty() && store != null) {
+            store.appendProcessedObjects(processId, uniqueId, journaled);
+        }
+    }
 
-        } else {
-            throw new ProcessingException(PROCESS_DOES_NOT_EXIST);
+    @Override
+    public Map<String, StatusCode> getProcessedObjects(String processId, String uniqueId)
+        throws ProcessingException {
+        final ProcessState state = getState(processId);
+        getStep(state, uniqueId);
+        final ProcessStateStore store = stateStore;
+        // a process started by this instance did not process anything before
+        if (store == null || !state.isRestored()) {
+            return Collections.emptyMap();
         }
+        return Collections.unmodifiableMap(store.loadProcessedObjects(processId, uniqueId));
     }
 
     @Override
     public Map<String, ProcessStep> getWorkflowStatus(String processId) throws ProcessingException {
-        if (WORKFLOWS_LIST.containsKey(processId)) {
-            return WORKFLOWS_LIST.get(processId);
-        } else {
-            throw new ProcessingException(PROCESS_DOES_NOT_EXIST);
-        }
+        return getState(processId).getSteps();
     }
 
 
     @Override
     public StatusCode getFinalWorkflowStatus(String processId) throws ProcessingException {
-        if (WORKFLOWS_LIST.containsKey(processId)) {
-            StatusCode finalCode = StatusCode.UNKNOWN;
-            final Map<String, ProcessStep> orderedSteps = WORKFLOWS_LIST.get(processId);
-            for (final ProcessStep step : orderedSteps.values()) {
-                if (step != null) {
-                    final StatusCode stepStatus = step.getStepStatusCode();
-                    if (stepStatus != null) {
-                        finalCode = finalCode.compareTo(stepStatus) < 0 ? stepStatus : finalCode;
-                    }
+        StatusCode finalCode = StatusCode.UNKNOWN;
+        for (final ProcessStep step : getState(processId).getSteps().values()) {
+            if (step != null) {
+                final StatusCode stepStatus = step.getStepStatusCode();
+                if (stepStatus != null) {
+                    finalCode = finalCode.compareTo(stepStatus) < 0 ? stepStatus : finalCode;
                 }
             }
-            return finalCode;
-        } else {
-            throw new ProcessingException(PROCESS_DOES_NOT_EXIST);
         }
+        return finalCode;
     }
 
 
     @Override
     public void updateStepStatus(String processId, String uniqueId, StatusCode status) throws ProcessingException {
-        if (WORKFLOWS_LIST.containsKey(processId)) {
-            final Map<String, ProcessStep> orderedSteps = WORKFLOWS_LIST.get(processId);
-            if (orderedSteps.containsKey(uniqueId)) {
-                final ProcessStep step = orderedSteps.get(uniqueId);
-                step.setStepStatusCode(status);
-                orderedSteps.put(uniqueId, step);
-                WORKFLOWS_LIST.put(processId, orderedSteps);
-            } else {
-                throw new ProcessingException(STEP_DOES_NOT_EXIST);
+        final ProcessState state = getState(processId);
+        getStep(state, uniqueId).setStepStatusCode(status);
+        checkpoint(state);
+    }
+
+    @Override
+    public void setMessageIdentifier(String processId, String messageIdentifier) throws ProcessingException {
+        final ProcessState state = getState(processId);
+        state.setMessageIdentifier(messageIdentifier);
+        checkpoint(state);
+    }
+
+    @Override
+    public String getMessageIdentifier(String processId) throws ProcessingException {
+        return getState(processId).getMessageIdentifier();
+    }
+
+    @Override
+    public void finishWorkflow(String processId) throws ProcessingException {
+        final ProcessState state = getState(processId);
+        state.setFinishedTime(System.currentTimeMillis());
+        checkpoint(state);
+        final ProcessStateStore store = stateStore;
+        if (store != null) {
+            store.close(processId);
+        }
+        purgeFinishedWorkflows();
+    }
+
+    @Override
+    public void setWorkflowResult(String processId, ItemStatus result) throws ProcessingException {
+        ParametersChecker.checkParameter("processId is a mandatory parameter", processId);
+        ParametersChecker.checkParameter("result is a mandatory parameter", result);
+        ProcessState state = findState(processId);
+        if (state == null) {
+            // the process failed before its steps were initialized
+            final ProcessState created = new ProcessState(processId, null, null, new LinkedHashMap<>());
+            state = WORKFLOWS_LIST.putIfAbsent(processId, created);
+            if (state == null) {
+                state = created;
             }
-        } else {
+        }
+        state.setResult(result);
+        if (!state.isFinished()) {
+            state.setFinishedTime(System.currentTimeMillis());
+        }
+        checkpoint(state);
+    }
+
+    @Override
+    public ItemStatus getWorkflowResult(String processId) throws ProcessingException {
+        ParametersChecker.checkParameter("processId is a mandatory parameter", processId);
+        final ProcessState state = findState(processId);
+        return state == null ? null : state.getResult();
+    }
+
+    @Override
+    public Map<String, ProcessStep> resumeOrderedWorkflow(String processId) throws ProcessingException {
+        ParametersChecker.checkParameter("processId is a mandatory parameter", processId);
+        final ProcessState state = findState(processId);
+        if (state == null || state.isFinished()) {
+            return null;
+        }
+        return state.getSteps();
+    }
+
+    @Override
+    public List<ProcessState> getUnfinishedProcesses() throws ProcessingException {
+        final List<ProcessState> unfinished = new ArrayList<>();
+        final ProcessStateStore store = stateStore;
+        if (store == null) {
+            return unfinished;
+        }
+        for (final String processId : store.listProcessIds()) {
+            final ProcessState state = findState(processId);
+            if (state != null && !state.isFinished()) {
+                unfinished.add(state);
+            }
+        }
+        purgeFinishedWorkflows();
+        return unfinished;
+    }
+
+    /**
+     * Remove the processes finished for more than the retention delay
+     */
+    public void purgeFinishedWorkflows() {
+        final long limit = System.currentTimeMillis() - retentionMillis;
+        final Iterator<ProcessState> iterator = WORKFLOWS_LIST.values().iterator();
+        while (iterator.hasNext()) {
+            final ProcessState state = iterator.next();
+            if (state.isFinished() && state.getFinishedTime() <= limit) {
+                iterator.remove();
+                final ProcessStateStore store = stateStore;
+                if (store != null) {
+                    try {
+                        store.delete(state.getProcessId());
+                    } catch (final ProcessingException e) {
+                        LOGGER.warn(e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the state of the process, from memory or else from the durable store, null if unknown
+     */
+    private ProcessState findState(String processId) throws ProcessingException {
+        ProcessState state = WORKFLOWS_LIST.get(processId);
+        final ProcessStateStore store = stateStore;
+        if (state == null && store != null) {
+            state = store.load(processId);
+            if (state != null) {
+                final ProcessState previous = WORKFLOWS_LIST.putIfAbsent(processId, state);
+                if (previous != null) {
+                    state = previous;
+                }
+            }
+        }
+        return state;
+    }
+
+    private ProcessState getState(String processId) throws ProcessingException {
+        final ProcessState state = findState(processId);
+        if (state == null) {
             throw new ProcessingException(PROCESS_DOES_NOT_EXIST);
         }
+        return state;
+    }
+
+    private static ProcessStep getStep(ProcessState state, String uniqueId) throws ProcessingException {
+        final ProcessStep step = state.getSteps().get(uniqueId);
+        if (step == null) {
+            throw new ProcessingException(STEP_DOES_NOT_EXIST);
+        }
+        return step;
+    }
+
+    private void checkpoint(ProcessState state) throws ProcessingException {
+        final ProcessStateStore store = stateStore;
+        if (store != null) {
+            synchronized (state) {
+                store.save(state);
+            }
+        }
     }
 
 }
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.processing.engine.core.monitoring;
+
+import java.util.LinkedHashMap;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import fr.gouv.vitam.common.model.ItemStatus;
+import fr.gouv.vitam.processing.common.model.ProcessStep;
+
+/**
+ * State of one process, as checkpointed in a {@link ProcessStateStore}
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProcessState {
+
+    private String processId;
+    private String workflowId;
+    private String containerName;
+    private LinkedHashMap<String, ProcessStep> steps = new LinkedHashMap<>();
+    private long finishedTime;
+    private ItemStatus result;
+    private String messageIdentifier;
+    /**
+     * True when this state was loaded from a store: the objects processed before are then only in its journal
+     */
+    @JsonIgnore
+    private volatile boolean restored;
+
+    /**
+     * Empty constructor for Json deserialization
+     */
+    ProcessState() {
+        // Empty
+    }
+
+    /**
+     * @param processId the id of the process
+     * @param workflowId the id of the workflow executed by the process
+     * @param containerName the name of the container processed
+     * @param steps the ordered steps of the process by unique step id
+     */
+    public ProcessState(String processId, String workflowId, String containerName,
+        LinkedHashMap<String, ProcessStep> steps) {
+        this.processId = processId;
+        this.workflowId = workflowId;
+        this.containerName = containerName;
+        this.steps = steps;
+    }
+
+    /**
+     * @return the id of the process
+     */
+    public String getProcessId() {
+        return processId;
+    }
+
+    /**
+     * @return the id of the workflow executed by the process
+     */
+    public String getWorkflowId() {
+        return workflowId;
+    }
+
+    /**
+     * @return the name of the container processed
+     */
+    public String getContainerName() {
+        return containerName;
+    }
+
+    /**
+     * @return the ordered steps of the process by unique step id
+     */
+    public LinkedHashMap<String, ProcessStep> getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return the time in milliseconds when the process finished, 0 while it is not finished
+     */
+    public long getFinishedTime() {
+        return finishedTime;
+    }
+
+    /**
+     * @param finishedTime the time in milliseconds when the process finished
+     * @return this
+     */
+    public ProcessState setFinishedTime(long finishedTime) {
+        this.finishedTime = finishedTime;
+        return this;
+    }
+
+    /**
+     * @return the final status of the process, null while it is not known
+     */
+    public ItemStatus getResult() {
+        return result;
+    }
+
+    /**
+     * @param result the final status of the process
+     * @return this
+     */
+    public ProcessState setResult(ItemStatus result) {
+        this.result = result;
+        return this;
+    }
+
+    /**
+     * @return the identifier of the message (SIP) processed, null while it is not known
+     */
+    public String getMessageIdentifier() {
+        return messageIdentifier;
+    }
+
+    /**
+     * @param messageIdentifier the identifier of the message (SIP) processed
+     * @return this
+     */
+    public ProcessState setMessageIdentifier(String messageIdentifier) {
+        this.messageIdentifier = messageIdentifier;
+        return this;
+    }
+
+    /**
+     * @return True if the process is finished
+     */
+    @JsonIgnore
+    public boolean isFinished() {
+        return finishedTime > 0;
+    }
+
+    /**
+     * @return True if this state was loaded from a store, so that its steps may have already processed some objects
+     */
+    @JsonIgnore
+    public boolean isRestored() {
+        return restored;
+    }
+
+    /**
+     * @param restored True if this state was loaded from a store
+     * @return this
+     */
+    ProcessState setRestored(boolean restored) {
+        this.restored = restored;
+        return this;
+    }
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.processing.engine.core.monitoring;
+
+import java.util.List;
+import java.util.Map;
+
+import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.processing.common.exception.ProcessingException;
+
+/**
+ * Durable store of the process states, allowing a process to be resumed after a restart
+ */
+public interface ProcessStateStore {
+
+    /**
+     * Checkpoint the state of a process, replacing the previous one
+     *
+     * @param state the state of the process
+     * @throws ProcessingException if the state cannot be written
+     */
+    void save(ProcessState state) throws ProcessingException;
+
+    /**
+     * Journal some objects processed by one step
+     *
+     * @param processId the id of the process
+     * @param uniqueId the unique id of the step
+     * @param objectStatuses the objects processed with their status
+     * @throws ProcessingException if the objects cannot be written
+     */
+    void appendProcessedObjects(String processId, String uniqueId, Map<String, StatusCode> objectStatuses)
+        throws ProcessingException;
+
+    /**
+     * Load the last checkpoint of a process, the number of processed elements of its steps being updated from the
+     * journal
+     *
+     * @param processId the id of the process
+     * @return the state of the process, or null if unknown
+     * @throws ProcessingException if the state cannot be read
+     */
+    ProcessState load(String processId) throws ProcessingException;
+
+    /**
+     * Read the journal of the objects processed by one step
+     *
+     * @param processId the id of the process
+     * @param uniqueId the unique id of the step
+     * @return the objects processed by the step with their status, empty if none
+     * @throws ProcessingException if the journal cannot be read
+     */
+    Map<String, StatusCode> loadProcessedObjects(String processId, String uniqueId) throws ProcessingException;
+
+    /**
+     * Release the resources kept for a process still stored, as its journal once the process is finished
+     *
+     * @param processId the id of the process
+     */
+    void close(String processId);
+
+    /**
+     * @return the ids of all the stored processes
+     * @throws ProcessingException if the store cannot be read
+     */
+    List<String> listProcessIds() throws ProcessingException;
+
+    /**
+     * Remove a process from the store, releasing its resources
+     *
+     * @param processId the id of the process
+     * @throws ProcessingException if the state cannot be removed
+     */
+    void delete(String processId) throws ProcessingException;
+}
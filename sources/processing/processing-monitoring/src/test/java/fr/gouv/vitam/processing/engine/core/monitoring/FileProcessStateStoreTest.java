@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.processing.engine.core.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.processing.common.model.ProcessBehavior;
+import fr.gouv.vitam.processing.common.model.ProcessStep;
+import fr.gouv.vitam.processing.common.model.Step;
+
+public class FileProcessStateStoreTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void givenStateAndObjectsWhenLoadThenSameState() throws Exception {
+        final File folder = tempFolder.newFolder();
+        final FileProcessStateStore store = new FileProcessStateStore(folder);
+        final LinkedHashMap<String, ProcessStep> steps = new LinkedHashMap<>();
+        final ProcessStep step = new ProcessStep(new Step().setStepName("step1").setBehavior(ProcessBehavior.BLOCKING),
+            "container", "wf1", 0, 10, 2);
+        step.setStepStatusCode(StatusCode.STARTED);
+        steps.put(step.getId(), step);
+        store.save(new ProcessState("processId", "wf1", "container", steps));
+        final Map<String, StatusCode> objectStatuses = new LinkedHashMap<>();
+        objectStatuses.put("object1", StatusCode.OK);
+        objectStatuses.put("object2", StatusCode.OK);
+        store.appendProcessedObjects("processId", step.getId(), objectStatuses);
+        store.appendProcessedObjects("processId", step.getId(),
+            Collections.singletonMap("object3", StatusCode.WARNING));
+        // partially written line
+        Files.write(new File(folder, "processId.objects").toPath(), "container_wf1_0_step1\tOK".getBytes(
+            StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        final ProcessState state = store.load("processId");
+        assertEquals("processId", state.getProcessId());
+        assertEquals("wf1", state.getWorkflowId());
+        assertEquals("container", state.getContainerName());
+        final ProcessStep loaded = state.getSteps().get("container_wf1_0_step1");
+        assertEquals("step1", loaded.getStepName());
+        assertEquals(ProcessBehavior.BLOCKING, loaded.getBehavior());
+        assertEquals(StatusCode.STARTED, loaded.getStepStatusCode());
+        assertEquals(10, loaded.getElementToProcess());
+        // updated from the journal
+        assertEquals(3, loaded.getElementProcessed());
+        assertTrue(state.isRestored());
+        final Map<String, StatusCode> processedObjects = store.loadProcessedObjects("processId", step.getId());
+        assertEquals(3, processedObjects.size());
+        assertEquals(StatusCode.WARNING, processedObjects.get("object3"));
+        assertTrue(store.loadProcessedObjects("processId", "otherStep").isEmpty());
+        assertEquals(Collections.singletonList("processId"), store.listProcessIds());
+
+        // the journal is opened again after being closed
+        store.close("processId");
+        store.appendProcessedObjects("processId", step.getId(), Collections.singletonMap("object4", StatusCode.OK));
+        assertEquals(4, store.loadProcessedObjects("processId", step.getId()).size());
+
+        store.save(state.setFinishedTime(System.currentTimeMillis()));
+        assertTrue(store.load("processId").isFinished());
+        store.delete("processId");
+        assertNull(store.load("processId"));
+        assertTrue(store.listProcessIds().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenPathAsProcessIdThenIllegalArgumentException() throws Exception {
+        new FileProcessStateStore(tempFolder.newFolder()).load("../processId");
+    }
+}
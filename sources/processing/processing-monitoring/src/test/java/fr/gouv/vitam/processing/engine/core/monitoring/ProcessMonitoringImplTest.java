@@ -28,13 +28,17 @@ package fr.gouv.vitam.processing.engine.core.monitoring;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
@@ -44,6 +48,9 @@ import fr.gouv.vitam.processing.common.model.WorkFlow;
 
 public class ProcessMonitoringImplTest {
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Test
     public void processMonitoringGetInstanceOK() {
         final ProcessMonitoringImpl processMonitoring = ProcessMonitoringImpl.getInstance();
@@ -138,6 +145,60 @@ public class ProcessMonitoringImplTest {
         assertEquals(StatusCode.OK, pStep.getStepStatusCode());
     }
 
+    @Test
+    public void processMonitoringWithStoreThenResumeAndPurge() throws Exception {
+        final ProcessMonitoringImpl processMonitoring = ProcessMonitoringImpl.getInstance();
+        final ProcessStateStore store = new FileProcessStateStore(tempFolder.newFolder());
+        processMonitoring.setStateStore(store);
+        try {
+            processMonitoring.initOrderedWorkflow("PROCESS_ID_TO_RESUME", initSimpleWorkflow(), "containerName");
+            processMonitoring.updateStep("PROCESS_ID_TO_RESUME", "containerName_wf1_0_step1", 3, false);
+            assertNull(processMonitoring.getMessageIdentifier("PROCESS_ID_TO_RESUME"));
+            processMonitoring.setMessageIdentifier("PROCESS_ID_TO_RESUME", "messageIdentifier");
+            processMonitoring.updateStepStatus("PROCESS_ID_TO_RESUME", "containerName_wf1_0_step1",
+                StatusCode.STARTED);
+            final Map<String, StatusCode> objectStatuses = new LinkedHashMap<>();
+            objectStatuses.put("object1", StatusCode.OK);
+            objectStatuses.put("object2", StatusCode.OK);
+            objectStatuses.put("object3", StatusCode.FATAL);
+            processMonitoring.updateProcessedObjects("PROCESS_ID_TO_RESUME", "containerName_wf1_0_step1",
+                objectStatuses);
+
+            // as after a restart
+            final ProcessState state = store.load("PROCESS_ID_TO_RESUME");
+            assertEquals("wf1", state.getWorkflowId());
+            assertEquals("messageIdentifier", state.getMessageIdentifier());
+            assertEquals("containerName", state.getContainerName());
+            final ProcessStep step = state.getSteps().get("containerName_wf1_0_step1");
+            assertEquals(StatusCode.STARTED, step.getStepStatusCode());
+            assertEquals(3, step.getElementToProcess());
+            assertTrue(state.isRestored());
+            // FATAL objects shall be processed again
+            assertEquals(2, step.getElementProcessed());
+            assertEquals(2, store.loadProcessedObjects("PROCESS_ID_TO_RESUME", "containerName_wf1_0_step1").size());
+            // started by this instance: nothing was processed before
+            assertTrue(processMonitoring.getProcessedObjects("PROCESS_ID_TO_RESUME", "containerName_wf1_0_step1")
+                .isEmpty());
+            // restored from the store
+            store.save(new ProcessState("RESTORED_PROCESS_ID", "wf1", "containerName", state.getSteps()));
+            store.appendProcessedObjects("RESTORED_PROCESS_ID", "containerName_wf1_0_step1", objectStatuses);
+            assertEquals(3,
+                processMonitoring.getProcessedObjects("RESTORED_PROCESS_ID", "containerName_wf1_0_step1").size());
+            assertEquals(2, processMonitoring.getUnfinishedProcesses().size());
+            assertNotNull(processMonitoring.resumeOrderedWorkflow("PROCESS_ID_TO_RESUME"));
+
+            processMonitoring.setRetention(0);
+            processMonitoring.finishWorkflow("PROCESS_ID_TO_RESUME");
+            assertNull(processMonitoring.resumeOrderedWorkflow("PROCESS_ID_TO_RESUME"));
+            assertNull(store.load("PROCESS_ID_TO_RESUME"));
+            assertEquals(1, processMonitoring.getUnfinishedProcesses().size());
+            processMonitoring.finishWorkflow("RESTORED_PROCESS_ID");
+            assertTrue(processMonitoring.getUnfinishedProcesses().isEmpty());
+        } finally {
+            processMonitoring.setStateStore(null).setRetention(3600);
+        }
+    }
+
     private WorkFlow initSimpleWorkflow() {
         final WorkFlow simpleWorkflow = new WorkFlow();
         simpleWorkflow.setId("wf1");
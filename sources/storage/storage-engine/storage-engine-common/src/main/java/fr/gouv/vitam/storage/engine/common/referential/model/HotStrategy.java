@@ -39,6 +39,7 @@ import java.util.List;
 
 public class HotStrategy {
     private Integer copy;
+    private Integer quorum;
     private List<OfferReference> offers = new ArrayList<>();
 
     /**
@@ -55,6 +56,21 @@ public class HotStrategy {
         this.copy = copy;
     }
 
+    /**
+     * @return the minimum number of offers in which an object must be stored for the storage to succeed, null meaning
+     *         all the offers of the strategy
+     */
+    public Integer getQuorum() {
+        return quorum;
+    }
+
+    /**
+     * @param quorum
+     */
+    public void setQuorum(Integer quorum) {
+        this.quorum = quorum;
+    }
+
     /**
      * @return the list of offer references
      */
@@ -27,14 +27,24 @@
 
 package fr.gouv.vitam.storage.engine.server.distribution.impl;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.MediaType;
@@ -43,11 +53,11 @@ import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
-import fr.gouv.vitam.common.BaseXx;
 import fr.gouv.vitam.common.LocalDateUtil;
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.VitamConfiguration;
@@ -60,6 +70,8 @@ import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.server.application.AsyncInputStreamHelper;
+import fr.gouv.vitam.common.stream.MultipleInputStreamHandler;
+import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
 import fr.gouv.vitam.storage.driver.Connection;
 import fr.gouv.vitam.storage.driver.Driver;
 import fr.gouv.vitam.storage.driver.exception.StorageDriverException;
@@ -151,7 +163,6 @@ public class StorageDistributionImpl implements StorageDistribution {
 
     // TODO P1 : review design : for the moment we handle createObjectDescription AND jsonData in the same params but
     // they should not be both resent at the same time. Maybe encapsulate or create 2 methods
-    // TODO P1 : refactor me !
     @Override
     public StoredInfoResult storeData(String tenantId, String strategyId, String objectId,
         CreateObjectDescription createObjectDescription, DataCategory category, String requester)
@@ -162,26 +173,24 @@ public class StorageDistributionImpl implements StorageDistribution {
         final StorageStrategy storageStrategy = STRATEGY_PROVIDER.getStorageStrategy(strategyId);
         final HotStrategy hotStrategy = storageStrategy.getHotStrategy();
         if (hotStrategy != null) {
-            final List<OfferReference> offerReferences = choosePriorityOffers(hotStrategy);
+            final List<OfferReference> offerReferences = chooseWriteOffers(hotStrategy);
             if (offerReferences.isEmpty()) {
                 throw new StorageNotFoundException(VitamCodeHelper.getLogMessage(VitamCode.STORAGE_OFFER_NOT_FOUND));
             }
-            final Map<String, Status> offerResults = new HashMap<>();
+            // Store object in all offers at once
+            final List<OfferStoreResult> results =
+                storeInOffers(createObjectDescription, tenantId, objectId, category, offerReferences);
 
             StorageLogbookParameters parameters = null;
-            // For each offer, store object on it
-            for (final OfferReference offerReference : offerReferences) {
-                // TODO P1 : sequential process for now (we have only 1 offer anyway) but storing object should be
-                // processed in parallel for each driver, in order to not be blocked on 1 driver storage process
-                // TODO P1 special notice: when parallel, try to get only once the inputstream and then multiplexing it
-                // to
-                // multiple intputstreams as needed
-                // 1 IS => 3 IS (if 3 offers) where this special class handles one IS as input to 3 IS as output
-                final Map<String, Object> result =
-                    tryAndRetryStoreObjectInOffer(createObjectDescription, tenantId, objectId, category,
-                        offerReference, parameters, requester);
-                parameters = (StorageLogbookParameters) result.get("Parameters");
-                offerResults.put(offerReference.getId(), (Status) result.get("Status"));
+            final Map<String, Status> offerResults = new LinkedHashMap<>();
+            for (final OfferStoreResult result : results) {
+                if (parameters == null) {
+                    parameters = getParameters(result.putObjectRequest, result.putObjectResult, result.messageDigest,
+                        result.offer, result.status, requester);
+                } else {
+                    updateStorageLogbookParameters(parameters, result.offer, result.status);
+                }
+                offerResults.put(result.offer.getId(), result.status);
             }
 
             try {
@@ -191,24 +200,134 @@ public class StorageDistributionImpl implements StorageDistribution {
                 throw new StorageTechnicalException(VitamCodeHelper.getLogMessage(VitamCode.STORAGE_LOGBOOK_CANNOT_LOG),
                     exc);
             }
-            // TODO P1 Handle Status result if different for offers
-            return buildStoreDataResponse(objectId, category, offerResults);
+            return buildStoreDataResponse(objectId, category, offerResults,
+                getQuorum(hotStrategy, offerReferences.size()));
         }
         throw new StorageNotFoundException(VitamCodeHelper.getLogMessage(VitamCode.STORAGE_STRATEGY_NOT_FOUND));
     }
 
-    private StoredInfoResult buildStoreDataResponse(String objectId, DataCategory category,
-        Map<String, Status> offerResults) throws StorageTechnicalException {
+    /**
+     * Store the object in all the given offers in parallel.<br>
+     * The object is read only once from the workspace: this single stream, on which the digest is computed, is
+     * multiplexed to one stream by offer plus one copied to a local spool file. The retries of an offer are done from
+     * this spool file (or from the workspace again if the spool could not be written).
+     *
+     * @return the result of each offer, in the same order than offerReferences
+     */
+    private List<OfferStoreResult> storeInOffers(CreateObjectDescription createObjectDescription, String tenantId,
+        String objectId, DataCategory category, List<OfferReference> offerReferences)
+        throws StorageTechnicalException, StorageObjectAlreadyExistsException {
+        final int nbOffers = offerReferences.size();
+        final List<OfferStoreTask> tasks = new ArrayList<>(nbOffers);
+        for (final OfferReference offerReference : offerReferences) {
+            tasks.add(new OfferStoreTask(createObjectDescription, tenantId, objectId, category,
+                retrieveDriverInternal(offerReference.getId()),
+                OFFER_PROVIDER.getStorageOffer(offerReference.getId())));
+        }
+        final Digest sourceDigest = newDigest();
+        final ExecutorService executor = VitamThreadPoolExecutor.getDefaultExecutor();
+        MultipleInputStreamHandler multipleInputStream = null;
+        SourceSpool sourceSpool = null;
+        try (WorkspaceClient workspaceClient = getWorkspaceClient()) {
+            try {
+                final InputStream source = retrieveDataFromWorkspace(
+                    createObjectDescription.getWorkspaceContainerGUID(),
+                    createObjectDescription.getWorkspaceObjectURI(), workspaceClient);
+                multipleInputStream =
+                    new MultipleInputStreamHandler(sourceDigest.getDigestInputStream(source), nbOffers + 1);
+                sourceSpool = new SourceSpool(sourceDigest, executor.submit(
+                    new SpoolTask(multipleInputStream.getInputStream(nbOffers))));
+            } catch (StorageNotFoundException | StorageTechnicalException exc) {
+                // Each offer will try again from the workspace
+                LOGGER.error(exc);
+            }
+            final List<Future<OfferStoreResult>> futures = new ArrayList<>(nbOffers);
+            for (int i = 0; i < nbOffers; i++) {
+                final OfferStoreTask task = tasks.get(i);
+                if (multipleInputStream != null) {
+                    task.setSource(multipleInputStream.getInputStream(i), sourceSpool);
+                }
+                futures.add(executor.submit(task));
+            }
+            return getOfferStoreResults(futures);
+        } finally {
+            if (multipleInputStream != null) {
+                multipleInputStream.close();
+            }
+            if (sourceSpool != null) {
+                sourceSpool.delete();
+            }
+        }
+    }
+
+    private List<OfferStoreResult> getOfferStoreResults(List<Future<OfferStoreResult>> futures)
+        throws StorageTechnicalException, StorageObjectAlreadyExistsException {
+        final List<OfferStoreResult> results = new ArrayList<>(futures.size());
+        Exception error = null;
+        // Wait for all the offers, even if one failed, to not let a task use the spool file after its deletion
+        for (final Future<OfferStoreResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (final ExecutionException exc) {
+                if (error == null) {
+                    error = exc.getCause() instanceof Exception ? (Exception) exc.getCause() : exc;
+                }
+            } catch (final InterruptedException exc) {
+                Thread.currentThread().interrupt();
+                if (error == null) {
+                    error = exc;
+                }
+            }
+        }
+        if (error instanceof StorageObjectAlreadyExistsException) {
+            throw (StorageObjectAlreadyExistsException) error;
+        } else if (error instanceof StorageTechnicalException) {
+            throw (StorageTechnicalException) error;
+        } else if (error != null) {
+            throw new StorageTechnicalException(error);
+        }
+        return results;
+    }
+
+    /**
+     * @return the number of offers which must store the object, all of them when the strategy has no quorum
+     */
+    int getQuorum(HotStrategy hotStrategy, int nbOffers) {
+        if (hotStrategy.getQuorum() == null) {
+            return nbOffers;
+        }
+        return Math.max(1, Math.min(hotStrategy.getQuorum(), nbOffers));
+    }
+
+    private Digest newDigest() throws StorageTechnicalException {
+        try {
+            return new Digest(digestType);
+        } catch (final IllegalArgumentException exc) {
+            throw new StorageTechnicalException(exc);
+        }
+    }
+
+    private WorkspaceClient getWorkspaceClient() {
+        // NOSONAR is closed by the caller
+        return mockedWorkspaceClient == null ? WorkspaceClientFactory.getInstance().getClient() : mockedWorkspaceClient;
+    }
+
+    StoredInfoResult buildStoreDataResponse(String objectId, DataCategory category,
+        Map<String, Status> offerResults, int quorum) throws StorageTechnicalException {
 
         final String offerIds = String.join(", ", offerResults.keySet());
-        // Aggregate result of all store actions. If all went well, allSuccess is true, false if one action failed
-        final boolean allSuccess = offerResults.entrySet().stream()
+        // Aggregate result of all store actions: the object must be stored at least in quorum offers
+        final long nbSuccess = offerResults.entrySet().stream()
             .map(Map.Entry::getValue)
-            .noneMatch(Status.INTERNAL_SERVER_ERROR::equals);
+            .filter(status -> !Status.INTERNAL_SERVER_ERROR.equals(status))
+            .count();
 
-        if (!allSuccess) {
+        if (nbSuccess < quorum) {
             throw new StorageTechnicalException(VitamCodeHelper.getLogMessage(VitamCode.STORAGE_CANT_STORE_OBJECT,
                 objectId, offerIds));
+        } else if (nbSuccess < offerResults.size()) {
+            LOGGER.warn("Object '" + objectId + "' stored in " + nbSuccess + " offers out of " + offerResults.size() +
+                " (" + offerIds + ")");
         }
 
         // TODO P1 Witch status code return if an offer is updated (Status.OK) and another is created (Status.CREATED) ?
@@ -249,99 +368,281 @@ public class StorageDistributionImpl implements StorageDistribution {
         return result;
     }
 
-    // TODO P1 : globalize try and retry mechanism to avoid implementing it manually on all methods (C++ would have been
-    // great here) by creating an interface of Retryable actions and different implementations for each retryable action
-    // TODO P1 : refactor me (the map return seems bad and the offer list is a quick fix, to review too) !
-    private Map<String, Object> tryAndRetryStoreObjectInOffer(CreateObjectDescription createObjectDescription,
-        String tenantId, String objectId, DataCategory category, OfferReference offerReference,
-        StorageLogbookParameters logbookParameters, String requester)
-        throws StorageTechnicalException, StorageObjectAlreadyExistsException {
-        // TODO P1 : optimize workspace InputStream to not request workspace for each offer but only once.
-        final Driver driver = retrieveDriverInternal(offerReference.getId());
-        // Retrieve storage offer description and parameters
-        final StorageOffer offer = OFFER_PROVIDER.getStorageOffer(offerReference.getId());
-        final Properties parameters = new Properties();
-        parameters.putAll(offer.getParameters());
-        PutObjectRequest putObjectRequest = null;
-        PutObjectResult putObjectResult = null;
-        Status objectStored = Status.INTERNAL_SERVER_ERROR;
-        boolean existInOffer = false;
-        Digest messageDigest = null;
-        int i = 0;
-        while (i < NB_RETRY && objectStored == Status.INTERNAL_SERVER_ERROR) {
-            i++;
-            LOGGER.info("[Attempt " + i + "] Trying to store object '" + objectId + "' in offer " + offer.getId());
+    /**
+     * Result of the storage of one object in one offer
+     */
+    private static final class OfferStoreResult {
+        private StorageOffer offer;
+        private Status status = Status.INTERNAL_SERVER_ERROR;
+        private PutObjectRequest putObjectRequest;
+        private PutObjectResult putObjectResult;
+        private Digest messageDigest;
+    }
+
+    /**
+     * Local copy of the object read from the workspace, written while the offers read their own copy
+     */
+    private static final class SourceSpool {
+        private final Digest digest;
+        private final Future<File> spoolFile;
+        private String digestHex;
+
+        private SourceSpool(Digest digest, Future<File> spoolFile) {
+            this.digest = digest;
+            this.spoolFile = spoolFile;
+        }
+
+        /**
+         * @return the spool file, null if the source could not be spooled
+         * @throws StorageTechnicalException if the source could not be read
+         */
+        private File getFile() throws StorageTechnicalException {
             try {
-                messageDigest = new Digest(digestType);
-            } catch (final IllegalArgumentException exc) {
+                return spoolFile.get();
+            } catch (final ExecutionException exc) {
+                throw new StorageTechnicalException(exc.getCause());
+            } catch (final InterruptedException exc) {
+                Thread.currentThread().interrupt();
                 throw new StorageTechnicalException(exc);
             }
-            try (Connection connection = driver.connect(offer.getBaseUrl(), parameters);
-                WorkspaceClient workspaceClient =
-                    mockedWorkspaceClient == null ? WorkspaceClientFactory.getInstance().getClient() : // NOSONAR is
-                                                                                                       // closed
-                        mockedWorkspaceClient) {
-                final GetObjectRequest request = new GetObjectRequest(tenantId, objectId, category.getFolder());
-                if (connection.objectExistsInOffer(request)) {
-                    // TODO P2: when GUID will be correct, we can use the WORM property of the GUID
-                    switch (category) {
-                        case LOGBOOK:
-                        case OBJECT:
-                        case MANIFEST:
-                        case REPORT:
-                            throw new StorageObjectAlreadyExistsException(VitamCodeHelper
-                                .getLogMessage(VitamCode.STORAGE_DRIVER_OBJECT_ALREADY_EXISTS, objectId));
-                        case UNIT:
-                        case OBJECT_GROUP:
-                            existInOffer = true;
-                            break;
-                        default:
-                            throw new UnsupportedOperationException(NOT_IMPLEMENTED_MSG);
-                    }
+        }
+
+        /**
+         * @return the digest of the source, once it has been read entirely
+         * @throws StorageTechnicalException if the source could not be read
+         */
+        private synchronized String getDigestHex() throws StorageTechnicalException {
+            if (digestHex == null) {
+                getFile();
+                digestHex = digest.digestHex();
+            }
+            return digestHex;
+        }
+
+        private void delete() {
+            try {
+                final File file = spoolFile.get();
+                if (file != null && !file.delete()) {
+                    LOGGER.warn("Spool file could not be deleted: " + file);
                 }
+            } catch (final ExecutionException exc) {
+                LOGGER.debug(exc);
+            } catch (final InterruptedException exc) {
+                LOGGER.debug(exc);
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Copy one of the multiplexed streams to a local file. The stream is read until its end even if the file cannot be
+     * written, so that the other copies are not blocked.
+     */
+    private static final class SpoolTask implements Callable<File> {
+        private final InputStream inputStream;
+
+        private SpoolTask(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
 
-                putObjectRequest =
-                    buildPutObjectRequest(createObjectDescription, tenantId, objectId, category, messageDigest,
-                        workspaceClient);
-                // Perform actual object upload
-                putObjectResult = connection.putObject(putObjectRequest);
-
-                // Check digest
-                if (BaseXx.getBase16(messageDigest.digest()).equals(putObjectResult.getDigestHashBase16())) {
-                    if (existInOffer) {
-                        objectStored = Status.OK;
-                    } else {
-                        objectStored = Status.CREATED;
+        @Override
+        public File call() throws IOException {
+            try (InputStream input = inputStream) {
+                File file = null;
+                try {
+                    final File folder = new File(VitamConfiguration.getVitamTmpFolder());
+                    folder.mkdirs();
+                    file = File.createTempFile("storage", ".spool", folder);
+                } catch (final IOException exc) {
+                    LOGGER.warn("Cannot create spool file, retries will read the workspace again", exc);
+                }
+                if (file == null) {
+                    IOUtils.copyLarge(input, new NullOutputStream());
+                    return null;
+                }
+                try (OutputStream output = new FileOutputStream(file)) {
+                    IOUtils.copyLarge(input, output);
+                } catch (final FileNotFoundException exc) {
+                    LOGGER.warn("Cannot write spool file, retries will read the workspace again", exc);
+                    IOUtils.copyLarge(input, new NullOutputStream());
+                    return null;
+                } catch (final IOException exc) {
+                    if (!file.delete()) {
+                        LOGGER.warn("Spool file could not be deleted: " + file);
                     }
-                } else {
-                    throw new StorageTechnicalException("[Driver:" + driver.getName() + "] Content digest invalid in " +
-                        "offer id : '" + offer.getId() + "' for object " + objectId);
+                    throw exc;
                 }
-            } catch (StorageDriverException | StorageNotFoundException | StorageTechnicalException exc) {
-                LOGGER.error(exc);
-                if (i >= NB_RETRY) {
-                    objectStored = Status.INTERNAL_SERVER_ERROR;
-                    break;
+                return file;
+            }
+        }
+    }
+
+    /**
+     * Store one object in one offer, with retries
+     */
+    // TODO P1 : globalize try and retry mechanism to avoid implementing it manually on all methods by creating an
+    // interface of Retryable actions and different implementations for each retryable action
+    private final class OfferStoreTask implements Callable<OfferStoreResult> {
+        private final CreateObjectDescription createObjectDescription;
+        private final String tenantId;
+        private final String objectId;
+        private final DataCategory category;
+        private final Driver driver;
+        private final StorageOffer offer;
+        private InputStream firstStream;
+        private SourceSpool sourceSpool;
+        private WorkspaceClient workspaceClient;
+
+        private OfferStoreTask(CreateObjectDescription createObjectDescription, String tenantId, String objectId,
+            DataCategory category, Driver driver, StorageOffer offer) {
+            this.createObjectDescription = createObjectDescription;
+            this.tenantId = tenantId;
+            this.objectId = objectId;
+            this.category = category;
+            this.driver = driver;
+            this.offer = offer;
+        }
+
+        /**
+         * @param firstStream the copy of the source stream used by the first attempt
+         * @param sourceSpool the local copy of the source used by the next attempts
+         */
+        private void setSource(InputStream firstStream, SourceSpool sourceSpool) {
+            this.firstStream = firstStream;
+            this.sourceSpool = sourceSpool;
+        }
+
+        @Override
+        public OfferStoreResult call() throws StorageTechnicalException, StorageObjectAlreadyExistsException {
+            final Properties parameters = new Properties();
+            parameters.putAll(offer.getParameters());
+            final OfferStoreResult result = new OfferStoreResult();
+            result.offer = offer;
+            boolean existInOffer = false;
+            int i = 0;
+            try {
+                while (i < NB_RETRY && result.status == Status.INTERNAL_SERVER_ERROR) {
+                    i++;
+                    LOGGER.info("[Attempt " + i + "] Trying to store object '" + objectId + "' in offer " +
+                        offer.getId());
+                    result.putObjectRequest = null;
+                    try (Connection connection = driver.connect(offer.getBaseUrl(), parameters)) {
+                        final GetObjectRequest request = new GetObjectRequest(tenantId, objectId, category.getFolder());
+                        if (connection.objectExistsInOffer(request)) {
+                            // TODO P2: when GUID will be correct, we can use the WORM property of the GUID
+                            switch (category) {
+                                case LOGBOOK:
+                                case OBJECT:
+                                case MANIFEST:
+                                case REPORT:
+                                    throw new StorageObjectAlreadyExistsException(VitamCodeHelper
+                                        .getLogMessage(VitamCode.STORAGE_DRIVER_OBJECT_ALREADY_EXISTS, objectId));
+                                case UNIT:
+                                case OBJECT_GROUP:
+                                    existInOffer = true;
+                                    break;
+                                default:
+                                    throw new UnsupportedOperationException(NOT_IMPLEMENTED_MSG);
+                            }
+                        }
+
+                        final String expectedDigest = putObject(connection, result);
+
+                        // Check digest
+                        if (expectedDigest.equals(result.putObjectResult.getDigestHashBase16())) {
+                            if (existInOffer) {
+                                result.status = Status.OK;
+                            } else {
+                                result.status = Status.CREATED;
+                            }
+                        } else {
+                            throw new StorageTechnicalException("[Driver:" + driver.getName() +
+                                "] Content digest invalid in offer id : '" + offer.getId() + "' for object " +
+                                objectId);
+                        }
+                    } catch (StorageDriverException | StorageNotFoundException | StorageTechnicalException exc) {
+                        LOGGER.error(exc);
+                        if (i >= NB_RETRY) {
+                            result.status = Status.INTERNAL_SERVER_ERROR;
+                            break;
+                        }
+                    } finally {
+                        if (result.putObjectRequest != null && result.putObjectRequest.getDataStream() != null) {
+                            IOUtils.closeQuietly(result.putObjectRequest.getDataStream());
+                            LOGGER.debug("Manually closing the data stream for object id '" + objectId + "'");
+                        }
+                        if (workspaceClient != null) {
+                            workspaceClient.close();
+                            workspaceClient = null;
+                        }
+                        // The copy of the source is used only once, and must be released for the other offers
+                        closeFirstStream();
+                    }
                 }
             } finally {
-                if (putObjectRequest != null && putObjectRequest.getDataStream() != null) {
-                    IOUtils.closeQuietly(putObjectRequest.getDataStream());
-                    LOGGER.debug("Manually closing the data stream for object id '" + objectId + "'");
+                closeFirstStream();
+            }
+            return result;
+        }
+
+        private void closeFirstStream() {
+            if (firstStream != null) {
+                IOUtils.closeQuietly(firstStream);
+                firstStream = null;
+            }
+        }
+
+        /**
+         * Send the object to the offer, from the copy of the source, else from the spool file, else from the
+         * workspace
+         *
+         * @return the expected digest of the object
+         */
+        private String putObject(Connection connection, OfferStoreResult result)
+            throws StorageTechnicalException, StorageNotFoundException, StorageDriverException {
+            InputStream dataStream = null;
+            Digest messageDigest = null;
+            if (firstStream != null) {
+                dataStream = firstStream;
+                firstStream = null;
+            } else if (sourceSpool != null) {
+                final File spoolFile = getSpoolFile();
+                if (spoolFile != null) {
+                    try {
+                        dataStream = new FileInputStream(spoolFile);
+                    } catch (final FileNotFoundException exc) {
+                        LOGGER.warn(exc);
+                    }
                 }
             }
+            if (dataStream == null) {
+                messageDigest = newDigest();
+                // closed at the end of the attempt
+                workspaceClient = getWorkspaceClient();
+                dataStream = messageDigest.getDigestInputStream(
+                    retrieveDataFromWorkspace(createObjectDescription.getWorkspaceContainerGUID(),
+                        createObjectDescription.getWorkspaceObjectURI(), workspaceClient));
+            }
+            result.putObjectRequest =
+                new PutObjectRequest(tenantId, digestType.getName(), objectId, dataStream, category.name());
+            result.messageDigest = messageDigest != null ? messageDigest : sourceSpool.digest;
+            // Perform actual object upload
+            result.putObjectResult = connection.putObject(result.putObjectRequest);
+            // Release the data before waiting for the end of the source, the driver may not have read all of it
+            IOUtils.closeQuietly(dataStream);
+            return messageDigest != null ? messageDigest.digestHex() : sourceSpool.getDigestHex();
         }
 
-        // TODO P1 : refactor for more than one offer
-        if (logbookParameters == null) {
-            logbookParameters = getParameters(putObjectRequest, putObjectResult, messageDigest, offer, objectStored,
-                requester);
-        } else {
-            updateStorageLogbookParameters(logbookParameters, offer, objectStored);
+        private File getSpoolFile() {
+            try {
+                return sourceSpool.getFile();
+            } catch (final StorageTechnicalException exc) {
+                // source not readable: do not use it anymore
+                LOGGER.warn(exc);
+                sourceSpool = null;
+                return null;
+            }
         }
-        final Map<String, Object> ret = new HashMap<>();
-        ret.put("Parameters", logbookParameters);
-        ret.put("Status", objectStored);
-        return ret;
     }
 
     /**
@@ -400,15 +701,6 @@ public class StorageDistributionImpl implements StorageDistribution {
             .getWorkspaceObjectURI());
     }
 
-    private PutObjectRequest buildPutObjectRequest(CreateObjectDescription createObjectDescription, String tenantId,
-        String objectId, DataCategory category, Digest messageDigest, WorkspaceClient workspaceClient)
-        throws StorageTechnicalException, StorageNotFoundException {
-        final InputStream dataStream = retrieveDataFromWorkspace(createObjectDescription.getWorkspaceContainerGUID(),
-            createObjectDescription.getWorkspaceObjectURI(), workspaceClient);
-        return new PutObjectRequest(tenantId, digestType.getName(), objectId,
-            messageDigest.getDigestInputStream(dataStream), category.name());
-    }
-
     private InputStream retrieveDataFromWorkspace(String containerGUID, String objectURI,
         WorkspaceClient workspaceClient)
         throws StorageNotFoundException, StorageTechnicalException {
@@ -461,6 +753,14 @@ public class StorageDistributionImpl implements StorageDistribution {
         throw new UnsupportedOperationException(NOT_IMPLEMENTED_MSG);
     }
 
+    private List<OfferReference> chooseWriteOffers(HotStrategy hotStrategy) {
+        final List<OfferReference> offerReferences = new ArrayList<>();
+        if (hotStrategy != null) {
+            offerReferences.addAll(hotStrategy.getOffers());
+        }
+        return offerReferences;
+    }
+
     private List<OfferReference> choosePriorityOffers(HotStrategy hotStrategy) {
         final List<OfferReference> offerReferences = new ArrayList<>();
         if (hotStrategy != null && !hotStrategy.getOffers().isEmpty()) {
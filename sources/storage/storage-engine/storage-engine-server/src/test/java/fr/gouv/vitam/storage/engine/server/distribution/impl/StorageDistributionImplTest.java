@@ -33,21 +33,28 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.FileInputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mockito;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
 import fr.gouv.vitam.common.PropertiesUtils;
+import fr.gouv.vitam.common.SystemPropertyUtil;
 import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.server.application.junit.AsyncResponseJunitTest;
 import fr.gouv.vitam.storage.driver.exception.StorageObjectAlreadyExistsException;
@@ -57,6 +64,7 @@ import fr.gouv.vitam.storage.engine.common.exception.StorageTechnicalException;
 import fr.gouv.vitam.storage.engine.common.model.DataCategory;
 import fr.gouv.vitam.storage.engine.common.model.request.CreateObjectDescription;
 import fr.gouv.vitam.storage.engine.common.model.response.StoredInfoResult;
+import fr.gouv.vitam.storage.engine.common.referential.model.HotStrategy;
 import fr.gouv.vitam.storage.engine.server.distribution.StorageDistribution;
 import fr.gouv.vitam.storage.engine.server.rest.StorageConfiguration;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
@@ -71,10 +79,14 @@ public class StorageDistributionImplTest {
 
     private static final String STRATEGY_ID = "strategyId";
     private static final String TENANT_ID = "tenantId";
+    private static final String VITAM_TMP_PROPERTY = "vitam.tmp.folder";
     private static StorageDistribution simpleDistribution;
     private static StorageDistribution customDistribution;
     private static WorkspaceClient client;
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @BeforeClass
     public static void initStatic() throws StorageDriverNotFoundException {
 
@@ -218,6 +230,61 @@ public class StorageDistributionImplTest {
         }
     }
 
+    @Test
+    public void testStoreData_RetriesDoNotReadWorkspaceAgain() throws Exception {
+        final String objectId = "digest_bad_test";
+        final CreateObjectDescription createObjectDescription = new CreateObjectDescription();
+        createObjectDescription.setWorkspaceContainerGUID("container1" + this);
+        createObjectDescription.setWorkspaceObjectURI("SIP/content/test.pdf");
+
+        final FileInputStream stream = new FileInputStream(PropertiesUtils.findFile("object.zip"));
+        reset(client);
+        when(client.getObject("container1" + this, "SIP/content/test.pdf"))
+            .thenReturn(Response.status(Status.OK).entity(stream).build());
+        SystemPropertyUtil.set(VITAM_TMP_PROPERTY, tempFolder.newFolder().getAbsolutePath());
+        try {
+            customDistribution
+                .storeData(TENANT_ID + this, STRATEGY_ID, objectId, createObjectDescription, DataCategory.OBJECT,
+                    "testRequester");
+            fail("Should produce exception");
+        } catch (final StorageTechnicalException exc) {
+            // digest always invalid
+        } finally {
+            SystemPropertyUtil.clear(VITAM_TMP_PROPERTY);
+            IOUtils.closeQuietly(stream);
+        }
+        // all the attempts are done from the local spool
+        verify(client, times(1)).getObject("container1" + this, "SIP/content/test.pdf");
+    }
+
+    @Test
+    public void testStoreData_QuorumSmallerThanOffers() throws Exception {
+        final StorageDistributionImpl distribution = (StorageDistributionImpl) customDistribution;
+        final HotStrategy hotStrategy = new HotStrategy();
+        assertEquals(3, distribution.getQuorum(hotStrategy, 3));
+        hotStrategy.setQuorum(2);
+        final int quorum = distribution.getQuorum(hotStrategy, 3);
+        assertEquals(2, quorum);
+
+        // 2 offers out of 3 succeed
+        final Map<String, Status> offerResults = new LinkedHashMap<>();
+        offerResults.put("offer1", Status.CREATED);
+        offerResults.put("offer2", Status.INTERNAL_SERVER_ERROR);
+        offerResults.put("offer3", Status.CREATED);
+        final StoredInfoResult storedInfoResult =
+            distribution.buildStoreDataResponse("id1", DataCategory.OBJECT, offerResults, quorum);
+        assertEquals("id1", storedInfoResult.getId());
+
+        // only 1 offer out of 3 succeeds
+        offerResults.put("offer3", Status.INTERNAL_SERVER_ERROR);
+        try {
+            distribution.buildStoreDataResponse("id1", DataCategory.OBJECT, offerResults, quorum);
+            fail("Should produce exception");
+        } catch (final StorageTechnicalException exc) {
+            // below the quorum
+        }
+    }
+
     @Test(expected = StorageObjectAlreadyExistsException.class)
     public void testObjectAlreadyInOffer() throws Exception {
         final String objectId = "already_in_offer";
@@ -26,7 +26,11 @@
  *******************************************************************************/
 package fr.gouv.vitam.storage.offers.workspace.driver;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.SequenceInputStream;
 import java.util.Properties;
 
 import javax.ws.rs.HttpMethod;
@@ -35,6 +39,8 @@ import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
+import org.apache.commons.io.IOUtils;
+
 import com.fasterxml.jackson.databind.JsonNode;
 
 import fr.gouv.vitam.common.GlobalDataRest;
@@ -79,20 +85,47 @@ public class ConnectionImpl extends DefaultClient implements Connection {
     private static final String TYPE_IS_NOT_VALID = "Type is not valid";
     private static final String FOLDER_IS_A_MANDATORY_PARAMETER = "Folder is a mandatory parameter";
     private static final String FOLDER_IS_NOT_VALID = "Folder is not valid";
+    /**
+     * Objects up to this size (or up to the chunk size if lower) are sent with one END request
+     */
+    private static final int SINGLE_REQUEST_MAX_SIZE = 1024 * 1024;
+    /**
+     * Default size of the chunks sent with WRITE requests
+     */
+    private static final long DEFAULT_CHUNK_SIZE = 64L * 1024 * 1024;
+    /**
+     * Name of the optional driver parameter giving the size in bytes of the chunks sent with WRITE requests
+     */
+    public static final String CHUNK_SIZE_PARAMETER = "chunkSize";
+
     private final String driverName;
 
     private final Properties parameters;
 
+    private final long chunkSize;
+
     /**
      * Constructor
      *
      * @param factory
-     * @param parameters
+     * @param parameters the driver parameters, may contain {@link #CHUNK_SIZE_PARAMETER}
+     * @throws IllegalArgumentException if the chunk size parameter is not a positive number
      */
     public ConnectionImpl(InternalDriverFactory factory, Properties parameters) {
         super(factory);
         driverName = factory.getName();
         this.parameters = parameters;
+        chunkSize = getChunkSize(parameters);
+    }
+
+    private static long getChunkSize(Properties parameters) {
+        final String value = parameters != null ? parameters.getProperty(CHUNK_SIZE_PARAMETER) : null;
+        if (value == null) {
+            return DEFAULT_CHUNK_SIZE;
+        }
+        final long size = Long.parseLong(value.trim());
+        ParametersChecker.checkValue(CHUNK_SIZE_PARAMETER, size, 1);
+        return size;
     }
 
     @Override
@@ -288,7 +321,10 @@ public class ConnectionImpl extends DefaultClient implements Connection {
 
 
     /**
-     * Method performing a PutRequests
+     * Method performing a PutRequests<br>
+     * <br>
+     * Small objects are sent with one END request. Bigger objects are streamed as WRITE chunks, the offer computing the
+     * digest while writing, then the END request without content returns the digest of the whole object.
      *
      * @param tenantId the tenant Id
      * @param stream the stream to be chunked if necessary
@@ -298,19 +334,60 @@ public class ConnectionImpl extends DefaultClient implements Connection {
      */
     private PutObjectResult performPutRequests(String tenantId, InputStream stream, ObjectInit result)
         throws StorageDriverException {
-        PutObjectResult finalResult = null;
+        try {
+            final PushbackInputStream input = new PushbackInputStream(stream, 1);
+            final byte[] head =
+                IOUtils.toByteArray(new ChunkInputStream(input, Math.min(SINGLE_REQUEST_MAX_SIZE, chunkSize)));
+            if (!hasRemaining(input)) {
+                final JsonNode json = performPutRequest(tenantId, result.getId(), StorageConstants.COMMAND_END,
+                    new ByteArrayInputStream(head));
+                return new PutObjectResult(result.getId(), json.get("digest").textValue(), tenantId,
+                    Long.valueOf(json.get("size").textValue()));
+            }
+            long size = 0;
+            InputStream chunk =
+                new SequenceInputStream(new ByteArrayInputStream(head), new ChunkInputStream(input, chunkSize -
+                    head.length));
+            do {
+                final JsonNode json = performPutRequest(tenantId, result.getId(), StorageConstants.COMMAND_WRITE,
+                    chunk);
+                size += Long.valueOf(json.get("size").textValue());
+                chunk = new ChunkInputStream(input, chunkSize);
+            } while (hasRemaining(input));
+            final JsonNode json = performPutRequest(tenantId, result.getId(), StorageConstants.COMMAND_END,
+                new ByteArrayInputStream(new byte[0]));
+            size += Long.valueOf(json.get("size").textValue());
+            return new PutObjectResult(result.getId(), json.get("digest").textValue(), tenantId, size);
+        } catch (final IOException e) {
+            LOGGER.error(e);
+            throw new StorageDriverException(driverName, StorageDriverException.ErrorCode.INTERNAL_SERVER_ERROR,
+                e.getMessage());
+        }
+    }
+
+    /**
+     * Send one part of the object to the offer
+     *
+     * @param tenantId the tenant Id
+     * @param objectId the offer object id
+     * @param command WRITE or END
+     * @param chunk the part to send
+     * @return the response of the offer
+     * @throws StorageDriverException in case the server encounters an exception
+     */
+    private JsonNode performPutRequest(String tenantId, String objectId, String command, InputStream chunk)
+        throws StorageDriverException {
         Response response = null;
         try {
-            response = performRequest(HttpMethod.PUT, OBJECTS_PATH + "/" + result.getId(),
-                getDefaultHeaders(tenantId, StorageConstants.COMMAND_END),
-                stream, MediaType.APPLICATION_OCTET_STREAM_TYPE, MediaType.APPLICATION_JSON_TYPE);
+            response = performRequest(HttpMethod.PUT, OBJECTS_PATH + "/" + objectId,
+                getDefaultHeaders(tenantId, command),
+                chunk, MediaType.APPLICATION_OCTET_STREAM_TYPE, MediaType.APPLICATION_JSON_TYPE);
             final JsonNode json = handleResponseStatus(response, JsonNode.class);
-            finalResult = new PutObjectResult(result.getId(), json.get("digest").textValue(), tenantId,
-                Long.valueOf(json.get("size").textValue()));
             if (Response.Status.CREATED.getStatusCode() != response.getStatus()) {
                 throw new StorageDriverException(driverName, StorageDriverException.ErrorCode.INTERNAL_SERVER_ERROR,
                     "Error to perfom put object");
             }
+            return json;
         } catch (final VitamClientInternalException e) {
             LOGGER.error(e);
             throw new StorageDriverException(driverName, StorageDriverException.ErrorCode.INTERNAL_SERVER_ERROR,
@@ -318,7 +395,57 @@ public class ConnectionImpl extends DefaultClient implements Connection {
         } finally {
             consumeAnyEntityAndClose(response);
         }
-        return finalResult;
+    }
+
+    private static boolean hasRemaining(PushbackInputStream input) throws IOException {
+        final int next = input.read();
+        if (next < 0) {
+            return false;
+        }
+        input.unread(next);
+        return true;
+    }
+
+    /**
+     * View on the next bytes of a stream, up to a limit, which does not close the underlying stream
+     */
+    private static class ChunkInputStream extends InputStream {
+        private final InputStream source;
+        private long remaining;
+
+        ChunkInputStream(InputStream source, long limit) {
+            this.source = source;
+            remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int read = source.read();
+            if (read >= 0) {
+                remaining--;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int read = source.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() {
+            // the source stream stays open for the next chunk
+        }
     }
 
 }
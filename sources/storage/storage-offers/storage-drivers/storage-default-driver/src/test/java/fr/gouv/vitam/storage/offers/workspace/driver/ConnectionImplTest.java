@@ -36,6 +36,7 @@ import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Properties;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
@@ -52,7 +53,6 @@ import javax.ws.rs.core.Response.Status;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
-import org.junit.Ignore;
 import org.junit.Test;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -305,8 +305,33 @@ public class ConnectionImplTest extends VitamJerseyTest {
         assertNotNull(result.getDigestHashBase16());
     }
 
-    // TODO activate when chunk mode is done in {@see DefaultOfferService} method createObject
-    @Ignore // chunk management
+    @Test
+    public void putObjectByChunksWithRequestOk() throws Exception {
+        final Properties parameters = new Properties();
+        parameters.setProperty(ConnectionImpl.CHUNK_SIZE_PARAMETER, "1024");
+        try (ConnectionImpl chunkConnection =
+            DriverImpl.getInstance().connect("http://" + HOSTNAME + ":" + getServerPort(), parameters)) {
+            final PutObjectRequest request = new PutObjectRequest("0" + this, DigestType.MD5.getName(), "GUID",
+                new FakeInputStream(3000, true), DataCategory.OBJECT.name());
+            when(mock.post()).thenReturn(Response.status(Status.CREATED).entity(getPostObjectResult(-1)).build());
+            when(mock.put()).thenReturn(Response.status(Status.CREATED).entity(getPutObjectResult(0)).build())
+                .thenReturn(Response.status(Status.CREATED).entity(getPutObjectResult(1)).build())
+                .thenReturn(Response.status(Status.CREATED).entity(getPutObjectResult(2)).build())
+                .thenReturn(Response.status(Status.CREATED).entity(getPutObjectResult(3)).build());
+            final PutObjectResult result = chunkConnection.putObject(request);
+            // 3 WRITE then the END which gives the digest of the whole object
+            assertEquals("aaakkkk3", result.getDigestHashBase16());
+            assertEquals(4 * 666, result.getObjectSize());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenInvalidChunkSizeWhenConnectThenRaiseAnException() throws Exception {
+        final Properties parameters = new Properties();
+        parameters.setProperty(ConnectionImpl.CHUNK_SIZE_PARAMETER, "0");
+        DriverImpl.getInstance().connect("http://" + HOSTNAME + ":" + getServerPort(), parameters);
+    }
+
     @Test(expected = StorageDriverException.class)
     public void putBigObjectWithRequestInternalError() throws Exception {
         final PutObjectRequest request = new PutObjectRequest("0" + this, DigestType.MD5.getName(), "GUID",
@@ -317,8 +342,6 @@ public class ConnectionImplTest extends VitamJerseyTest {
         connection.putObject(request);
     }
 
-    // TODO activate when chunk mode is done in {@see DefaultOfferService} method createObject
-    @Ignore // chunk management
     @Test(expected = StorageDriverException.class)
     public void putBigObjectWithBadRequestDuringTransfert() throws Exception {
         final PutObjectRequest request = new PutObjectRequest("0", DigestType.MD5.getName(), "GUID",
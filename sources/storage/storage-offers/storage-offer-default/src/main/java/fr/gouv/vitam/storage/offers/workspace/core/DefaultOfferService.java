@@ -105,7 +105,9 @@ public interface DefaultOfferService {
 
     /**
      * Create object on container with objectId Receive object part of object. Actually these parts <b>HAVE TO</b> be
-     * send in the great order.
+     * send in the great order.<br>
+     * Each part is appended to the object while its digest is computed, so that the object is never read again: the
+     * object is only visible once its last part is received.
      *
      * @param containerName the container name
      * @param objectId the offer objectId to create
@@ -114,10 +116,10 @@ public interface DefaultOfferService {
      * @return the digest of the complete file or the digest of the chunk
      *
      * @throws IOException if an IOException is encountered with files
-     * @throws ContentAddressableStorageException if the container does not exist
+     * @throws ContentAddressableStorageException if the container does not exist or if the object creation was not
+     *         initialized
      */
     // TODO P1 : add chunk number to be able to retry and check error
-    // TODO P1 : better chunk management
     String createObject(String containerName, String objectId, InputStream objectPart, boolean ending)
         throws IOException, ContentAddressableStorageException;
 
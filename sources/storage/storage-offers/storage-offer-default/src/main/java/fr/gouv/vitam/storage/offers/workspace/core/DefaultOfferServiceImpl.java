@@ -27,10 +27,21 @@
 
 package fr.gouv.vitam.storage.offers.workspace.core;
 
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.MediaType;
@@ -42,11 +53,13 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import fr.gouv.vitam.common.PropertiesUtils;
 import fr.gouv.vitam.common.VitamConfiguration;
+import fr.gouv.vitam.common.digest.Digest;
 import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.server.application.AsyncInputStreamHelper;
+import fr.gouv.vitam.common.thread.VitamThreadFactory;
 import fr.gouv.vitam.storage.engine.common.model.ObjectInit;
 import fr.gouv.vitam.workspace.api.ContentAddressableStorage;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageAlreadyExistException;
@@ -67,9 +80,15 @@ public class DefaultOfferServiceImpl implements DefaultOfferService {
     private static final DefaultOfferService INSTANCE = new DefaultOfferServiceImpl();
     private final ContentAddressableStorage defaultStorage;
     private static final String STORAGE_CONF_FILE_NAME = "default-storage.conf";
+    private static final String PART_FILE_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 65536;
+    // an object creation without any chunk received for this time is abandoned
+    private static final long PENDING_OBJECT_TTL_MS = 60L * 60 * 1000;
+    private static final long PURGE_PERIOD_MS = 10L * 60 * 1000;
 
-    private final Map<String, DigestType> digestTypeFor;
-    private final Map<String, String> objectTypeFor;
+    private final String storagePath;
+    private final Map<String, PendingObject> pendingObjects;
+    private final ScheduledExecutorService purgeExecutor;
 
     private DefaultOfferServiceImpl() {
         WorkspaceConfiguration configuration;
@@ -80,8 +99,12 @@ public class DefaultOfferServiceImpl implements DefaultOfferService {
             throw new ExceptionInInitializerError(exc);
         }
         defaultStorage = new FileSystem(configuration);
-        digestTypeFor = new HashMap<>();
-        objectTypeFor = new HashMap<>();
+        storagePath = configuration.getStoragePath();
+        pendingObjects = new ConcurrentHashMap<>();
+        purgeExecutor = Executors.newSingleThreadScheduledExecutor(VitamThreadFactory.getInstance());
+        purgeExecutor.scheduleWithFixedDelay(
+            () -> purgePendingObjects(System.currentTimeMillis() - PENDING_OBJECT_TTL_MS),
+            PURGE_PERIOD_MS, PURGE_PERIOD_MS, TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -121,12 +144,17 @@ public class DefaultOfferServiceImpl implements DefaultOfferService {
             createFolder(containerName, objectInit.getType().getFolder());
         }
         objectInit.setId(objectGUID);
-        objectTypeFor.put(objectGUID, objectInit.getType().getFolder());
-        if (objectInit.getDigestAlgorithm() != null) {
-            digestTypeFor.put(objectGUID, objectInit.getDigestAlgorithm());
-        } else {
-            digestTypeFor.put(objectGUID, VitamConfiguration.getDefaultDigestType());
+        final DigestType digestType = objectInit.getDigestAlgorithm() != null ? objectInit.getDigestAlgorithm()
+            : VitamConfiguration.getDefaultDigestType();
+        final PendingObject pendingObject = new PendingObject(
+            Paths.get(storagePath, containerName, objectInit.getType().getFolder(), objectGUID + PART_FILE_SUFFIX),
+            objectInit.getType().getFolder(), digestType);
+        // A new INIT for the same object (retry) restarts its creation from scratch
+        final PendingObject previous = pendingObjects.put(objectGUID, pendingObject);
+        if (previous != null) {
+            previous.delete();
         }
+        pendingObject.delete();
 
         return objectInit;
     }
@@ -146,25 +174,66 @@ public class DefaultOfferServiceImpl implements DefaultOfferService {
         if (!defaultStorage.isExistingContainer(containerName)) {
             throw new ContentAddressableStorageException("Container does not exist");
         }
+        final PendingObject pendingObject = pendingObjects.get(objectId);
+        if (pendingObject == null) {
+            throw new ContentAddressableStorageException("Object creation was not initialized");
+        }
         // check the folder
-        if (!defaultStorage.isExistingFolder(containerName, objectTypeFor.get(objectId))) {
+        if (!defaultStorage.isExistingFolder(containerName, pendingObject.folder)) {
             throw new ContentAddressableStorageException("Container's folder does not exist");
         }
 
-        // TODO No chunk mode (should be added in the future)
-        // TODO the objectPart should contain the full object.
-        try {
-            defaultStorage.putObject(containerName, objectTypeFor.get(objectId) + "/" + objectId, objectPart);
-            // Check digest AFTER writing in order to ensure correctness
-            final String digest = defaultStorage.computeObjectDigest(containerName,
-                objectTypeFor.get(objectId) + "/" + objectId, getDigestAlgoFor(objectId));
-            // remove digest algo
-            digestTypeFor.remove(objectId);
-            return digest;
-        } catch (final ContentAddressableStorageException exc) {
-            LOGGER.error("Error with storage service", exc);
-            throw exc;
+        synchronized (pendingObject) {
+            if (pendingObject.purged) {
+                throw new ContentAddressableStorageException("Object creation was abandoned");
+            }
+            try {
+                final String chunkDigest = pendingObject.append(objectPart, !ending);
+                if (!ending) {
+                    return chunkDigest;
+                }
+                // The digest was computed while writing: no need to read the object again
+                final String digest = pendingObject.digest.toString();
+                Files.move(pendingObject.partFile, pendingObject.partFile.resolveSibling(objectId),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                pendingObjects.remove(objectId, pendingObject);
+                return digest;
+            } catch (final IOException exc) {
+                LOGGER.error("Error with storage service", exc);
+                pendingObjects.remove(objectId, pendingObject);
+                pendingObject.delete();
+                throw exc;
+            }
+        }
+    }
+
+    /**
+     * Abandon the object creations without any chunk received since the given time and delete their part files
+     *
+     * @param idleBefore the time (in ms) before which the last access of a pending object makes it abandoned
+     * @return the number of abandoned object creations
+     */
+    int purgePendingObjects(long idleBefore) {
+        int purged = 0;
+        final Iterator<Entry<String, PendingObject>> iterator = pendingObjects.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final PendingObject pendingObject = iterator.next().getValue();
+            if (pendingObject.lastAccess >= idleBefore) {
+                continue;
+            }
+            synchronized (pendingObject) {
+                if (pendingObject.lastAccess < idleBefore && !pendingObject.purged) {
+                    pendingObject.purged = true;
+                    iterator.remove();
+                    pendingObject.delete();
+                    purged++;
+                }
+            }
         }
+        if (purged > 0) {
+            LOGGER.warn("{} abandoned object creations purged", purged);
+        }
+        return purged;
     }
 
     @Override
@@ -194,7 +263,58 @@ public class DefaultOfferServiceImpl implements DefaultOfferService {
         return result;
     }
 
-    private DigestType getDigestAlgoFor(String id) {
-        return digestTypeFor.get(id) != null ? digestTypeFor.get(id) : VitamConfiguration.getDefaultDigestType();
+    /**
+     * Object being created chunk after chunk: the chunks are appended to a part file, next to the final object, and
+     * the digest of the whole object is updated on the fly.
+     */
+    private static class PendingObject {
+        private final Path partFile;
+        private final String folder;
+        private final Digest digest;
+        private volatile long lastAccess = System.currentTimeMillis();
+        // guarded by this
+        private boolean purged;
+
+        PendingObject(Path partFile, String folder, DigestType digestType) {
+            this.partFile = partFile;
+            this.folder = folder;
+            digest = new Digest(digestType);
+        }
+
+        /**
+         * Append a chunk to the part file
+         *
+         * @param chunk the chunk to append
+         * @param withChunkDigest true to compute the digest of this chunk
+         * @return the digest of the chunk if asked, else null
+         * @throws IOException if the chunk cannot be read or written
+         */
+        String append(InputStream chunk, boolean withChunkDigest) throws IOException {
+            lastAccess = System.currentTimeMillis();
+            final Digest chunkDigest = withChunkDigest ? new Digest(digest.type()) : null;
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            try (OutputStream out = new FileOutputStream(partFile.toFile(), true)) {
+                int read;
+                while ((read = chunk.read(buffer)) >= 0) {
+                    if (read > 0) {
+                        out.write(buffer, 0, read);
+                        digest.update(buffer, 0, read);
+                        if (chunkDigest != null) {
+                            chunkDigest.update(buffer, 0, read);
+                        }
+                    }
+                }
+            }
+            lastAccess = System.currentTimeMillis();
+            return chunkDigest != null ? chunkDigest.toString() : null;
+        }
+
+        void delete() {
+            try {
+                Files.deleteIfExists(partFile);
+            } catch (final IOException e) {
+                LOGGER.warn("Cannot delete " + partFile, e);
+            }
+        }
     }
 }
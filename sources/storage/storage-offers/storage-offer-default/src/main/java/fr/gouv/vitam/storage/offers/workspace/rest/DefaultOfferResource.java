@@ -202,7 +202,8 @@ public class DefaultOfferResource extends ApplicationStatusResource {
      * @param objectId object id
      * @param headers http header
      * @param input object data
-     * @return structured response with the object id (and new digest ?)
+     * @return structured response with the digest (of the chunk for WRITE, of the whole object for END) and the size
+     *         of the received chunk
      */
     @PUT
     @Path("/objects/{id:.+}")
@@ -28,8 +28,10 @@
 package fr.gouv.vitam.storage.offers.workspace.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -45,7 +47,6 @@ import javax.ws.rs.core.Response;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.After;
-import org.junit.Ignore;
 import org.junit.Test;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -178,9 +179,7 @@ public class DefaultOfferServiceTest {
         assertTrue(offerService.isObjectExist(CONTAINER_PATH, objectInit.getType().getFolder() + "/" + OBJECT_ID));
     }
 
-    // TODO activate when chunk mode is done in {@see DefaultOfferService} method createObject
     @Test
-    @Ignore
     public void createObjectChunkTest() throws Exception {
         final DefaultOfferService offerService = DefaultOfferServiceImpl.getInstance();
         assertNotNull(offerService);
@@ -270,6 +269,34 @@ public class DefaultOfferServiceTest {
         return objectInit;
     }
 
+    @Test
+    public void givenIdleObjectCreationWhenPurgeThenPartFileDeleted() throws Exception {
+        final DefaultOfferServiceImpl offerService = (DefaultOfferServiceImpl) DefaultOfferServiceImpl.getInstance();
+        final ObjectInit objectInit = offerService.initCreateObject(CONTAINER_PATH, getObjectInit(false), OBJECT_ID);
+        offerService.createObject(CONTAINER_PATH, objectInit.getId(),
+            new ByteArrayInputStream(OBJECT_ID_2_CONTENT.getBytes()), false);
+        final WorkspaceConfiguration conf = PropertiesUtils.readYaml(PropertiesUtils.findFile(DEFAULT_STORAGE_CONF),
+            WorkspaceConfiguration.class);
+        final File partFile =
+            Paths.get(conf.getStoragePath(), CONTAINER_PATH, OBJECT_TYPE.getFolder(), OBJECT_ID + ".part").toFile();
+        assertTrue(partFile.exists());
+
+        // still active
+        assertEquals(0, offerService.purgePendingObjects(System.currentTimeMillis() - 60000));
+        assertTrue(partFile.exists());
+
+        assertEquals(1, offerService.purgePendingObjects(System.currentTimeMillis() + 1));
+        assertFalse(partFile.exists());
+        try {
+            offerService.createObject(CONTAINER_PATH, objectInit.getId(),
+                new ByteArrayInputStream(OBJECT_ID_2_CONTENT.getBytes()), true);
+            fail("Should raise an exception");
+        } catch (final ContentAddressableStorageException e) {
+            // expected: the creation was abandoned
+        }
+        assertFalse(partFile.exists());
+    }
+
     @Test
     public void getCapacityOk() throws Exception {
         final DefaultOfferService offerService = DefaultOfferServiceImpl.getInstance();
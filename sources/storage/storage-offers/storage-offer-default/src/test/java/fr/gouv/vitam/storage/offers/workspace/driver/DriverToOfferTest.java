@@ -28,6 +28,7 @@
 package fr.gouv.vitam.storage.offers.workspace.driver;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -37,6 +38,7 @@ import java.io.FileInputStream;
 import java.nio.file.Files;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
+import java.util.Properties;
 
 import org.jhades.JHades;
 import org.junit.AfterClass;
@@ -48,6 +50,7 @@ import com.jayway.restassured.RestAssured;
 import fr.gouv.vitam.common.BaseXx;
 import fr.gouv.vitam.common.PropertiesUtils;
 import fr.gouv.vitam.common.VitamConfiguration;
+import fr.gouv.vitam.common.digest.Digest;
 import fr.gouv.vitam.common.exception.VitamApplicationServerException;
 import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.junit.JunitHelper;
@@ -178,4 +181,31 @@ public class DriverToOfferTest {
         final GetObjectRequest getRequest = new GetObjectRequest("1", guid, DataCategory.UNIT.getFolder());
         connection.getObject(getRequest);
     }
+
+    @Test
+    public void integrationByChunksTest() throws Exception {
+        final Properties parameters = new Properties();
+        parameters.setProperty(ConnectionImpl.CHUNK_SIZE_PARAMETER, "1000");
+        final Connection chunkConnection = driver.connect("http://localhost:" + serverPort, parameters);
+        final String chunkGuid = GUIDFactory.newObjectGUID(1).toString();
+        final WorkspaceConfiguration conf = PropertiesUtils.readYaml(PropertiesUtils.findFile(DEFAULT_STORAGE_CONF),
+            WorkspaceConfiguration.class);
+        final File object =
+            new File(conf.getStoragePath() + "/1", DataCategory.OBJECT.getFolder() + "/" + chunkGuid);
+        try (FileInputStream fin = new FileInputStream(PropertiesUtils.findFile(ARCHIVE_FILE_TXT))) {
+            final PutObjectResult result = chunkConnection.putObject(new PutObjectRequest("1",
+                VitamConfiguration.getDefaultDigestType().getName(), chunkGuid, fin, DataCategory.OBJECT.name()));
+
+            final File file = PropertiesUtils.findFile(ARCHIVE_FILE_TXT);
+            assertTrue(com.google.common.io.Files.equal(file, object));
+            assertEquals(file.length(), result.getObjectSize());
+            assertEquals(Digest.digest(file, VitamConfiguration.getDefaultDigestType()).toString(),
+                result.getDigestHashBase16());
+            assertFalse(new File(object.getParentFile(), chunkGuid + ".part").exists());
+        } finally {
+            chunkConnection.close();
+            Files.deleteIfExists(object.toPath());
+            Files.deleteIfExists(object.getParentFile().toPath());
+        }
+    }
 }
@@ -27,6 +27,8 @@
 package fr.gouv.vitam.worker.client;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import fr.gouv.vitam.common.PropertiesUtils;
 import fr.gouv.vitam.common.client.VitamClientFactory;
@@ -63,6 +65,7 @@ public class WorkerClientFactory extends VitamClientFactory<WorkerClient> {
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(WorkerClientFactory.class);
     private static final String CONFIGURATION_FILENAME = "worker-client.conf";
     private static final WorkerClientFactory WORKER_CLIENT_FACTORY = new WorkerClientFactory();
+    private static final Map<String, WorkerClientFactory> WORKER_CLIENT_FACTORIES = new ConcurrentHashMap<>();
     /**
      * RESOURCE PATH
      */
@@ -72,6 +75,10 @@ public class WorkerClientFactory extends VitamClientFactory<WorkerClient> {
         super(changeConfigurationFile(CONFIGURATION_FILENAME), RESOURCE_PATH, true, false, false);
     }
 
+    private WorkerClientFactory(WorkerClientConfiguration configuration) {
+        super(configuration, RESOURCE_PATH, true, false, false, true);
+    }
+
     /**
      * Get the WorkerClientFactory instance
      *
@@ -81,6 +88,24 @@ public class WorkerClientFactory extends VitamClientFactory<WorkerClient> {
         return WORKER_CLIENT_FACTORY;
     }
 
+    /**
+     * Get the WorkerClientFactory dedicated to one remote worker.<br>
+     * <br>
+     * Each remote worker gets its own factory, so that several workers can be called concurrently without changing
+     * the configuration of the shared default instance.
+     *
+     * @param configuration the remote worker configuration, null for the default instance
+     * @return the instance
+     */
+    public static final WorkerClientFactory getInstance(WorkerClientConfiguration configuration) {
+        if (configuration == null) {
+            return getInstance();
+        }
+        return WORKER_CLIENT_FACTORIES.computeIfAbsent(
+            configuration.getServerHost() + ":" + configuration.getServerPort(),
+            key -> new WorkerClientFactory(configuration));
+    }
+
     /**
      * Get the default worker client
      *
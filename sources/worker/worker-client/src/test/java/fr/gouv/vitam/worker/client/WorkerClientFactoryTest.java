@@ -27,6 +27,8 @@
 package fr.gouv.vitam.worker.client;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Before;
@@ -60,6 +62,20 @@ public class WorkerClientFactoryTest {
         assertEquals(VitamClientType.PRODUCTION, WorkerClientFactory.getInstance().getVitamClientType());
     }
 
+    @Test
+    public void testDedicatedFactoryPerWorker() {
+        final WorkerClientFactory first =
+            WorkerClientFactory.getInstance(new WorkerClientConfiguration("localhost", 8098));
+        final WorkerClientFactory second =
+            WorkerClientFactory.getInstance(new WorkerClientConfiguration("localhost", 8099));
+        assertSame(first, WorkerClientFactory.getInstance(new WorkerClientConfiguration("localhost", 8098)));
+        assertNotSame(first, second);
+        assertNotSame(WorkerClientFactory.getInstance(), first);
+        assertSame(WorkerClientFactory.getInstance(), WorkerClientFactory.getInstance(null));
+        assertEquals(VitamClientType.PRODUCTION, first.getVitamClientType());
+        assertTrue(first.getClient() instanceof WorkerClientRest);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testWithWrongInitServerParameters() {
         WorkerClientFactory.changeMode(new WorkerClientConfiguration());
@@ -26,6 +26,9 @@
  *******************************************************************************/
 package fr.gouv.vitam.worker.common;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -37,11 +40,18 @@ import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
  * Description of the step execution.
  */
 public class DescriptionStep {
+    /**
+     * Key of the data of the response to a step with an objectNameList: the status of each object actually processed,
+     * by object name. The objects of the list missing from it were not processed.
+     */
+    public static final String OBJECT_STATUSES = "objectStatuses";
 
     @JsonProperty("step")
     private Step step;
     @JsonProperty("workParams")
     private WorkerParameters workParams;
+    @JsonProperty("objectNameList")
+    private List<String> objectNameList = new ArrayList<>();
 
     /**
      * Constructor.
@@ -95,4 +105,26 @@ public class DescriptionStep {
         this.workParams = workParams;
     }
 
+    /**
+     * Get the list of object names to process in one call (batch mode)
+     *
+     * @return objectNameList, empty if only workParams' objectName is to be processed
+     */
+    public List<String> getObjectNameList() {
+        return objectNameList;
+    }
+
+    /**
+     * Set the list of object names to process in one call (batch mode)
+     *
+     * @param objectNameList objectNameList
+     */
+    public void setObjectNameList(List<String> objectNameList) {
+        if (objectNameList == null) {
+            this.objectNameList = new ArrayList<>();
+        } else {
+            this.objectNameList = objectNameList;
+        }
+    }
+
 }
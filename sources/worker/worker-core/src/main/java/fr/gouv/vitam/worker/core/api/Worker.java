@@ -26,6 +26,8 @@
  *******************************************************************************/
 package fr.gouv.vitam.worker.core.api;
 
+import java.util.List;
+
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.VitamAutoCloseable;
 import fr.gouv.vitam.processing.common.exception.HandlerNotFoundException;
@@ -57,6 +59,26 @@ public interface Worker extends VitamAutoCloseable {
         throws IllegalArgumentException, HandlerNotFoundException, ProcessingException,
         ContentAddressableStorageServerException;
 
+    /**
+     * Worker execute the step's actions on a batch of objects, one after the other, sharing the same HandlerIO
+     *
+     * @param workParams {@link WorkerParameters} (objectName will be set successively to each object name)
+     * @param step {@link Step} null not allowed
+     * @param objectNames the names of the objects to process, if null or empty, only the objectName of workParams
+     *        is processed
+     * @return the aggregation of the actions response of each object {OK,KO,FATAL...}, with as data
+     *         {@link fr.gouv.vitam.worker.common.DescriptionStep#OBJECT_STATUSES} the status of each object actually
+     *         processed when objectNames is not empty
+     *
+     * @throws IllegalArgumentException throws when arguments are null
+     * @throws HandlerNotFoundException throws when handler not found
+     * @throws ProcessingException throws when error in execution
+     * @throws ContentAddressableStorageServerException
+     */
+    ItemStatus run(WorkerParameters workParams, Step step, List<String> objectNames)
+        throws IllegalArgumentException, HandlerNotFoundException, ProcessingException,
+        ContentAddressableStorageServerException;
+
 
     /**
      * Constructor for test.
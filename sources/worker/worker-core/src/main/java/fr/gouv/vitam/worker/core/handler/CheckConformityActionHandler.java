@@ -28,6 +28,8 @@
 package fr.gouv.vitam.worker.core.handler;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
@@ -52,6 +54,7 @@ import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.common.stream.StreamUtils;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientBadRequestException;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientNotFoundException;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientServerException;
@@ -230,12 +233,14 @@ public class CheckConformityActionHandler extends ActionHandler {
             return;
         }
 
+        final String objectPath = IngestWorkflowConstants.SEDA_FOLDER + "/" + binaryObject.getUri();
+        final File spoolFile = handlerIO.getNewLocalFile(objectPath);
         try {
             final DigestType digestTypeInput = DigestType.fromValue((String) handlerIO.getInput(ALGO_RANK));
-            response = handlerIO.getInputStreamNoCachedFromWorkspace(
-                IngestWorkflowConstants.SEDA_FOLDER + "/" + binaryObject.getUri());
-            InputStream inputStream = (InputStream) response.getEntity();
+            response = handlerIO.getInputStreamNoCachedFromWorkspace(objectPath);
+            // calculate digest by vitam alog
             final Digest vitamDigest = new Digest(digestTypeInput);
+            InputStream inputStream = vitamDigest.getDigestInputStream((InputStream) response.getEntity());
             Digest manifestDigest;
             boolean isVitamDigest = false;
             if (!binaryObject.getAlgo().equals(digestTypeInput)) {
@@ -246,8 +251,14 @@ public class CheckConformityActionHandler extends ActionHandler {
                 manifestDigest = vitamDigest;
                 isVitamDigest = true;
             }
-            // calculate digest by vitam alog
-            vitamDigest.update(inputStream);
+            // the object is kept locally while digested, so that the next actions of the step (format
+            // identification) get it from HandlerIO without reading it again from the Workspace
+            try (FileOutputStream spool = new FileOutputStream(spoolFile)) {
+                StreamUtils.copy(inputStream, spool);
+            } catch (final IOException e) {
+                deleteSpoolFile(spoolFile);
+                throw e;
+            }
 
             final String manifestDigestString = manifestDigest.digestHex();
             final String vitamDigestString = vitamDigest.digestHex();
@@ -304,6 +315,12 @@ public class CheckConformityActionHandler extends ActionHandler {
 
     }
 
+    private static void deleteSpoolFile(File spoolFile) {
+        if (spoolFile.exists() && !spoolFile.delete()) {
+            LOGGER.warn("Cannot delete the local copy: " + spoolFile);
+        }
+    }
+
     @Override
     public void checkMandatoryIOParameter(HandlerIO handler) throws ProcessingException {
         handler.checkHandlerIO(1, Arrays.asList(new Class[] {String.class}));
@@ -26,14 +26,25 @@
  *******************************************************************************/
 package fr.gouv.vitam.worker.core.handler;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.StringReader;
+import java.io.SequenceInputStream;
 import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -57,21 +68,25 @@ import javax.xml.stream.events.XMLEvent;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
 
-import de.odysseus.staxon.json.JsonXMLConfig;
 import de.odysseus.staxon.json.JsonXMLConfigBuilder;
 import de.odysseus.staxon.json.JsonXMLOutputFactory;
+import fr.gouv.vitam.common.CharsetUtils;
 import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.VitamConfiguration;
+import fr.gouv.vitam.common.collection.SpillableStringMap;
 import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.exception.CycleFoundException;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
-import fr.gouv.vitam.common.graph.DirectedCycle;
-import fr.gouv.vitam.common.graph.DirectedGraph;
-import fr.gouv.vitam.common.graph.Graph;
 import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.SysErrLogger;
@@ -89,7 +104,6 @@ import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleObjectGroupParame
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleUnitParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookParameterName;
-import fr.gouv.vitam.logbook.common.parameters.LogbookParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookParametersFactory;
 import fr.gouv.vitam.logbook.common.parameters.LogbookTypeProcess;
 import fr.gouv.vitam.logbook.lifecycles.client.LogbookLifeCyclesClient;
@@ -115,6 +129,14 @@ public class ExtractSedaActionHandler extends ActionHandler {
 
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ExtractSedaActionHandler.class);
 
+    // Factories are thread safe once configured: shared by all extractions
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+    private static final XMLEventFactory EVENT_FACTORY = XMLEventFactory.newInstance();
+    private static final JsonXMLOutputFactory JSON_OUTPUT_FACTORY = new JsonXMLOutputFactory(
+        new JsonXMLConfigBuilder().autoArray(true).autoPrimitive(true).prettyPrint(true)
+            .namespaceDeclarations(false).build());
+
     // OUT RANK
     private static final int GRAPH_WITH_LONGEST_PATH_IO_RANK = 0;
     private static final int BDO_ID_TO_OG_ID_IO_RANK = 1;
@@ -153,6 +175,8 @@ public class ExtractSedaActionHandler extends ActionHandler {
     private static final String BINARY_DATA_OBJECT_VERSION_MUST_BE_UNIQUE =
         "ERROR: BinaryDataObject version must be unique";
     private static final String LEVEL = "level_";
+    // unit guids kept in memory before being appended to their level file
+    private static final int LEVEL_BUFFER_SIZE = 10000;
 
     private static final String ARCHIVE_UNIT_ELEMENT_ID_ATTRIBUTE = "id";
     private static final String ARCHIVE_UNIT_REF_ID_TAG = "ArchiveUnitRefId";
@@ -165,7 +189,8 @@ public class ExtractSedaActionHandler extends ActionHandler {
     private static final String CANNOT_READ_SEDA = "Can not read SEDA";
     private static final String MANIFEST_NOT_FOUND = "Manifest.xml Not Found";
     private static final String ARCHIVE_UNIT_TMP_FILE_PREFIX = "AU_TMP_";
-    private static final String GLOBAL_MGT_RULE_TAG = "GLOBAL_MGT_RULE";
+    private static final String PARENTS_SEPARATOR = " ";
+    private static final String LEVEL_IN_PROGRESS = "-1";
 
     private final Map<String, String> binaryDataObjectIdToGuid;
     private final Map<String, String> objectGroupIdToGuid;
@@ -177,34 +202,59 @@ public class ExtractSedaActionHandler extends ActionHandler {
     private final Map<String, String> unitIdToGroupId;
     // this map contains binaryDataObject that not have DataObjectGroupId
     private final Map<String, GotObj> binaryDataObjectIdWithoutObjectGroupId;
-    private final Map<String, List<String>> objectGroupIdToUnitId;
-    private final Map<String, BinaryObjectInfo> objectGuidToBinaryObject;
+    // units referencing each object group, separated by PARENTS_SEPARATOR
+    private final Map<String, String> objectGroupIdToUnitId;
+    // binary object information as json
+    private final Map<String, String> objectGuidToBinaryObject;
     private final Map<String, String> binaryDataObjectIdToVersionDataObject;
-    private final Map<String, LogbookLifeCycleParameters> guidToLifeCycleParameters;
+    private final Map<String, String> objectGroupGuidToLifeCycleEventId;
+    private final Map<String, String> unitGuidToLifeCycleEventId;
+    private final Map<String, String> unitGuidToInjectionOffset;
+    // Archive Unit Tree: immediate parents of each unit, separated by PARENTS_SEPARATOR
+    private final Map<String, String> unitIdToParents;
+    private final Map<String, String> unitIdToLevel;
 
     private final List<Class<?>> handlerInitialIOList = new ArrayList<>();
     private File globalSedaParametersFile;
-    private final Map<String, Set<String>> unitIdToSetOfRuleId;
-    private final Map<String, StringWriter> mngtMdRuleIdToRulesXml;
+    // rule ids of each unit, each followed by RULE_SEPARATOR
+    private final Map<String, String> unitIdToRuleIds;
+    private final Map<String, String> mngtMdRuleIdToRulesXml;
 
     /**
-     * Constructor with parameter SedaUtilsFactory
+     * Constructor with parameter SedaUtilsFactory<br>
+     * <br>
+     * The maps indexed by every Archive Unit or Binary Data Object of the manifest are spilled to the Vitam temporary
+     * folder once they are too large, so that the memory used by the extraction stays bounded.
      */
     public ExtractSedaActionHandler() {
-        binaryDataObjectIdToGuid = new HashMap<>();
+        this(SpillableStringMap.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Constructor with the number of entries kept in memory by each spillable map
+     *
+     * @param spillThreshold the number of entries kept in memory before spilling
+     */
+    ExtractSedaActionHandler(int spillThreshold) {
+        final File spillFolder = new File(VitamConfiguration.getVitamTmpFolder());
+        binaryDataObjectIdToGuid = new SpillableStringMap(spillFolder, spillThreshold);
         binaryDataObjectIdWithoutObjectGroupId = new HashMap<>();
         objectGroupIdToGuid = new HashMap<>();
         objectGroupIdToGuidTmp = new HashMap<>();
-        unitIdToGuid = new HashMap<>();
-        binaryDataObjectIdToObjectGroupId = new HashMap<>();
+        unitIdToGuid = new SpillableStringMap(spillFolder, spillThreshold);
+        binaryDataObjectIdToObjectGroupId = new SpillableStringMap(spillFolder, spillThreshold);
         objectGroupIdToBinaryDataObjectId = new HashMap<>();
-        unitIdToGroupId = new HashMap<>();
-        objectGroupIdToUnitId = new HashMap<>();
-        guidToLifeCycleParameters = new HashMap<>();
-        binaryDataObjectIdToVersionDataObject = new HashMap<>();
-        objectGuidToBinaryObject = new HashMap<>();
+        unitIdToGroupId = new SpillableStringMap(spillFolder, spillThreshold);
+        objectGroupIdToUnitId = new SpillableStringMap(spillFolder, spillThreshold);
+        objectGroupGuidToLifeCycleEventId = new SpillableStringMap(spillFolder, spillThreshold);
+        unitGuidToLifeCycleEventId = new SpillableStringMap(spillFolder, spillThreshold);
+        unitGuidToInjectionOffset = new SpillableStringMap(spillFolder, spillThreshold);
+        unitIdToParents = new SpillableStringMap(spillFolder, spillThreshold);
+        unitIdToLevel = new SpillableStringMap(spillFolder, spillThreshold);
+        binaryDataObjectIdToVersionDataObject = new SpillableStringMap(spillFolder, spillThreshold);
+        objectGuidToBinaryObject = new SpillableStringMap(spillFolder, spillThreshold);
         mngtMdRuleIdToRulesXml = new HashMap<>();
-        unitIdToSetOfRuleId = new HashMap<>();
+        unitIdToRuleIds = new SpillableStringMap(spillFolder, spillThreshold);
     }
 
     /**
@@ -223,6 +273,8 @@ public class ExtractSedaActionHandler extends ActionHandler {
 
         try {
             checkMandatoryIOParameter(ioParam);
+            // kept in MEMORY for the next handler of the previous extraction step, released now
+            objectGroupIdToUnitId.clear();
             globalSedaParametersFile =
                 handlerIO.getNewLocalFile(handlerIO.getOutput(GLOBAL_SEDA_PARAMETERS_FILE_IO_RANK).getPath());
             extractSEDA(params, globalCompositeItemStatus);
@@ -248,9 +300,14 @@ public class ExtractSedaActionHandler extends ActionHandler {
             binaryDataObjectIdToObjectGroupId.clear();
             objectGroupIdToBinaryDataObjectId.clear();
             unitIdToGroupId.clear();
-            guidToLifeCycleParameters.clear();
+            objectGroupGuidToLifeCycleEventId.clear();
+            unitGuidToLifeCycleEventId.clear();
+            unitGuidToInjectionOffset.clear();
+            unitIdToParents.clear();
+            unitIdToLevel.clear();
             objectGuidToBinaryObject.clear();
             binaryDataObjectIdToVersionDataObject.clear();
+            unitIdToRuleIds.clear();
             // Except if they are to be used in MEMORY just after in the same STEP
             // objectGroupIdToGuid
             // objectGroupIdToUnitId
@@ -291,14 +348,10 @@ public class ExtractSedaActionHandler extends ActionHandler {
          **/
         InputStream xmlFile = null;
 
-        final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
         XMLEventReader reader = null;
         final QName dataObjectName = new QName(SedaConstants.NAMESPACE_URI, BINARY_DATA_OBJECT);
         final QName unitName = new QName(SedaConstants.NAMESPACE_URI, ARCHIVE_UNIT);
 
-        // Archive Unit Tree
-        final ObjectNode archiveUnitTree = JsonHandler.createObjectNode();
-
         try {
             try {
                 xmlFile = handlerIO.getInputStreamFromWorkspace(
@@ -307,15 +360,12 @@ public class ExtractSedaActionHandler extends ActionHandler {
                 LOGGER.error(MANIFEST_NOT_FOUND);
                 throw new ProcessingException(e);
             }
-            reader = xmlInputFactory.createXMLEventReader(xmlFile);
-            final JsonXMLConfig config =
-                new JsonXMLConfigBuilder().autoArray(true).autoPrimitive(true).prettyPrint(true)
-                    .namespaceDeclarations(false).build();
+            reader = XML_INPUT_FACTORY.createXMLEventReader(xmlFile);
             // This file will be a JSON representation of the SEDA manifest with an empty DataObjectPackage structure
             final FileWriter tmpFileWriter =
                 new FileWriter(globalSedaParametersFile);
-            final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
-            final XMLEventWriter writer = new JsonXMLOutputFactory(config).createXMLEventWriter(tmpFileWriter);
+            final XMLEventFactory eventFactory = EVENT_FACTORY;
+            final XMLEventWriter writer = JSON_OUTPUT_FACTORY.createXMLEventWriter(tmpFileWriter);
             writer.add(eventFactory.createStartDocument());
             boolean globalMetadata = true;
             while (true) {
@@ -373,31 +423,12 @@ public class ExtractSedaActionHandler extends ActionHandler {
                 if (event.isStartElement()) {
                     final StartElement element = event.asStartElement();
                     if (element.getName().equals(unitName)) {
-                        writeArchiveUnitToTmpDir(containerId, reader, element, archiveUnitTree,
-                            logbookLifeCycleClient);
+                        writeArchiveUnitToTmpDir(containerId, reader, element, logbookLifeCycleClient);
                     } else if (element.getName().equals(dataObjectName)) {
                         final String objectGroupGuid =
                             writeBinaryDataObjectInLocal(reader, element, containerId, logbookLifeCycleClient);
-                        if (guidToLifeCycleParameters.get(objectGroupGuid) != null) {
-                            handlerIO.getHelper()
-                                .updateDelegate((LogbookLifeCycleObjectGroupParameters) guidToLifeCycleParameters
-                                    .get(objectGroupGuid).setBeginningLog(HANDLER_ID, null, null));
-
-                            // Add creation sub task event
-                            handlerIO.getHelper()
-                                .updateDelegate((LogbookLifeCycleObjectGroupParameters) guidToLifeCycleParameters
-                                    .get(objectGroupGuid).setFinalStatus(LFC_CREATION_SUB_TASK_FULL_ID,
-                                        null,
-                                        StatusCode.OK,
-                                        null));
-
-                            handlerIO.getHelper()
-                                .updateDelegate((LogbookLifeCycleObjectGroupParameters) guidToLifeCycleParameters
-                                    .get(objectGroupGuid).setFinalStatus(HANDLER_ID, null,
-                                        StatusCode.OK,
-                                        null));
-                            logbookLifeCycleClient.bulkCreateObjectGroup(containerId,
-                                handlerIO.getHelper().removeCreateDelegate(objectGroupGuid));
+                        if (objectGroupGuidToLifeCycleEventId.get(objectGroupGuid) != null) {
+                            writeObjectGroupLifeCycle(objectGroupGuid, containerId, logbookLifeCycleClient);
                         }
                     }
                 }
@@ -407,24 +438,18 @@ public class ExtractSedaActionHandler extends ActionHandler {
             }
             writer.add(eventFactory.createEndDocument());
             writer.close();
-            // 1-detect cycle : if graph has a cycle throw CycleFoundException
-            // Define Treatment DirectedCycle detection
-            final DirectedCycle directedCycle = new DirectedCycle(new DirectedGraph(archiveUnitTree));
-            if (directedCycle.isCyclic()) {
-                throw new CycleFoundException(GRAPH_CYCLE_MSG);
-            }
+            // 1- compute levels (longest path from a root) : if graph has a cycle throw CycleFoundException
+            final int maxLevel = computeArchiveUnitLevels();
 
-
-            // 2- create graph and create level
-            // Define Treatment Graph and Level Creation
-            createIngestLevelStackFile(new Graph(archiveUnitTree).getGraphWithLongestPaths(),
-                GRAPH_WITH_LONGEST_PATH_IO_RANK);
+            // 2- create level stack file
+            createIngestLevelStackFile(maxLevel, GRAPH_WITH_LONGEST_PATH_IO_RANK);
+            unitIdToLevel.clear();
 
             checkArchiveUnitIdReference();
             saveObjectGroupsToWorkspace(containerId, logbookLifeCycleClient);
 
             // Add parents to archive units and save them into workspace
-            finalizeAndSaveArchiveUnitToWorkspace(archiveUnitTree, containerId,
+            finalizeAndSaveArchiveUnitToWorkspace(containerId,
                 IngestWorkflowConstants.ARCHIVE_UNIT_FOLDER, globalCompositeItemStatus, logbookLifeCycleClient);
 
 
@@ -478,14 +503,10 @@ public class ExtractSedaActionHandler extends ActionHandler {
         throws ProcessingException {
         try {
             final StringWriter stringWriterRule = new StringWriter();
-            final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
-            final XMLEventWriter xw =
-                xmlOutputFactory.createXMLEventWriter(stringWriterRule);
-            final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+            final XMLEventWriter xw = XML_OUTPUT_FACTORY.createXMLEventWriter(stringWriterRule);
             String currentRuleId = null;
 
-            // Add start element
-            xw.add(eventFactory.createStartElement("", "", GLOBAL_MGT_RULE_TAG));
+            // Serialized once, inserted as is in root units
             xw.add(element);
             while (true) {
                 XMLEvent event = reader.nextEvent();
@@ -493,10 +514,10 @@ public class ExtractSedaActionHandler extends ActionHandler {
                 if (event.isEndElement() &&
                     currentRuleInProcess.equalsIgnoreCase(((EndElement) event).getName().getLocalPart())) {
                     xw.add(event);
+                    xw.flush();
 
                     // Add to map
-                    mngtMdRuleIdToRulesXml.put(currentRuleId, stringWriterRule);
-                    stringWriterRule.close();
+                    mngtMdRuleIdToRulesXml.put(currentRuleId, stringWriterRule.toString());
                     break;
                 }
 
@@ -515,15 +536,14 @@ public class ExtractSedaActionHandler extends ActionHandler {
 
                 xw.add(event);
             }
-            xw.add(eventFactory.createEndDocument());
-        } catch (XMLStreamException | IOException e) {
+        } catch (final XMLStreamException e) {
             LOGGER.error(CANNOT_READ_SEDA, e);
             throw new ProcessingException(e);
         }
     }
 
-    private void finalizeAndSaveArchiveUnitToWorkspace(ObjectNode archiveUnitTree,
-        String containerId, String path, ItemStatus itemStatus, LogbookLifeCyclesClient logbookLifeCycleClient)
+    private void finalizeAndSaveArchiveUnitToWorkspace(String containerId, String path, ItemStatus itemStatus,
+        LogbookLifeCyclesClient logbookLifeCycleClient)
         throws LogbookClientBadRequestException, LogbookClientNotFoundException, LogbookClientServerException,
         XMLStreamException, IOException, ProcessingException {
 
@@ -531,20 +551,16 @@ public class ExtractSedaActionHandler extends ActionHandler {
         if (unitIdToGuid == null) {
             return;
         }
-        final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
-        final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
-        final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
-
         for (final Entry<String, String> element : unitIdToGuid.entrySet()) {
 
             final String unitGuid = element.getValue();
             final String unitId = element.getKey();
-            boolean isRootArchive = true;
-            boolean mgtRulesAdded = false;
 
             // 1- Update created Unit life cycles
-            if (guidToLifeCycleParameters.get(unitGuid) != null) {
-                final LogbookLifeCycleParameters llcp = guidToLifeCycleParameters.get(unitGuid);
+            final String lifeCycleEventId = unitGuidToLifeCycleEventId.get(unitGuid);
+            if (lifeCycleEventId != null) {
+                final LogbookLifeCycleParameters llcp =
+                    initUnitLifeCycleParameters(unitGuid, containerId, lifeCycleEventId);
                 llcp.setBeginningLog(HANDLER_ID, null, null);
                 handlerIO.getHelper().updateDelegate(llcp);
 
@@ -559,179 +575,175 @@ public class ExtractSedaActionHandler extends ActionHandler {
                     handlerIO.getHelper().removeUpdateDelegate(unitGuid));
             }
 
-            // 2- Update temporary files
-            final File unitTmpFileForRead = handlerIO.getNewLocalFile(ARCHIVE_UNIT_TMP_FILE_PREFIX + unitGuid);
-            final File unitCompleteTmpFile = handlerIO.getNewLocalFile(unitGuid);
-            final XMLEventWriter writer = xmlOutputFactory.createXMLEventWriter(new FileWriter(unitCompleteTmpFile));
-            final XMLEventReader reader = xmlInputFactory.createXMLEventReader(new FileReader(unitTmpFileForRead));
-
-            // Add root tag
-            writer.add(eventFactory.createStartDocument());
-            writer.add(eventFactory.createStartElement("", "", IngestWorkflowConstants.ROOT_TAG));
-            boolean startCopy = false;
-            // management rules id to add
-            Set<String> globalMgtIdExtra = null;
-            while (true) {
-                final XMLEvent event = reader.nextEvent();
-                if (event.isStartElement() && ARCHIVE_UNIT.equals(event.asStartElement().getName().getLocalPart())) {
-                    startCopy = true;
-                }
-
-                if (startCopy) {
-                    if (event.isStartElement() &&
-                        ARCHIVE_UNIT.equals(event.asStartElement().getName().getLocalPart())) {
-
-                        // add start work tag
-                        writer.add(eventFactory.createStartElement("", "", IngestWorkflowConstants.WORK_TAG));
-
-                        // Get parents list
-                        // Add _up tag
-                        writer.add(eventFactory.createStartElement("", "", IngestWorkflowConstants.UP_FIELD));
-                        if (archiveUnitTree.has(unitId)) {
-                            final JsonNode archiveNode = archiveUnitTree.get(unitId);
-                            if (archiveNode.has(IngestWorkflowConstants.UP_FIELD)) {
-                                final JsonNode archiveUps = archiveNode.get(IngestWorkflowConstants.UP_FIELD);
-                                if (archiveUps.isArray() && archiveUps.size() > 0) {
-                                    writer.add(eventFactory.createCharacters(getUnitParents((ArrayNode) archiveUps)));
-                                    isRootArchive = false;
-                                }
-                            }
-                        }
-                        writer.add(eventFactory.createEndElement("", "", IngestWorkflowConstants.UP_FIELD));
-
-                        String listRulesForCurrentUnit = "";
-                        if (unitIdToSetOfRuleId != null && unitIdToSetOfRuleId.containsKey(unitId)) {
-                            listRulesForCurrentUnit = getListOfRulesFormater(unitIdToSetOfRuleId.get(unitId));
-                        }
-                        String listRulesForAuRoot = "";
-                        if (isRootArchive) {
-                            if (mngtMdRuleIdToRulesXml != null && !mngtMdRuleIdToRulesXml.isEmpty()) {
-                                globalMgtIdExtra = mngtMdRuleIdToRulesXml.keySet();
-                            }
-                            if (globalMgtIdExtra != null && !globalMgtIdExtra.isEmpty() &&
-                                unitIdToSetOfRuleId != null &&
-                                unitIdToSetOfRuleId.get(unitId) != null && !unitIdToSetOfRuleId.get(unitId).isEmpty()) {
-                                globalMgtIdExtra.removeAll(unitIdToSetOfRuleId.get(unitId));
-                            }
-                            if (globalMgtIdExtra != null && !globalMgtIdExtra.isEmpty()) {
-                                listRulesForAuRoot = getListOfRulesFormater(globalMgtIdExtra);
-                            }
-                        }
-
-                        final StringBuilder rules = new StringBuilder();
-                        if (!Strings.isNullOrEmpty(listRulesForCurrentUnit)) {
-                            rules.append(listRulesForCurrentUnit);
-                        }
-                        if (!Strings.isNullOrEmpty(listRulesForAuRoot)) {
-                            rules.append(listRulesForAuRoot);
-                        }
-
-                        if (!StringUtils.isBlank(rules)) {
-                            writer.add(eventFactory.createStartElement("", "", IngestWorkflowConstants.RULES));
-                            writer.add(eventFactory.createCharacters(rules.toString()));
-                            writer.add(eventFactory.createEndElement("", "", IngestWorkflowConstants.RULES));
-                        }
-                        writer.add(eventFactory.createEndElement("", "", IngestWorkflowConstants.WORK_TAG));
-                    } else if (event.isEndElement() &&
-                        (SedaConstants.TAG_MANAGEMENT.equals(((EndElement) event).getName().getLocalPart()) ||
-                            ARCHIVE_UNIT.equals(event.asEndElement().getName().getLocalPart()))) {
-                        if (SedaConstants.TAG_MANAGEMENT.equals(((EndElement) event).getName().getLocalPart())) {
-                            mgtRulesAdded = true;
-                        }
-
-                        if (ARCHIVE_UNIT.equals(event.asEndElement().getName().getLocalPart()) && !mgtRulesAdded &&
-                            (isRootArchive && globalMgtIdExtra != null)) {
-                            writer.add(eventFactory.createStartElement("", "", SedaConstants.TAG_MANAGEMENT));
-                        }
-                        if (isRootArchive && globalMgtIdExtra != null) {
-                            final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-
-                            // Add inherited rules from Management bloc
-                            for (final String id : globalMgtIdExtra) {
-                                final StringWriter stringWriter = mngtMdRuleIdToRulesXml.get(id);
-                                final StringReader stringReader = new StringReader(stringWriter.toString());
-                                final XMLEventReader xmlEventReaderRule =
-                                    inputFactory.createXMLEventReader(stringReader);
-                                boolean startCopyRule = false;
-                                while (true) {
-                                    final XMLEvent eventRule = xmlEventReaderRule.nextEvent();
-                                    if (eventRule.isStartElement() &&
-                                        GLOBAL_MGT_RULE_TAG
-                                            .equals(eventRule.asStartElement().getName().getLocalPart())) {
-                                        startCopyRule = true;
-                                        continue;
-                                    }
-
-                                    if (eventRule.isEndElement() &&
-                                        GLOBAL_MGT_RULE_TAG.equals(eventRule.asEndElement().getName().getLocalPart())) {
-                                        break;
-                                    }
-                                    if (startCopyRule) {
-                                        writer.add(eventRule);
-                                    }
-                                }
-                            }
-                        }
-
-                        if (ARCHIVE_UNIT.equals(event.asEndElement().getName().getLocalPart()) && !mgtRulesAdded &&
-                            (isRootArchive && globalMgtIdExtra != null)) {
-                            writer.add(eventFactory.createEndElement("", "", SedaConstants.TAG_MANAGEMENT));
-                        }
-
-                        if (SedaConstants.TAG_MANAGEMENT.equals(((EndElement) event).getName().getLocalPart())) {
-                            writer.add(event);
-                            continue;
-                        }
+            // 2- Stream the final unit document to the workspace, the extracted unit being neither parsed nor
+            // copied again
+            final String archiveUps = unitIdToParents.get(unitId);
+            final boolean isRootArchive = Strings.isNullOrEmpty(archiveUps);
+            final String unitRules = unitIdToRuleIds.get(unitId);
+            final Set<String> unitRuleIds = unitRules == null ? null : getRuleIds(unitRules);
+            final StringBuilder rules = new StringBuilder(unitRules == null ? "" : unitRules);
+            // management rules of the ManagementMetadata inherited by root units which do not define them
+            final StringBuilder inheritedRules = new StringBuilder();
+            if (isRootArchive) {
+                for (final Entry<String, String> rule : mngtMdRuleIdToRulesXml.entrySet()) {
+                    if (unitRuleIds == null || !unitRuleIds.contains(rule.getKey())) {
+                        rules.append(rule.getKey()).append(SedaConstants.RULE_SEPARATOR);
+                        inheritedRules.append(rule.getValue());
                     }
-                    writer.add(event);
-                }
-
-                if (event.isEndElement() && ARCHIVE_UNIT.equals(event.asEndElement().getName().getLocalPart())) {
-                    break;
                 }
             }
-            writer.add(eventFactory.createEndElement("", "", IngestWorkflowConstants.ROOT_TAG));
-            writer.close();
-            reader.close();
 
-            // Write to workspace
-            try {
-                handlerIO.transferFileToWorkspace(path + "/" + unitGuid + XML_EXTENSION, unitCompleteTmpFile, true);
+            final File unitTmpFile = handlerIO.getNewLocalFile(ARCHIVE_UNIT_TMP_FILE_PREFIX + unitGuid);
+            try (InputStream unitStream = getArchiveUnitStream(unitTmpFile,
+                Long.parseLong(unitGuidToInjectionOffset.get(unitGuid)),
+                isRootArchive ? "" : getUnitParents(archiveUps), rules.toString(), inheritedRules.toString())) {
+                handlerIO.transferInputStreamToWorkspace(path + "/" + unitGuid + XML_EXTENSION, unitStream);
             } finally {
-                if (!unitTmpFileForRead.delete()) {
+                if (!unitTmpFile.delete()) {
                     LOGGER.warn(FILE_COULD_NOT_BE_DELETED_MSG);
                 }
             }
         }
     }
 
-    private String getListOfRulesFormater(Set<String> rulesId) {
-        final StringBuilder sbRules = new StringBuilder();
-        if (rulesId != null) {
-            for (final String ruleId : rulesId) {
-                sbRules.append(ruleId).append(SedaConstants.RULE_SEPARATOR);
+    /**
+     * Build the final unit document: the root tag and the work tag (parents and rules), then the extracted unit with
+     * the inherited rules inserted at the recorded offset.
+     *
+     * @param unitTmpFile the extracted unit
+     * @param injectionOffset the offset of the Management end tag, or -(offset of the ArchiveUnit end tag) - 1 if the
+     *        unit has no Management
+     * @param parents the parents guids
+     * @param rules the rules ids
+     * @param inheritedRules the xml of the inherited rules
+     * @return the unit document stream
+     */
+    private InputStream getArchiveUnitStream(File unitTmpFile, long injectionOffset, String parents, String rules,
+        String inheritedRules) throws XMLStreamException, IOException {
+        final ByteArrayOutputStream header = new ByteArrayOutputStream();
+        final XMLEventWriter writer = XML_OUTPUT_FACTORY.createXMLEventWriter(header, CharsetUtils.UTF_8);
+        writer.add(EVENT_FACTORY.createStartDocument(CharsetUtils.UTF_8));
+        writer.add(EVENT_FACTORY.createStartElement("", "", IngestWorkflowConstants.ROOT_TAG));
+        writer.add(EVENT_FACTORY.createStartElement("", "", IngestWorkflowConstants.WORK_TAG));
+        writer.add(EVENT_FACTORY.createStartElement("", "", IngestWorkflowConstants.UP_FIELD));
+        writer.add(EVENT_FACTORY.createCharacters(parents));
+        writer.add(EVENT_FACTORY.createEndElement("", "", IngestWorkflowConstants.UP_FIELD));
+        if (!StringUtils.isBlank(rules)) {
+            writer.add(EVENT_FACTORY.createStartElement("", "", IngestWorkflowConstants.RULES));
+            writer.add(EVENT_FACTORY.createCharacters(rules));
+            writer.add(EVENT_FACTORY.createEndElement("", "", IngestWorkflowConstants.RULES));
+        }
+        writer.add(EVENT_FACTORY.createEndElement("", "", IngestWorkflowConstants.WORK_TAG));
+        // root tag is closed after the unit
+        writer.flush();
+
+        long offset = injectionOffset;
+        String injected = inheritedRules;
+        if (offset < 0) {
+            offset = -offset - 1;
+            if (!inheritedRules.isEmpty()) {
+                injected = "<" + SedaConstants.TAG_MANAGEMENT + ">" + inheritedRules + "</" +
+                    SedaConstants.TAG_MANAGEMENT + ">";
             }
         }
-        return sbRules.toString();
+        final InputStream unitTail = new FileInputStream(unitTmpFile);
+        try {
+            ByteStreams.skipFully(unitTail, offset);
+        } catch (final IOException e) {
+            StreamUtils.closeSilently(unitTail);
+            throw e;
+        }
+        return new SequenceInputStream(Collections.enumeration(Arrays.asList(
+            new ByteArrayInputStream(header.toByteArray()),
+            ByteStreams.limit(new FileInputStream(unitTmpFile), offset),
+            new ByteArrayInputStream(injected.getBytes(CharsetUtils.UTF8)),
+            unitTail,
+            new ByteArrayInputStream(("</" + IngestWorkflowConstants.ROOT_TAG + ">").getBytes(CharsetUtils.UTF8)))));
     }
 
-    private String getUnitParents(ArrayNode parents) {
+    private static Set<String> getRuleIds(String rules) {
+        return new HashSet<>(Arrays.asList(rules.split(SedaConstants.RULE_SEPARATOR)));
+    }
+
+    private String getUnitParents(String parents) {
         final StringBuilder parentsList = new StringBuilder();
-        for (final JsonNode currentParentNode : parents) {
-            final String currentParentId = currentParentNode.asText();
-            if (unitIdToGuid.containsKey(currentParentId)) {
-                parentsList.append(unitIdToGuid.get(currentParentId));
+        for (final String currentParentId : parents.split(PARENTS_SEPARATOR)) {
+            final String currentParentGuid = unitIdToGuid.get(currentParentId);
+            if (currentParentGuid != null) {
+                parentsList.append(currentParentGuid);
                 parentsList.append(IngestWorkflowConstants.UPS_SEPARATOR);
             }
         }
 
         // Remove last separator
-        parentsList.replace(parentsList.length() - 1, parentsList.length(), "");
+        if (parentsList.length() > 0) {
+            parentsList.setLength(parentsList.length() - 1);
+        }
         return parentsList.toString();
     }
 
+    private void addParents(String unitId, String parents) {
+        final String currentParents = unitIdToParents.get(unitId);
+        if (Strings.isNullOrEmpty(currentParents)) {
+            unitIdToParents.put(unitId, parents);
+        } else if (!Strings.isNullOrEmpty(parents)) {
+            unitIdToParents.put(unitId, currentParents + PARENTS_SEPARATOR + parents);
+        }
+    }
+
+    /**
+     * Compute the level of each Archive Unit (longest path from a root, roots being at level 0) with an iterative
+     * depth first walk on the immediate parents, the units on the current path being marked in progress to detect
+     * cycles.
+     *
+     * @return the maximum level, -1 if there is no Archive Unit
+     * @throws CycleFoundException if the Archive Unit graph has a cycle
+     */
+    private int computeArchiveUnitLevels() throws CycleFoundException {
+        int maxLevel = -1;
+        final Deque<String> path = new ArrayDeque<>();
+        for (final String archiveUnitId : unitIdToParents.keySet()) {
+            if (unitIdToLevel.containsKey(archiveUnitId)) {
+                continue;
+            }
+            path.push(archiveUnitId);
+            while (!path.isEmpty()) {
+                final String unitId = path.peek();
+                String pendingParent = null;
+                int level = 0;
+                final String parents = unitIdToParents.get(unitId);
+                if (!Strings.isNullOrEmpty(parents)) {
+                    for (final String parentId : parents.split(PARENTS_SEPARATOR)) {
+                        if (!unitIdToParents.containsKey(parentId)) {
+                            // referencing unit, not part of the tree
+                            continue;
+                        }
+                        final String parentLevel = unitIdToLevel.get(parentId);
+                        if (parentLevel == null) {
+                            pendingParent = parentId;
+                            break;
+                        }
+                        if (LEVEL_IN_PROGRESS.equals(parentLevel)) {
+                            throw new CycleFoundException(GRAPH_CYCLE_MSG);
+                        }
+                        level = Math.max(level, Integer.parseInt(parentLevel) + 1);
+                    }
+                }
+                if (pendingParent != null) {
+                    unitIdToLevel.put(unitId, LEVEL_IN_PROGRESS);
+                    path.push(pendingParent);
+                } else {
+                    unitIdToLevel.put(unitId, Integer.toString(level));
+                    maxLevel = Math.max(maxLevel, level);
+                    path.pop();
+                }
+            }
+        }
+        return maxLevel;
+    }
+
     private void writeArchiveUnitToTmpDir(String containerId, XMLEventReader reader,
-        StartElement startElement, ObjectNode archiveUnitTree, LogbookLifeCyclesClient logbookLifeCycleClient)
+        StartElement startElement, LogbookLifeCyclesClient logbookLifeCycleClient)
         throws ProcessingException {
 
         try {
@@ -740,7 +752,7 @@ public class ExtractSedaActionHandler extends ActionHandler {
                 .getValue();
 
             final List<String> createdGuids = extractArchiveUnitToLocalFile(reader, startElement,
-                archiveUnitId, archiveUnitTree, logbookLifeCycleClient);
+                archiveUnitId, logbookLifeCycleClient);
 
             if (createdGuids != null && !createdGuids.isEmpty()) {
                 for (final String currentGuid : createdGuids) {
@@ -789,14 +801,12 @@ public class ExtractSedaActionHandler extends ActionHandler {
         throws ProcessingException {
         final String elementGuid = GUIDFactory.newGUID().toString();
         final File tmpFile = handlerIO.getNewLocalFile(elementGuid + JSON_EXTENSION);
-        final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
-        final JsonXMLConfig config = new JsonXMLConfigBuilder().autoArray(true).autoPrimitive(true).prettyPrint(true)
-            .namespaceDeclarations(false).build();
+        final XMLEventFactory eventFactory = EVENT_FACTORY;
         String groupGuid = null;
         try {
             final FileWriter tmpFileWriter = new FileWriter(tmpFile);
 
-            final XMLEventWriter writer = new JsonXMLOutputFactory(config).createXMLEventWriter(tmpFileWriter);
+            final XMLEventWriter writer = JSON_OUTPUT_FACTORY.createXMLEventWriter(tmpFileWriter);
 
             final Iterator<?> it = startElement.getAttributes();
             String binaryObjectId = "";
@@ -820,7 +830,7 @@ public class ExtractSedaActionHandler extends ActionHandler {
                     if (BINARY_DATA_OBJECT.equals(end.getName().getLocalPart())) {
                         writer.add(event);
                         writer.add(eventFactory.createEndDocument());
-                        objectGuidToBinaryObject.put(elementGuid, bo);
+                        objectGuidToBinaryObject.put(elementGuid, JsonHandler.unprettyPrint(getBinaryObjectNode(bo)));
                         break;
                     }
                 }
@@ -1046,68 +1056,128 @@ public class ExtractSedaActionHandler extends ActionHandler {
     private void createObjectGroupLifeCycle(String groupGuid, String containerId,
         LogbookLifeCyclesClient logbookLifeCycleClient)
         throws LogbookClientBadRequestException, LogbookClientAlreadyExistsException, LogbookClientServerException {
+        final String eventIdentifier = GUIDFactory.newEventGUID(0).toString();
         final LogbookLifeCycleObjectGroupParameters logbookLifecycleObjectGroupParameters =
-            (LogbookLifeCycleObjectGroupParameters) initLogbookLifeCycleParameters(
-                groupGuid, false, true);
+            initObjectGroupLifeCycleParameters(groupGuid, containerId, eventIdentifier);
         logbookLifecycleObjectGroupParameters.setBeginningLog(LFC_INITIAL_CREATION_EVENT_TYPE, null, null);
 
-        logbookLifecycleObjectGroupParameters.putParameterValue(LogbookParameterName.eventIdentifierProcess,
-            containerId);
-        logbookLifecycleObjectGroupParameters.putParameterValue(LogbookParameterName.eventIdentifier,
-            GUIDFactory.newEventGUID(0).toString());
-        logbookLifecycleObjectGroupParameters.putParameterValue(LogbookParameterName.eventTypeProcess,
-            LogbookTypeProcess.INGEST.name());
-
         handlerIO.getHelper().createDelegate(logbookLifecycleObjectGroupParameters);
 
-        // Update guidToLifeCycleParameters
-        guidToLifeCycleParameters.put(groupGuid, logbookLifecycleObjectGroupParameters);
+        // Update objectGroupGuidToLifeCycleEventId
+        objectGroupGuidToLifeCycleEventId.put(groupGuid, eventIdentifier);
     }
 
     /**
-     * create level stack on Json file
+     * Add the events of this handler to a created Object Group life cycle, then write it
+     */
+    private void writeObjectGroupLifeCycle(String groupGuid, String containerId,
+        LogbookLifeCyclesClient logbookLifeCycleClient)
+        throws LogbookClientNotFoundException, LogbookClientBadRequestException, LogbookClientAlreadyExistsException,
+        LogbookClientServerException {
+        final LogbookLifeCycleObjectGroupParameters logbookLifecycleObjectGroupParameters =
+            initObjectGroupLifeCycleParameters(groupGuid, containerId,
+                objectGroupGuidToLifeCycleEventId.get(groupGuid));
+        logbookLifecycleObjectGroupParameters.setBeginningLog(HANDLER_ID, null, null);
+        handlerIO.getHelper().updateDelegate(logbookLifecycleObjectGroupParameters);
+
+        // Add creation sub task event
+        logbookLifecycleObjectGroupParameters.setFinalStatus(LFC_CREATION_SUB_TASK_FULL_ID, null, StatusCode.OK,
+            null);
+        handlerIO.getHelper().updateDelegate(logbookLifecycleObjectGroupParameters);
+
+        logbookLifecycleObjectGroupParameters.setFinalStatus(HANDLER_ID, null, StatusCode.OK, null);
+        handlerIO.getHelper().updateDelegate(logbookLifecycleObjectGroupParameters);
+        logbookLifeCycleClient.bulkCreateObjectGroup(containerId,
+            handlerIO.getHelper().removeCreateDelegate(groupGuid));
+    }
+
+    /**
+     * Create the level stack file: for each level in ascending order, the guids of the units of this level. The unit
+     * guids are bucketed by level in a single pass on the unit levels, each level being spilled to its own local file
+     * so that only a bounded number of guids is kept in memory.
      *
-     * @param levelStackMap
+     * @param maxLevel the maximum level of the units
      * @param rank
      * @throws ProcessingException
      */
-    private void createIngestLevelStackFile(Map<Integer, Set<String>> levelStackMap, int rank)
+    private void createIngestLevelStackFile(int maxLevel, int rank)
         throws ProcessingException {
         LOGGER.debug("Begin createIngestLevelStackFile/containerId: ", handlerIO.getContainerName());
-        ParametersChecker.checkParameter("levelStackMap is a mandatory parameter", levelStackMap);
         ParametersChecker.checkParameter("unitIdToGuid is a mandatory parameter", unitIdToGuid);
 
-        File tempFile = null;
+        final File[] levelFiles = new File[maxLevel + 1];
         try {
-            tempFile = handlerIO.getNewLocalFile(handlerIO.getOutput(rank).getPath());
-            // create level json object node
-            final ObjectNode ingestLevelStack = JsonHandler.createObjectNode();
-            for (final Entry<Integer, Set<String>> entry : levelStackMap.entrySet()) {
-                final ArrayNode unitList = ingestLevelStack.withArray(LEVEL + entry.getKey());
-                final Set<String> unitGuidList = entry.getValue();
-                for (final String idXml : unitGuidList) {
-
-                    final String unitGuid = unitIdToGuid.get(idXml);
-                    if (unitGuid == null) {
-                        throw new IllegalArgumentException("Unit guid not found in map");
+            final List<List<String>> levels = new ArrayList<>(maxLevel + 1);
+            for (int level = 0; level <= maxLevel; level++) {
+                levels.add(new ArrayList<>());
+                levelFiles[level] = handlerIO.getNewLocalFile(LEVEL + level);
+                Files.deleteIfExists(levelFiles[level].toPath());
+            }
+            int buffered = 0;
+            for (final Entry<String, String> entry : unitIdToLevel.entrySet()) {
+                final int level = Integer.parseInt(entry.getValue());
+                if (level < 0 || level > maxLevel) {
+                    throw new IllegalArgumentException("Unit level out of range: " + entry.getValue());
+                }
+                final String unitGuid = unitIdToGuid.get(entry.getKey());
+                if (unitGuid == null) {
+                    throw new IllegalArgumentException("Unit guid not found in map");
+                }
+                levels.get(level).add(unitGuid);
+                if (++buffered >= LEVEL_BUFFER_SIZE) {
+                    appendLevels(levels, levelFiles);
+                    buffered = 0;
+                }
+            }
+            appendLevels(levels, levelFiles);
+            final File tempFile = handlerIO.getNewLocalFile(handlerIO.getOutput(rank).getPath());
+            // create level json object
+            try (JsonGenerator generator = new JsonFactory().createGenerator(tempFile, JsonEncoding.UTF8)) {
+                generator.writeStartObject();
+                for (int level = 0; level <= maxLevel; level++) {
+                    generator.writeArrayFieldStart(LEVEL + level);
+                    if (levelFiles[level].exists()) {
+                        try (BufferedReader reader = Files.newBufferedReader(levelFiles[level].toPath(),
+                            CharsetUtils.UTF8)) {
+                            String unitGuid;
+                            while ((unitGuid = reader.readLine()) != null) {
+                                generator.writeString(unitGuid);
+                            }
+                        }
                     }
-                    unitList.add(unitGuid);
+                    generator.writeEndArray();
                 }
-                ingestLevelStack.set(LEVEL + entry.getKey(), unitList);
+                generator.writeEndObject();
             }
-            LOGGER.debug("IngestLevelStack: {}", ingestLevelStack);
-            // create json file
-            JsonHandler.writeAsFile(ingestLevelStack, tempFile);
             // put file in workspace
             handlerIO.addOuputResult(rank, tempFile, true);
-        } catch (final IllegalArgumentException | InvalidParseOperationException e) {
+        } catch (final IllegalArgumentException | IOException e) {
             LOGGER.error(e);
             throw new ProcessingException(e);
+        } finally {
+            for (final File levelFile : levelFiles) {
+                if (levelFile != null && levelFile.exists() && !levelFile.delete()) {
+                    LOGGER.warn(FILE_COULD_NOT_BE_DELETED_MSG);
+                }
+            }
         }
         LOGGER.info("End createIngestLevelStackFile/containerId:" + handlerIO.getContainerName());
 
     }
 
+    /**
+     * Append the buffered unit guids of each level to its level file, one guid per line, then empty the buffers
+     */
+    private static void appendLevels(List<List<String>> levels, File[] levelFiles) throws IOException {
+        for (int level = 0; level < levels.size(); level++) {
+            if (!levels.get(level).isEmpty()) {
+                Files.write(levelFiles[level].toPath(), levels.get(level), CharsetUtils.UTF8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                levels.get(level).clear();
+            }
+        }
+    }
+
     /**
      * Get the object group id defined in binary data object or the binary data object without GO. In this map the new
      * technical object is created
@@ -1145,41 +1215,57 @@ public class ExtractSedaActionHandler extends ActionHandler {
         }
     }
 
-    private LogbookParameters initLogbookLifeCycleParameters(String guid, boolean isArchive, boolean isObjectGroup) {
-        LogbookParameters logbookLifeCycleParameters = guidToLifeCycleParameters.get(guid);
-        if (logbookLifeCycleParameters == null) {
-            logbookLifeCycleParameters = isArchive ? LogbookParametersFactory.newLogbookLifeCycleUnitParameters()
-                : isObjectGroup ? LogbookParametersFactory.newLogbookLifeCycleObjectGroupParameters()
-                    : LogbookParametersFactory.newLogbookOperationParameters();
+    /**
+     * Object Group life cycle parameters are not kept in memory: they are rebuilt from the object group guid, the
+     * container and the creation event identifier
+     */
+    private LogbookLifeCycleObjectGroupParameters initObjectGroupLifeCycleParameters(String groupGuid,
+        String containerId, String eventIdentifier) {
+        final LogbookLifeCycleObjectGroupParameters logbookLifecycleObjectGroupParameters =
+            LogbookParametersFactory.newLogbookLifeCycleObjectGroupParameters();
+        logbookLifecycleObjectGroupParameters.putParameterValue(LogbookParameterName.objectIdentifier, groupGuid);
+        logbookLifecycleObjectGroupParameters.putParameterValue(LogbookParameterName.eventIdentifierProcess,
+            containerId);
+        logbookLifecycleObjectGroupParameters.putParameterValue(LogbookParameterName.eventIdentifier,
+            eventIdentifier);
+        logbookLifecycleObjectGroupParameters.putParameterValue(LogbookParameterName.eventTypeProcess,
+            LogbookTypeProcess.INGEST.name());
+        return logbookLifecycleObjectGroupParameters;
+    }
 
-            logbookLifeCycleParameters.putParameterValue(LogbookParameterName.objectIdentifier, guid);
-        }
-        return logbookLifeCycleParameters;
+    /**
+     * Unit life cycle parameters are not kept in memory: they are rebuilt from the unit guid, the container and the
+     * creation event identifier
+     */
+    private LogbookLifeCycleUnitParameters initUnitLifeCycleParameters(String unitGuid, String containerId,
+        String eventIdentifier) {
+        final LogbookLifeCycleUnitParameters logbookLifecycleUnitParameters =
+            LogbookParametersFactory.newLogbookLifeCycleUnitParameters();
+        logbookLifecycleUnitParameters.putParameterValue(LogbookParameterName.objectIdentifier, unitGuid);
+        logbookLifecycleUnitParameters.putParameterValue(LogbookParameterName.eventIdentifierProcess, containerId);
+        logbookLifecycleUnitParameters.putParameterValue(LogbookParameterName.eventIdentifier, eventIdentifier);
+        logbookLifecycleUnitParameters.putParameterValue(LogbookParameterName.eventTypeProcess,
+            LogbookTypeProcess.INGEST.name());
+        return logbookLifecycleUnitParameters;
     }
 
     private void createUnitLifeCycle(String unitGuid, String containerId,
         LogbookLifeCyclesClient logbookLifeCycleClient)
         throws LogbookClientBadRequestException, LogbookClientAlreadyExistsException, LogbookClientServerException {
+        final String eventIdentifier = GUIDFactory.newEventGUID(0).toString();
         final LogbookLifeCycleUnitParameters logbookLifecycleUnitParameters =
-            (LogbookLifeCycleUnitParameters) initLogbookLifeCycleParameters(
-                unitGuid, true, false);
+            initUnitLifeCycleParameters(unitGuid, containerId, eventIdentifier);
 
         logbookLifecycleUnitParameters.setBeginningLog(LFC_INITIAL_CREATION_EVENT_TYPE, null, null);
 
-        logbookLifecycleUnitParameters.putParameterValue(LogbookParameterName.eventIdentifierProcess, containerId);
-        logbookLifecycleUnitParameters.putParameterValue(LogbookParameterName.eventIdentifier,
-            GUIDFactory.newEventGUID(0).toString());
-        logbookLifecycleUnitParameters.putParameterValue(LogbookParameterName.eventTypeProcess,
-            LogbookTypeProcess.INGEST.name());
-
         logbookLifeCycleClient.create(logbookLifecycleUnitParameters);
 
-        // Update guidToLifeCycleParameters
-        guidToLifeCycleParameters.put(unitGuid, logbookLifecycleUnitParameters);
+        // Update unitGuidToLifeCycleEventId
+        unitGuidToLifeCycleEventId.put(unitGuid, eventIdentifier);
     }
 
     private List<String> extractArchiveUnitToLocalFile(XMLEventReader reader, StartElement startElement,
-        String archiveUnitId, ObjectNode archiveUnitTree, LogbookLifeCyclesClient logbookLifeCycleClient)
+        String archiveUnitId, LogbookLifeCyclesClient logbookLifeCycleClient)
         throws ProcessingException {
 
         final List<String> archiveUnitGuids = new ArrayList<>();
@@ -1187,31 +1273,29 @@ public class ExtractSedaActionHandler extends ActionHandler {
         final String elementGuid = GUIDFactory.newGUID().toString();
         boolean isReferencedArchive = false;
 
-        final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
-        final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+        final XMLEventFactory eventFactory = EVENT_FACTORY;
         final String elementID = ((Attribute) startElement.getAttributes().next()).getValue();
         final QName name = startElement.getName();
         int stack = 1;
         final File tmpFile = handlerIO.getNewLocalFile(ARCHIVE_UNIT_TMP_FILE_PREFIX + elementGuid);
         String groupGuid;
         XMLEventWriter writer;
+        // offsets where inherited management rules could be inserted
+        long managementEndOffset = -1;
+        long unitEndOffset = -1;
 
         final QName unitName = new QName(SedaConstants.NAMESPACE_URI, ARCHIVE_UNIT);
         final QName archiveUnitRefIdTag = new QName(SedaConstants.NAMESPACE_URI, ARCHIVE_UNIT_REF_ID_TAG);
         final QName ruleTag = new QName(SedaConstants.NAMESPACE_URI, SedaConstants.TAG_RULE_RULE);
 
-        // Add new node in archiveUnitNode
-        ObjectNode archiveUnitNode = (ObjectNode) archiveUnitTree.get(archiveUnitId);
-        if (archiveUnitNode == null) {
-            // Create node
-            archiveUnitNode = JsonHandler.createObjectNode();
-        }
-
         // Add new Archive Unit Entry
-        archiveUnitTree.set(archiveUnitId, archiveUnitNode);
+        if (!unitIdToParents.containsKey(archiveUnitId)) {
+            unitIdToParents.put(archiveUnitId, "");
+        }
 
-        try {
-            writer = xmlOutputFactory.createXMLEventWriter(new FileWriter(tmpFile));
+        try (CountingOutputStream tmpOutput =
+            new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            writer = XML_OUTPUT_FACTORY.createXMLEventWriter(tmpOutput, CharsetUtils.UTF_8);
             unitIdToGuid.put(elementID, elementGuid);
 
             // Create new startElement for object with new guid
@@ -1239,6 +1323,7 @@ public class ExtractSedaActionHandler extends ActionHandler {
                             writer.add(eventFactory.createCharacters(groupGuid));
                             writer.add(eventFactory.createEndElement("", "", SedaConstants.PREFIX_OG));
 
+                            unitEndOffset = getOutputOffset(writer, tmpOutput);
                             writer.add(event);
                             break;
                         }
@@ -1249,16 +1334,13 @@ public class ExtractSedaActionHandler extends ActionHandler {
                         .getLocalPart())) {
                     final String groupId = reader.getElementText();
                     unitIdToGroupId.put(elementID, groupId);
-                    if (objectGroupIdToUnitId.get(groupId) == null) {
-                        final List<String> archiveUnitList = new ArrayList<>();
-                        archiveUnitList.add(elementID);
+                    final String archiveUnits = objectGroupIdToUnitId.get(groupId);
+                    if (archiveUnits == null) {
                         if (!binaryDataObjectIdWithoutObjectGroupId.containsKey(groupId)) {
-                            objectGroupIdToUnitId.put(groupId, archiveUnitList);
+                            objectGroupIdToUnitId.put(groupId, elementID);
                         }
                     } else {
-                        final List<String> archiveUnitList = objectGroupIdToUnitId.get(groupId);
-                        archiveUnitList.add(elementID);
-                        objectGroupIdToUnitId.put(groupId, archiveUnitList);
+                        objectGroupIdToUnitId.put(groupId, archiveUnits + PARENTS_SEPARATOR + elementID);
                     }
                     // Create new startElement for group with new guid
                     final String newGroupId = getNewGdoIdFromGdoByUnit(unitIdToGroupId.get(elementID));
@@ -1273,21 +1355,18 @@ public class ExtractSedaActionHandler extends ActionHandler {
 
                     final String objRefId = reader.getElementText();
                     unitIdToGroupId.put(elementID, objRefId);
-                    if (objectGroupIdToUnitId.get(objRefId) == null) {
-                        final List<String> archiveUnitList = new ArrayList<>();
-                        archiveUnitList.add(elementID);
+                    final String archiveUnits = objectGroupIdToUnitId.get(objRefId);
+                    if (archiveUnits == null) {
                         if (binaryDataObjectIdWithoutObjectGroupId.containsKey(objRefId)) {
                             final GotObj gotObj = binaryDataObjectIdWithoutObjectGroupId.get(objRefId);
                             final String gotGuid = gotObj.getGotGuid();
-                            objectGroupIdToUnitId.put(gotGuid, archiveUnitList);
+                            objectGroupIdToUnitId.put(gotGuid, elementID);
                             unitIdToGroupId.put(elementID, gotGuid); // update unitIdToGroupId with new GOT
                             gotObj.setVisited(true); // update isVisited to true
                             binaryDataObjectIdWithoutObjectGroupId.put(objRefId, gotObj);
                         }
                     } else {
-                        final List<String> archiveUnitList = objectGroupIdToUnitId.get(objRefId);
-                        archiveUnitList.add(elementID);
-                        objectGroupIdToUnitId.put(objRefId, archiveUnitList);
+                        objectGroupIdToUnitId.put(objRefId, archiveUnits + PARENTS_SEPARATOR + elementID);
                     }
 
                     final String newGroupId = getNewGdoIdFromGdoByUnit(objRefId);
@@ -1300,55 +1379,41 @@ public class ExtractSedaActionHandler extends ActionHandler {
 
                 } else if (event.isStartElement() && event.asStartElement().getName().equals(unitName)) {
 
-                    // Update archiveUnitTree
+                    // Update archive unit tree
                     final String nestedArchiveUnitId = event.asStartElement()
                         .getAttributeByName(new QName(ARCHIVE_UNIT_ELEMENT_ID_ATTRIBUTE)).getValue();
 
-                    ObjectNode nestedArchiveUnitNode = (ObjectNode) archiveUnitTree.get(nestedArchiveUnitId);
-                    if (nestedArchiveUnitNode == null) {
-                        // Create new Archive Unit Node
-                        nestedArchiveUnitNode = JsonHandler.createObjectNode();
-                    }
-
                     // Add immediate parents
-                    final ArrayNode parentsField = nestedArchiveUnitNode.withArray(SedaConstants.PREFIX_UP);
-                    parentsField.add(archiveUnitId);
-
-                    // Update global tree
-                    archiveUnitTree.set(nestedArchiveUnitId, nestedArchiveUnitNode);
+                    addParents(nestedArchiveUnitId, archiveUnitId);
 
                     // Process Archive Unit element: recursive call
                     archiveUnitGuids.addAll(extractArchiveUnitToLocalFile(reader, event.asStartElement(),
-                        nestedArchiveUnitId, archiveUnitTree, logbookLifeCycleClient));
+                        nestedArchiveUnitId, logbookLifeCycleClient));
                 } else if (event.isStartElement() && event.asStartElement().getName().equals(archiveUnitRefIdTag)) {
                     // Referenced Child Archive Unit
                     final String childArchiveUnitRef = reader.getElementText();
 
-                    ObjectNode childArchiveUnitNode = (ObjectNode) archiveUnitTree.get(childArchiveUnitRef);
-                    if (childArchiveUnitNode == null) {
-                        // Create new Archive Unit Node
-                        childArchiveUnitNode = JsonHandler.createObjectNode();
-                    }
-
-                    // Reference Management during tree creation
-                    final ArrayNode parentsField = childArchiveUnitNode.withArray(SedaConstants.PREFIX_UP);
-                    parentsField.addAll((ArrayNode) archiveUnitTree.get(archiveUnitId).get(SedaConstants.PREFIX_UP));
-                    archiveUnitTree.set(childArchiveUnitRef, childArchiveUnitNode);
-                    archiveUnitTree.without(archiveUnitId);
+                    // Reference Management during tree creation: the referenced child takes the parents of this
+                    // unit, which is removed from the tree once fully read
+                    addParents(childArchiveUnitRef, unitIdToParents.get(archiveUnitId));
 
                     // Set isReferencedArchive to true so we can remove this
                     // unit from unitIdToGuid (no lifeCycle for
                     // this unit because it will not be indexed)
                     isReferencedArchive = true;
 
+                } else if (event.isEndElement() &&
+                    SedaConstants.TAG_MANAGEMENT.equals(event.asEndElement().getName().getLocalPart())) {
+                    managementEndOffset = getOutputOffset(writer, tmpOutput);
+                    writer.add(event);
                 } else if (event.isStartElement() && ruleTag.equals(event.asStartElement().getName())) {
-                    Set<String> setRuleIds = unitIdToSetOfRuleId.get(elementID);
-                    if (setRuleIds == null) {
-                        setRuleIds = new HashSet<>();
-                    }
+                    final String ruleIds = unitIdToRuleIds.get(elementID);
                     final String idRule = reader.getElementText();
-                    setRuleIds.add(idRule);
-                    unitIdToSetOfRuleId.put(elementID, setRuleIds);
+                    if (ruleIds == null) {
+                        unitIdToRuleIds.put(elementID, idRule + SedaConstants.RULE_SEPARATOR);
+                    } else if (!getRuleIds(ruleIds).contains(idRule)) {
+                        unitIdToRuleIds.put(elementID, ruleIds + idRule + SedaConstants.RULE_SEPARATOR);
+                    }
 
                     writer.add(
                         eventFactory.createStartElement("", SedaConstants.NAMESPACE_URI, SedaConstants.TAG_RULE_RULE));
@@ -1382,16 +1447,30 @@ public class ExtractSedaActionHandler extends ActionHandler {
             // Remove this unit from unitIdToGuid (no lifeCycle for this unit
             // because it will not be indexed)
             unitIdToGuid.remove(elementID);
+            unitIdToParents.remove(archiveUnitId);
 
             // delete created temporary file
             tmpFile.delete();
         } else {
+            unitGuidToInjectionOffset.put(elementGuid,
+                Long.toString(managementEndOffset >= 0 ? managementEndOffset : -unitEndOffset - 1));
             archiveUnitGuids.add(elementGuid);
         }
 
         return archiveUnitGuids;
     }
 
+    /**
+     * @return the number of bytes written to the output once all pending events (including an open start tag) are
+     *         flushed
+     */
+    private static long getOutputOffset(XMLEventWriter writer, CountingOutputStream output)
+        throws XMLStreamException {
+        writer.add(EVENT_FACTORY.createCharacters(""));
+        writer.flush();
+        return output.getCount();
+    }
+
     private void saveObjectGroupsToWorkspace(String containerId,
         LogbookLifeCyclesClient logbookLifeCycleClient) throws ProcessingException {
 
@@ -1463,7 +1542,8 @@ public class ExtractSedaActionHandler extends ActionHandler {
 
                 if (objectGroupIdToUnitId != null && objectGroupIdToUnitId.size() != 0) {
                     if (objectGroupIdToUnitId.get(entry.getKey()) != null) {
-                        for (final String objectGroupId : objectGroupIdToUnitId.get(entry.getKey())) {
+                        for (final String objectGroupId : objectGroupIdToUnitId.get(entry.getKey())
+                            .split(PARENTS_SEPARATOR)) {
                             if (unitIdToGuid.get(objectGroupId) != null) {
                                 unitParent.add(unitIdToGuid.get(objectGroupId));
                             }
@@ -1487,28 +1567,9 @@ public class ExtractSedaActionHandler extends ActionHandler {
                     IngestWorkflowConstants.OBJECT_GROUP_FOLDER + "/" + objectGroupGuid + JSON_EXTENSION,
                     tmpFile, true);
                 // Create unreferenced object group
-                if (guidToLifeCycleParameters.get(objectGroupGuid) == null) {
+                if (objectGroupGuidToLifeCycleEventId.get(objectGroupGuid) == null) {
                     createObjectGroupLifeCycle(objectGroupGuid, containerId, logbookLifeCycleClient);
-
-                    // Update Object Group lifeCycle creation event
-                    handlerIO.getHelper()
-                        .updateDelegate((LogbookLifeCycleObjectGroupParameters) guidToLifeCycleParameters
-                            .get(objectGroupGuid).setBeginningLog(HANDLER_ID, null, null));
-
-                    // Add creation sub task event
-                    handlerIO.getHelper()
-                        .updateDelegate((LogbookLifeCycleObjectGroupParameters) guidToLifeCycleParameters
-                            .get(objectGroupGuid).setFinalStatus(LFC_CREATION_SUB_TASK_FULL_ID,
-                                null,
-                                StatusCode.OK,
-                                null));
-
-                    handlerIO.getHelper()
-                        .updateDelegate((LogbookLifeCycleObjectGroupParameters) guidToLifeCycleParameters
-                            .get(objectGroupGuid).setFinalStatus(HANDLER_ID, null, StatusCode.OK,
-                                null));
-                    logbookLifeCycleClient.bulkCreateObjectGroup(containerId,
-                        handlerIO.getHelper().removeCreateDelegate(objectGroupGuid));
+                    writeObjectGroupLifeCycle(objectGroupGuid, containerId, logbookLifeCycleClient);
                 }
 
             } catch (final InvalidParseOperationException e) {
@@ -1530,7 +1591,20 @@ public class ExtractSedaActionHandler extends ActionHandler {
         }
     }
 
-    private ObjectNode getObjectGroupQualifiers(Map<String, ArrayList<JsonNode>> categoryMap) {
+    /**
+     * @return the size, uri, digest and algorithm of the binary object, as added to its object group
+     */
+    private static ObjectNode getBinaryObjectNode(BinaryObjectInfo bo) {
+        final ObjectNode node = JsonHandler.createObjectNode();
+        node.put(SedaConstants.TAG_SIZE, bo.getSize());
+        node.put(SedaConstants.TAG_URI, bo.getUri());
+        node.put(SedaConstants.TAG_DIGEST, bo.getMessageDigest());
+        node.put(SedaConstants.ALGORITHM, bo.getAlgo().getName());
+        return node;
+    }
+
+    private ObjectNode getObjectGroupQualifiers(Map<String, ArrayList<JsonNode>> categoryMap)
+        throws InvalidParseOperationException {
         final ObjectNode qualifierObject = JsonHandler.createObjectNode();
         for (final Entry<String, ArrayList<JsonNode>> entry : categoryMap.entrySet()) {
             final ObjectNode binaryNode = JsonHandler.createObjectNode();
@@ -1540,12 +1614,7 @@ public class ExtractSedaActionHandler extends ActionHandler {
                 final String id = node.findValue(SedaConstants.PREFIX_ID).textValue();
                 final String guid = binaryDataObjectIdToGuid.get(id);
                 ((ObjectNode) node).put(SedaConstants.PREFIX_ID, guid);
-                ((ObjectNode) node).put(SedaConstants.TAG_SIZE, objectGuidToBinaryObject.get(guid).getSize());
-                ((ObjectNode) node).put(SedaConstants.TAG_URI, objectGuidToBinaryObject.get(guid).getUri());
-                ((ObjectNode) node).put(SedaConstants.TAG_DIGEST,
-                    objectGuidToBinaryObject.get(guid).getMessageDigest());
-                ((ObjectNode) node).put(SedaConstants.ALGORITHM,
-                    objectGuidToBinaryObject.get(guid).getAlgo().getName());
+                ((ObjectNode) node).setAll((ObjectNode) JsonHandler.getFromString(objectGuidToBinaryObject.get(guid)));
                 arrayNode.add(node);
             }
             binaryNode.set(SedaConstants.TAG_VERSIONS, arrayNode);
@@ -1554,7 +1623,8 @@ public class ExtractSedaActionHandler extends ActionHandler {
         return qualifierObject;
     }
 
-    private ObjectNode getObjectGroupWork(Map<String, ArrayList<JsonNode>> categoryMap) {
+    private ObjectNode getObjectGroupWork(Map<String, ArrayList<JsonNode>> categoryMap)
+        throws InvalidParseOperationException {
         final ObjectNode workObject = JsonHandler.createObjectNode();
         final ObjectNode qualifierObject = JsonHandler.createObjectNode();
         for (final Entry<String, ArrayList<JsonNode>> entry : categoryMap.entrySet()) {
@@ -1565,10 +1635,7 @@ public class ExtractSedaActionHandler extends ActionHandler {
                 final ObjectNode objectNode = JsonHandler.createObjectNode();
                 final String id = node.findValue(SedaConstants.PREFIX_ID).textValue();
                 objectNode.put(SedaConstants.PREFIX_ID, id);
-                objectNode.put(SedaConstants.TAG_SIZE, objectGuidToBinaryObject.get(id).getSize());
-                objectNode.put(SedaConstants.TAG_URI, objectGuidToBinaryObject.get(id).getUri());
-                objectNode.put(SedaConstants.TAG_DIGEST, objectGuidToBinaryObject.get(id).getMessageDigest());
-                objectNode.put(SedaConstants.ALGORITHM, objectGuidToBinaryObject.get(id).getAlgo().getName());
+                objectNode.setAll((ObjectNode) JsonHandler.getFromString(objectGuidToBinaryObject.get(id)));
                 arrayNode.add(objectNode);
             }
             binaryNode.set(SedaConstants.TAG_VERSIONS, arrayNode);
@@ -26,21 +26,22 @@
  */
 package fr.gouv.vitam.worker.core.handler;
 
-import static fr.gouv.vitam.common.database.builder.query.QueryHelper.eq;
-
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.ws.rs.core.Response;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.gc.iotools.stream.is.InputStreamFromOutputStream;
 
 import fr.gouv.vitam.common.database.builder.request.exception.InvalidCreateOperationException;
-import fr.gouv.vitam.common.database.builder.request.single.Select;
 import fr.gouv.vitam.common.error.VitamCode;
 import fr.gouv.vitam.common.error.VitamCodeHelper;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
@@ -60,6 +61,7 @@ import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.common.model.VitamAutoCloseable;
+import fr.gouv.vitam.common.stream.StreamUtils;
 import fr.gouv.vitam.functional.administration.client.AdminManagementClient;
 import fr.gouv.vitam.functional.administration.client.AdminManagementClientFactory;
 import fr.gouv.vitam.functional.administration.common.FileFormat;
@@ -78,6 +80,7 @@ import fr.gouv.vitam.worker.common.HandlerIO;
 import fr.gouv.vitam.worker.common.utils.IngestWorkflowConstants;
 import fr.gouv.vitam.worker.common.utils.LogbookLifecycleWorkerHelper;
 import fr.gouv.vitam.worker.common.utils.SedaConstants;
+import fr.gouv.vitam.worker.core.impl.ReferentialCache;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
 
@@ -321,11 +324,9 @@ public class FormatIdentificationActionHandler extends ActionHandler implements
 
             final String formatId = format.getPuid();
 
-            final Select select = new Select();
-            select.setQuery(eq(FileFormat.PUID, formatId));
             final JsonNode result;
             try (AdminManagementClient adminClient = AdminManagementClientFactory.getInstance().getClient()) {
-                result = adminClient.getFormats(select.getFinalSelect());
+                result = ReferentialCache.getInstance().getFormats(adminClient, formatId);
             }
 
             // TODO P1 : what should we do if more than 1 result (for the moment, we take into account the first one)
@@ -474,16 +475,35 @@ public class FormatIdentificationActionHandler extends ActionHandler implements
         return null;
     }
 
+    /**
+     * Get the local copy of the object, either already spooled by the digest check of the same step, or read once
+     * from the Workspace (binary objects are not kept in the Worker cache)
+     */
     private File loadFileFromWorkspace(String filePath)
         throws ProcessingException {
+        final String objectPath = IngestWorkflowConstants.SEDA_FOLDER + "/" + filePath;
+        final File file = handlerIO.getNewLocalFile(objectPath);
+        if (file.exists()) {
+            return file;
+        }
+        Response response = null;
         try {
-            return handlerIO.getFileFromWorkspace(IngestWorkflowConstants.SEDA_FOLDER + "/" + filePath);
+            response = handlerIO.getInputStreamNoCachedFromWorkspace(objectPath);
+            if (response != null) {
+                try (FileOutputStream fileOutputStream = new FileOutputStream(file)) {
+                    StreamUtils.copy((InputStream) response.getEntity(), fileOutputStream);
+                }
+            }
+            return file;
         } catch (final IOException e) {
             LOGGER.debug("Error while saving the file", e);
+            file.delete();
             throw new ProcessingException(e);
         } catch (ContentAddressableStorageNotFoundException | ContentAddressableStorageServerException e) {
             LOGGER.debug("Workspace Server Error", e);
             throw new ProcessingException(e);
+        } finally {
+            handlerIO.consumeAnyEntityAndClose(response);
         }
     }
 
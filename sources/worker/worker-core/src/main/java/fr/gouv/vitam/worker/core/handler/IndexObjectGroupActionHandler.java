@@ -26,10 +26,17 @@
  *******************************************************************************/
 package fr.gouv.vitam.worker.core.handler;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import fr.gouv.vitam.common.database.builder.request.multiple.Insert;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.ItemStatus;
@@ -50,17 +57,23 @@ import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
 import fr.gouv.vitam.worker.common.HandlerIO;
 import fr.gouv.vitam.worker.common.utils.LogbookLifecycleWorkerHelper;
 import fr.gouv.vitam.worker.common.utils.SedaConstants;
+import fr.gouv.vitam.worker.core.api.BatchWorkerAction;
 
 /**
- * IndexObjectGroup Handler
+ * IndexObjectGroup Handler<br>
+ * When called with a list of object groups, the object groups are inserted in the metadata by bulk requests.
  */
-public class IndexObjectGroupActionHandler extends ActionHandler {
+public class IndexObjectGroupActionHandler extends ActionHandler implements BatchWorkerAction {
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(IndexObjectGroupActionHandler.class);
     private static final String HANDLER_ID = "OG_METADATA_INDEXATION";
 
     private static final String OBJECT_GROUP = "ObjectGroup";
     public static final String UNIT_LIFE_CYCLE_CREATION_EVENT_TYPE =
         "Check SIP – Units – Lifecycle Logbook Creation – Création du journal du cycle de vie des units";
+    /**
+     * Max number of object groups sent in one bulk insert request
+     */
+    private static final int MAX_BULK_SIZE = 100;
 
     private HandlerIO handlerIO;
 
@@ -82,31 +95,92 @@ public class IndexObjectGroupActionHandler extends ActionHandler {
 
     @Override
     public ItemStatus execute(WorkerParameters params, HandlerIO actionDefinition) {
-        checkMandatoryParameters(params);
-        handlerIO = actionDefinition;
-        final LogbookLifeCycleObjectGroupParameters logbookLifecycleObjectGroupParameters =
-            LogbookParametersFactory.newLogbookLifeCycleObjectGroupParameters();
-        final ItemStatus itemStatus = new ItemStatus(HANDLER_ID);
-        final String objectID = LogbookLifecycleWorkerHelper.getObjectID(params);
+        return executeList(params, actionDefinition, Collections.singletonList(params.getObjectName())).get(0);
+    }
 
-        try {
-            try {
-                checkMandatoryIOParameter(actionDefinition);
+    @Override
+    public List<ItemStatus> executeList(WorkerParameters params, HandlerIO actionDefinition,
+        List<String> objectNames) {
+        handlerIO = actionDefinition;
+        final List<ItemStatus> itemStatuses = new ArrayList<>(objectNames.size());
+        final List<LogbookLifeCycleObjectGroupParameters> logbookLifecycleObjectGroupParameters =
+            new ArrayList<>(objectNames.size());
 
-                LogbookLifecycleWorkerHelper.updateLifeCycleStartStep(handlerIO.getHelper(),
-                    logbookLifecycleObjectGroupParameters,
-                    params, HANDLER_ID, LogbookTypeProcess.INGEST);
+        try (MetaDataClient metadataClient = MetaDataClientFactory.getInstance().getClient()) {
+            final ArrayNode insertRequests = JsonHandler.createArrayNode();
+            final List<ItemStatus> pendingItemStatuses = new ArrayList<>();
+            for (final String objectName : objectNames) {
+                params.setObjectName(objectName);
+                checkMandatoryParameters(params);
+                final ItemStatus itemStatus = new ItemStatus(HANDLER_ID);
+                final LogbookLifeCycleObjectGroupParameters logbookParameters =
+                    LogbookParametersFactory.newLogbookLifeCycleObjectGroupParameters();
+                itemStatuses.add(itemStatus);
+                logbookLifecycleObjectGroupParameters.add(logbookParameters);
+                try {
+                    checkMandatoryIOParameter(actionDefinition);
+
+                    LogbookLifecycleWorkerHelper.updateLifeCycleStartStep(handlerIO.getHelper(),
+                        logbookParameters, params, HANDLER_ID, LogbookTypeProcess.INGEST);
+
+                    insertRequests.add(getInsertRequest(params));
+                    pendingItemStatuses.add(itemStatus);
+                } catch (final ProcessingInternalServerException exc) {
+                    LOGGER.error(exc);
+                    itemStatus.increment(StatusCode.FATAL);
+                } catch (final ProcessingException e) {
+                    LOGGER.error(e);
+                    itemStatus.increment(StatusCode.WARNING);
+                }
+                if (insertRequests.size() >= MAX_BULK_SIZE) {
+                    insertObjectGroups(metadataClient, insertRequests, pendingItemStatuses);
+                }
+            }
+            insertObjectGroups(metadataClient, insertRequests, pendingItemStatuses);
+        }
 
-                indexObjectGroup(params, itemStatus);
+        final List<ItemStatus> responses = new ArrayList<>(objectNames.size());
+        for (int i = 0; i < objectNames.size(); i++) {
+            params.setObjectName(objectNames.get(i));
+            responses.add(
+                updateLifeCycle(params, logbookLifecycleObjectGroupParameters.get(i), itemStatuses.get(i)));
+        }
+        return responses;
+    }
 
-            } catch (final ProcessingInternalServerException exc) {
-                LOGGER.error(exc);
-                itemStatus.increment(StatusCode.FATAL);
-            } catch (final ProcessingException e) {
-                LOGGER.error(e);
-                itemStatus.increment(StatusCode.WARNING);
-            }
+    /**
+     * Send the pending insert requests in one bulk request
+     *
+     * @param metadataClient metadata client
+     * @param insertRequests pending insert requests, emptied after the call
+     * @param pendingItemStatuses item status of each pending request, emptied after the call
+     */
+    private void insertObjectGroups(MetaDataClient metadataClient, ArrayNode insertRequests,
+        List<ItemStatus> pendingItemStatuses) {
+        if (insertRequests.size() == 0) {
+            return;
+        }
+        StatusCode statusCode = StatusCode.OK;
+        try {
+            metadataClient.insertObjectGroups(insertRequests);
+        } catch (final MetaDataException e) {
+            LOGGER.error("Metadata Server Error", e);
+            statusCode = StatusCode.FATAL;
+        } catch (final InvalidParseOperationException e) {
+            LOGGER.error("Json wrong format", e);
+            statusCode = StatusCode.WARNING;
+        }
+        for (final ItemStatus itemStatus : pendingItemStatuses) {
+            itemStatus.increment(statusCode);
+        }
+        insertRequests.removeAll();
+        pendingItemStatuses.clear();
+    }
 
+    private ItemStatus updateLifeCycle(WorkerParameters params,
+        LogbookLifeCycleObjectGroupParameters logbookLifecycleObjectGroupParameters, ItemStatus itemStatus) {
+        final String objectID = LogbookLifecycleWorkerHelper.getObjectID(params);
+        try {
             // Update lifeCycle
             try {
                 logbookLifecycleObjectGroupParameters.setFinalStatus(HANDLER_ID, null, itemStatus.getGlobalStatus(),
@@ -138,28 +212,19 @@ public class IndexObjectGroupActionHandler extends ActionHandler {
 
 
     /**
-     * The function is used for retrieving ObjectGroup in workspace and use metadata client to index ObjectGroup
+     * The function is used for retrieving ObjectGroup in workspace and building its insert request
      *
      * @param params work parameters
-     * @param itemStatus item status
+     * @return the insert request of the current ObjectGroup
      * @throws ProcessingException when error in execution
      */
-    private void indexObjectGroup(WorkerParameters params, ItemStatus itemStatus) throws ProcessingException {
+    private JsonNode getInsertRequest(WorkerParameters params) throws ProcessingException {
         ParameterHelper.checkNullOrEmptyParameters(params);
         final String objectName = params.getObjectName();
 
-        try (MetaDataClient metadataClient = MetaDataClientFactory.getInstance().getClient()) {
-            final ObjectNode json = (ObjectNode) handlerIO.getJsonFromWorkspace(OBJECT_GROUP + "/" + objectName);
-            json.remove(SedaConstants.PREFIX_WORK);
-            final Insert insertRequest = new Insert().addData(json);
-            metadataClient.insertObjectGroup(insertRequest.getFinalInsert());
-            itemStatus.increment(StatusCode.OK);
-        } catch (final MetaDataException e) {
-            throw new ProcessingInternalServerException("Metadata Server Error", e);
-        } catch (final InvalidParseOperationException e) {
-            throw new ProcessingException("Json wrong format", e);
-        }
-
+        final ObjectNode json = (ObjectNode) handlerIO.getJsonFromWorkspace(OBJECT_GROUP + "/" + objectName);
+        json.remove(SedaConstants.PREFIX_WORK);
+        return new Insert().addData(json).getFinalInsert();
     }
 
     @Override
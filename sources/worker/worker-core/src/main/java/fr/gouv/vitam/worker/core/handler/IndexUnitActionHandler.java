@@ -26,11 +26,10 @@
  *******************************************************************************/
 package fr.gouv.vitam.worker.core.handler;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -49,13 +48,11 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
-import de.odysseus.staxon.json.JsonXMLConfig;
 import de.odysseus.staxon.json.JsonXMLConfigBuilder;
 import de.odysseus.staxon.json.JsonXMLOutputFactory;
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.database.builder.request.multiple.Insert;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
-import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.SysErrLogger;
 import fr.gouv.vitam.common.logging.VitamLogger;
@@ -79,20 +76,30 @@ import fr.gouv.vitam.worker.common.HandlerIO;
 import fr.gouv.vitam.worker.common.utils.IngestWorkflowConstants;
 import fr.gouv.vitam.worker.common.utils.LogbookLifecycleWorkerHelper;
 import fr.gouv.vitam.worker.common.utils.SedaConstants;
+import fr.gouv.vitam.worker.core.api.BatchWorkerAction;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
 
 /**
- * IndexUnit Handler
+ * IndexUnit Handler<br>
+ * When called with a list of units, the units are inserted in the metadata by bulk requests.
  */
-public class IndexUnitActionHandler extends ActionHandler {
+public class IndexUnitActionHandler extends ActionHandler implements BatchWorkerAction {
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(IndexUnitActionHandler.class);
     private static final String HANDLER_ID = "UNIT_METADATA_INDEXATION";
 
     private static final String ARCHIVE_UNIT = "ArchiveUnit";
     private static final String TAG_CONTENT = "Content";
     private static final String TAG_MANAGEMENT = "Management";
-    private static final String FILE_COULD_NOT_BE_DELETED_MSG = "File could not be deleted";
+    /**
+     * Max number of units sent in one bulk insert request
+     */
+    private static final int MAX_BULK_SIZE = 100;
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+    private static final XMLEventFactory EVENT_FACTORY = XMLEventFactory.newInstance();
+    private static final JsonXMLOutputFactory JSON_OUTPUT_FACTORY = new JsonXMLOutputFactory(
+        new JsonXMLConfigBuilder().autoArray(true).autoPrimitive(true).namespaceDeclarations(false).build());
 
     private HandlerIO handlerIO;
 
@@ -113,26 +120,83 @@ public class IndexUnitActionHandler extends ActionHandler {
 
     @Override
     public ItemStatus execute(WorkerParameters params, HandlerIO param) {
-        checkMandatoryParameters(params);
-        handlerIO = param;
-        final ItemStatus itemStatus = new ItemStatus(HANDLER_ID);
-        final LogbookLifeCycleUnitParameters logbookLifecycleUnitParameters =
-            LogbookParametersFactory.newLogbookLifeCycleUnitParameters();
-        final String objectID = LogbookLifecycleWorkerHelper.getObjectID(params);
+        return executeList(params, param, Collections.singletonList(params.getObjectName())).get(0);
+    }
 
-        try {
-            try {
-                checkMandatoryIOParameter(handlerIO);
+    @Override
+    public List<ItemStatus> executeList(WorkerParameters params, HandlerIO param, List<String> objectNames) {
+        handlerIO = param;
+        final List<ItemStatus> itemStatuses = new ArrayList<>(objectNames.size());
+        final List<LogbookLifeCycleUnitParameters> logbookLifecycleUnitParameters =
+            new ArrayList<>(objectNames.size());
 
-                LogbookLifecycleWorkerHelper.updateLifeCycleStartStep(handlerIO.getHelper(),
-                    logbookLifecycleUnitParameters,
-                    params, HANDLER_ID, LogbookTypeProcess.INGEST);
-                indexArchiveUnit(params, itemStatus);
-            } catch (final ProcessingException e) {
-                LOGGER.error(e);
-                itemStatus.increment(StatusCode.FATAL);
+        try (MetaDataClient metadataClient = MetaDataClientFactory.getInstance().getClient()) {
+            final ArrayNode insertQueries = JsonHandler.createArrayNode();
+            final List<ItemStatus> pendingItemStatuses = new ArrayList<>();
+            for (final String objectName : objectNames) {
+                params.setObjectName(objectName);
+                checkMandatoryParameters(params);
+                final ItemStatus itemStatus = new ItemStatus(HANDLER_ID);
+                final LogbookLifeCycleUnitParameters logbookParameters =
+                    LogbookParametersFactory.newLogbookLifeCycleUnitParameters();
+                itemStatuses.add(itemStatus);
+                logbookLifecycleUnitParameters.add(logbookParameters);
+                try {
+                    checkMandatoryIOParameter(handlerIO);
+
+                    LogbookLifecycleWorkerHelper.updateLifeCycleStartStep(handlerIO.getHelper(),
+                        logbookParameters, params, HANDLER_ID, LogbookTypeProcess.INGEST);
+                    insertQueries.add(getInsertQuery(params));
+                    pendingItemStatuses.add(itemStatus);
+                } catch (final ProcessingException e) {
+                    LOGGER.error(e);
+                    itemStatus.increment(StatusCode.FATAL);
+                }
+                if (insertQueries.size() >= MAX_BULK_SIZE) {
+                    insertUnits(metadataClient, insertQueries, pendingItemStatuses);
+                }
             }
+            insertUnits(metadataClient, insertQueries, pendingItemStatuses);
+        }
 
+        final List<ItemStatus> responses = new ArrayList<>(objectNames.size());
+        for (int i = 0; i < objectNames.size(); i++) {
+            params.setObjectName(objectNames.get(i));
+            responses.add(updateLifeCycle(params, logbookLifecycleUnitParameters.get(i), itemStatuses.get(i)));
+        }
+        return responses;
+    }
+
+    /**
+     * Send the pending insert queries in one bulk request
+     *
+     * @param metadataClient metadata client
+     * @param insertQueries pending insert queries, emptied after the call
+     * @param pendingItemStatuses item status of each pending query, emptied after the call
+     */
+    private void insertUnits(MetaDataClient metadataClient, ArrayNode insertQueries,
+        List<ItemStatus> pendingItemStatuses) {
+        if (insertQueries.size() == 0) {
+            return;
+        }
+        StatusCode statusCode = StatusCode.OK;
+        try {
+            metadataClient.insertUnits(insertQueries);
+        } catch (final MetaDataException | InvalidParseOperationException e) {
+            LOGGER.error("Internal Server Error", e);
+            statusCode = StatusCode.FATAL;
+        }
+        for (final ItemStatus itemStatus : pendingItemStatuses) {
+            itemStatus.increment(statusCode);
+        }
+        insertQueries.removeAll();
+        pendingItemStatuses.clear();
+    }
+
+    private ItemStatus updateLifeCycle(WorkerParameters params,
+        LogbookLifeCycleUnitParameters logbookLifecycleUnitParameters, ItemStatus itemStatus) {
+        final String objectID = LogbookLifecycleWorkerHelper.getObjectID(params);
+        try {
             // Update lifeCycle
             try {
                 logbookLifecycleUnitParameters.setFinalStatus(HANDLER_ID, null, itemStatus.getGlobalStatus(),
@@ -157,15 +221,14 @@ public class IndexUnitActionHandler extends ActionHandler {
         }
 
         return new ItemStatus(HANDLER_ID).setItemsStatus(HANDLER_ID, itemStatus);
-
     }
 
     /**
      * @param params work parameters
-     * @param itemStatus item status
+     * @return the insert query of the current archive unit
      * @throws ProcessingException when error in execution
      */
-    private void indexArchiveUnit(WorkerParameters params, ItemStatus itemStatus) throws ProcessingException {
+    private JsonNode getInsertQuery(WorkerParameters params) throws ProcessingException {
         ParameterHelper.checkNullOrEmptyParameters(params);
 
         final String containerId = params.getContainerName();
@@ -173,7 +236,7 @@ public class IndexUnitActionHandler extends ActionHandler {
 
         InputStream input;
         Response response = null;
-        try (MetaDataClient metadataClient = MetaDataClientFactory.getInstance().getClient()) {
+        try {
             response = handlerIO
                 .getInputStreamNoCachedFromWorkspace(IngestWorkflowConstants.ARCHIVE_UNIT_FOLDER + "/" + objectName);
 
@@ -191,14 +254,13 @@ public class IndexUnitActionHandler extends ActionHandler {
                     insertQuery.addRoots(parents);
                 }
 
-                metadataClient.insertUnit(insertQuery.addData((ObjectNode) json).getFinalInsert());
-                itemStatus.increment(StatusCode.OK);
+                return insertQuery.addData((ObjectNode) json).getFinalInsert();
             } else {
                 LOGGER.error("Archive unit not found");
                 throw new ProcessingException("Archive unit not found");
             }
 
-        } catch (final MetaDataException | InvalidParseOperationException e) {
+        } catch (final InvalidParseOperationException e) {
             LOGGER.error("Internal Server Error", e);
             throw new ProcessingException(e);
         } catch (ContentAddressableStorageNotFoundException | ContentAddressableStorageServerException e) {
@@ -214,11 +276,8 @@ public class IndexUnitActionHandler extends ActionHandler {
         ParametersChecker.checkParameter("Input stream is a mandatory parameter", input);
         ParametersChecker.checkParameter("Container id is a mandatory parameter", containerId);
         ParametersChecker.checkParameter("ObjectName id is a mandatory parameter", objectName);
-        final File tmpFile = handlerIO.getNewLocalFile(GUIDFactory.newGUID().toString());
-        FileWriter tmpFileWriter = null;
-        final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
-        final JsonXMLConfig config = new JsonXMLConfigBuilder().autoArray(true).autoPrimitive(true).prettyPrint(true)
-            .namespaceDeclarations(false).build();
+        // Converted in memory, without any temporary file
+        final StringWriter jsonWriter = new StringWriter();
 
         JsonNode data = null;
         String parentsList = null;
@@ -226,10 +285,9 @@ public class IndexUnitActionHandler extends ActionHandler {
         XMLEventReader reader = null;
 
         try {
-            tmpFileWriter = new FileWriter(tmpFile);
-            reader = XMLInputFactory.newInstance().createXMLEventReader(input);
+            reader = XML_INPUT_FACTORY.createXMLEventReader(input);
 
-            final XMLEventWriter writer = new JsonXMLOutputFactory(config).createXMLEventWriter(tmpFileWriter);
+            final XMLEventWriter writer = JSON_OUTPUT_FACTORY.createXMLEventWriter(jsonWriter);
             boolean contentWritable = true;
             while (true) {
                 final XMLEvent event = reader.nextEvent();
@@ -239,25 +297,25 @@ public class IndexUnitActionHandler extends ActionHandler {
                     final Iterator<?> it = startElement.getAttributes();
                     final String tag = startElement.getName().getLocalPart();
                     if (it.hasNext() && !TAG_CONTENT.equals(tag) && contentWritable) {
-                        writer.add(eventFactory.createStartElement("", "", tag));
+                        writer.add(EVENT_FACTORY.createStartElement("", "", tag));
 
                         if (ARCHIVE_UNIT.equals(tag)) {
-                            writer.add(eventFactory.createStartElement("", "", "#id"));
-                            writer.add(eventFactory.createCharacters(((Attribute) it.next()).getValue()));
-                            writer.add(eventFactory.createEndElement("", "", "#id"));
+                            writer.add(EVENT_FACTORY.createStartElement("", "", "#id"));
+                            writer.add(EVENT_FACTORY.createCharacters(((Attribute) it.next()).getValue()));
+                            writer.add(EVENT_FACTORY.createEndElement("", "", "#id"));
                         }
                         eventWritable = false;
                     }
                     switch (tag) {
                         case TAG_MANAGEMENT:
-                            writer.add(eventFactory.createStartElement("", "", SedaConstants.PREFIX_MGT));
+                            writer.add(EVENT_FACTORY.createStartElement("", "", SedaConstants.PREFIX_MGT));
                             eventWritable = false;
                             contentWritable = true;
                             break;
                         case SedaConstants.PREFIX_OG:
-                            writer.add(eventFactory.createStartElement("", "", SedaConstants.PREFIX_OG));
-                            writer.add(eventFactory.createCharacters(reader.getElementText()));
-                            writer.add(eventFactory.createEndElement("", "", SedaConstants.PREFIX_OG));
+                            writer.add(EVENT_FACTORY.createStartElement("", "", SedaConstants.PREFIX_OG));
+                            writer.add(EVENT_FACTORY.createCharacters(reader.getElementText()));
+                            writer.add(EVENT_FACTORY.createEndElement("", "", SedaConstants.PREFIX_OG));
                             eventWritable = false;
                             break;
                         case IngestWorkflowConstants.UP_FIELD:
@@ -296,7 +354,7 @@ public class IndexUnitActionHandler extends ActionHandler {
                             contentWritable = false;
                             break;
                         case TAG_MANAGEMENT:
-                            writer.add(eventFactory.createEndElement("", "", SedaConstants.PREFIX_MGT));
+                            writer.add(EVENT_FACTORY.createEndElement("", "", SedaConstants.PREFIX_MGT));
                             eventWritable = false;
                             break;
 
@@ -312,13 +370,9 @@ public class IndexUnitActionHandler extends ActionHandler {
                 }
             }
             writer.close();
-            tmpFileWriter.close();
-            data = JsonHandler.getFromFile(tmpFile);
+            data = JsonHandler.getFromString(jsonWriter.toString());
             // Add operation to OPS
             ((ObjectNode) data.get(ARCHIVE_UNIT)).putArray(SedaConstants.PREFIX_OPS).add(containerId);
-            if (!tmpFile.delete()) {
-                LOGGER.warn(FILE_COULD_NOT_BE_DELETED_MSG);
-            }
 
             // Prepare archive unit details required for index process
             archiveUnitDetails.add(data);
@@ -336,9 +390,6 @@ public class IndexUnitActionHandler extends ActionHandler {
         } catch (final XMLStreamException e) {
             LOGGER.debug("Can not read input stream");
             throw new ProcessingException(e);
-        } catch (final IOException e) {
-            LOGGER.debug("Closing stream error");
-            throw new ProcessingException(e);
         } finally {
             StreamUtils.closeSilently(input);
             if (reader != null) {
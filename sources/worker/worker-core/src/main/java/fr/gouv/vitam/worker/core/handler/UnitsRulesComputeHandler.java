@@ -26,9 +26,6 @@
  */
 package fr.gouv.vitam.worker.core.handler;
 
-import static fr.gouv.vitam.common.database.builder.query.QueryHelper.eq;
-import static fr.gouv.vitam.common.database.builder.query.QueryHelper.or;
-
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -54,9 +51,7 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Sets;
 
-import fr.gouv.vitam.common.database.builder.query.BooleanQuery;
 import fr.gouv.vitam.common.database.builder.request.exception.InvalidCreateOperationException;
-import fr.gouv.vitam.common.database.builder.request.single.Select;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.exception.VitamException;
 import fr.gouv.vitam.common.json.JsonHandler;
@@ -84,6 +79,7 @@ import fr.gouv.vitam.worker.common.HandlerIO;
 import fr.gouv.vitam.worker.common.utils.IngestWorkflowConstants;
 import fr.gouv.vitam.worker.common.utils.LogbookLifecycleWorkerHelper;
 import fr.gouv.vitam.worker.common.utils.SedaConstants;
+import fr.gouv.vitam.worker.core.impl.ReferentialCache;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
 
@@ -202,17 +198,8 @@ public class UnitsRulesComputeHandler extends ActionHandler {
     private JsonNode findRulesValueQueryBuilders(Set<String> rulesId)
         throws InvalidCreateOperationException, InvalidParseOperationException,
         IOException, ProcessingException {
-        final Select select =
-            new Select();
-        select.addOrderByDescFilter(FileRules.RULEID);
-        final BooleanQuery query = or();
-        for (final String ruleId : rulesId) {
-            query.add(eq(FileRules.RULEID, ruleId));
-        }
-        select.setQuery(query);
-
         try (AdminManagementClient adminManagementClient = AdminManagementClientFactory.getInstance().getClient()) {
-            return adminManagementClient.getRules(select.getFinalSelect());
+            return ReferentialCache.getInstance().getRules(adminManagementClient, rulesId);
         } catch (final VitamException e) {
             throw new ProcessingException(e);
         }
@@ -0,0 +1,387 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.core.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.Response;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.client.VitamRequestIterator;
+import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.exception.VitamApplicationServerException;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.common.thread.VitamThreadFactory;
+import fr.gouv.vitam.logbook.common.exception.LogbookClientAlreadyExistsException;
+import fr.gouv.vitam.logbook.common.exception.LogbookClientBadRequestException;
+import fr.gouv.vitam.logbook.common.exception.LogbookClientException;
+import fr.gouv.vitam.logbook.common.exception.LogbookClientNotFoundException;
+import fr.gouv.vitam.logbook.common.exception.LogbookClientServerException;
+import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleParameters;
+import fr.gouv.vitam.logbook.common.parameters.LogbookParameterName;
+import fr.gouv.vitam.logbook.lifecycles.client.LogbookLifeCyclesClient;
+
+/**
+ * Write-behind LogbookLifeCyclesClient used by the handlers of one Worker run.<br>
+ * <br>
+ * The bulk updates of Units and ObjectGroups are not sent at once: the events are buffered per lifecycle, across
+ * objects and handlers, and written in the background, all lifecycles at once, as soon as enough events are buffered
+ * or after a delay, and in any case at the end of the step by {@link #flush()}. Events of one lifecycle are always
+ * written in their order of arrival. The lifecycles that could not be written are reported by {@link #flush()}.<br>
+ * The delayed write is only scheduled while events are buffered, so that a client left unclosed holds no task.<br>
+ * <br>
+ * All other calls first write the buffered events, then are delegated to the real client.
+ */
+public class BufferedLogbookLifeCyclesClient implements LogbookLifeCyclesClient {
+
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(BufferedLogbookLifeCyclesClient.class);
+
+    /**
+     * Default number of buffered events triggering a background write
+     */
+    public static final int DEFAULT_MAX_EVENTS = 1000;
+    /**
+     * Default maximum delay before buffered events are written (1 second)
+     */
+    public static final long DEFAULT_MAX_DELAY = 1000L;
+    private static final ScheduledExecutorService FLUSHER =
+        Executors.newScheduledThreadPool(2, VitamThreadFactory.getInstance());
+
+    private final LogbookLifeCyclesClient client;
+    private final int maxEvents;
+    private final long maxDelay;
+    private final Map<String, PendingLifeCycle> pending = new LinkedHashMap<>();
+    private final Object flushLock = new Object();
+    private final Set<String> failures = new LinkedHashSet<>();
+    private final Runnable writer = new Runnable() {
+        @Override
+        public void run() {
+            writeBufferedEvents();
+        }
+    };
+    private ScheduledFuture<?> timer;
+    private int nbEvents = 0;
+    private boolean flushScheduled = false;
+
+    /**
+     * Constructor with default size and delay
+     *
+     * @param client the real client
+     */
+    public BufferedLogbookLifeCyclesClient(LogbookLifeCyclesClient client) {
+        this(client, DEFAULT_MAX_EVENTS, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param client the real client
+     * @param maxEvents number of buffered events triggering a background write
+     * @param maxDelay maximum delay in ms before buffered events are written
+     */
+    public BufferedLogbookLifeCyclesClient(LogbookLifeCyclesClient client, int maxEvents, long maxDelay) {
+        ParametersChecker.checkParameter("Client is a mandatory parameter", client);
+        ParametersChecker.checkValue("maxEvents", maxEvents, 1);
+        ParametersChecker.checkValue("maxDelay", maxDelay, 1);
+        this.client = client;
+        this.maxEvents = maxEvents;
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * @return the real client
+     */
+    public LogbookLifeCyclesClient getClient() {
+        return client;
+    }
+
+    /**
+     * Write all the buffered events and wait for the writes in progress
+     *
+     * @return the ids of the lifecycles that could not be written since the previous call
+     */
+    public Set<String> flush() {
+        writeBufferedEvents();
+        synchronized (this) {
+            final Set<String> lifeCycleIds = new LinkedHashSet<>(failures);
+            failures.clear();
+            return lifeCycleIds;
+        }
+    }
+
+    /**
+     * @return True if a delayed write of the buffered events is scheduled
+     */
+    synchronized boolean isWriteScheduled() {
+        return timer != null;
+    }
+
+    private void buffer(boolean unit, String eventIdProc, Iterable<LogbookLifeCycleParameters> queue) {
+        if (queue == null) {
+            return;
+        }
+        boolean full = false;
+        synchronized (this) {
+            for (final LogbookLifeCycleParameters parameters : queue) {
+                final String lifeCycleId = parameters.getParameterValue(LogbookParameterName.objectIdentifier);
+                final String key = (unit ? "U" : "O") + lifeCycleId;
+                PendingLifeCycle pendingLifeCycle = pending.get(key);
+                if (pendingLifeCycle == null) {
+                    pendingLifeCycle = new PendingLifeCycle(unit, eventIdProc, lifeCycleId);
+                    pending.put(key, pendingLifeCycle);
+                }
+                pendingLifeCycle.events.add(parameters);
+                nbEvents++;
+            }
+            if (nbEvents >= maxEvents && !flushScheduled) {
+                flushScheduled = true;
+                full = true;
+            } else if (timer == null && !pending.isEmpty()) {
+                timer = FLUSHER.schedule(writer, maxDelay, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full) {
+            FLUSHER.execute(writer);
+        }
+    }
+
+    private void writeBufferedEvents() {
+        // Draining and writing under the same lock keeps the order of the events of each lifecycle
+        synchronized (flushLock) {
+            final List<PendingLifeCycle> toWrite;
+            synchronized (this) {
+                flushScheduled = false;
+                if (timer != null) {
+                    timer.cancel(false);
+                    timer = null;
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                toWrite = new ArrayList<>(pending.values());
+                pending.clear();
+                nbEvents = 0;
+            }
+            // one request per operation and kind of lifecycle
+            final Map<String, List<LogbookLifeCycleParameters>> requests = new LinkedHashMap<>();
+            final Map<String, List<String>> lifeCycleIds = new LinkedHashMap<>();
+            for (final PendingLifeCycle pendingLifeCycle : toWrite) {
+                final String requestKey = (pendingLifeCycle.unit ? "U" : "O") + pendingLifeCycle.eventIdProc;
+                List<LogbookLifeCycleParameters> events = requests.get(requestKey);
+                if (events == null) {
+                    events = new ArrayList<>();
+                    requests.put(requestKey, events);
+                    lifeCycleIds.put(requestKey, new ArrayList<String>());
+                }
+                events.addAll(pendingLifeCycle.events);
+                lifeCycleIds.get(requestKey).add(pendingLifeCycle.lifeCycleId);
+            }
+            final List<String> notWritten = new ArrayList<>();
+            for (final Entry<String, List<LogbookLifeCycleParameters>> request : requests.entrySet()) {
+                final String eventIdProc = request.getKey().substring(1);
+                try {
+                    final Map<String, StatusCode> outcomes;
+                    if (request.getKey().charAt(0) == 'U') {
+                        outcomes = client.bulkWriteUnit(eventIdProc, request.getValue());
+                    } else {
+                        outcomes = client.bulkWriteObjectGroup(eventIdProc, request.getValue());
+                    }
+                    for (final Entry<String, StatusCode> outcome : outcomes.entrySet()) {
+                        if (!StatusCode.OK.equals(outcome.getValue())) {
+                            LOGGER.error("Cannot write the lifecycle " + outcome.getKey() + ": " + outcome.getValue());
+                            notWritten.add(outcome.getKey());
+                        }
+                    }
+                } catch (LogbookClientBadRequestException | LogbookClientServerException | RuntimeException e) {
+                    LOGGER.error("Cannot write the lifecycles of the operation " + eventIdProc, e);
+                    notWritten.addAll(lifeCycleIds.get(request.getKey()));
+                }
+            }
+            if (!notWritten.isEmpty()) {
+                synchronized (this) {
+                    failures.addAll(notWritten);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Map<String, StatusCode> bulkWriteUnit(String eventIdProc, Iterable<LogbookLifeCycleParameters> queue)
+        throws LogbookClientBadRequestException, LogbookClientServerException {
+        writeBufferedEvents();
+        return client.bulkWriteUnit(eventIdProc, queue);
+    }
+
+    @Override
+    public Map<String, StatusCode> bulkWriteObjectGroup(String eventIdProc,
+        Iterable<LogbookLifeCycleParameters> queue)
+        throws LogbookClientBadRequestException, LogbookClientServerException {
+        writeBufferedEvents();
+        return client.bulkWriteObjectGroup(eventIdProc, queue);
+    }
+
+    @Override
+    public void bulkUpdateUnit(String objectIdentifier, Iterable<LogbookLifeCycleParameters> queue) {
+        buffer(true, objectIdentifier, queue);
+    }
+
+    @Override
+    public void bulkUpdateObjectGroup(String objectIdentifier, Iterable<LogbookLifeCycleParameters> queue) {
+        buffer(false, objectIdentifier, queue);
+    }
+
+    @Override
+    public void bulkCreateUnit(String objectIdentifier, Iterable<LogbookLifeCycleParameters> queue)
+        throws LogbookClientBadRequestException, LogbookClientAlreadyExistsException, LogbookClientServerException {
+        writeBufferedEvents();
+        client.bulkCreateUnit(objectIdentifier, queue);
+    }
+
+    @Override
+    public void bulkCreateObjectGroup(String objectIdentifier, Iterable<LogbookLifeCycleParameters> queue)
+        throws LogbookClientBadRequestException, LogbookClientAlreadyExistsException, LogbookClientServerException {
+        writeBufferedEvents();
+        client.bulkCreateObjectGroup(objectIdentifier, queue);
+    }
+
+    @Override
+    public void create(LogbookLifeCycleParameters parameters)
+        throws LogbookClientBadRequestException, LogbookClientAlreadyExistsException, LogbookClientServerException {
+        writeBufferedEvents();
+        client.create(parameters);
+    }
+
+    @Override
+    public void update(LogbookLifeCycleParameters parameters)
+        throws LogbookClientBadRequestException, LogbookClientNotFoundException, LogbookClientServerException {
+        writeBufferedEvents();
+        client.update(parameters);
+    }
+
+    @Override
+    public void commit(LogbookLifeCycleParameters parameters)
+        throws LogbookClientBadRequestException, LogbookClientNotFoundException, LogbookClientServerException {
+        writeBufferedEvents();
+        client.commit(parameters);
+    }
+
+    @Override
+    public void rollback(LogbookLifeCycleParameters parameters)
+        throws LogbookClientBadRequestException, LogbookClientNotFoundException, LogbookClientServerException {
+        writeBufferedEvents();
+        client.rollback(parameters);
+    }
+
+    @Override
+    public JsonNode selectUnitLifeCycleById(String id) throws LogbookClientException, InvalidParseOperationException {
+        writeBufferedEvents();
+        return client.selectUnitLifeCycleById(id);
+    }
+
+    @Override
+    public JsonNode selectObjectGroupLifeCycleById(String id)
+        throws LogbookClientException, InvalidParseOperationException {
+        writeBufferedEvents();
+        return client.selectObjectGroupLifeCycleById(id);
+    }
+
+    @Override
+    public VitamRequestIterator objectGroupLifeCyclesByOperationIterator(String operationId)
+        throws LogbookClientException, InvalidParseOperationException {
+        writeBufferedEvents();
+        return client.objectGroupLifeCyclesByOperationIterator(operationId);
+    }
+
+    @Override
+    public VitamRequestIterator unitLifeCyclesByOperationIterator(String operationId)
+        throws LogbookClientException, InvalidParseOperationException {
+        writeBufferedEvents();
+        return client.unitLifeCyclesByOperationIterator(operationId);
+    }
+
+    @Override
+    public String getResourcePath() {
+        return client.getResourcePath();
+    }
+
+    @Override
+    public String getServiceUrl() {
+        return client.getServiceUrl();
+    }
+
+    @Override
+    public void checkStatus() throws VitamApplicationServerException {
+        client.checkStatus();
+    }
+
+    @Override
+    public void consumeAnyEntityAndClose(Response response) {
+        client.consumeAnyEntityAndClose(response);
+    }
+
+    /**
+     * Write the buffered events, then close the real client
+     */
+    @Override
+    public void close() {
+        final Set<String> notWritten = flush();
+        if (!notWritten.isEmpty()) {
+            LOGGER.error("Lifecycles not written: " + notWritten);
+        }
+        client.close();
+    }
+
+    /**
+     * Buffered events of one lifecycle
+     */
+    private static final class PendingLifeCycle {
+        private final boolean unit;
+        private final String eventIdProc;
+        private final String lifeCycleId;
+        private final List<LogbookLifeCycleParameters> events = new ArrayList<>();
+
+        private PendingLifeCycle(boolean unit, String eventIdProc, String lifeCycleId) {
+            this.unit = unit;
+            this.eventIdProc = eventIdProc;
+            this.lifeCycleId = lifeCycleId;
+        }
+    }
+}
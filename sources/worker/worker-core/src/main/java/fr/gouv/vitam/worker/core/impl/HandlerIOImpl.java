@@ -36,6 +36,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.ws.rs.core.Response;
 
@@ -87,7 +88,7 @@ public class HandlerIOImpl implements VitamAutoCloseable, HandlerIO {
     private final File localDirectory;
     private final Map<String, Object> memoryMap = new HashMap<>();
     private final WorkspaceClient client;
-    private final LogbookLifeCyclesClient lifecyclesClient;
+    private final BufferedLogbookLifeCyclesClient lifecyclesClient;
     private final LogbookLifeCyclesClientHelper helper;
 
     /**
@@ -102,7 +103,8 @@ public class HandlerIOImpl implements VitamAutoCloseable, HandlerIO {
         localDirectory = PropertiesUtils.fileFromTmpFolder(containerName + "_" + workerId);
         localDirectory.mkdirs();
         client = WorkspaceClientFactory.getInstance().getClient();
-        lifecyclesClient = LogbookLifeCyclesClientFactory.getInstance().getClient();
+        lifecyclesClient =
+            new BufferedLogbookLifeCyclesClient(LogbookLifeCyclesClientFactory.getInstance().getClient());
         helper = new LogbookLifeCyclesClientHelper();
     }
 
@@ -116,6 +118,15 @@ public class HandlerIOImpl implements VitamAutoCloseable, HandlerIO {
         return helper;
     }
 
+    /**
+     * Write the lifecycle events buffered by the handlers, to be called at the end of the step
+     *
+     * @return the ids of the lifecycles that could not be written
+     */
+    public Set<String> flushLifeCycles() {
+        return lifecyclesClient.flush();
+    }
+
     @Override
     public void addInIOParameters(List<IOParameter> list) {
         for (final IOParameter in : list) {
@@ -285,6 +296,7 @@ public class HandlerIOImpl implements VitamAutoCloseable, HandlerIO {
         if (!sourceFile.canRead()) {
             throw new ProcessingException("Cannot found source file: " + sourceFile);
         }
+        WorkspaceFileCache.getInstance().invalidate(containerName, workspacePath);
         try (FileInputStream inputStream = new FileInputStream(sourceFile)) {
             client.putObject(containerName, workspacePath, inputStream);
             if (toDelete && !sourceFile.delete()) {
@@ -300,6 +312,7 @@ public class HandlerIOImpl implements VitamAutoCloseable, HandlerIO {
     @Override
     public void transferInputStreamToWorkspace(String workspacePath, InputStream inputStream)
         throws ProcessingException {
+        WorkspaceFileCache.getInstance().invalidate(containerName, workspacePath);
         try {
             client.putObject(containerName, workspacePath, inputStream);
         } catch (final ContentAddressableStorageServerException e) {
@@ -325,7 +338,7 @@ public class HandlerIOImpl implements VitamAutoCloseable, HandlerIO {
         // TODO P1 : this optional situation would be treated later when lazy file loading is implemented
         if (optional) {
             try {
-                file = getFileFromWorkspace(objectName);
+                file = getFileFromWorkspace(objectName, true);
             } catch (final ContentAddressableStorageNotFoundException | ContentAddressableStorageServerException |
                 IOException e) {
                 SysErrLogger.FAKE_LOGGER.ignoreLog(e);
@@ -336,7 +349,7 @@ public class HandlerIOImpl implements VitamAutoCloseable, HandlerIO {
             }
         } else {
             try {
-                file = getFileFromWorkspace(objectName);
+                file = getFileFromWorkspace(objectName, true);
             } catch (final ContentAddressableStorageNotFoundException | ContentAddressableStorageServerException |
                 IOException e) {
                 // need to rewrite the exception
@@ -352,21 +365,20 @@ public class HandlerIOImpl implements VitamAutoCloseable, HandlerIO {
 
     @Override
     public File getFileFromWorkspace(String objectName)
+        throws IOException, ContentAddressableStorageNotFoundException,
+        ContentAddressableStorageServerException {
+        return getFileFromWorkspace(objectName, false);
+    }
+
+    /**
+     * @param cached True for the inputs declared by the step, shared by all its objects and so worth the cache
+     */
+    private File getFileFromWorkspace(String objectName, boolean cached)
         throws IOException, ContentAddressableStorageNotFoundException,
         ContentAddressableStorageServerException {
         final File file = getNewLocalFile(objectName);
         if (!file.exists()) {
-            Response response = null;
-            try {
-                response = client.getObject(containerName, objectName);
-                if (response != null) {
-                    try (FileOutputStream fileOutputStream = new FileOutputStream(file)) {
-                        StreamUtils.copy((InputStream) response.getEntity(), fileOutputStream);
-                    }
-                }
-            } finally {
-                client.consumeAnyEntityAndClose(response);
-            }
+            downloadFromWorkspace(objectName, file, cached);
         }
         return file;
     }
@@ -377,19 +389,37 @@ public class HandlerIOImpl implements VitamAutoCloseable, HandlerIO {
         ContentAddressableStorageServerException {
         final File file = getNewLocalFile(objectName);
         if (!file.exists()) {
-            Response response = null;
-            try {
-                response = client.getObject(containerName, objectName);
-                if (response != null) {
-                    try (FileOutputStream fileOutputStream = new FileOutputStream(file)) {
-                        StreamUtils.copy((InputStream) response.getEntity(), fileOutputStream);
-                    }
+            downloadFromWorkspace(objectName, file, false);
+        }
+        return new FileInputStream(file);
+    }
+
+    /**
+     * Download the object, or when cached get it from the Worker cache without asking the Workspace: the inputs of a
+     * step are not modified once written in the process container
+     */
+    private void downloadFromWorkspace(String objectName, File file, boolean cached)
+        throws IOException, ContentAddressableStorageNotFoundException,
+        ContentAddressableStorageServerException {
+        final WorkspaceFileCache cache = WorkspaceFileCache.getInstance();
+        final boolean useCache = cached && cache.isEnabled();
+        if (useCache && cache.copyTo(containerName, objectName, file)) {
+            return;
+        }
+        Response response = null;
+        try {
+            response = client.getObject(containerName, objectName);
+            if (response != null) {
+                try (FileOutputStream fileOutputStream = new FileOutputStream(file)) {
+                    StreamUtils.copy((InputStream) response.getEntity(), fileOutputStream);
                 }
-            } finally {
-                client.consumeAnyEntityAndClose(response);
             }
+        } finally {
+            client.consumeAnyEntityAndClose(response);
+        }
+        if (useCache && file.exists()) {
+            cache.put(containerName, objectName, file);
         }
-        return new FileInputStream(file);
     }
 
     @Override
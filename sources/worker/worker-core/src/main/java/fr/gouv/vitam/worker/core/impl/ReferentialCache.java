@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.core.impl;
+
+import static fr.gouv.vitam.common.database.builder.query.QueryHelper.eq;
+import static fr.gouv.vitam.common.database.builder.query.QueryHelper.or;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import fr.gouv.vitam.common.database.builder.query.BooleanQuery;
+import fr.gouv.vitam.common.database.builder.request.exception.InvalidCreateOperationException;
+import fr.gouv.vitam.common.database.builder.request.single.Select;
+import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.json.JsonHandler;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.lru.ConcurrentLruCache;
+import fr.gouv.vitam.common.lru.InterfaceLruCache;
+import fr.gouv.vitam.functional.administration.client.AdminManagementClient;
+import fr.gouv.vitam.functional.administration.common.FileFormat;
+import fr.gouv.vitam.functional.administration.common.FileRules;
+import fr.gouv.vitam.functional.administration.common.exception.ReferentialException;
+
+/**
+ * Local cache of the format and rules referentials read from the Functional Administration by this Worker.<br>
+ * <br>
+ * Formats are cached by PUID and rules by RuleId, including the unknown ones, in concurrent LRU caches limited in size
+ * and time to live. Each cache is cleared as soon as the version of its referential, checked at most once per delay,
+ * changes.
+ */
+public final class ReferentialCache {
+
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ReferentialCache.class);
+
+    /**
+     * Default maximum number of entries of each referential cache
+     */
+    public static final int DEFAULT_CAPACITY = 10000;
+    /**
+     * Default time to live of a cached entry (1 hour)
+     */
+    public static final long DEFAULT_TTL = 3600000L;
+    /**
+     * Default delay between two checks of the version of a referential (10 seconds)
+     */
+    public static final long DEFAULT_VERSION_CHECK_DELAY = 10000L;
+    private static final String RESULTS = "$results";
+    private static final ReferentialCache REFERENTIAL_CACHE = new ReferentialCache();
+
+    private final CachedReferential formats = new CachedReferential("format");
+    private final CachedReferential rules = new CachedReferential("rules");
+    private volatile long versionCheckDelay = DEFAULT_VERSION_CHECK_DELAY;
+
+    private ReferentialCache() {
+        // Singleton
+    }
+
+    /**
+     * @return the referential cache of this Worker
+     */
+    public static ReferentialCache getInstance() {
+        return REFERENTIAL_CACHE;
+    }
+
+    /**
+     * Get the formats of the referential having this PUID, as returned by {@link AdminManagementClient#getFormats}
+     *
+     * @param client the client to use if the format is not cached
+     * @param puid the PUID of the format
+     * @return the formats result
+     * @throws ReferentialException when the referential cannot be read
+     * @throws InvalidParseOperationException when the result cannot be parsed
+     * @throws InvalidCreateOperationException when the query cannot be built
+     * @throws IOException when the result cannot be read
+     */
+    public JsonNode getFormats(AdminManagementClient client, String puid)
+        throws ReferentialException, InvalidParseOperationException, InvalidCreateOperationException, IOException {
+        if (formats.isVersionCheckDue()) {
+            try {
+                formats.setVersion(client.getFormatsVersion());
+            } catch (final ReferentialException e) {
+                LOGGER.warn(e);
+                formats.setVersion(CachedReferential.UNKNOWN_VERSION);
+            }
+        }
+        JsonNode result = formats.cache.get(puid);
+        if (result == null) {
+            final long generation = formats.getGeneration();
+            final Select select = new Select();
+            select.setQuery(eq(FileFormat.PUID, puid));
+            result = client.getFormats(select.getFinalSelect());
+            formats.put(puid, result, generation);
+        }
+        // the result is shared between the Worker threads
+        return result.deepCopy();
+    }
+
+    /**
+     * Get the rules of the referential having one of those RuleIds, as the {@value #RESULTS} of an
+     * {@link AdminManagementClient#getRules} result
+     *
+     * @param client the client to use for the rules not cached
+     * @param rulesId the RuleIds
+     * @return the rules result
+     * @throws ReferentialException when the referential cannot be read
+     * @throws InvalidParseOperationException when the result cannot be parsed
+     * @throws InvalidCreateOperationException when the query cannot be built
+     * @throws IOException when the result cannot be read
+     */
+    public JsonNode getRules(AdminManagementClient client, Set<String> rulesId)
+        throws ReferentialException, InvalidParseOperationException, InvalidCreateOperationException, IOException {
+        if (rules.isVersionCheckDue()) {
+            try {
+                rules.setVersion(client.getRulesVersion());
+            } catch (final ReferentialException e) {
+                LOGGER.warn(e);
+                rules.setVersion(CachedReferential.UNKNOWN_VERSION);
+            }
+        }
+        final ObjectNode result = JsonHandler.createObjectNode();
+        final ArrayNode results = result.putArray(RESULTS);
+        final Map<String, ArrayNode> missingRules = new HashMap<>();
+        for (final String ruleId : rulesId) {
+            final JsonNode cachedRules = rules.cache.get(ruleId);
+            if (cachedRules == null) {
+                missingRules.put(ruleId, JsonHandler.createArrayNode());
+            } else {
+                results.addAll((ArrayNode) cachedRules.deepCopy());
+            }
+        }
+        if (missingRules.isEmpty()) {
+            return result;
+        }
+        final long generation = rules.getGeneration();
+        final Select select = new Select();
+        select.addOrderByDescFilter(FileRules.RULEID);
+        final BooleanQuery query = or();
+        for (final String ruleId : missingRules.keySet()) {
+            query.add(eq(FileRules.RULEID, ruleId));
+        }
+        select.setQuery(query);
+        final JsonNode response = client.getRules(select.getFinalSelect());
+        if (response != null && response.has(RESULTS)) {
+            for (final JsonNode rule : response.get(RESULTS)) {
+                final ArrayNode ruleList = missingRules.get(rule.path(FileRules.RULEID).asText());
+                if (ruleList != null) {
+                    ruleList.add(rule);
+                }
+            }
+        }
+        for (final Entry<String, ArrayNode> entry : missingRules.entrySet()) {
+            // unknown rules are cached too, as an empty list
+            rules.put(entry.getKey(), entry.getValue(), generation);
+            results.addAll(entry.getValue().deepCopy());
+        }
+        return result;
+    }
+
+    /**
+     * Clear all the cached referentials
+     */
+    public void clear() {
+        formats.reset();
+        rules.reset();
+    }
+
+    /**
+     * Method used for test purpose
+     *
+     * @param versionCheckDelay the delay in ms between two checks of the version of a referential
+     */
+    void setVersionCheckDelay(long versionCheckDelay) {
+        this.versionCheckDelay = versionCheckDelay;
+        clear();
+    }
+
+    /**
+     * Cache of one referential with its version
+     */
+    private final class CachedReferential {
+        private static final long UNKNOWN_VERSION = Long.MIN_VALUE;
+        private final String name;
+        private final InterfaceLruCache<String, JsonNode> cache =
+            new ConcurrentLruCache<>(DEFAULT_CAPACITY, DEFAULT_TTL);
+        private long version = UNKNOWN_VERSION;
+        private long nextVersionCheck;
+        // incremented at each clear, so that a result read before a clear is not cached after it
+        private long generation;
+
+        private CachedReferential(String name) {
+            this.name = name;
+        }
+
+        private synchronized boolean isVersionCheckDue() {
+            final long now = System.currentTimeMillis();
+            if (now < nextVersionCheck) {
+                return false;
+            }
+            nextVersionCheck = now + versionCheckDelay;
+            return true;
+        }
+
+        private synchronized void setVersion(long newVersion) {
+            if (newVersion == UNKNOWN_VERSION || newVersion != version) {
+                if (version != UNKNOWN_VERSION) {
+                    LOGGER.info("Referential " + name + " changed, cache cleared");
+                }
+                cache.clear();
+                generation++;
+            }
+            version = newVersion;
+        }
+
+        private synchronized void reset() {
+            cache.clear();
+            generation++;
+            version = UNKNOWN_VERSION;
+            nextVersionCheck = 0;
+        }
+
+        private synchronized long getGeneration() {
+            return generation;
+        }
+
+        private synchronized void put(String key, JsonNode value, long readGeneration) {
+            if (readGeneration == generation) {
+                cache.put(key, value);
+            }
+        }
+    }
+}
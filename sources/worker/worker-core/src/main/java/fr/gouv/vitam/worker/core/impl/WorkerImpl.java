@@ -26,14 +26,21 @@
  *******************************************************************************/
 package fr.gouv.vitam.worker.core.impl;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FilenameUtils;
 
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.ItemStatus;
+import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.common.parameter.ParameterHelper;
 import fr.gouv.vitam.processing.common.exception.HandlerNotFoundException;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
@@ -41,7 +48,9 @@ import fr.gouv.vitam.processing.common.model.Action;
 import fr.gouv.vitam.processing.common.model.ProcessBehavior;
 import fr.gouv.vitam.processing.common.model.Step;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
+import fr.gouv.vitam.worker.common.DescriptionStep;
 import fr.gouv.vitam.worker.common.HandlerIO;
+import fr.gouv.vitam.worker.core.api.BatchWorkerAction;
 import fr.gouv.vitam.worker.core.api.Worker;
 import fr.gouv.vitam.worker.core.handler.AccessionRegisterActionHandler;
 import fr.gouv.vitam.worker.core.handler.ActionHandler;
@@ -131,6 +140,12 @@ public class WorkerImpl implements Worker {
 
     @Override
     public ItemStatus run(WorkerParameters workParams, Step step)
+        throws IllegalArgumentException, ProcessingException, ContentAddressableStorageServerException {
+        return run(workParams, step, null);
+    }
+
+    @Override
+    public ItemStatus run(WorkerParameters workParams, Step step, List<String> objectNames)
         throws IllegalArgumentException, ProcessingException, ContentAddressableStorageServerException {
         // mandatory check
         ParameterHelper.checkNullOrEmptyParameters(workParams);
@@ -143,37 +158,171 @@ public class WorkerImpl implements Worker {
             throw new IllegalArgumentException(EMPTY_LIST);
         }
 
-        final ItemStatus responses = new ItemStatus(step.getStepName());
+        final ItemStatus responses;
+        // status of each object actually processed, the objects skipped after a stop are not part of it
+        final Map<String, StatusCode> objectStatuses = new LinkedHashMap<>();
 
-        try (final HandlerIO handlerIO = new HandlerIOImpl(workParams.getContainerName(), workerId)) {
-            for (final Action action : step.getActions()) {
-                // Reset handlerIO for next execution
-                handlerIO.reset();
-                final ActionHandler actionHandler = getActionHandler(action.getActionDefinition().getActionKey());
-                LOGGER.debug("START handler {} in step {}", action.getActionDefinition().getActionKey(),
-                    step.getStepName());
-                if (actionHandler == null) {
-                    throw new HandlerNotFoundException(action.getActionDefinition().getActionKey() + HANDLER_NOT_FOUND);
+        try (final HandlerIOImpl handlerIO = new HandlerIOImpl(workParams.getContainerName(), workerId)) {
+            if (objectNames == null || objectNames.isEmpty()) {
+                responses = runActions(workParams, step, handlerIO);
+            } else if (hasBatchAction(step)) {
+                responses = runBatchActions(workParams, step, objectNames, handlerIO, objectStatuses);
+            } else {
+                // Batch mode: same HandlerIO (workspace client, local files) for all objects
+                responses = new ItemStatus(step.getStepName());
+                final boolean blocking = ProcessBehavior.BLOCKING.equals(step.getBehavior());
+                for (final String objectName : objectNames) {
+                    workParams.setObjectName(objectName);
+                    final ItemStatus objectResponse = runActions(workParams, step, handlerIO);
+                    responses.setItemsStatus(objectResponse);
+                    objectStatuses.put(objectName, objectResponse.getGlobalStatus());
+                    // if the step has been defined as Blocking and the object status is KO or FATAL
+                    // then do not process the remaining objects
+                    if (objectResponse.shallStop(blocking)) {
+                        break;
+                    }
                 }
-                if (action.getActionDefinition().getIn() != null) {
-                    handlerIO.addInIOParameters(action.getActionDefinition().getIn());
+            }
+            // lifecycle events are written behind the handlers: their failures are known at the end of the step
+            final Set<String> lifeCycleFailures = handlerIO.flushLifeCycles();
+            if (!lifeCycleFailures.isEmpty()) {
+                LOGGER.error("Lifecycles not written in step {}: {}", step.getStepName(), lifeCycleFailures);
+                responses.increment(StatusCode.FATAL, lifeCycleFailures.size());
+                // the id of a lifecycle is the name of its object without extension
+                for (final Map.Entry<String, StatusCode> entry : objectStatuses.entrySet()) {
+                    if (lifeCycleFailures.contains(FilenameUtils.removeExtension(entry.getKey()))) {
+                        entry.setValue(StatusCode.FATAL);
+                    }
                 }
-                if (action.getActionDefinition().getOut() != null) {
-                    handlerIO.addOutIOParameters(action.getActionDefinition().getOut());
+            }
+        } finally {
+            if (ProcessBehavior.FINALLY.equals(step.getBehavior())) {
+                // the process container is deleted after its final step: its cached inputs are useless
+                WorkspaceFileCache.getInstance().evictContainer(workParams.getContainerName());
+            }
+        }
+        if (objectNames != null && !objectNames.isEmpty()) {
+            final Map<String, String> statuses = new LinkedHashMap<>();
+            for (final Map.Entry<String, StatusCode> entry : objectStatuses.entrySet()) {
+                statuses.put(entry.getKey(), entry.getValue().name());
+            }
+            responses.setData(DescriptionStep.OBJECT_STATUSES, statuses);
+        }
+        LOGGER.debug("step name :" + step.getStepName());
+        return responses;
+    }
+
+    private boolean hasBatchAction(Step step) {
+        for (final Action action : step.getActions()) {
+            if (getActionHandler(action.getActionDefinition().getActionKey()) instanceof BatchWorkerAction) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Batch mode when at least one action can process a list of objects at once: actions are run one after the
+     * other on the whole list (instead of all actions on one object, then the next object).<br>
+     * An object stops at its first blocking action in KO or FATAL; if the step is blocking, the objects following
+     * the first one in KO or FATAL are not given to the next actions.<br>
+     * The status of each object given to at least one action is added to objectStatuses.
+     */
+    private ItemStatus runBatchActions(WorkerParameters workParams, Step step, List<String> objectNames,
+        HandlerIO handlerIO, Map<String, StatusCode> objectStatuses)
+        throws ProcessingException, ContentAddressableStorageServerException {
+        final boolean stepBlocking = ProcessBehavior.BLOCKING.equals(step.getBehavior());
+        final Map<String, ItemStatus> objectResponses = new LinkedHashMap<>();
+        List<String> remaining = objectNames;
+        for (final Action action : step.getActions()) {
+            if (remaining.isEmpty()) {
+                break;
+            }
+            final ActionHandler actionHandler = getActionHandler(action.getActionDefinition().getActionKey());
+            LOGGER.debug("START handler {} in step {} for {} objects", action.getActionDefinition().getActionKey(),
+                step.getStepName(), remaining.size());
+            if (actionHandler == null) {
+                throw new HandlerNotFoundException(action.getActionDefinition().getActionKey() + HANDLER_NOT_FOUND);
+            }
+            final boolean actionBlocking = ProcessBehavior.BLOCKING.equals(action.getActionDefinition().getBehavior());
+            final List<ItemStatus> actionResponses;
+            if (actionHandler instanceof BatchWorkerAction) {
+                prepareHandlerIO(action, handlerIO);
+                actionResponses = ((BatchWorkerAction) actionHandler).executeList(workParams, handlerIO, remaining);
+            } else {
+                actionResponses = new ArrayList<>(remaining.size());
+                for (final String objectName : remaining) {
+                    prepareHandlerIO(action, handlerIO);
+                    workParams.setObjectName(objectName);
+                    final ItemStatus actionResponse = actionHandler.execute(workParams, handlerIO);
+                    actionResponses.add(actionResponse);
+                    if (stepBlocking && actionResponse.shallStop(true)) {
+                        break;
+                    }
+                }
+            }
+            final List<String> next = new ArrayList<>(remaining.size());
+            for (int i = 0; i < actionResponses.size(); i++) {
+                final String objectName = remaining.get(i);
+                final ItemStatus actionResponse = actionResponses.get(i);
+                ItemStatus objectResponse = objectResponses.get(objectName);
+                if (objectResponse == null) {
+                    objectResponse = new ItemStatus(step.getStepName());
+                    objectResponses.put(objectName, objectResponse);
                 }
-                final ItemStatus actionResponse = actionHandler.execute(workParams, handlerIO);
-                responses.setItemsStatus(actionResponse);
-                LOGGER.debug("STOP handler {} in step {}", action.getActionDefinition().getActionKey(),
-                    step.getStepName());
-                // if the action has been defined as Blocking and the action status is KO or FATAL
-                // then break the process
-                if (actionResponse
-                    .shallStop(ProcessBehavior.BLOCKING.equals(action.getActionDefinition().getBehavior()))) {
+                objectResponse.setItemsStatus(actionResponse);
+                if (!actionResponse.shallStop(actionBlocking)) {
+                    next.add(objectName);
+                }
+                if (objectResponse.shallStop(stepBlocking)) {
                     break;
                 }
             }
+            LOGGER.debug("STOP handler {} in step {}", action.getActionDefinition().getActionKey(),
+                step.getStepName());
+            remaining = next;
+        }
+        final ItemStatus responses = new ItemStatus(step.getStepName());
+        for (final Map.Entry<String, ItemStatus> objectResponse : objectResponses.entrySet()) {
+            responses.setItemsStatus(objectResponse.getValue());
+            objectStatuses.put(objectResponse.getKey(), objectResponse.getValue().getGlobalStatus());
+        }
+        return responses;
+    }
+
+    private void prepareHandlerIO(Action action, HandlerIO handlerIO) {
+        // Reset handlerIO for next execution
+        handlerIO.reset();
+        if (action.getActionDefinition().getIn() != null) {
+            handlerIO.addInIOParameters(action.getActionDefinition().getIn());
+        }
+        if (action.getActionDefinition().getOut() != null) {
+            handlerIO.addOutIOParameters(action.getActionDefinition().getOut());
+        }
+    }
+
+    private ItemStatus runActions(WorkerParameters workParams, Step step, HandlerIO handlerIO)
+        throws ProcessingException, ContentAddressableStorageServerException {
+        final ItemStatus responses = new ItemStatus(step.getStepName());
+        for (final Action action : step.getActions()) {
+            final ActionHandler actionHandler = getActionHandler(action.getActionDefinition().getActionKey());
+            LOGGER.debug("START handler {} in step {}", action.getActionDefinition().getActionKey(),
+                step.getStepName());
+            if (actionHandler == null) {
+                throw new HandlerNotFoundException(action.getActionDefinition().getActionKey() + HANDLER_NOT_FOUND);
+            }
+            prepareHandlerIO(action, handlerIO);
+            final ItemStatus actionResponse = actionHandler.execute(workParams, handlerIO);
+            responses.setItemsStatus(actionResponse);
+            LOGGER.debug("STOP handler {} in step {}", action.getActionDefinition().getActionKey(),
+                step.getStepName());
+            // if the action has been defined as Blocking and the action status is KO or FATAL
+            // then break the process
+            if (actionResponse
+                .shallStop(ProcessBehavior.BLOCKING.equals(action.getActionDefinition().getBehavior()))) {
+                break;
+            }
         }
-        LOGGER.debug("step name :" + step.getStepName());
         return responses;
     }
 
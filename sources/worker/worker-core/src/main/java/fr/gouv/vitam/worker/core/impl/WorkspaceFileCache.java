@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.core.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import fr.gouv.vitam.common.FileUtil;
+import fr.gouv.vitam.common.PropertiesUtils;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+
+/**
+ * Local cache of the files read from the Workspace by this Worker.<br>
+ * <br>
+ * The files are kept in the Vitam temporary folder and evicted in Least Recently Used order when their total size
+ * exceeds the maximum size. Only the Workspace inputs declared by the steps are cached: they are written once in the
+ * process container by a previous step and only read afterwards, so a cached file is used without asking the
+ * Workspace again. A write of the object through this Worker invalidates it, and the entries of a process container
+ * are evicted when its final step is done.
+ */
+public final class WorkspaceFileCache {
+
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(WorkspaceFileCache.class);
+
+    /**
+     * Default maximum size of the cache (1 GB)
+     */
+    public static final long DEFAULT_MAX_SIZE = 1024L * 1024 * 1024;
+    private static final String CACHE_FOLDER = "workspaceCache";
+    private static final WorkspaceFileCache WORKSPACE_FILE_CACHE = new WorkspaceFileCache();
+
+    private final Map<String, CachedFile> files = new LinkedHashMap<>(16, 0.75f, true);
+    private File directory;
+    private long maxSize = DEFAULT_MAX_SIZE;
+    private long size;
+    private long counter;
+
+    private WorkspaceFileCache() {
+        // Singleton
+    }
+
+    /**
+     * @return the cache of this Worker
+     */
+    public static WorkspaceFileCache getInstance() {
+        return WORKSPACE_FILE_CACHE;
+    }
+
+    /**
+     * @return True if the cache is enabled
+     */
+    public synchronized boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Set the maximum size of the cache, 0 disabling it
+     *
+     * @param maxSize the maximum size in bytes
+     * @return this
+     */
+    public synchronized WorkspaceFileCache setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+        evict();
+        return this;
+    }
+
+    /**
+     * Copy the cached file to the target file
+     *
+     * @param containerName the container name
+     * @param objectName the object name
+     * @param target the file to write
+     * @return True if the object was found in the cache
+     */
+    public boolean copyTo(String containerName, String objectName, File target) {
+        final CachedFile cachedFile;
+        synchronized (this) {
+            cachedFile = files.get(getKey(containerName, objectName));
+        }
+        if (cachedFile == null) {
+            return false;
+        }
+        try {
+            // a concurrent eviction does not prevent an already started copy
+            Files.copy(cachedFile.file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (final IOException e) {
+            LOGGER.warn("Cannot read the cached file: " + cachedFile.file, e);
+            return false;
+        }
+    }
+
+    /**
+     * Add a copy of the file to the cache
+     *
+     * @param containerName the container name
+     * @param objectName the object name
+     * @param source the file read from the Workspace
+     */
+    public void put(String containerName, String objectName, File source) {
+        final long length = source.length();
+        final File file;
+        synchronized (this) {
+            if (length > maxSize) {
+                return;
+            }
+            if (directory == null) {
+                // previous files of this Worker are not reliable anymore
+                directory = PropertiesUtils.fileFromTmpFolder(CACHE_FOLDER);
+                FileUtil.deleteRecursive(directory);
+                directory.mkdirs();
+            }
+            file = new File(directory, Long.toString(counter++));
+        }
+        try {
+            Files.copy(source.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException e) {
+            LOGGER.warn("Cannot cache the file: " + containerName + "/" + objectName, e);
+            deleteFile(file);
+            return;
+        }
+        synchronized (this) {
+            remove(files.put(getKey(containerName, objectName), new CachedFile(file, length)));
+            size += length;
+            evict();
+        }
+    }
+
+    /**
+     * Remove an object from the cache, when it is updated or deleted
+     *
+     * @param containerName the container name
+     * @param objectName the object name
+     */
+    public synchronized void invalidate(String containerName, String objectName) {
+        remove(files.remove(getKey(containerName, objectName)));
+    }
+
+    /**
+     * Remove all the objects of a container from the cache, when the container is deleted
+     *
+     * @param containerName the container name
+     */
+    public synchronized void evictContainer(String containerName) {
+        final String prefix = getKey(containerName, "");
+        final Iterator<Map.Entry<String, CachedFile>> iterator = files.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, CachedFile> entry = iterator.next();
+            if (entry.getKey().startsWith(prefix)) {
+                iterator.remove();
+                remove(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Method used for test purpose
+     *
+     * @return the total size of the cached files
+     */
+    synchronized long getSize() {
+        return size;
+    }
+
+    private static String getKey(String containerName, String objectName) {
+        return containerName + "/" + objectName;
+    }
+
+    private void evict() {
+        final Iterator<CachedFile> iterator = files.values().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            final CachedFile cachedFile = iterator.next();
+            iterator.remove();
+            remove(cachedFile);
+        }
+    }
+
+    private void remove(CachedFile cachedFile) {
+        if (cachedFile != null) {
+            size -= cachedFile.length;
+            deleteFile(cachedFile.file);
+        }
+    }
+
+    private static void deleteFile(File file) {
+        if (file.exists() && !file.delete()) {
+            LOGGER.warn("Cannot delete the cached file: " + file);
+        }
+    }
+
+    private static class CachedFile {
+        private final File file;
+        private final long length;
+
+        private CachedFile(File file, long length) {
+            this.file = file;
+            this.length = length;
+        }
+    }
+}
@@ -5,7 +5,11 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
@@ -30,6 +34,7 @@ import fr.gouv.vitam.processing.common.model.ProcessingUri;
 import fr.gouv.vitam.processing.common.model.UriPrefix;
 import fr.gouv.vitam.worker.common.HandlerIO;
 import fr.gouv.vitam.worker.core.impl.HandlerIOImpl;
+import fr.gouv.vitam.worker.core.impl.WorkspaceFileCache;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.client.WorkspaceClient;
 import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
@@ -145,6 +150,44 @@ public class HandlerIOTest {
         assertFalse(((File) object2).exists());
     }
 
+    @Test
+    public void testGetFileFromWorkerCache() throws Exception {
+        final String containerName = GUIDFactory.newGUID().getId();
+        when(workspaceClient.getObject(eq(containerName), eq("objectName")))
+            .thenReturn(Response.status(Status.OK).entity(PropertiesUtils.getResourceAsStream("sip.xml")).build())
+            .thenReturn(Response.status(Status.OK).entity(PropertiesUtils.getResourceAsStream("sip.xml")).build())
+            .thenReturn(Response.status(Status.OK).entity(PropertiesUtils.getResourceAsStream("sip.xml")).build());
+        final List<IOParameter> in = new ArrayList<>();
+        in.add(new IOParameter().setUri(new ProcessingUri(UriPrefix.WORKSPACE, "objectName")));
+
+        try (final HandlerIOImpl io = new HandlerIOImpl(containerName, "workerId")) {
+            io.addInIOParameters(in);
+            assertTrue(((File) io.getInput(0)).exists());
+        }
+        // already read: from the cache of the worker, without asking the workspace
+        try (final HandlerIOImpl io = new HandlerIOImpl(containerName, "workerId")) {
+            io.addInIOParameters(in);
+            assertEquals(PropertiesUtils.getResourceFile("sip.xml").length(), ((File) io.getInput(0)).length());
+        }
+        verify(workspaceClient, times(1)).getObject(eq(containerName), eq("objectName"));
+
+        // written again by this worker: downloaded again
+        try (final HandlerIOImpl io = new HandlerIOImpl(containerName, "workerId")) {
+            io.transferInputStreamToWorkspace("objectName", PropertiesUtils.getResourceAsStream("sip.xml"));
+            io.addInIOParameters(in);
+            assertTrue(((File) io.getInput(0)).exists());
+        }
+        verify(workspaceClient, times(2)).getObject(eq(containerName), eq("objectName"));
+
+        // not an input of the step: not cached
+        try (final HandlerIOImpl io = new HandlerIOImpl(containerName, "workerId")) {
+            assertTrue(io.getFileFromWorkspace("objectName").exists());
+        }
+        verify(workspaceClient, times(3)).getObject(eq(containerName), eq("objectName"));
+        verify(workspaceClient, never()).computeObjectDigest(anyObject(), anyObject(), anyObject());
+        WorkspaceFileCache.getInstance().evictContainer(containerName);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testGetFileError() throws Exception {
         when(workspaceClient.getObject(anyObject(), anyObject()))
@@ -30,6 +30,8 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.InputStream;
@@ -122,6 +124,10 @@ public class CheckConformityActionHandlerTest {
         assertEquals(CheckConformityActionHandler.getId(), HANDLER_ID);
         final ItemStatus response = handler.execute(params, handlerIO);
         assertEquals(StatusCode.OK, response.getGlobalStatus());
+        // the objects are kept locally for the next actions of the step
+        assertEquals(PropertiesUtils.getResourceFile("BinaryObject/" + bdo1).length(),
+            handlerIO.getFileFromWorkspace("SIP/content/" + bdo1).length());
+        verify(workspaceClient, times(1)).getObject(anyObject(), eq("SIP/content/" + bdo1));
         handlerIO.close();
     }
 
@@ -27,12 +27,16 @@
 package fr.gouv.vitam.worker.core.handler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -40,6 +44,9 @@ import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.xml.parsers.DocumentBuilderFactory;
 
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
@@ -49,12 +56,20 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.w3c.dom.Document;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.io.ByteStreams;
 
+import fr.gouv.vitam.common.CharsetUtils;
 import fr.gouv.vitam.common.PropertiesUtils;
+import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
@@ -313,4 +328,78 @@ public class ExtractSedaActionHandlerTest {
 
         assertEquals(StatusCode.OK, response.getGlobalStatus());
     }
+
+    @Test
+    public void givenSpilledMapsWhenExtractSedaThenLevelsComputedIncrementally() throws Exception {
+        final WorkerParameters params =
+            WorkerParametersFactory.newWorkerParameters().setUrlWorkspace("http://localhost:8083")
+                .setUrlMetadata("http://localhost:8083")
+                .setObjectName("objectName.json").setCurrentStep("currentStep")
+                .setContainerName("ExtractSedaActionHandlerTest");
+        // ID3 contains 12 units referencing 12 other units (ID6, ID11...) which become its children
+        final InputStream sedaLocal = new FileInputStream(PropertiesUtils.findFile("sip-bdo-orphan-ok3-listBDO.xml"));
+        when(workspaceClient.getObject(anyObject(), eq("SIP/manifest.xml")))
+            .thenReturn(Response.status(Status.OK).entity(sedaLocal).build());
+        final AtomicReference<JsonNode> levels = new AtomicReference<>();
+        final AtomicReference<JsonNode> unitIdToGuid = new AtomicReference<>();
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                final String path = (String) invocation.getArguments()[1];
+                final InputStream stream = (InputStream) invocation.getArguments()[2];
+                if (path.endsWith("ingestLevelStack.json")) {
+                    levels.set(JsonHandler.getFromInputStream(stream));
+                } else if (path.endsWith("ARCHIVE_ID_TO_GUID_MAP.json")) {
+                    unitIdToGuid.set(JsonHandler.getFromInputStream(stream));
+                }
+                return null;
+            }
+        }).when(workspaceClient).putObject(anyObject(), anyObject(), anyObject());
+        action.addOutIOParameters(out);
+
+        final ItemStatus response = new ExtractSedaActionHandler(0).execute(params, action);
+        assertEquals(StatusCode.OK, response.getGlobalStatus());
+        assertEquals(13, unitIdToGuid.get().size());
+        assertEquals(unitIdToGuid.get().get("ID3").asText(), levels.get().get("level_0").get(0).asText());
+        assertEquals(1, levels.get().get("level_0").size());
+        assertEquals(12, levels.get().get("level_1").size());
+        assertFalse(levels.get().has("level_2"));
+    }
+
+    @Test
+    public void givenRootUnitWithManagementWhenExtractSedaThenInheritedRulesInsertedOnce() throws Exception {
+        final WorkerParameters params =
+            WorkerParametersFactory.newWorkerParameters().setUrlWorkspace("fakeUrl").setUrlMetadata("fakeUrl")
+                .setObjectName("objectName.json").setCurrentStep("currentStep").setContainerName("containerName");
+        final InputStream sedaLocal = new FileInputStream(PropertiesUtils.findFile("sip-management-metadata-ok1.xml"));
+        when(workspaceClient.getObject(anyObject(), eq("SIP/manifest.xml")))
+            .thenReturn(Response.status(Status.OK).entity(sedaLocal).build());
+        final AtomicReference<String> unit = new AtomicReference<>();
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                final String path = (String) invocation.getArguments()[1];
+                if (path.startsWith("Units/")) {
+                    unit.set(new String(ByteStreams.toByteArray((InputStream) invocation.getArguments()[2]),
+                        CharsetUtils.UTF8));
+                }
+                return null;
+            }
+        }).when(workspaceClient).putObject(anyObject(), anyObject(), anyObject());
+        action.addOutIOParameters(out);
+
+        final ItemStatus response = handler.execute(params, action);
+        assertEquals(StatusCode.OK, response.getGlobalStatus());
+
+        final String unitXml = unit.get();
+        final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+            .parse(new ByteArrayInputStream(unitXml.getBytes(CharsetUtils.UTF8)));
+        assertEquals(1, document.getElementsByTagName("Management").getLength());
+        assertEquals("", document.getElementsByTagName("_up").item(0).getTextContent());
+        // own rule not inherited, global rule inherited once inside the unit Management
+        assertEquals(unitXml.indexOf("<Rule>ID017</Rule>"), unitXml.lastIndexOf("<Rule>ID017</Rule>"));
+        assertEquals(unitXml.indexOf("<Rule>ID420</Rule>"), unitXml.lastIndexOf("<Rule>ID420</Rule>"));
+        assertTrue(unitXml.indexOf("<Rule>ID420</Rule>") < unitXml.indexOf("</Management>"));
+        assertTrue(document.getElementsByTagName("RulesToApply").item(0).getTextContent().contains("ID420"));
+    }
 }
@@ -122,7 +122,7 @@ public class IndexObjectGroupActionHandlerTest {
     @Test
     public void givenWorkspaceExistWhenExecuteThenReturnResponseOK()
         throws Exception {
-        when(metadataClient.insertObjectGroup(anyObject())).thenReturn(JsonHandler.createObjectNode());
+        when(metadataClient.insertObjectGroups(anyObject())).thenReturn(JsonHandler.createObjectNode());
         when(workspaceClient.getObject(anyObject(), anyObject()))
             .thenReturn(Response.status(Status.OK).entity(objectGroup).build());
         final MetaDataClientFactory mockedMetadataFactory = mock(MetaDataClientFactory.class);
@@ -142,7 +142,7 @@ public class IndexObjectGroupActionHandlerTest {
     @Test
     public void testMetadataException()
         throws Exception {
-        when(metadataClient.insertObjectGroup(anyObject())).thenThrow(new MetaDataExecutionException(""));
+        when(metadataClient.insertObjectGroups(anyObject())).thenThrow(new MetaDataExecutionException(""));
 
         when(workspaceClient.getObject(anyObject(), anyObject()))
             .thenReturn(Response.status(Status.OK).entity(objectGroup).build());
@@ -162,7 +162,7 @@ public class IndexObjectGroupActionHandlerTest {
     @Test
     public void testMetadataParseException()
         throws Exception {
-        when(metadataClient.insertObjectGroup(anyObject())).thenThrow(new InvalidParseOperationException(""));
+        when(metadataClient.insertObjectGroups(anyObject())).thenThrow(new InvalidParseOperationException(""));
 
         when(workspaceClient.getObject(anyObject(), anyObject()))
             .thenReturn(Response.status(Status.OK).entity(objectGroup).build());
@@ -182,7 +182,7 @@ public class IndexObjectGroupActionHandlerTest {
     @Test
     public void testWorkspaceException()
         throws Exception {
-        when(metadataClient.insertObjectGroup(anyObject())).thenReturn(JsonHandler.createObjectNode());
+        when(metadataClient.insertObjectGroups(anyObject())).thenReturn(JsonHandler.createObjectNode());
 
         when(workspaceClient.getObject(anyObject(), anyObject()))
             .thenThrow(new ContentAddressableStorageNotFoundException(""));
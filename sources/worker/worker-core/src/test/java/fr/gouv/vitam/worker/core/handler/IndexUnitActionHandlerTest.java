@@ -36,6 +36,10 @@ import static org.mockito.Mockito.when;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
@@ -50,6 +54,8 @@ import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
 import fr.gouv.vitam.common.PropertiesUtils;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.guid.GUID;
@@ -135,7 +141,7 @@ public class IndexUnitActionHandlerTest {
 
     @Test
     public void givenWorkspaceExistWhenExecuteThenReturnResponseOK() throws Exception {
-        when(metadataClient.insertUnit(anyObject())).thenReturn(JsonHandler.createObjectNode());
+        when(metadataClient.insertUnits(anyObject())).thenReturn(JsonHandler.createObjectNode());
         final MetaDataClientFactory mockedMetadataFactory = mock(MetaDataClientFactory.class);
         PowerMockito.when(MetaDataClientFactory.getInstance()).thenReturn(mockedMetadataFactory);
         PowerMockito.when(mockedMetadataFactory.getClient()).thenReturn(metadataClient);
@@ -151,7 +157,7 @@ public class IndexUnitActionHandlerTest {
 
     @Test
     public void testMetadataException() throws Exception {
-        when(metadataClient.insertUnit(anyObject())).thenThrow(new MetaDataExecutionException(""));
+        when(metadataClient.insertUnits(anyObject())).thenThrow(new MetaDataExecutionException(""));
         final MetaDataClientFactory mockedMetadataFactory = mock(MetaDataClientFactory.class);
         PowerMockito.when(MetaDataClientFactory.getInstance()).thenReturn(mockedMetadataFactory);
         PowerMockito.when(mockedMetadataFactory.getClient()).thenReturn(metadataClient);
@@ -167,7 +173,7 @@ public class IndexUnitActionHandlerTest {
 
     @Test
     public void testWorkspaceException() throws Exception {
-        when(metadataClient.insertUnit(anyObject())).thenReturn(JsonHandler.createObjectNode());
+        when(metadataClient.insertUnits(anyObject())).thenReturn(JsonHandler.createObjectNode());
         final MetaDataClientFactory mockedMetadataFactory = mock(MetaDataClientFactory.class);
         PowerMockito.when(MetaDataClientFactory.getInstance()).thenReturn(mockedMetadataFactory);
         PowerMockito.when(mockedMetadataFactory.getClient()).thenReturn(metadataClient);
@@ -188,7 +194,7 @@ public class IndexUnitActionHandlerTest {
         MetaDataDocumentSizeException, MetaDataClientServerException, InvalidParseOperationException,
         ContentAddressableStorageNotFoundException, ContentAddressableStorageServerException {
 
-        when(metadataClient.insertUnit(anyObject())).thenReturn(JsonHandler.createObjectNode());
+        when(metadataClient.insertUnits(anyObject())).thenReturn(JsonHandler.createObjectNode());
         final MetaDataClientFactory mockedMetadataFactory = mock(MetaDataClientFactory.class);
         PowerMockito.when(MetaDataClientFactory.getInstance()).thenReturn(mockedMetadataFactory);
         PowerMockito.when(mockedMetadataFactory.getClient()).thenReturn(metadataClient);
@@ -202,5 +208,31 @@ public class IndexUnitActionHandlerTest {
         assertEquals(response.getGlobalStatus(), StatusCode.OK);
     }
 
+    @Test
+    public void givenSeveralUnitsWhenExecuteListThenInsertByBulk() throws Exception {
+        final List<Integer> bulkSizes = new ArrayList<>();
+        when(metadataClient.insertUnits(anyObject())).thenAnswer(invocation -> {
+            bulkSizes.add(((ArrayNode) invocation.getArguments()[0]).size());
+            return JsonHandler.createObjectNode();
+        });
+        final MetaDataClientFactory mockedMetadataFactory = mock(MetaDataClientFactory.class);
+        PowerMockito.when(MetaDataClientFactory.getInstance()).thenReturn(mockedMetadataFactory);
+        PowerMockito.when(mockedMetadataFactory.getClient()).thenReturn(metadataClient);
+        when(workspaceClient.getObject(anyObject(), eq("Units/objectName.json")))
+            .thenReturn(Response.status(Status.OK).entity(archiveUnit).build());
+        when(workspaceClient.getObject(anyObject(), eq("Units/objectName2.json")))
+            .thenReturn(Response.status(Status.OK).entity(archiveUnitWithRules).build());
+        final WorkerParameters params =
+            WorkerParametersFactory.newWorkerParameters().setUrlWorkspace("http://localhost:8083")
+                .setUrlMetadata("http://localhost:8083")
+                .setObjectName("objectName.json").setCurrentStep("currentStep").setContainerName(guid.getId());
+        final List<ItemStatus> responses =
+            handler.executeList(params, action, Arrays.asList("objectName.json", "objectName2.json"));
+        assertEquals(2, responses.size());
+        assertEquals(StatusCode.OK, responses.get(0).getGlobalStatus());
+        assertEquals(StatusCode.OK, responses.get(1).getGlobalStatus());
+        // one single request for both units
+        assertEquals(Collections.singletonList(2), bulkSizes);
+    }
 
 }
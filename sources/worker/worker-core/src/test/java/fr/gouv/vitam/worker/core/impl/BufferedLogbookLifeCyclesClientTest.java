@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.core.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.logbook.common.exception.LogbookClientServerException;
+import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleParameters;
+import fr.gouv.vitam.logbook.common.parameters.LogbookParameterName;
+import fr.gouv.vitam.logbook.common.parameters.LogbookParametersFactory;
+import fr.gouv.vitam.logbook.lifecycles.client.LogbookLifeCyclesClient;
+
+public class BufferedLogbookLifeCyclesClientTest {
+
+    private static final String OPERATION = "operationId";
+    private LogbookLifeCyclesClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        client = mock(LogbookLifeCyclesClient.class);
+        final Map<String, StatusCode> outcomes = new HashMap<>();
+        when(client.bulkWriteUnit(anyObject(), anyObject())).thenReturn(outcomes);
+        when(client.bulkWriteObjectGroup(anyObject(), anyObject())).thenReturn(outcomes);
+    }
+
+    private static List<LogbookLifeCycleParameters> getEvents(String lifeCycleId, String... eventTypes) {
+        final List<LogbookLifeCycleParameters> events = new ArrayList<>();
+        for (final String eventType : eventTypes) {
+            final LogbookLifeCycleParameters parameters =
+                LogbookParametersFactory.newLogbookLifeCycleObjectGroupParameters();
+            parameters.putParameterValue(LogbookParameterName.objectIdentifier, lifeCycleId);
+            parameters.putParameterValue(LogbookParameterName.eventType, eventType);
+            events.add(parameters);
+        }
+        return events;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void givenEventsOfSeveralHandlersWhenFlushThenOneWriteInLifeCycleOrder() throws Exception {
+        final BufferedLogbookLifeCyclesClient buffer = new BufferedLogbookLifeCyclesClient(client, 100, 60000);
+        buffer.bulkUpdateObjectGroup(OPERATION, getEvents("og1", "CHECK_DIGEST"));
+        buffer.bulkUpdateObjectGroup(OPERATION, getEvents("og2", "CHECK_DIGEST"));
+        buffer.bulkUpdateObjectGroup(OPERATION, getEvents("og1", "OG_OBJECTS_FORMAT_CHECK", "OG_STORAGE"));
+        buffer.bulkUpdateObjectGroup(OPERATION, null);
+        verify(client, never()).bulkWriteObjectGroup(anyObject(), anyObject());
+
+        assertTrue(buffer.flush().isEmpty());
+        final ArgumentCaptor<Iterable> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(client).bulkWriteObjectGroup(eq(OPERATION), captor.capture());
+        final List<String> events = new ArrayList<>();
+        for (final Object event : captor.getValue()) {
+            final LogbookLifeCycleParameters parameters = (LogbookLifeCycleParameters) event;
+            events.add(parameters.getParameterValue(LogbookParameterName.objectIdentifier) +
+                parameters.getParameterValue(LogbookParameterName.eventType));
+        }
+        assertEquals(Arrays.asList("og1CHECK_DIGEST", "og1OG_OBJECTS_FORMAT_CHECK", "og1OG_STORAGE",
+            "og2CHECK_DIGEST"), events);
+
+        // nothing left to write
+        buffer.close();
+        verify(client).bulkWriteObjectGroup(anyObject(), anyObject());
+        verify(client, never()).bulkUpdateObjectGroup(anyObject(), anyObject());
+        verify(client).close();
+    }
+
+    @Test
+    public void givenEnoughEventsWhenBufferedThenWrittenInBackground() throws Exception {
+        final BufferedLogbookLifeCyclesClient buffer = new BufferedLogbookLifeCyclesClient(client, 2, 60000);
+        buffer.bulkUpdateUnit(OPERATION, getEvents("unit1", "UNIT_METADATA_INDEXATION"));
+        buffer.bulkUpdateUnit(OPERATION, getEvents("unit2", "UNIT_METADATA_INDEXATION"));
+        verify(client, timeout(5000)).bulkWriteUnit(eq(OPERATION), anyObject());
+        buffer.close();
+    }
+
+    @Test
+    public void givenBufferedEventsWhenDelayElapsedThenWritten() throws Exception {
+        final BufferedLogbookLifeCyclesClient buffer = new BufferedLogbookLifeCyclesClient(client, 100, 10);
+        buffer.bulkUpdateUnit(OPERATION, getEvents("unit1", "UNIT_METADATA_INDEXATION"));
+        verify(client, timeout(5000)).bulkWriteUnit(eq(OPERATION), anyObject());
+        buffer.close();
+    }
+
+    @Test
+    public void givenWriteErrorWhenFlushThenFailuresReported() throws Exception {
+        final Map<String, StatusCode> outcomes = new HashMap<>();
+        outcomes.put("og1", StatusCode.OK);
+        outcomes.put("og2", StatusCode.KO);
+        when(client.bulkWriteObjectGroup(anyObject(), anyObject())).thenReturn(outcomes);
+        doThrow(new LogbookClientServerException("error")).when(client).bulkWriteUnit(anyObject(), anyObject());
+        final BufferedLogbookLifeCyclesClient buffer = new BufferedLogbookLifeCyclesClient(client, 100, 60000);
+        buffer.bulkUpdateObjectGroup(OPERATION, getEvents("og1", "OG_STORAGE"));
+        buffer.bulkUpdateObjectGroup(OPERATION, getEvents("og2", "OG_STORAGE"));
+        buffer.bulkUpdateUnit(OPERATION, getEvents("unit1", "UNIT_METADATA_INDEXATION"));
+        buffer.bulkUpdateUnit(OPERATION, getEvents("unit2", "UNIT_METADATA_INDEXATION"));
+        // pending events are written before any other call
+        buffer.selectObjectGroupLifeCycleById("og1");
+        verify(client).bulkWriteObjectGroup(anyObject(), anyObject());
+        // og2 not found, unit1 and unit2 not written
+        assertEquals(new HashSet<>(Arrays.asList("og2", "unit1", "unit2")), buffer.flush());
+        assertTrue(buffer.flush().isEmpty());
+        buffer.close();
+    }
+
+    @Test
+    public void givenUnclosedClientWhenEventsWrittenThenNoDelayedWriteLeft() throws Exception {
+        final BufferedLogbookLifeCyclesClient buffer = new BufferedLogbookLifeCyclesClient(client, 100, 10);
+        // nothing is scheduled without buffered events
+        assertFalse(buffer.isWriteScheduled());
+        buffer.bulkUpdateUnit(OPERATION, getEvents("unit1", "UNIT_METADATA_INDEXATION"));
+        assertTrue(buffer.isWriteScheduled());
+        verify(client, timeout(5000)).bulkWriteUnit(eq(OPERATION), anyObject());
+        // the delayed write is done once: the client is not referenced anymore by the scheduler
+        assertFalse(buffer.isWriteScheduled());
+        Thread.sleep(50);
+        verify(client).bulkWriteUnit(anyObject(), anyObject());
+    }
+}
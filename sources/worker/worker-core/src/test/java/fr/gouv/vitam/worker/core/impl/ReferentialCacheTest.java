@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.core.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import fr.gouv.vitam.common.json.JsonHandler;
+import fr.gouv.vitam.functional.administration.client.AdminManagementClient;
+import fr.gouv.vitam.functional.administration.common.exception.AdminManagementClientServerException;
+
+public class ReferentialCacheTest {
+
+    private final ReferentialCache cache = ReferentialCache.getInstance();
+    private AdminManagementClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        client = mock(AdminManagementClient.class);
+        cache.clear();
+    }
+
+    @After
+    public void tearDown() {
+        cache.setVersionCheckDelay(ReferentialCache.DEFAULT_VERSION_CHECK_DELAY);
+    }
+
+    @Test
+    public void givenCachedFormatWhenGetFormatsThenReferentialReadOnce() throws Exception {
+        when(client.getFormats(anyObject())).thenReturn(getResults(
+            JsonHandler.createObjectNode().put("PUID", "fmt/18")));
+        final JsonNode result = cache.getFormats(client, "fmt/18");
+        assertEquals("fmt/18", result.get("$results").get(0).get("PUID").asText());
+        // the cached result cannot be modified by its users
+        ((ObjectNode) result).removeAll();
+        assertEquals(1, cache.getFormats(client, "fmt/18").size());
+        cache.getFormats(client, "fmt/19");
+        verify(client, times(2)).getFormats(anyObject());
+    }
+
+    @Test
+    public void givenCachedRulesWhenGetRulesThenOnlyMissingRulesRead() throws Exception {
+        when(client.getRules(anyObject())).thenReturn(getResults(getRule("APP-00001"), getRule("APP-00002")),
+            getResults(getRule("APP-00003")));
+        assertEquals(2,
+            cache.getRules(client, new HashSet<>(Arrays.asList("APP-00001", "APP-00002"))).get("$results").size());
+        // unknown rules are cached too
+        final Set<String> rulesId = new HashSet<>(Arrays.asList("APP-00001", "APP-00003", "UNKNOWN"));
+        assertEquals(2, cache.getRules(client, rulesId).get("$results").size());
+        assertEquals(2, cache.getRules(client, rulesId).get("$results").size());
+        verify(client, times(2)).getRules(anyObject());
+    }
+
+    @Test
+    public void givenNewVersionWhenGetThenCacheCleared() throws Exception {
+        cache.setVersionCheckDelay(0);
+        when(client.getFormats(anyObject())).thenReturn(getResults(
+            JsonHandler.createObjectNode().put("PUID", "fmt/18")));
+        when(client.getFormatsVersion()).thenReturn(1L, 1L, 2L);
+        cache.getFormats(client, "fmt/18");
+        cache.getFormats(client, "fmt/18");
+        verify(client, times(1)).getFormats(anyObject());
+        cache.getFormats(client, "fmt/18");
+        verify(client, times(2)).getFormats(anyObject());
+    }
+
+    @Test
+    public void givenUnavailableVersionWhenGetThenCacheCleared() throws Exception {
+        cache.setVersionCheckDelay(0);
+        when(client.getRules(anyObject())).thenReturn(getResults(getRule("APP-00001")));
+        when(client.getRulesVersion()).thenReturn(1L).thenReturn(1L)
+            .thenThrow(new AdminManagementClientServerException("unavailable"));
+        final Set<String> rulesId = new HashSet<>(Arrays.asList("APP-00001"));
+        cache.getRules(client, rulesId);
+        cache.getRules(client, rulesId);
+        verify(client, times(1)).getRules(anyObject());
+        cache.getRules(client, rulesId);
+        verify(client, times(2)).getRules(anyObject());
+    }
+
+    private static JsonNode getResults(JsonNode... results) {
+        final ObjectNode node = JsonHandler.createObjectNode();
+        node.putArray("$results").addAll(Arrays.asList(results));
+        return node;
+    }
+
+    private static JsonNode getRule(String ruleId) {
+        return JsonHandler.createObjectNode().put("RuleId", ruleId).put("RuleType", "AppraisalRule");
+    }
+}
@@ -26,17 +26,30 @@
  *******************************************************************************/
 package fr.gouv.vitam.worker.core.impl;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import fr.gouv.vitam.common.PropertiesUtils;
 import fr.gouv.vitam.common.junit.JunitHelper;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
@@ -47,10 +60,13 @@ import fr.gouv.vitam.processing.common.model.Action;
 import fr.gouv.vitam.processing.common.model.ActionDefinition;
 import fr.gouv.vitam.processing.common.model.ProcessBehavior;
 import fr.gouv.vitam.processing.common.model.Step;
+import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
 import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
+import fr.gouv.vitam.worker.common.DescriptionStep;
 import fr.gouv.vitam.worker.core.api.Worker;
 import fr.gouv.vitam.worker.core.handler.ActionHandler;
 import fr.gouv.vitam.worker.core.handler.ExtractSedaActionHandler;
+import fr.gouv.vitam.worker.core.handler.IndexUnitActionHandler;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
 
 public class WorkerImplTest {
@@ -159,6 +175,40 @@ public class WorkerImplTest {
             step);
     }
 
+    @Test
+    public void givenFinallyStepWhenRunThenContainerEvictedFromWorkerCache() throws Exception {
+        final Step step = new Step();
+        step.setStepName("STP_INGEST_FINALISATION");
+        step.setBehavior(ProcessBehavior.FINALLY);
+        final List<Action> actions = new ArrayList<>();
+        final Action action = new Action();
+        final ActionDefinition actionDefinition = new ActionDefinition();
+        actionDefinition.setActionKey(ExtractSedaActionHandler.getId());
+        actionDefinition.setBehavior(ProcessBehavior.NOBLOCKING);
+        action.setActionDefinition(actionDefinition);
+        actions.add(action);
+        step.setActions(actions);
+
+        final ActionHandler actionHandler = mock(ExtractSedaActionHandler.class);
+        when(actionHandler.execute(anyObject(), anyObject())).thenReturn(new ItemStatus("HANDLER_ID"));
+        final File cached = PropertiesUtils.fileFromTmpFolder("finallyCached");
+        Files.write(cached.toPath(), "content".getBytes());
+        final WorkspaceFileCache cache = WorkspaceFileCache.getInstance();
+        cache.put("finallyContainer", "objectName", cached);
+        final File target = PropertiesUtils.fileFromTmpFolder("finallyTarget");
+        assertTrue(cache.copyTo("finallyContainer", "objectName", target));
+
+        workerImpl = WorkerImplFactory.create()
+            .addActionHandler(ExtractSedaActionHandler.getId(), actionHandler);
+        workerImpl.run(
+            WorkerParametersFactory.newWorkerParameters().setUrlWorkspace(workspaceURL)
+                .setUrlMetadata("http://localhost:8083")
+                .setObjectName("objectName.json").setCurrentStep("currentStep")
+                .setContainerName("finallyContainer"),
+            step);
+        assertFalse(cache.copyTo("finallyContainer", "objectName", target));
+    }
+
     @Test
     public void actionBlockTest() throws Exception {
         final Step step = new Step();
@@ -223,4 +273,120 @@ public class WorkerImplTest {
             step);
     }
 
+    @Test
+    public void actionBatchTest() throws Exception {
+        final Step step = new Step();
+        step.setStepName("Traiter_archives");
+        step.setBehavior(ProcessBehavior.BLOCKING);
+        final List<Action> actions = new ArrayList<>();
+        final Action action = new Action();
+        final ActionDefinition actionDefinition = new ActionDefinition();
+        actionDefinition.setActionKey(ExtractSedaActionHandler.getId());
+        actionDefinition.setBehavior(ProcessBehavior.BLOCKING);
+        action.setActionDefinition(actionDefinition);
+        actions.add(action);
+        step.setActions(actions);
+
+        final ActionHandler actionHandler = mock(ExtractSedaActionHandler.class);
+        when(actionHandler.execute(anyObject(), anyObject())).thenAnswer(invocation -> {
+            final ItemStatus itemStatus = new ItemStatus("HANDLER_ID");
+            itemStatus.increment(StatusCode.OK);
+            return new ItemStatus("HANDLER_ID").setItemsStatus("HANDLER_ID", itemStatus);
+        });
+        workerImpl = WorkerImplFactory.create()
+            .addActionHandler(ExtractSedaActionHandler.getId(), actionHandler);
+        final ItemStatus responses = workerImpl.run(
+            WorkerParametersFactory.newWorkerParameters().setUrlWorkspace(workspaceURL)
+                .setUrlMetadata("http://localhost:8083")
+                .setObjectName("objectName1.json").setCurrentStep("currentStep").setContainerName("containerName"),
+            step, Arrays.asList("objectName1.json", "objectName2.json", "objectName3.json"));
+        verify(actionHandler, times(3)).execute(anyObject(), anyObject());
+        assertEquals(StatusCode.OK, responses.getGlobalStatus());
+        assertEquals(3, responses.getItemsStatus().get("HANDLER_ID").getStatusMeter()
+            .get(StatusCode.OK.getStatusLevel()).intValue());
+
+        // Blocking step: remaining objects are not processed after a KO
+        final ActionHandler koActionHandler = mock(ExtractSedaActionHandler.class);
+        when(koActionHandler.execute(anyObject(), anyObject())).thenAnswer(invocation -> {
+            final ItemStatus itemStatus = new ItemStatus("HANDLER_ID");
+            itemStatus.increment(StatusCode.KO);
+            return new ItemStatus("HANDLER_ID").setItemsStatus("HANDLER_ID", itemStatus);
+        });
+        workerImpl = WorkerImplFactory.create()
+            .addActionHandler(ExtractSedaActionHandler.getId(), koActionHandler);
+        final ItemStatus koResponses = workerImpl.run(
+            WorkerParametersFactory.newWorkerParameters().setUrlWorkspace(workspaceURL)
+                .setUrlMetadata("http://localhost:8083")
+                .setObjectName("objectName1.json").setCurrentStep("currentStep").setContainerName("containerName"),
+            step, Arrays.asList("objectName1.json", "objectName2.json", "objectName3.json"));
+        verify(koActionHandler, times(1)).execute(anyObject(), anyObject());
+        assertEquals(StatusCode.KO, koResponses.getGlobalStatus());
+        // the skipped objects are not reported as processed
+        assertEquals(Collections.singletonMap("objectName1.json", StatusCode.KO.name()),
+            koResponses.getData().get(DescriptionStep.OBJECT_STATUSES));
+    }
+
+    @Test
+    public void actionBatchWithBatchHandlerTest() throws Exception {
+        final Step step = new Step();
+        step.setStepName("Traiter_archives");
+        step.setBehavior(ProcessBehavior.NOBLOCKING);
+        final List<Action> actions = new ArrayList<>();
+        final Action action = new Action();
+        final ActionDefinition actionDefinition = new ActionDefinition();
+        actionDefinition.setActionKey(ExtractSedaActionHandler.getId());
+        actionDefinition.setBehavior(ProcessBehavior.BLOCKING);
+        action.setActionDefinition(actionDefinition);
+        actions.add(action);
+        final Action batchAction = new Action();
+        final ActionDefinition batchActionDefinition = new ActionDefinition();
+        batchActionDefinition.setActionKey(IndexUnitActionHandler.getId());
+        batchActionDefinition.setBehavior(ProcessBehavior.BLOCKING);
+        batchAction.setActionDefinition(batchActionDefinition);
+        actions.add(batchAction);
+        step.setActions(actions);
+
+        // KO on the second object only
+        final ActionHandler actionHandler = mock(ExtractSedaActionHandler.class);
+        when(actionHandler.execute(anyObject(), anyObject())).thenAnswer(invocation -> {
+            final WorkerParameters params = (WorkerParameters) invocation.getArguments()[0];
+            final ItemStatus itemStatus = new ItemStatus("HANDLER_ID");
+            itemStatus.increment(
+                "objectName2.json".equals(params.getObjectName()) ? StatusCode.KO : StatusCode.OK);
+            return new ItemStatus("HANDLER_ID").setItemsStatus("HANDLER_ID", itemStatus);
+        });
+        final IndexUnitActionHandler batchActionHandler = mock(IndexUnitActionHandler.class);
+        when(batchActionHandler.executeList(anyObject(), anyObject(), anyObject())).thenAnswer(invocation -> {
+            final List<?> objectNames = (List<?>) invocation.getArguments()[2];
+            final List<ItemStatus> itemStatuses = new ArrayList<>();
+            for (int i = 0; i < objectNames.size(); i++) {
+                final ItemStatus itemStatus = new ItemStatus("BATCH_HANDLER_ID");
+                itemStatus.increment(StatusCode.OK);
+                itemStatuses.add(new ItemStatus("BATCH_HANDLER_ID").setItemsStatus("BATCH_HANDLER_ID", itemStatus));
+            }
+            return itemStatuses;
+        });
+        workerImpl = WorkerImplFactory.create()
+            .addActionHandler(ExtractSedaActionHandler.getId(), actionHandler)
+            .addActionHandler(IndexUnitActionHandler.getId(), batchActionHandler);
+        final ItemStatus responses = workerImpl.run(
+            WorkerParametersFactory.newWorkerParameters().setUrlWorkspace(workspaceURL)
+                .setUrlMetadata("http://localhost:8083")
+                .setObjectName("objectName1.json").setCurrentStep("currentStep").setContainerName("containerName"),
+            step, Arrays.asList("objectName1.json", "objectName2.json", "objectName3.json"));
+        verify(actionHandler, times(3)).execute(anyObject(), anyObject());
+        // one single call for the objects not stopped by the first action
+        verify(batchActionHandler).executeList(anyObject(), anyObject(),
+            eq(Arrays.asList("objectName1.json", "objectName3.json")));
+        verify(batchActionHandler, never()).execute(anyObject(), anyObject());
+        assertEquals(StatusCode.KO, responses.getGlobalStatus());
+        assertEquals(2, responses.getItemsStatus().get("BATCH_HANDLER_ID").getStatusMeter()
+            .get(StatusCode.OK.getStatusLevel()).intValue());
+        final Map<?, ?> objectStatuses = (Map<?, ?>) responses.getData().get(DescriptionStep.OBJECT_STATUSES);
+        assertEquals(3, objectStatuses.size());
+        assertEquals(StatusCode.OK.name(), objectStatuses.get("objectName1.json"));
+        assertEquals(StatusCode.KO.name(), objectStatuses.get("objectName2.json"));
+        assertEquals(StatusCode.OK.name(), objectStatuses.get("objectName3.json"));
+    }
+
 }
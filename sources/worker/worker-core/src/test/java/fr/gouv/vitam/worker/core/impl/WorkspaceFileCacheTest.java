@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.core.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WorkspaceFileCacheTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final WorkspaceFileCache cache = WorkspaceFileCache.getInstance();
+
+    @After
+    public void tearDown() {
+        cache.evictContainer("container");
+        cache.evictContainer("container2");
+        cache.setMaxSize(WorkspaceFileCache.DEFAULT_MAX_SIZE);
+    }
+
+    @Test
+    public void givenCachedFileWhenCopyToThenFoundUntilInvalidated() throws IOException {
+        cache.put("container", "object", newFile(10));
+        final File target = new File(tempFolder.getRoot(), "target");
+        assertTrue(cache.copyTo("container", "object", target));
+        assertEquals(10, target.length());
+        assertFalse(cache.copyTo("container", "other", target));
+
+        cache.invalidate("container", "object");
+        assertFalse(cache.copyTo("container", "object", target));
+    }
+
+    @Test
+    public void givenFullCacheWhenPutThenEvictLeastRecentlyUsed() throws IOException {
+        final long initialSize = cache.getSize();
+        cache.setMaxSize(initialSize + 25);
+        final File target = new File(tempFolder.getRoot(), "target");
+        cache.put("container", "object1", newFile(10));
+        cache.put("container", "object2", newFile(10));
+        // object1 is now the most recently used
+        assertTrue(cache.copyTo("container", "object1", target));
+        cache.put("container", "object3", newFile(10));
+        assertEquals(initialSize + 20, cache.getSize());
+        assertTrue(cache.copyTo("container", "object1", target));
+        assertFalse(cache.copyTo("container", "object2", target));
+        assertTrue(cache.copyTo("container", "object3", target));
+
+        // bigger than the cache
+        cache.put("container", "object4", newFile(30));
+        assertFalse(cache.copyTo("container", "object4", target));
+    }
+
+    @Test
+    public void givenDeletedContainerWhenEvictContainerThenOnlyItsFilesAreRemoved() throws IOException {
+        final File target = new File(tempFolder.getRoot(), "target");
+        cache.put("container", "object", newFile(10));
+        cache.put("container2", "object", newFile(10));
+        cache.evictContainer("container");
+        assertFalse(cache.copyTo("container", "object", target));
+        assertTrue(cache.copyTo("container2", "object", target));
+    }
+
+    @Test
+    public void givenDisabledCacheWhenPutThenNothingIsCached() throws IOException {
+        cache.setMaxSize(0);
+        assertFalse(cache.isEnabled());
+        cache.put("container", "object", newFile(10));
+        assertFalse(cache.copyTo("container", "object", new File(tempFolder.getRoot(), "target")));
+    }
+
+    private File newFile(int size) throws IOException {
+        final File file = tempFolder.newFile();
+        Files.write(file.toPath(), new byte[size]);
+        return file;
+    }
+}
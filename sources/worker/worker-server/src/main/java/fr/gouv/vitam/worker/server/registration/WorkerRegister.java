@@ -43,7 +43,7 @@ public class WorkerRegister implements Runnable {
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(WorkerRegister.class);
 
     /**
-     * Default Family name
+     * Default Family name, used when the configuration does not give one
      */
     public static final String DEFAULT_FAMILY = "defaultFamily";
 
@@ -93,11 +93,13 @@ public class WorkerRegister implements Runnable {
         final WorkerRemoteConfiguration remoteConfiguration = new WorkerRemoteConfiguration(
             configuration.getRegisterServerHost(), configuration.getRegisterServerPort());
 
+        final String family = configuration.getWorkerFamily() == null || configuration.getWorkerFamily().isEmpty()
+            ? DEFAULT_FAMILY : configuration.getWorkerFamily();
         final WorkerBean workerBean =
-            new WorkerBean(ServerIdentity.getInstance().getName(), DEFAULT_FAMILY, 1L, 1L, "active",
-                remoteConfiguration);
+            new WorkerBean(ServerIdentity.getInstance().getName(), family, configuration.getCapacity(), 1L,
+                "active", remoteConfiguration);
         try {
-            processingClient.registerWorker(DEFAULT_FAMILY,
+            processingClient.registerWorker(family,
                 String.valueOf(ServerIdentity.getInstance().getPlatformId()), workerBean);
             return true;
         } catch (final Exception e) {
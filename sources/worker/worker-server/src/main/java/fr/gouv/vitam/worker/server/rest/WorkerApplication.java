@@ -41,6 +41,7 @@ import fr.gouv.vitam.common.server.application.resources.VitamServiceRegistry;
 import fr.gouv.vitam.logbook.lifecycles.client.LogbookLifeCyclesClientFactory;
 import fr.gouv.vitam.metadata.client.MetaDataClientFactory;
 import fr.gouv.vitam.worker.core.api.Worker;
+import fr.gouv.vitam.worker.core.impl.WorkspaceFileCache;
 import fr.gouv.vitam.worker.server.registration.WorkerRegistrationListener;
 import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
 
@@ -109,6 +110,7 @@ public final class WorkerApplication extends AbstractVitamApplication<WorkerAppl
         } else {
             resourceConfig.register(new WorkerResource(getConfiguration()));
             WorkspaceClientFactory.changeMode(getConfiguration().getUrlWorkspace());
+            WorkspaceFileCache.getInstance().setMaxSize(getConfiguration().getWorkspaceCacheSize());
             // Logbook dependency
             serviceRegistry.register(LogbookLifeCyclesClientFactory.getInstance())
                 // Workspace dependency
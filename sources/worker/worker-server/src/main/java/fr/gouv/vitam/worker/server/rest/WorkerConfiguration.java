@@ -28,6 +28,8 @@
 package fr.gouv.vitam.worker.server.rest;
 
 import fr.gouv.vitam.common.server.application.configuration.DefaultVitamApplicationConfiguration;
+import fr.gouv.vitam.worker.core.impl.WorkspaceFileCache;
+import fr.gouv.vitam.worker.server.registration.WorkerRegister;
 
 /**
  * Worker configuration class mapping
@@ -41,6 +43,9 @@ public final class WorkerConfiguration extends DefaultVitamApplicationConfigurat
     private int registerServerPort;
     private long registerDelay = 60;
     private int registerRetry = 5;
+    private long capacity = Runtime.getRuntime().availableProcessors();
+    private long workspaceCacheSize = WorkspaceFileCache.DEFAULT_MAX_SIZE;
+    private String workerFamily = WorkerRegister.DEFAULT_FAMILY;
 
     /**
      * WorkerConfiguration empty constructor for YAMLFactory
@@ -189,4 +194,64 @@ public final class WorkerConfiguration extends DefaultVitamApplicationConfigurat
         return this;
     }
 
+    /**
+     * Get the capacity, i.e. the number of items this worker accepts to process concurrently
+     *
+     * @return capacity
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * The capacity setter
+     *
+     * @param capacity the number of items this worker accepts to process concurrently
+     * @return the updated WorkerConfiguration object
+     */
+    public WorkerConfiguration setCapacity(long capacity) {
+        this.capacity = capacity;
+        return this;
+    }
+
+    /**
+     * Get the maximum size of the local cache of the files read from the Workspace
+     *
+     * @return workspaceCacheSize in bytes
+     */
+    public long getWorkspaceCacheSize() {
+        return workspaceCacheSize;
+    }
+
+    /**
+     * The maximum size of the local cache of the files read from the Workspace
+     *
+     * @param workspaceCacheSize in bytes, 0 disabling the cache
+     * @return the updated WorkerConfiguration object
+     */
+    public WorkerConfiguration setWorkspaceCacheSize(long workspaceCacheSize) {
+        this.workspaceCacheSize = workspaceCacheSize;
+        return this;
+    }
+
+    /**
+     * Get the family this worker registers in, matching the workerGroupId of the steps it processes
+     *
+     * @return workerFamily
+     */
+    public String getWorkerFamily() {
+        return workerFamily;
+    }
+
+    /**
+     * The workerFamily setter
+     *
+     * @param workerFamily the family this worker registers in
+     * @return the updated WorkerConfiguration object
+     */
+    public WorkerConfiguration setWorkerFamily(String workerFamily) {
+        this.workerFamily = workerFamily;
+        return this;
+    }
+
 }
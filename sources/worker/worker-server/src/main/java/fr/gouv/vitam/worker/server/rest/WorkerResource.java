@@ -128,12 +128,12 @@ public class WorkerResource extends ApplicationStatusResource {
                 try (Worker worker = WorkerImplFactory.create()) {
                     responses =
                         worker.run(descriptionStep.getWorkParams(),
-                            descriptionStep.getStep());
+                            descriptionStep.getStep(), descriptionStep.getObjectNameList());
                     return Response.status(Status.OK).entity(responses).build();
                 }
             } else {
                 responses = workerMocked.run(descriptionStep.getWorkParams(),
-                    descriptionStep.getStep());
+                    descriptionStep.getStep(), descriptionStep.getObjectNameList());
                 return Response.status(Status.OK).entity(responses).build();
             }
         } catch (final InvalidParseOperationException exc) {
@@ -49,4 +49,11 @@ public class WorkerConfigurationTest {
         workerConfiguration.setJettyConfig("jettyFakeConfig");
         assertEquals("jettyFakeConfig", workerConfiguration.getJettyConfig());
     }
+
+    @Test
+    public final void givenWorkerConfigurationThenCapacityDefaultsToProcessors() {
+        final WorkerConfiguration workerConfiguration = new WorkerConfiguration();
+        assertEquals(Runtime.getRuntime().availableProcessors(), workerConfiguration.getCapacity());
+        assertEquals(4, workerConfiguration.setCapacity(4).getCapacity());
+    }
 }
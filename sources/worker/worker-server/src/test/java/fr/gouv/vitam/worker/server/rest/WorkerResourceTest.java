@@ -183,7 +183,7 @@ public class WorkerResourceTest {
         final ItemStatus responses = new ItemStatus("ID");
         Mockito.reset(worker);
 
-        when(worker.run(anyObject(), anyObject())).thenReturn(responses);
+        when(worker.run(anyObject(), anyObject(), anyObject())).thenReturn(responses);
 
         final InputStream stream =
             PropertiesUtils.getResourceAsStream("descriptionStep.json");
@@ -198,7 +198,7 @@ public class WorkerResourceTest {
         throws InvalidParseOperationException, IOException, HandlerNotFoundException, IllegalArgumentException,
         ProcessingException, ContentAddressableStorageServerException {
         Mockito.reset(worker);
-        when(worker.run(anyObject(), anyObject())).thenThrow(new HandlerNotFoundException(""));
+        when(worker.run(anyObject(), anyObject(), anyObject())).thenThrow(new HandlerNotFoundException(""));
 
         final InputStream stream =
             PropertiesUtils.getResourceAsStream("descriptionStep_wrong_handler.json");
@@ -213,7 +213,7 @@ public class WorkerResourceTest {
         throws InvalidParseOperationException, IOException, HandlerNotFoundException, IllegalArgumentException,
         ProcessingException, ContentAddressableStorageServerException {
         Mockito.reset(worker);
-        when(worker.run(anyObject(), anyObject())).thenThrow(new ProcessingException(""));
+        when(worker.run(anyObject(), anyObject(), anyObject())).thenThrow(new ProcessingException(""));
 
         final InputStream stream =
             PropertiesUtils.getResourceAsStream("descriptionStep_wrong_handler.json");
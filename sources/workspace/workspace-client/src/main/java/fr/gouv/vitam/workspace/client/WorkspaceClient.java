@@ -482,7 +482,7 @@ public class WorkspaceClient extends DefaultClient implements ContentAddressable
             final MultivaluedHashMap<String, Object> headers = new MultivaluedHashMap<>();
             headers.add(GlobalDataRest.X_DIGEST_ALGORITHM, algo.getName());
             response =
-                performRequest(HttpMethod.HEAD, CONTAINERS + containerName + OBJECTS + objectName, null,
+                performRequest(HttpMethod.HEAD, CONTAINERS + containerName + OBJECTS + objectName, headers,
                     MediaType.APPLICATION_JSON_TYPE, false);
 
             if (Response.Status.OK.getStatusCode() == response.getStatus()) {
@@ -26,8 +26,6 @@
  *******************************************************************************/
 package fr.gouv.vitam.workspace.core;
 
-import java.io.File;
-import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.ArrayList;
@@ -38,9 +36,6 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
-import org.apache.commons.compress.archivers.ArchiveEntry;
-import org.apache.commons.compress.archivers.ArchiveException;
-import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.jclouds.blobstore.BlobStore;
 import org.jclouds.blobstore.BlobStoreContext;
 import org.jclouds.blobstore.ContainerNotFoundException;
@@ -53,31 +48,24 @@ import org.jclouds.blobstore.options.ListContainerOptions;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
-import fr.gouv.vitam.common.CommonMediaType;
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.client.AbstractMockClient;
-import fr.gouv.vitam.common.digest.Digest;
-import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.stream.StreamUtils;
-import fr.gouv.vitam.workspace.api.ContentAddressableStorage;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageAlreadyExistException;
-import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageCompressedFileException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
-import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
 import fr.gouv.vitam.workspace.api.model.ContainerInformation;
 import fr.gouv.vitam.workspace.common.ErrorMessage;
 import fr.gouv.vitam.workspace.common.UriUtils;
 import fr.gouv.vitam.workspace.common.WorkspaceMessage;
-import fr.gouv.vitam.workspace.common.compress.VitamArchiveStreamFactory;
 
 /**
  * Abstract Content Addressable Storage
  */
-public abstract class ContentAddressableStorageAbstract implements ContentAddressableStorage {
+public abstract class ContentAddressableStorageAbstract extends ContentAddressableStorageBase {
 
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ContentAddressableStorageAbstract.class);
 
@@ -365,25 +353,6 @@ public abstract class ContentAddressableStorageAbstract implements ContentAddres
 
     }
 
-    @Override
-    public String computeObjectDigest(String containerName, String objectName, DigestType algo)
-        throws ContentAddressableStorageNotFoundException, ContentAddressableStorageException {
-
-        ParametersChecker.checkParameter(ErrorMessage.ALGO_IS_A_MANDATORY_PARAMETER.getMessage(),
-            algo);
-        try (final InputStream stream = (InputStream) getObject(containerName, objectName).getEntity()) {
-            final Digest digest = new Digest(algo);
-            digest.update(stream);
-            return digest.toString();
-        } catch (final IOException e) {
-            LOGGER.error(e.getMessage());
-            throw new ContentAddressableStorageException(e);
-        } catch (final ContentAddressableStorageException e) {
-            LOGGER.error(e.getMessage());
-            throw e;
-        }
-    }
-
     @Override
     public boolean isExistingObject(String containerName, String objectName) {
         try {
@@ -444,95 +413,10 @@ public abstract class ContentAddressableStorageAbstract implements ContentAddres
         return uriFolderListFromContainer;
     }
 
-    @Override
-    public void uncompressObject(String containerName, String folderName, String archiveMimeType,
-        InputStream inputStreamObject) throws ContentAddressableStorageNotFoundException,
-        ContentAddressableStorageAlreadyExistException, ContentAddressableStorageServerException,
-        ContentAddressableStorageCompressedFileException, ContentAddressableStorageException {
-        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_OBJECT_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
-            containerName, folderName);
-        LOGGER.debug("init unzip method  ...");
-
-        if (!isExistingContainer(containerName)) {
-            throw new ContentAddressableStorageNotFoundException(ErrorMessage.CONTAINER_NOT_FOUND.getMessage());
-        }
-
-        if (inputStreamObject == null) {
-            throw new ContentAddressableStorageException(ErrorMessage.STREAM_IS_NULL.getMessage());
-        }
-
-        if (isExistingFolder(containerName, folderName)) {
-            LOGGER.error(ErrorMessage.FOLDER_ALREADY_EXIST.getMessage() + ":folderName" + folderName);
-            throw new ContentAddressableStorageAlreadyExistException(ErrorMessage.FOLDER_ALREADY_EXIST.getMessage());
-        }
-        LOGGER.debug("create folder name " + folderName);
-
-        createFolder(containerName, folderName);
-
-        extractArchiveInputStreamOnContainer(containerName, folderName, CommonMediaType.valueOf(archiveMimeType),
-            inputStreamObject);
-
-    }
-
     @Override
     public abstract ContainerInformation getContainerInformation(String containerName)
         throws ContentAddressableStorageNotFoundException;
 
-    /**
-     * Extract compressed SIP and push the objects on the SIP folder
-     *
-     * @param containerName GUID
-     * @param folderName folder Name
-     * @param archiverType archive type zip, tar tar.gz
-     * @param inputStreamObject :compressed SIP stream
-     * @throws ContentAddressableStorageCompressedFileException if the file is not a zip or an empty zip
-     * @throws ContentAddressableStorageException if an IOException occurs when extracting the file
-     * @throws ArchiveException
-     */
-    private void extractArchiveInputStreamOnContainer(final String containerName, final String folderName,
-        final MediaType archiverType, final InputStream inputStreamObject)
-        throws ContentAddressableStorageException, ContentAddressableStorageCompressedFileException {
-
-        try (final InputStream inputStreamClosable = StreamUtils.getRemainingReadOnCloseInputStream(inputStreamObject);
-            final ArchiveInputStream archiveInputStream = new VitamArchiveStreamFactory()
-                .createArchiveInputStream(archiverType, inputStreamClosable);) {
-            ArchiveEntry archiveEntry;
-            boolean isEmpty = true;
-
-            // create entryInputStream to resolve the stream closed problem
-            final ArchiveEntryInputStream entryInputStream = new ArchiveEntryInputStream(archiveInputStream);
-
-            while ((archiveEntry = archiveInputStream.getNextEntry()) != null) {
-
-                LOGGER.debug("containerName : " + containerName + "    / ArchiveEntryName : " + archiveEntry.getName());
-
-                isEmpty = false;
-                if (archiveEntry.isDirectory()) {
-                    continue;
-                }
-                // put object in container
-                putObject(containerName, folderName + File.separator + archiveEntry.getName(), entryInputStream);
-                LOGGER.debug("Container name: " + containerName);
-                LOGGER.debug("IsExisiting: " +
-                    isExistingObject(containerName, folderName + File.separator + archiveEntry.getName()) + " = " +
-                    folderName + File.separator + archiveEntry.getName());
-                // after put entry stream open stream to add a next
-                entryInputStream.setClosed(false);
-            }
-            archiveInputStream.close();
-            if (isEmpty) {
-                throw new ContentAddressableStorageCompressedFileException("File is empty");
-            }
-        } catch (final IOException e) {
-            LOGGER.error(e);
-            throw new ContentAddressableStorageException(e);
-        } catch (final ArchiveException e) {
-            LOGGER.error(e);
-            throw new ContentAddressableStorageException(e);
-        }
-
-    }
-
     @Override
     public JsonNode getObjectInformation(String containerName, String objectName)
         throws ContentAddressableStorageException {
@@ -554,6 +438,9 @@ public abstract class ContentAddressableStorageAbstract implements ContentAddres
                 jsonNodeObjectInformation.put("size", size);
                 jsonNodeObjectInformation.put("object_name", objectName);
                 jsonNodeObjectInformation.put("container_name", containerName);
+                if (blob.getMetadata().getLastModified() != null) {
+                    jsonNodeObjectInformation.put("last_modified", blob.getMetadata().getLastModified().getTime());
+                }
             }
         } catch (final ContainerNotFoundException e) {
             LOGGER.error(ErrorMessage.CONTAINER_NOT_FOUND.getMessage() + containerName);
@@ -570,79 +457,4 @@ public abstract class ContentAddressableStorageAbstract implements ContentAddres
         return jsonNodeObjectInformation;
     }
 
-    /**
-     * Archive input streams <b>MUST</b> override the {@link #read(byte[], int, int)} - or {@link #read()} - method so
-     * that reading from the stream generates EOF for the end of data in each entry as well as at the end of the file
-     * proper.
-     */
-    static class ArchiveEntryInputStream extends InputStream {
-
-        InputStream inputStream;
-        boolean closed = false;
-
-        /**
-         * @param archiveInputStream
-         * @throws IOException
-         */
-        public ArchiveEntryInputStream(InputStream archiveInputStream) throws IOException {
-            inputStream = archiveInputStream;
-        }
-
-        @Override
-        public int available() throws IOException {
-            if (closed) {
-                return -1;
-            }
-            return inputStream.available();
-        }
-
-        @Override
-        public long skip(long n) throws IOException {
-            if (closed) {
-                return -1;
-            }
-            return inputStream.skip(n);
-        }
-
-        @Override
-        public int read() throws IOException {
-            if (closed) {
-                return -1;
-            }
-            return inputStream.read();
-
-        }
-
-        @Override
-        public int read(byte[] b) throws IOException {
-            if (closed) {
-                return -1;
-            }
-            return inputStream.read(b);
-        }
-
-        @Override
-        public int read(byte[] b, int off, int len) throws IOException {
-            if (closed) {
-                return -1;
-            }
-            return inputStream.read(b, off, len);
-        }
-
-        @Override
-        public void close() {
-            closed = true;
-        }
-
-        /**
-         * Allow to "fakely" reopen this InputStream
-         *
-         * @param isclosed
-         */
-        public void setClosed(boolean isclosed) {
-            closed = isclosed;
-        }
-
-    }
-
 }
@@ -0,0 +1,375 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.workspace.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.ws.rs.core.MediaType;
+
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveException;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+
+import fr.gouv.vitam.common.CommonMediaType;
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.digest.Digest;
+import fr.gouv.vitam.common.digest.DigestType;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.stream.StreamUtils;
+import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
+import fr.gouv.vitam.workspace.api.ContentAddressableStorage;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageAlreadyExistException;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageCompressedFileException;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
+import fr.gouv.vitam.workspace.common.ErrorMessage;
+import fr.gouv.vitam.workspace.common.compress.VitamArchiveStreamFactory;
+
+/**
+ * Base of the Content Addressable Storage implementations: archive extraction and digest computation only rely on the
+ * other methods of the storage
+ */
+public abstract class ContentAddressableStorageBase implements ContentAddressableStorage {
+
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ContentAddressableStorageBase.class);
+
+    /**
+     * Archive entries up to this size are read in memory and written concurrently, bigger ones are streamed
+     */
+    private static final int MAX_BUFFERED_ENTRY_SIZE = 1024 * 1024;
+    /**
+     * Maximum number of entries read in memory and waiting for a writer
+     */
+    private static final int MAX_BUFFERED_ENTRIES = 64;
+    private static final int NB_WRITERS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final BufferedEntry END_OF_ENTRIES = new BufferedEntry(null, null);
+
+    @Override
+    public String computeObjectDigest(String containerName, String objectName, DigestType algo)
+        throws ContentAddressableStorageNotFoundException, ContentAddressableStorageException {
+
+        ParametersChecker.checkParameter(ErrorMessage.ALGO_IS_A_MANDATORY_PARAMETER.getMessage(),
+            algo);
+        try (final InputStream stream = (InputStream) getObject(containerName, objectName).getEntity()) {
+            final Digest digest = new Digest(algo);
+            digest.update(stream);
+            return digest.toString();
+        } catch (final IOException e) {
+            LOGGER.error(e.getMessage());
+            throw new ContentAddressableStorageException(e);
+        } catch (final ContentAddressableStorageException e) {
+            LOGGER.error(e.getMessage());
+            throw e;
+        }
+    }
+
+    @Override
+    public void uncompressObject(String containerName, String folderName, String archiveMimeType,
+        InputStream inputStreamObject) throws ContentAddressableStorageNotFoundException,
+        ContentAddressableStorageAlreadyExistException, ContentAddressableStorageServerException,
+        ContentAddressableStorageCompressedFileException, ContentAddressableStorageException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_OBJECT_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, folderName);
+        LOGGER.debug("init unzip method  ...");
+
+        if (!isExistingContainer(containerName)) {
+            throw new ContentAddressableStorageNotFoundException(ErrorMessage.CONTAINER_NOT_FOUND.getMessage());
+        }
+
+        if (inputStreamObject == null) {
+            throw new ContentAddressableStorageException(ErrorMessage.STREAM_IS_NULL.getMessage());
+        }
+
+        if (isExistingFolder(containerName, folderName)) {
+            LOGGER.error(ErrorMessage.FOLDER_ALREADY_EXIST.getMessage() + ":folderName" + folderName);
+            throw new ContentAddressableStorageAlreadyExistException(ErrorMessage.FOLDER_ALREADY_EXIST.getMessage());
+        }
+        LOGGER.debug("create folder name " + folderName);
+
+        createFolder(containerName, folderName);
+
+        extractArchiveInputStreamOnContainer(containerName, folderName, CommonMediaType.valueOf(archiveMimeType),
+            inputStreamObject);
+
+    }
+
+    /**
+     * Extract compressed SIP and push the objects on the SIP folder.<br>
+     * <br>
+     * The archive is decoded by the calling thread: small entries are read in memory and queued to a pool of writers
+     * persisting them concurrently, bigger entries are directly streamed to the storage by the calling thread.
+     *
+     * @param containerName GUID
+     * @param folderName folder Name
+     * @param archiverType archive type zip, tar tar.gz
+     * @param inputStreamObject :compressed SIP stream
+     * @throws ContentAddressableStorageCompressedFileException if the file is not a zip or an empty zip
+     * @throws ContentAddressableStorageException if an IOException occurs when extracting the file
+     * @throws ArchiveException
+     */
+    private void extractArchiveInputStreamOnContainer(final String containerName, final String folderName,
+        final MediaType archiverType, final InputStream inputStreamObject)
+        throws ContentAddressableStorageException, ContentAddressableStorageCompressedFileException {
+
+        final long start = System.currentTimeMillis();
+        final BlockingQueue<BufferedEntry> queue = new ArrayBlockingQueue<>(MAX_BUFFERED_ENTRIES);
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        long nbEntries = 0;
+        long nbBytes = 0;
+        boolean isEmpty = true;
+        try (final InputStream inputStreamClosable = StreamUtils.getRemainingReadOnCloseInputStream(inputStreamObject);
+            final ArchiveInputStream archiveInputStream = new VitamArchiveStreamFactory()
+                .createArchiveInputStream(archiverType, inputStreamClosable);) {
+            final List<Future<?>> writers = new ArrayList<>(NB_WRITERS);
+            for (int i = 0; i < NB_WRITERS; i++) {
+                writers.add(VitamThreadPoolExecutor.getDefaultExecutor()
+                    .submit(() -> writeEntries(containerName, queue, failure)));
+            }
+            try {
+                ArchiveEntry archiveEntry;
+                // create entryInputStream to resolve the stream closed problem
+                final ArchiveEntryInputStream entryInputStream = new ArchiveEntryInputStream(archiveInputStream);
+                final byte[] buffer = new byte[MAX_BUFFERED_ENTRY_SIZE + 1];
+
+                while (failure.get() == null && (archiveEntry = archiveInputStream.getNextEntry()) != null) {
+
+                    LOGGER.debug("containerName : " + containerName + "    / ArchiveEntryName : " +
+                        archiveEntry.getName());
+
+                    isEmpty = false;
+                    if (archiveEntry.isDirectory()) {
+                        continue;
+                    }
+                    nbEntries++;
+                    final String objectName = folderName + File.separator + archiveEntry.getName();
+                    final int read = archiveEntry.getSize() > MAX_BUFFERED_ENTRY_SIZE ? 0
+                        : readFully(entryInputStream, buffer);
+                    if (read <= MAX_BUFFERED_ENTRY_SIZE && archiveEntry.getSize() <= MAX_BUFFERED_ENTRY_SIZE) {
+                        queue.put(new BufferedEntry(objectName, Arrays.copyOf(buffer, read)));
+                    } else {
+                        // put big object in container from the archive stream itself
+                        putObject(containerName, objectName,
+                            new SequenceInputStream(new ByteArrayInputStream(buffer, 0, read), entryInputStream));
+                        // after put entry stream open stream to add a next
+                        entryInputStream.setClosed(false);
+                    }
+                }
+            } catch (final InterruptedException e) {
+                LOGGER.error(e);
+                failure.compareAndSet(null, new ContentAddressableStorageServerException(e));
+                Thread.currentThread().interrupt();
+            } finally {
+                stopWriters(queue, writers, failure);
+            }
+            nbBytes = archiveInputStream.getBytesRead();
+        } catch (final IOException e) {
+            LOGGER.error(e);
+            throw new ContentAddressableStorageException(e);
+        } catch (final ArchiveException e) {
+            LOGGER.error(e);
+            throw new ContentAddressableStorageException(e);
+        }
+        final Exception exception = failure.get();
+        if (exception instanceof ContentAddressableStorageException) {
+            throw (ContentAddressableStorageException) exception;
+        } else if (exception != null) {
+            throw (RuntimeException) exception;
+        }
+        if (isEmpty) {
+            throw new ContentAddressableStorageCompressedFileException("File is empty");
+        }
+        final long duration = Math.max(1, System.currentTimeMillis() - start);
+        LOGGER.info("Uncompressed " + nbEntries + " objects (" + nbBytes + " bytes) in " + containerName + "/" +
+            folderName + " in " + duration + " ms: " + nbEntries * 1000 / duration + " objects/s, " +
+            nbBytes * 1000 / duration + " bytes/s");
+    }
+
+    /**
+     * Writer task: persist the queued entries until the end marker
+     */
+    private void writeEntries(String containerName, BlockingQueue<BufferedEntry> queue,
+        AtomicReference<Exception> failure) {
+        try {
+            BufferedEntry entry;
+            while ((entry = queue.take()) != END_OF_ENTRIES) {
+                // after a failure, entries are only drained so that the reader is never blocked
+                if (failure.get() == null) {
+                    try {
+                        putObject(containerName, entry.objectName, new ByteArrayInputStream(entry.content));
+                    } catch (final ContentAddressableStorageException | RuntimeException e) {
+                        LOGGER.error(e);
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }
+        } catch (final InterruptedException e) {
+            LOGGER.error(e);
+            failure.compareAndSet(null, new ContentAddressableStorageServerException(e));
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Send the end marker to all writers and wait for them
+     */
+    private static void stopWriters(BlockingQueue<BufferedEntry> queue, List<Future<?>> writers,
+        AtomicReference<Exception> failure) {
+        try {
+            for (int i = 0; i < writers.size(); i++) {
+                queue.put(END_OF_ENTRIES);
+            }
+            for (final Future<?> writer : writers) {
+                writer.get();
+            }
+        } catch (final InterruptedException e) {
+            LOGGER.error(e);
+            failure.compareAndSet(null, new ContentAddressableStorageServerException(e));
+            for (final Future<?> writer : writers) {
+                writer.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            LOGGER.error(e);
+            failure.compareAndSet(null, new ContentAddressableStorageServerException(e));
+        }
+    }
+
+    /**
+     * @return the number of bytes read, the buffer length meaning that there may be more bytes to read
+     */
+    private static int readFully(InputStream inputStream, byte[] buffer) throws IOException {
+        int read = 0;
+        int len;
+        while (read < buffer.length && (len = inputStream.read(buffer, read, buffer.length - read)) >= 0) {
+            read += len;
+        }
+        return read;
+    }
+
+    /**
+     * Archive entry read in memory, waiting for a writer
+     */
+    private static class BufferedEntry {
+        private final String objectName;
+        private final byte[] content;
+
+        private BufferedEntry(String objectName, byte[] content) {
+            this.objectName = objectName;
+            this.content = content;
+        }
+    }
+
+    /**
+     * Archive input streams <b>MUST</b> override the {@link #read(byte[], int, int)} - or {@link #read()} - method so
+     * that reading from the stream generates EOF for the end of data in each entry as well as at the end of the file
+     * proper.
+     */
+    static class ArchiveEntryInputStream extends InputStream {
+
+        InputStream inputStream;
+        boolean closed = false;
+
+        /**
+         * @param archiveInputStream
+         * @throws IOException
+         */
+        public ArchiveEntryInputStream(InputStream archiveInputStream) throws IOException {
+            inputStream = archiveInputStream;
+        }
+
+        @Override
+        public int available() throws IOException {
+            if (closed) {
+                return -1;
+            }
+            return inputStream.available();
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (closed) {
+                return -1;
+            }
+            return inputStream.skip(n);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (closed) {
+                return -1;
+            }
+            return inputStream.read();
+
+        }
+
+        @Override
+        public int read(byte[] b) throws IOException {
+            if (closed) {
+                return -1;
+            }
+            return inputStream.read(b);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                return -1;
+            }
+            return inputStream.read(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        /**
+         * Allow to "fakely" reopen this InputStream
+         *
+         * @param isclosed
+         */
+        public void setClosed(boolean isclosed) {
+            closed = isclosed;
+        }
+
+    }
+
+}
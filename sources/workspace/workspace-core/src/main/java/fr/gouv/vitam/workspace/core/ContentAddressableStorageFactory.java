@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.workspace.core;
+
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.workspace.api.ContentAddressableStorage;
+import fr.gouv.vitam.workspace.core.filesystem.FileSystem;
+import fr.gouv.vitam.workspace.core.filesystem.NioFileSystem;
+
+/**
+ * Factory of the Content Addressable Storage implementations, chosen by the provider of the configuration
+ */
+public final class ContentAddressableStorageFactory {
+
+    /**
+     * File system provider through jclouds (default)
+     */
+    public static final String FILESYSTEM = "filesystem";
+    /**
+     * File system provider using directly java.nio
+     */
+    public static final String FILESYSTEM_NIO = "filesystem-nio";
+
+    private ContentAddressableStorageFactory() {
+        // Empty
+    }
+
+    /**
+     * Create the Content Addressable Storage of the configuration
+     *
+     * @param configuration the workspace configuration
+     * @return the Content Addressable Storage
+     * @throws IllegalArgumentException if the provider is unknown
+     */
+    public static ContentAddressableStorage create(WorkspaceConfiguration configuration) {
+        ParametersChecker.checkParameter("Configuration is a mandatory parameter", configuration);
+        final String provider = configuration.getProvider() != null ? configuration.getProvider() : FILESYSTEM;
+        switch (provider) {
+            case FILESYSTEM:
+                return new FileSystem(configuration);
+            case FILESYSTEM_NIO:
+                return new NioFileSystem(configuration);
+            default:
+                throw new IllegalArgumentException("Unknown workspace provider: " + provider);
+        }
+    }
+}
@@ -34,6 +34,7 @@ import fr.gouv.vitam.common.server.application.configuration.DefaultVitamApplica
 public class WorkspaceConfiguration extends DefaultVitamApplicationConfiguration {
     protected static final String IS_A_MANDATORY_PARAMETER = " is a mandatory parameter";
     private String storagePath;
+    private String provider = ContentAddressableStorageFactory.FILESYSTEM;
 
     /**
      * getter for storage path
@@ -54,4 +55,25 @@ public class WorkspaceConfiguration extends DefaultVitamApplicationConfiguration
         this.storagePath = storagePath;
         return this;
     }
+
+    /**
+     * getter for the storage provider
+     *
+     * @return the provider (filesystem by default)
+     */
+    public String getProvider() {
+        return provider;
+    }
+
+    /**
+     * setter for the storage provider: {@value ContentAddressableStorageFactory#FILESYSTEM} (jclouds) or
+     * {@value ContentAddressableStorageFactory#FILESYSTEM_NIO} (java.nio, without jclouds)
+     *
+     * @param provider the storage provider
+     * @return this
+     */
+    public WorkspaceConfiguration setProvider(String provider) {
+        this.provider = provider;
+        return this;
+    }
 }
@@ -0,0 +1,486 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.workspace.core.filesystem;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.client.AbstractMockClient;
+import fr.gouv.vitam.common.digest.Digest;
+import fr.gouv.vitam.common.digest.DigestType;
+import fr.gouv.vitam.common.json.JsonHandler;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.stream.StreamUtils;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageAlreadyExistException;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
+import fr.gouv.vitam.workspace.api.model.ContainerInformation;
+import fr.gouv.vitam.workspace.common.ErrorMessage;
+import fr.gouv.vitam.workspace.common.UriUtils;
+import fr.gouv.vitam.workspace.common.WorkspaceMessage;
+import fr.gouv.vitam.workspace.core.ContentAddressableStorageBase;
+import fr.gouv.vitam.workspace.core.WorkspaceConfiguration;
+
+/**
+ * Content Addressable Storage on the local file system using directly java.nio, without jclouds.<br>
+ * <br>
+ * The layout is the same as the one of {@link FileSystem}: a container is a directory of the storage path and an
+ * object is a file of its container, so both implementations can be used on the same storage.<br>
+ * <br>
+ * It behaves as {@link FileSystem} (the same tests run on both), except that:
+ * <ul>
+ * <li>a folder or object name resolving out of its container (as "../name") is refused with an
+ * {@link IllegalArgumentException}, which jclouds does not check</li>
+ * <li>{@link #purgeContainer(String)} reports an I/O failure with an {@link IllegalStateException}, as the interface
+ * does not declare a server exception for it, where jclouds raises its own unchecked exception</li>
+ * </ul>
+ */
+public class NioFileSystem extends ContentAddressableStorageBase {
+
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(NioFileSystem.class);
+
+    private static final long TRANSFER_SIZE = 8L * 1024 * 1024;
+
+    private final Path storagePath;
+
+    /**
+     * @param configuration to associate with the NioFileSystem
+     */
+    public NioFileSystem(WorkspaceConfiguration configuration) {
+        ParametersChecker.checkParameter("Storage path is a mandatory parameter", configuration.getStoragePath());
+        storagePath = Paths.get(configuration.getStoragePath()).toAbsolutePath().normalize();
+    }
+
+    // Container
+
+    @Override
+    public void createContainer(String containerName)
+        throws ContentAddressableStorageAlreadyExistException, ContentAddressableStorageServerException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_NAME_IS_A_MANDATORY_PARAMETER.getMessage(),
+            containerName);
+        final Path container = getContainerPath(containerName);
+        if (isDirectory(container)) {
+            LOGGER.error(ErrorMessage.CONTAINER_ALREADY_EXIST.getMessage() + containerName);
+            throw new ContentAddressableStorageAlreadyExistException(
+                ErrorMessage.CONTAINER_ALREADY_EXIST.getMessage() + containerName);
+        }
+        try {
+            Files.createDirectories(container);
+        } catch (final IOException e) {
+            LOGGER.error(e);
+            throw new ContentAddressableStorageServerException(e);
+        }
+    }
+
+    @Override
+    public void purgeContainer(String containerName) throws ContentAddressableStorageNotFoundException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_NAME_IS_A_MANDATORY_PARAMETER.getMessage(),
+            containerName);
+        final Path container = checkContainer(containerName);
+        try (final Stream<Path> children = Files.list(container)) {
+            for (final Path child : (Iterable<Path>) children::iterator) {
+                deleteRecursively(child);
+            }
+        } catch (final IOException e) {
+            // as jclouds, the interface does not allow a checked exception here
+            LOGGER.error(e);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void deleteContainer(String containerName)
+        throws ContentAddressableStorageNotFoundException, ContentAddressableStorageServerException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_NAME_IS_A_MANDATORY_PARAMETER.getMessage(),
+            containerName);
+        deleteContainer(containerName, false);
+    }
+
+    @Override
+    public void deleteContainer(String containerName, boolean recursive)
+        throws ContentAddressableStorageNotFoundException, ContentAddressableStorageServerException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_NAME_IS_A_MANDATORY_PARAMETER.getMessage(),
+            containerName);
+        final Path container = checkContainer(containerName);
+        try {
+            // as jclouds, a container is empty if it has no object, even if it has folders
+            if (recursive || !hasObject(container)) {
+                deleteRecursively(container);
+            }
+        } catch (final IOException e) {
+            LOGGER.error(e);
+            throw new ContentAddressableStorageServerException(e);
+        }
+    }
+
+    @Override
+    public boolean isExistingContainer(String containerName) {
+        return containerName != null && isDirectory(getContainerPath(containerName));
+    }
+
+    // Folder
+
+    @Override
+    public void createFolder(String containerName, String folderName)
+        throws ContentAddressableStorageAlreadyExistException, ContentAddressableStorageNotFoundException,
+        ContentAddressableStorageServerException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_FOLDER_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, folderName);
+        final Path container = checkContainer(containerName);
+        final Path folder = resolve(container, folderName);
+        if (isDirectory(folder)) {
+            LOGGER.error(ErrorMessage.FOLDER_ALREADY_EXIST + folderName);
+            throw new ContentAddressableStorageAlreadyExistException(
+                ErrorMessage.FOLDER_ALREADY_EXIST.getMessage() + folderName);
+        }
+        try {
+            Files.createDirectories(folder);
+        } catch (final IOException e) {
+            LOGGER.error(e);
+            throw new ContentAddressableStorageServerException(e);
+        }
+    }
+
+    @Override
+    public void deleteFolder(String containerName, String folderName)
+        throws ContentAddressableStorageNotFoundException, ContentAddressableStorageServerException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_FOLDER_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, folderName);
+        if (!isExistingFolder(containerName, folderName)) {
+            LOGGER.error(ErrorMessage.FOLDER_NOT_FOUND.getMessage() + folderName);
+            throw new ContentAddressableStorageNotFoundException(
+                ErrorMessage.FOLDER_NOT_FOUND.getMessage() + folderName);
+        }
+        try {
+            deleteRecursively(resolve(getContainerPath(containerName), folderName));
+        } catch (final IOException e) {
+            LOGGER.error(e);
+            throw new ContentAddressableStorageServerException(e);
+        }
+    }
+
+    @Override
+    public boolean isExistingFolder(String containerName, String folderName) {
+        if (!isExistingContainer(containerName) || folderName == null) {
+            return false;
+        }
+        return isDirectory(resolve(getContainerPath(containerName), folderName));
+    }
+
+    // Object
+
+    @Override
+    public void putObject(String containerName, String objectName, InputStream stream)
+        throws ContentAddressableStorageException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_OBJECT_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, objectName);
+        try {
+            final Path container = checkContainer(containerName);
+            final Path object = resolve(container, objectName);
+            if (isRegularFile(object)) {
+                LOGGER.debug(ErrorMessage.OBJECT_ALREADY_EXIST.getMessage() + objectName);
+            }
+            Files.createDirectories(object.getParent());
+            // a file as source allows a zero-copy transfer
+            try (final ReadableByteChannel source = stream instanceof FileInputStream
+                ? ((FileInputStream) stream).getChannel() : Channels.newChannel(stream);
+                final FileChannel target = FileChannel.open(object, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long position = 0;
+                long transferred;
+                while ((transferred = target.transferFrom(source, position, TRANSFER_SIZE)) > 0) {
+                    position += transferred;
+                }
+            } catch (final IOException e) {
+                Files.deleteIfExists(object);
+                throw e;
+            }
+        } catch (final ContentAddressableStorageNotFoundException e) {
+            throw e;
+        } catch (final IOException e) {
+            LOGGER.error(e.getMessage());
+            throw new ContentAddressableStorageException(e);
+        } finally {
+            StreamUtils.closeSilently(stream);
+        }
+    }
+
+    @Override
+    public Response getObject(String containerName, String objectName) throws ContentAddressableStorageException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_OBJECT_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, objectName);
+        final Path object = checkObject(containerName, objectName);
+        try {
+            return new AbstractMockClient.FakeInboundResponse(Status.OK, new FileInputStream(object.toFile()),
+                MediaType.APPLICATION_OCTET_STREAM_TYPE, null);
+        } catch (final IOException e) {
+            LOGGER.error(e.getMessage());
+            throw new ContentAddressableStorageException(e);
+        }
+    }
+
+    @Override
+    public Response getObjectAsync(String containerName, String objectName, AsyncResponse asyncResponse)
+        throws ContentAddressableStorageException {
+        return getObject(containerName, objectName);
+    }
+
+    @Override
+    public void deleteObject(String containerName, String objectName)
+        throws ContentAddressableStorageNotFoundException, ContentAddressableStorageException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_OBJECT_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, objectName);
+        final Path object = checkObject(containerName, objectName);
+        try {
+            Files.delete(object);
+        } catch (final NoSuchFileException e) {
+            LOGGER.error(ErrorMessage.OBJECT_NOT_FOUND.getMessage() + objectName);
+            throw new ContentAddressableStorageNotFoundException(e);
+        } catch (final IOException e) {
+            LOGGER.error(e.getMessage());
+            throw new ContentAddressableStorageException(e);
+        }
+    }
+
+    @Override
+    public boolean isExistingObject(String containerName, String objectName) {
+        if (!isExistingContainer(containerName) || objectName == null) {
+            return false;
+        }
+        return isRegularFile(resolve(getContainerPath(containerName), objectName));
+    }
+
+    @Override
+    public String computeObjectDigest(String containerName, String objectName, DigestType algo)
+        throws ContentAddressableStorageNotFoundException, ContentAddressableStorageException {
+        ParametersChecker.checkParameter(ErrorMessage.ALGO_IS_A_MANDATORY_PARAMETER.getMessage(), algo);
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_OBJECT_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, objectName);
+        final Path object = checkObject(containerName, objectName);
+        try {
+            return new Digest(algo).update(object.toFile()).toString();
+        } catch (final IOException e) {
+            LOGGER.error(e.getMessage());
+            throw new ContentAddressableStorageException(e);
+        }
+    }
+
+    @Override
+    public List<URI> getListUriDigitalObjectFromFolder(String containerName, String folderName)
+        throws ContentAddressableStorageException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_NAME_IS_A_MANDATORY_PARAMETER.getMessage(),
+            containerName);
+        ParametersChecker.checkParameter(ErrorMessage.FOLDER_NOT_FOUND.getMessage(), folderName);
+        final Path container = checkContainer(containerName);
+        final Path folder = resolve(container, folderName);
+        final List<URI> uriFolderListFromContainer = new ArrayList<>();
+        if (!isDirectory(folder)) {
+            return uriFolderListFromContainer;
+        }
+        LOGGER.debug(WorkspaceMessage.BEGINNING_GET_URI_LIST_OF_DIGITAL_OBJECT.getMessage());
+        try (final Stream<Path> files = Files.walk(folder)) {
+            for (final Path file : (Iterable<Path>) files::iterator) {
+                if (isRegularFile(file)) {
+                    // same URI as with jclouds: the object name without its root folder
+                    final String objectName = container.relativize(file).toString().replace('\\', '/');
+                    uriFolderListFromContainer.add(new URI(UriUtils.splitUri(objectName)));
+                }
+            }
+        } catch (final IOException | URISyntaxException e) {
+            LOGGER.error(e.getMessage());
+            throw new ContentAddressableStorageException(e);
+        }
+        LOGGER.debug(WorkspaceMessage.ENDING_GET_URI_LIST_OF_DIGITAL_OBJECT.getMessage());
+        return uriFolderListFromContainer;
+    }
+
+    @Override
+    public ContainerInformation getContainerInformation(String containerName)
+        throws ContentAddressableStorageNotFoundException, ContentAddressableStorageServerException {
+        final Path baseDir = containerName != null ? getContainerPath(containerName) : storagePath;
+        if (!isDirectory(baseDir)) {
+            throw new ContentAddressableStorageNotFoundException("Storage not found");
+        }
+        try {
+            final ContainerInformation containerInformation = new ContainerInformation();
+            containerInformation.setUsableSpace(Files.getFileStore(baseDir).getUsableSpace());
+            containerInformation.setUsedSpace(getFolderUsedSize(baseDir));
+            return containerInformation;
+        } catch (final IOException e) {
+            LOGGER.error(e);
+            throw new ContentAddressableStorageServerException(e);
+        }
+    }
+
+    @Override
+    public JsonNode getObjectInformation(String containerName, String objectName)
+        throws ContentAddressableStorageException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_OBJECT_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, objectName);
+        final BasicFileAttributes attributes = getAttributes(resolve(checkContainer(containerName), objectName));
+        if (attributes == null || !attributes.isRegularFile()) {
+            LOGGER.error(ErrorMessage.OBJECT_NOT_FOUND.getMessage() + objectName);
+            throw new ContentAddressableStorageNotFoundException(
+                ErrorMessage.OBJECT_NOT_FOUND.getMessage() + objectName);
+        }
+        final ObjectNode jsonNodeObjectInformation = JsonHandler.createObjectNode();
+        jsonNodeObjectInformation.put("size", attributes.size());
+        jsonNodeObjectInformation.put("object_name", objectName);
+        jsonNodeObjectInformation.put("container_name", containerName);
+        jsonNodeObjectInformation.put("last_modified", attributes.lastModifiedTime().toMillis());
+        return jsonNodeObjectInformation;
+    }
+
+    private Path getContainerPath(String containerName) {
+        return resolve(storagePath, containerName);
+    }
+
+    /**
+     * Resolve a name under a directory, refusing any name going out of this directory
+     *
+     * @throws IllegalArgumentException if the name resolves out of the directory
+     */
+    private static Path resolve(Path directory, String name) {
+        final Path path = directory.resolve(name).normalize();
+        if (!path.startsWith(directory) || path.equals(directory)) {
+            throw new IllegalArgumentException("Invalid name: " + name);
+        }
+        return path;
+    }
+
+    private Path checkContainer(String containerName) throws ContentAddressableStorageNotFoundException {
+        final Path container = getContainerPath(containerName);
+        if (!isDirectory(container)) {
+            LOGGER.error(ErrorMessage.CONTAINER_NOT_FOUND.getMessage() + containerName);
+            throw new ContentAddressableStorageNotFoundException(
+                ErrorMessage.CONTAINER_NOT_FOUND.getMessage() + containerName);
+        }
+        return container;
+    }
+
+    private Path checkObject(String containerName, String objectName)
+        throws ContentAddressableStorageNotFoundException {
+        if (!isExistingObject(containerName, objectName)) {
+            LOGGER.error(
+                ErrorMessage.OBJECT_NOT_FOUND.getMessage() + objectName + " in container '" + containerName + "'");
+            throw new ContentAddressableStorageNotFoundException(
+                ErrorMessage.OBJECT_NOT_FOUND.getMessage() + objectName);
+        }
+        return resolve(getContainerPath(containerName), objectName);
+    }
+
+    /**
+     * @return the attributes of the file, or null if it does not exist
+     */
+    private static BasicFileAttributes getAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (final IOException e) {
+            LOGGER.debug(e);
+            return null;
+        }
+    }
+
+    private static boolean isDirectory(Path path) {
+        final BasicFileAttributes attributes = getAttributes(path);
+        return attributes != null && attributes.isDirectory();
+    }
+
+    private static boolean isRegularFile(Path path) {
+        final BasicFileAttributes attributes = getAttributes(path);
+        return attributes != null && attributes.isRegularFile();
+    }
+
+    private static boolean hasObject(Path directory) throws IOException {
+        try (final Stream<Path> files = Files.walk(directory)) {
+            return files.anyMatch(NioFileSystem::isRegularFile);
+        }
+    }
+
+    private static long getFolderUsedSize(Path directory) throws IOException {
+        final long[] usedSpace = {0};
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                usedSpace[0] += attrs.size();
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return usedSpace[0];
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            Files.deleteIfExists(path);
+            return;
+        }
+        Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                if (exc != null) {
+                    throw exc;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.workspace.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fr.gouv.vitam.common.CommonMediaType;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
+import fr.gouv.vitam.workspace.core.filesystem.NioFileSystem;
+
+public class ContentAddressableStorageBaseTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private static final String CONTAINER_NAME = "myContainer";
+    private static final String SIP_FOLDER = "SIP";
+    private static final String FAILING_ENTRY = "Content/failing";
+    private static final int NB_SMALL_ENTRIES = 500;
+    private static final int NB_BIG_ENTRIES = 10;
+
+    @Test(timeout = 60000)
+    public void givenWriterFailureWhenUncompressObjectThenFailureRaisedAndReaderStopped() throws Exception {
+        final File zip = tempFolder.newFile("failing.zip");
+        try (ZipArchiveOutputStream outputStream = new ZipArchiveOutputStream(zip)) {
+            outputStream.putArchiveEntry(new ZipArchiveEntry(FAILING_ENTRY));
+            outputStream.write("failing".getBytes());
+            outputStream.closeArchiveEntry();
+            // enough small entries to fill the bounded queue while the writers are blocked
+            for (int i = 0; i < NB_SMALL_ENTRIES; i++) {
+                outputStream.putArchiveEntry(new ZipArchiveEntry("Content/small" + i));
+                outputStream.write(("content " + i).getBytes());
+                outputStream.closeArchiveEntry();
+            }
+            // big entries are written by the reader itself, so they are only reached if it does not stop
+            final byte[] bigContent = new byte[2 * 1024 * 1024];
+            for (int i = 0; i < NB_BIG_ENTRIES; i++) {
+                outputStream.putArchiveEntry(new ZipArchiveEntry("Content/big" + i));
+                outputStream.write(bigContent);
+                outputStream.closeArchiveEntry();
+            }
+        }
+        final WorkspaceConfiguration configuration = new WorkspaceConfiguration();
+        configuration.setStoragePath(tempFolder.newFolder().getCanonicalPath());
+        final FailingWriterFileSystem workspace = new FailingWriterFileSystem(configuration);
+        workspace.createContainer(CONTAINER_NAME);
+
+        try (InputStream inputStream = new FileInputStream(zip)) {
+            workspace.uncompressObject(CONTAINER_NAME, SIP_FOLDER, CommonMediaType.ZIP, inputStream);
+            fail("The writer failure must be raised");
+        } catch (final ContentAddressableStorageServerException e) {
+            assertSame(workspace.writerFailure.get(), e);
+        }
+        assertEquals(0, workspace.nbBigEntries.get());
+        assertTrue(workspace.nbSmallEntries.get() < NB_SMALL_ENTRIES);
+    }
+
+    /**
+     * NioFileSystem whose writers are blocked until the first entry fails
+     */
+    private static class FailingWriterFileSystem extends NioFileSystem {
+
+        private final CountDownLatch failed = new CountDownLatch(1);
+        private final AtomicReference<ContentAddressableStorageServerException> writerFailure =
+            new AtomicReference<>();
+        private final AtomicInteger nbSmallEntries = new AtomicInteger();
+        private final AtomicInteger nbBigEntries = new AtomicInteger();
+
+        private FailingWriterFileSystem(WorkspaceConfiguration configuration) {
+            super(configuration);
+        }
+
+        @Override
+        public void putObject(String containerName, String objectName, InputStream stream)
+            throws ContentAddressableStorageException {
+            try {
+                if (objectName.endsWith(FAILING_ENTRY)) {
+                    // let the reader fill the queue and block on it
+                    Thread.sleep(500);
+                    writerFailure.set(new ContentAddressableStorageServerException("Writer failure"));
+                    failed.countDown();
+                    throw writerFailure.get();
+                } else if (objectName.contains("/Content/big")) {
+                    nbBigEntries.incrementAndGet();
+                } else {
+                    failed.await(10, TimeUnit.SECONDS);
+                    nbSmallEntries.incrementAndGet();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ContentAddressableStorageServerException(e);
+            }
+            super.putObject(containerName, objectName, stream);
+        }
+    }
+}
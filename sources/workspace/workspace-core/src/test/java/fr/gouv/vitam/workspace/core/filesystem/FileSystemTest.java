@@ -33,10 +33,13 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -49,12 +52,12 @@ import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.PropertiesUtils;
 import fr.gouv.vitam.common.digest.Digest;
 import fr.gouv.vitam.common.digest.DigestType;
+import fr.gouv.vitam.workspace.api.ContentAddressableStorage;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageAlreadyExistException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageCompressedFileException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.api.model.ContainerInformation;
-import fr.gouv.vitam.workspace.core.ContentAddressableStorageAbstract;
 import fr.gouv.vitam.workspace.core.WorkspaceConfiguration;
 
 
@@ -63,7 +66,7 @@ public class FileSystemTest {
     @Rule
     public TemporaryFolder tempFolder = new TemporaryFolder();
 
-    private ContentAddressableStorageAbstract workspace;
+    protected ContentAddressableStorage workspace;
     private File tempDir;
     private static final String CONTAINER_NAME = "myContainer";
     private static final String FOLDER_NAME = "myFolder";
@@ -84,25 +87,31 @@ public class FileSystemTest {
         final WorkspaceConfiguration configuration = new WorkspaceConfiguration();
         tempDir = tempFolder.newFolder();
         configuration.setStoragePath(tempDir.getCanonicalPath());
-        workspace = new FileSystem(configuration);
+        workspace = createWorkspace(configuration);
+    }
+
+    /**
+     * @param configuration the workspace configuration, with a temporary storage path
+     * @return the implementation under test, overridden to run the same tests on another provider
+     */
+    protected ContentAddressableStorage createWorkspace(WorkspaceConfiguration configuration) {
+        return new FileSystem(configuration);
     }
 
     // Container
     @Test
-    public void givenContainerNotFoundWhenCheckContainerExistenceThenRetunFalse() {
+    public void givenContainerNotFoundWhenCheckContainerExistenceThenRetunFalse() throws Exception {
         assertFalse(workspace.isExistingContainer(CONTAINER_NAME));
     }
 
     @Test
-    public void givenContainerAlreadyExistsWhenCheckContainerExistenceThenRetunFalse()
-        throws ContentAddressableStorageAlreadyExistException {
+    public void givenContainerAlreadyExistsWhenCheckContainerExistenceThenRetunFalse() throws Exception {
         workspace.createContainer(CONTAINER_NAME);
         assertTrue(workspace.isExistingContainer(CONTAINER_NAME));
     }
 
     @Test(expected = ContentAddressableStorageException.class)
-    public void givenContainerAlreadyExistsWhenCreateContainerThenRaiseAnException()
-        throws ContentAddressableStorageAlreadyExistException {
+    public void givenContainerAlreadyExistsWhenCreateContainerThenRaiseAnException() throws Exception {
         workspace.createContainer(CONTAINER_NAME);
 
         workspace.createContainer(CONTAINER_NAME);
@@ -116,21 +125,18 @@ public class FileSystemTest {
     }
 
     @Test(expected = ContentAddressableStorageNotFoundException.class)
-    public void givenContainerNotFoundWhenDeleteContainerThenRaiseAnException()
-        throws ContentAddressableStorageNotFoundException {
+    public void givenContainerNotFoundWhenDeleteContainerThenRaiseAnException() throws Exception {
         workspace.deleteContainer(CONTAINER_NAME);
     }
 
     @Test
-    public void givenContainerNotFoundWhenCreateContainerThenOK()
-        throws ContentAddressableStorageAlreadyExistException {
+    public void givenContainerNotFoundWhenCreateContainerThenOK() throws Exception {
         workspace.createContainer(CONTAINER_NAME);
         assertTrue(workspace.isExistingContainer(CONTAINER_NAME));
     }
 
     @Test
-    public void givenContainerAlreadyExistsWhenDeleteContainerThenOK()
-        throws ContentAddressableStorageAlreadyExistException, ContentAddressableStorageNotFoundException {
+    public void givenContainerAlreadyExistsWhenDeleteContainerThenOK() throws Exception {
         workspace.createContainer(CONTAINER_NAME);
 
         workspace.deleteContainer(CONTAINER_NAME);
@@ -138,8 +144,7 @@ public class FileSystemTest {
     }
 
     @Test
-    public void givenContainerAlreadyExistsAndEmptyWhenPurgeContainerThenOK()
-        throws ContentAddressableStorageAlreadyExistException, ContentAddressableStorageNotFoundException {
+    public void givenContainerAlreadyExistsAndEmptyWhenPurgeContainerThenOK() throws Exception {
         workspace.createContainer(CONTAINER_NAME);
 
         workspace.purgeContainer(CONTAINER_NAME);
@@ -159,7 +164,7 @@ public class FileSystemTest {
 
     // Folder
     @Test
-    public void givenFolderNotFoundWhenCheckContainerExistenceThenRetunFalse() {
+    public void givenFolderNotFoundWhenCheckContainerExistenceThenRetunFalse() throws Exception {
         assertFalse(workspace.isExistingFolder(CONTAINER_NAME, FOLDER_NAME));
     }
 
@@ -182,8 +187,7 @@ public class FileSystemTest {
     }
 
     @Test(expected = ContentAddressableStorageException.class)
-    public void givenContainerNotFoundWhenCreateFolderThenRaiseAnException()
-        throws ContentAddressableStorageNotFoundException, ContentAddressableStorageAlreadyExistException {
+    public void givenContainerNotFoundWhenCreateFolderThenRaiseAnException() throws Exception {
         workspace.createFolder(CONTAINER_NAME, FOLDER_NAME);
     }
 
@@ -197,8 +201,7 @@ public class FileSystemTest {
     }
 
     @Test(expected = ContentAddressableStorageNotFoundException.class)
-    public void givenContainerNotFoundWhenDeleteFolderThenRaiseAnException()
-        throws ContentAddressableStorageNotFoundException {
+    public void givenContainerNotFoundWhenDeleteFolderThenRaiseAnException() throws Exception {
         workspace.deleteFolder(CONTAINER_NAME, FOLDER_NAME);
     }
 
@@ -222,7 +225,7 @@ public class FileSystemTest {
 
     // Object
     @Test
-    public void givenObjectNotFoundWhenCheckObjectExistenceThenRetunFalse() {
+    public void givenObjectNotFoundWhenCheckObjectExistenceThenRetunFalse() throws Exception {
         assertFalse(workspace.isExistingObject(CONTAINER_NAME, OBJECT_NAME));
     }
 
@@ -257,6 +260,7 @@ public class FileSystemTest {
         assertNotNull(jsonNode.get("size"));
         assertNotNull(jsonNode.get("object_name"));
         assertNotNull(jsonNode.get("container_name"));
+        assertNotNull(jsonNode.get("last_modified"));
     }
 
     @Test(expected = ContentAddressableStorageNotFoundException.class)
@@ -274,8 +278,7 @@ public class FileSystemTest {
     }
 
     @Test(expected = ContentAddressableStorageNotFoundException.class)
-    public void givenContainerNotFoundWhenDeleteObjectThenRaiseAnException()
-        throws ContentAddressableStorageNotFoundException {
+    public void givenContainerNotFoundWhenDeleteObjectThenRaiseAnException() throws Exception {
         workspace.deleteObject(CONTAINER_NAME, OBJECT_NAME);
 
     }
@@ -482,6 +485,33 @@ public class FileSystemTest {
         assertTrue(workspace.isExistingObject(CONTAINER_NAME, SIP_FOLDER + File.separator + MANIFEST));
     }
 
+    @Test
+    public void givenZipWithManyAndBigEntriesWhenUncompressObjectThenExtractAll()
+        throws IOException, Exception {
+        final File zip = tempFolder.newFile("many.zip");
+        final int nbEntries = 200;
+        final byte[] bigContent = new byte[3 * 1024 * 1024 + 7];
+        try (ZipArchiveOutputStream outputStream = new ZipArchiveOutputStream(zip)) {
+            for (int i = 0; i < nbEntries; i++) {
+                outputStream.putArchiveEntry(new ZipArchiveEntry("Content/sub" + i % 10 + "/file" + i));
+                outputStream.write(("content " + i).getBytes());
+                outputStream.closeArchiveEntry();
+            }
+            outputStream.putArchiveEntry(new ZipArchiveEntry("Content/big"));
+            outputStream.write(bigContent);
+            outputStream.closeArchiveEntry();
+        }
+        workspace.createContainer(CONTAINER_NAME);
+        try (InputStream inputStream = new FileInputStream(zip)) {
+            workspace.uncompressObject(CONTAINER_NAME, SIP_FOLDER, CommonMediaType.ZIP, inputStream);
+        }
+        assertThat(workspace.getListUriDigitalObjectFromFolder(CONTAINER_NAME, SIP_FOLDER)).hasSize(nbEntries + 1);
+        assertEquals(bigContent.length, workspace.getObjectInformation(CONTAINER_NAME, SIP_FOLDER + "/Content/big")
+            .get("size").asLong());
+        assertEquals("content 42".length(), workspace.getObjectInformation(CONTAINER_NAME,
+            SIP_FOLDER + "/Content/sub2/file42").get("size").asLong());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void givenTarGzSIPAndUnsupportedArchiveTypeWhenUncompressObjectThenRaiseException()
         throws IOException, Exception {
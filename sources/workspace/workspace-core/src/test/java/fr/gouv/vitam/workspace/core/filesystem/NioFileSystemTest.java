@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.workspace.core.filesystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import fr.gouv.vitam.common.CommonMediaType;
+import fr.gouv.vitam.common.PropertiesUtils;
+import fr.gouv.vitam.common.digest.Digest;
+import fr.gouv.vitam.common.digest.DigestType;
+import fr.gouv.vitam.workspace.api.ContentAddressableStorage;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
+import fr.gouv.vitam.workspace.core.ContentAddressableStorageFactory;
+import fr.gouv.vitam.workspace.core.WorkspaceConfiguration;
+
+/**
+ * Runs all the {@link FileSystemTest} tests on the {@link NioFileSystem} provider, plus its specific ones
+ */
+public class NioFileSystemTest extends FileSystemTest {
+
+    private static final String CONTAINER_NAME = "myContainer";
+    private static final String FOLDER_NAME = "myFolder";
+    private static final String OBJECT_NAME = "myObject";
+    private static final String SIP_FOLDER = "SIP";
+    private static final String MANIFEST = "manifest.xml";
+
+    @Override
+    protected ContentAddressableStorage createWorkspace(WorkspaceConfiguration configuration) {
+        configuration.setProvider(ContentAddressableStorageFactory.FILESYSTEM_NIO);
+        final ContentAddressableStorage nioWorkspace = ContentAddressableStorageFactory.create(configuration);
+        assertTrue(nioWorkspace instanceof NioFileSystem);
+        return nioWorkspace;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenUnknownProviderWhenCreateThenRaiseAnException() {
+        ContentAddressableStorageFactory.create(new WorkspaceConfiguration().setProvider("unknown"));
+    }
+
+    @Test
+    public void givenContainerWhenCreateAndDeleteThenOk() throws Exception {
+        assertFalse(workspace.isExistingContainer(CONTAINER_NAME));
+        workspace.createContainer(CONTAINER_NAME);
+        assertTrue(workspace.isExistingContainer(CONTAINER_NAME));
+        workspace.deleteContainer(CONTAINER_NAME);
+        assertFalse(workspace.isExistingContainer(CONTAINER_NAME));
+    }
+
+    @Test
+    public void givenFolderWhenCreateAndDeleteThenOk() throws Exception {
+        workspace.createContainer(CONTAINER_NAME);
+        workspace.createFolder(CONTAINER_NAME, FOLDER_NAME);
+        assertTrue(workspace.isExistingFolder(CONTAINER_NAME, FOLDER_NAME));
+        workspace.deleteFolder(CONTAINER_NAME, FOLDER_NAME);
+        assertFalse(workspace.isExistingFolder(CONTAINER_NAME, FOLDER_NAME));
+    }
+
+    @Test
+    public void givenObjectWhenPutGetAndDeleteThenOk() throws Exception {
+        workspace.createContainer(CONTAINER_NAME);
+        final String objectName = FOLDER_NAME + "/" + OBJECT_NAME;
+        workspace.putObject(CONTAINER_NAME, objectName, getInputStream("file1.pdf"));
+        assertTrue(workspace.isExistingObject(CONTAINER_NAME, objectName));
+        assertTrue(workspace.isExistingFolder(CONTAINER_NAME, FOLDER_NAME));
+
+        final File file = PropertiesUtils.getResourceFile("file1.pdf");
+        try (InputStream stream = (InputStream) workspace.getObject(CONTAINER_NAME, objectName).getEntity()) {
+            assertEquals(file.length(), stream.available());
+        }
+        final JsonNode information = workspace.getObjectInformation(CONTAINER_NAME, objectName);
+        assertEquals(file.length(), information.get("size").asLong());
+        assertNotNull(information.get("last_modified"));
+        assertEquals(new Digest(DigestType.MD5).update(file).toString(),
+            workspace.computeObjectDigest(CONTAINER_NAME, objectName, DigestType.MD5));
+
+        workspace.deleteObject(CONTAINER_NAME, objectName);
+        assertFalse(workspace.isExistingObject(CONTAINER_NAME, objectName));
+    }
+
+    @Test(expected = ContentAddressableStorageNotFoundException.class)
+    public void givenObjectNotFoundWhenGetObjectThenRaiseAnException() throws Exception {
+        workspace.createContainer(CONTAINER_NAME);
+        workspace.getObject(CONTAINER_NAME, OBJECT_NAME);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenObjectNameOutOfContainerWhenPutObjectThenRaiseAnException() throws Exception {
+        workspace.createContainer(CONTAINER_NAME);
+        workspace.putObject(CONTAINER_NAME, "../" + OBJECT_NAME, getInputStream("file1.pdf"));
+    }
+    @Test
+    public void givenFolderWithObjectsWhenListUriThenReturnObjectsRecursively() throws Exception {
+        workspace.createContainer(CONTAINER_NAME);
+        workspace.putObject(CONTAINER_NAME, SIP_FOLDER + "/Content/file1.pdf", getInputStream("file1.pdf"));
+        workspace.putObject(CONTAINER_NAME, SIP_FOLDER + "/Content/file2.pdf", getInputStream("file2.pdf"));
+        workspace.putObject(CONTAINER_NAME, SIP_FOLDER + "/" + MANIFEST, getInputStream(MANIFEST));
+        assertThat(workspace.getListUriDigitalObjectFromFolder(CONTAINER_NAME, SIP_FOLDER + "/Content")).hasSize(2);
+        assertThat(workspace.getListUriDigitalObjectFromFolder(CONTAINER_NAME, SIP_FOLDER)).hasSize(3);
+        assertThat(workspace.getListUriDigitalObjectFromFolder(CONTAINER_NAME, FOLDER_NAME)).isEmpty();
+    }
+
+    @Test
+    public void givenTarGzSIPWhenUncompressObjectThenExtractOK() throws Exception {
+        workspace.createContainer(CONTAINER_NAME);
+        workspace.uncompressObject(CONTAINER_NAME, SIP_FOLDER, CommonMediaType.GZIP, getInputStream("sip.tar.gz"));
+        assertTrue(workspace.isExistingObject(CONTAINER_NAME, SIP_FOLDER + File.separator + MANIFEST));
+    }
+
+    @Test
+    public void givenContainerWhenGetContainerInformationThenOk() throws Exception {
+        workspace.createContainer(CONTAINER_NAME);
+        workspace.putObject(CONTAINER_NAME, OBJECT_NAME, getInputStream("file1.pdf"));
+        assertNotNull(workspace.getContainerInformation(CONTAINER_NAME));
+        assertEquals(PropertiesUtils.getResourceFile("file1.pdf").length(),
+            workspace.getContainerInformation(CONTAINER_NAME).getUsedSpace());
+    }
+
+    private InputStream getInputStream(String file) throws IOException {
+        return PropertiesUtils.getResourceAsStream(file);
+    }
+}
@@ -64,17 +64,18 @@ import fr.gouv.vitam.common.server.application.AsyncInputStreamHelper;
 import fr.gouv.vitam.common.server.application.resources.ApplicationStatusResource;
 import fr.gouv.vitam.common.stream.StreamUtils;
 import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
+import fr.gouv.vitam.workspace.api.ContentAddressableStorage;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageAlreadyExistException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageCompressedFileException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
 import fr.gouv.vitam.workspace.api.model.ContainerInformation;
 import fr.gouv.vitam.workspace.common.ErrorMessage;
 import fr.gouv.vitam.workspace.common.RequestResponseError;
 import fr.gouv.vitam.workspace.common.VitamError;
-import fr.gouv.vitam.workspace.core.ContentAddressableStorageAbstract;
+import fr.gouv.vitam.workspace.core.ContentAddressableStorageFactory;
 import fr.gouv.vitam.workspace.core.WorkspaceConfiguration;
-import fr.gouv.vitam.workspace.core.filesystem.FileSystem;
 
 
 /**
@@ -92,7 +93,7 @@ public class WorkspaceResource extends ApplicationStatusResource {
 
     private static final String CONTAINER_NAME = "containerName";
 
-    private final ContentAddressableStorageAbstract workspace;
+    private final ContentAddressableStorage workspace;
 
     /**
      * Constructor used to configure a workspace
@@ -100,9 +101,7 @@ public class WorkspaceResource extends ApplicationStatusResource {
      * @param configuration the storage config
      */
     public WorkspaceResource(WorkspaceConfiguration configuration) {
-        // FIXME P1 REVIEW this implements directly the Filesystem implementation while it should not! You should have a
-        // Factory/Helper to create the right one, ignoring here what is the chosen implementation.
-        workspace = new FileSystem(configuration);
+        workspace = ContentAddressableStorageFactory.create(configuration);
         LOGGER.info("init Workspace Resource server");
     }
 
@@ -128,6 +127,9 @@ public class WorkspaceResource extends ApplicationStatusResource {
         } catch (final ContentAddressableStorageAlreadyExistException e) {
             LOGGER.error(e);
             return Response.status(Status.CONFLICT).entity(containerName).build();
+        } catch (final ContentAddressableStorageServerException e) {
+            LOGGER.error(e);
+            return Response.status(Status.INTERNAL_SERVER_ERROR).entity(containerName).build();
         }
 
         return Response.status(Status.CREATED).entity(containerName).build();
@@ -156,6 +158,9 @@ public class WorkspaceResource extends ApplicationStatusResource {
         } catch (final InvalidParseOperationException | IllegalArgumentException e) {
             LOGGER.error(e);
             return Response.status(Status.BAD_REQUEST).entity(e.getMessage()).build();
+        } catch (final ContentAddressableStorageServerException e) {
+            LOGGER.error(e);
+            return Response.status(Status.INTERNAL_SERVER_ERROR).entity(containerName).build();
         }
 
         return Response.status(Status.NO_CONTENT).entity(containerName).build();
@@ -184,6 +189,9 @@ public class WorkspaceResource extends ApplicationStatusResource {
         } catch (final InvalidParseOperationException | IllegalArgumentException e) {
             LOGGER.error(e);
             return Response.status(Status.BAD_REQUEST).entity(e.getMessage()).build();
+        } catch (final ContentAddressableStorageServerException e) {
+            LOGGER.error(e);
+            return Response.status(Status.INTERNAL_SERVER_ERROR).entity(containerName).build();
         }
     }
 
@@ -209,6 +217,9 @@ public class WorkspaceResource extends ApplicationStatusResource {
         } catch (final ContentAddressableStorageNotFoundException exc) {
             LOGGER.error(exc);
             return Response.status(Status.NOT_FOUND).entity(containerName).build();
+        } catch (final ContentAddressableStorageServerException e) {
+            LOGGER.error(e);
+            return Response.status(Status.INTERNAL_SERVER_ERROR).entity(containerName).build();
         }
     }
 
@@ -238,6 +249,9 @@ public class WorkspaceResource extends ApplicationStatusResource {
         } catch (final ContentAddressableStorageNotFoundException e) {
             LOGGER.error(e);
             return Response.status(Status.NOT_FOUND).entity(containerName + "/" + folderName).build();
+        } catch (final ContentAddressableStorageServerException e) {
+            LOGGER.error(e);
+            return Response.status(Status.INTERNAL_SERVER_ERROR).entity(containerName).build();
         }
 
         return Response.status(Status.CREATED).entity(containerName + "/" + folderName).build();
@@ -267,6 +281,9 @@ public class WorkspaceResource extends ApplicationStatusResource {
         } catch (final ContentAddressableStorageNotFoundException e) {
             LOGGER.error(e);
             return Response.status(Status.NOT_FOUND).entity(containerName + "/" + folderName).build();
+        } catch (final ContentAddressableStorageServerException e) {
+            LOGGER.error(e);
+            return Response.status(Status.INTERNAL_SERVER_ERROR).entity(containerName).build();
         }
 
         return Response.status(Status.NO_CONTENT).entity(containerName + "/" + folderName).build();
@@ -298,6 +315,9 @@ public class WorkspaceResource extends ApplicationStatusResource {
         } catch (final InvalidParseOperationException | IllegalArgumentException e) {
             LOGGER.error(e);
             return Response.status(Status.BAD_REQUEST).entity(e.getMessage()).build();
+        } catch (final ContentAddressableStorageServerException e) {
+            LOGGER.error(e);
+            return Response.status(Status.INTERNAL_SERVER_ERROR).entity(containerName).build();
         }
     }
 
@@ -455,6 +475,9 @@ public class WorkspaceResource extends ApplicationStatusResource {
         } catch (final ContentAddressableStorageNotFoundException e) {
             LOGGER.error(e);
             return Response.status(Status.NOT_FOUND).entity(containerName).build();
+        } catch (final ContentAddressableStorageException e) {
+            LOGGER.error(e);
+            return Response.status(Status.INTERNAL_SERVER_ERROR).entity(containerName).build();
         }
 
         return Response.status(Status.NO_CONTENT).entity(containerName).build();
@@ -560,11 +583,15 @@ public class WorkspaceResource extends ApplicationStatusResource {
                 .header(GlobalDataRest.X_DIGEST_ALGORITHM, algo)
                 .header(GlobalDataRest.X_DIGEST, messageDigest).build();
         } else {
-            final boolean exists = workspace.isExistingObject(containerName, objectName);
-            if (exists) {
-                return Response.status(Status.OK).entity(containerName + "/" + objectName).build();
-            } else {
-                return Response.status(Status.NOT_FOUND).build();
+            try {
+                if (workspace.isExistingObject(containerName, objectName)) {
+                    return Response.status(Status.OK).entity(containerName + "/" + objectName).build();
+                } else {
+                    return Response.status(Status.NOT_FOUND).build();
+                }
+            } catch (final ContentAddressableStorageServerException e) {
+                LOGGER.error(e);
+                return Response.status(Status.INTERNAL_SERVER_ERROR).entity(containerName).build();
             }
         }
     }